@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Sig;
+
+import java.security.KeyPair;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures adding new ProtectedStorageEntries to a P2PDataStorage which holds already numStoredEntries entries.
+ * Adding is not repeatable as a second add of the same entry is rejected, so we use single shot batches and
+ * start each iteration with a fresh storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = AddProtectedStorageEntryBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = AddProtectedStorageEntryBenchmark.BATCH_SIZE)
+@Fork(1)
+public class AddProtectedStorageEntryBenchmark {
+    static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "10000"})
+    public int numStoredEntries;
+
+    private List<ProtectedStorageEntry> storedEntries;
+    private List<ProtectedStorageEntry> newEntries;
+    private P2PDataStorage storage;
+    private int nextIndex;
+
+    @Setup(Level.Trial)
+    public void createEntries() throws CryptoException {
+        P2PDataStorageFixture fixture = new P2PDataStorageFixture();
+        KeyPair ownerKeyPair = Sig.generateKeyPair();
+        storedEntries = fixture.createEntries(
+                SyntheticData.createAlerts(numStoredEntries, ownerKeyPair, "stored"), ownerKeyPair);
+        newEntries = fixture.createEntries(
+                SyntheticData.createAlerts(BATCH_SIZE, ownerKeyPair, "new"), ownerKeyPair);
+    }
+
+    @Setup(Level.Iteration)
+    public void createStorage() {
+        P2PDataStorageFixture fixture = new P2PDataStorageFixture();
+        fixture.addProtectedStorageEntries(storedEntries);
+        storage = fixture.storage;
+        nextIndex = 0;
+    }
+
+    @Benchmark
+    public boolean addProtectedStorageEntry() {
+        return storage.addProtectedStorageEntry(newEntries.get(nextIndex++), null, null);
+    }
+}
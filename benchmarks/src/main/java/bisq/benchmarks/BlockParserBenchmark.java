@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.core.dao.node.full.RawBlock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing a block with numTxsPerBlock BSQ transfer txs on top of a chain of numBlocks blocks. Parsing
+ * changes the DAO state, so each iteration parses a batch of new blocks which have been created upfront.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = BlockParserBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = BlockParserBenchmark.BATCH_SIZE)
+@Fork(1)
+public class BlockParserBenchmark {
+    static final int BATCH_SIZE = 100;
+    // Sum of warmup and measurement iterations, we create the blocks for all of them upfront
+    private static final int NUM_ITERATIONS = 15;
+
+    @Param({"1000", "10000"})
+    public int numBlocks;
+
+    @Param({"10", "100"})
+    public int numTxsPerBlock;
+
+    private SyntheticDaoChain chain;
+    private RawBlock[] blocksToParse;
+    private int nextIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int numBlocksToParse = NUM_ITERATIONS * BATCH_SIZE;
+        chain = new SyntheticDaoChain((numBlocks + numBlocksToParse) * numTxsPerBlock);
+        chain.appendBlocks(numBlocks, numTxsPerBlock);
+        blocksToParse = new RawBlock[numBlocksToParse];
+        for (int i = 0; i < numBlocksToParse; i++) {
+            blocksToParse[i] = chain.createNextBlock(numTxsPerBlock);
+        }
+    }
+
+    @Benchmark
+    public void parseBlock() {
+        chain.parseBlock(blocksToParse[nextIndex++]);
+    }
+}
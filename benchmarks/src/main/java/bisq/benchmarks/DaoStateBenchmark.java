@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.core.dao.state.model.DaoState;
+
+import bisq.common.crypto.Hash;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the operations on the full DAO state which are done at snapshots and at each new block: cloning,
+ * serializing and creating the hash for the DAO state monitor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DaoStateBenchmark {
+    @Param({"1000", "10000"})
+    public int numBlocks;
+
+    @Param({"10"})
+    public int numTxsPerBlock;
+
+    private DaoState daoState;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticDaoChain chain = new SyntheticDaoChain(numBlocks * numTxsPerBlock);
+        chain.appendBlocks(numBlocks, numTxsPerBlock);
+        daoState = chain.getDaoState();
+    }
+
+    @Benchmark
+    public DaoState getClone() {
+        return DaoState.getClone(daoState);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return daoState.toProtoMessage().toByteArray();
+    }
+
+    // Same as done in DaoStateMonitoringService at each new block
+    @Benchmark
+    public byte[] createStateHash() {
+        return Hash.getSha256Ripemd160hash(daoState.getSerializedStateForHashChain());
+    }
+}
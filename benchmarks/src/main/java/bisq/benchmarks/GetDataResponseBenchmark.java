@@ -0,0 +1,108 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.core.trade.statistics.TradeStatistics3;
+
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.app.Capabilities;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Sig;
+
+import java.security.KeyPair;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how a seed node builds the response to a GetDataRequest, with and without serializing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GetDataResponseBenchmark {
+    private static final int MAX_ENTRIES = 10000;
+
+    @Param({"1000", "10000"})
+    public int numProtectedStorageEntries;
+
+    @Param({"10000", "100000"})
+    public int numPersistableNetworkPayloads;
+
+    // Percentage of the stored data which the requesting peer has already
+    @Param({"0", "90"})
+    public int percentKnownByPeer;
+
+    private P2PDataStorage storage;
+    private PreliminaryGetDataRequest getDataRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws CryptoException {
+        P2PDataStorageFixture fixture = new P2PDataStorageFixture();
+        KeyPair ownerKeyPair = Sig.generateKeyPair();
+        List<ProtectedStorageEntry> entries = fixture.createEntries(
+                SyntheticData.createAlerts(numProtectedStorageEntries, ownerKeyPair, "stored"), ownerKeyPair);
+        List<TradeStatistics3> tradeStatistics = SyntheticData.createTradeStatistics3List(numPersistableNetworkPayloads);
+        fixture.addProtectedStorageEntries(entries);
+        fixture.addPersistableNetworkPayloads(tradeStatistics);
+        storage = fixture.storage;
+
+        Set<byte[]> excludedKeys = new HashSet<>();
+        entries.subList(0, entries.size() * percentKnownByPeer / 100).forEach(entry ->
+                excludedKeys.add(P2PDataStorage.get32ByteHash(entry.getProtectedStoragePayload())));
+        tradeStatistics.subList(0, tradeStatistics.size() * percentKnownByPeer / 100).forEach(payload ->
+                excludedKeys.add(payload.getHash()));
+        getDataRequest = new PreliminaryGetDataRequest(1, excludedKeys);
+    }
+
+    @Benchmark
+    public GetDataResponse buildGetDataResponse() {
+        return storage.buildGetDataResponse(getDataRequest,
+                MAX_ENTRIES,
+                new AtomicBoolean(),
+                new AtomicBoolean(),
+                Capabilities.app);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeGetDataResponse() {
+        return buildGetDataResponse().toProtoNetworkEnvelope().toByteArray();
+    }
+}
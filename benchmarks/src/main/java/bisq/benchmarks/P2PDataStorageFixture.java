@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.mocks.AppendOnlyDataStoreServiceFake;
+import bisq.network.p2p.storage.mocks.MapStoreServiceFake;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.RemovedPayloadsService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+
+import bisq.common.crypto.CryptoException;
+import bisq.common.persistence.PersistenceManager;
+
+import java.security.KeyPair;
+
+import java.time.Clock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Creates a P2PDataStorage backed by the in-memory stores of the p2p tests. The network related collaborators are
+ * stub only mocks which do not record their invocations, so they do not accumulate memory over millions of calls.
+ */
+final class P2PDataStorageFixture {
+    private final AppendOnlyDataStoreServiceFake appendOnlyDataStoreService = new AppendOnlyDataStoreServiceFake();
+    final P2PDataStorage storage;
+
+    P2PDataStorageFixture() {
+        ProtectedDataStoreService protectedDataStoreService = new ProtectedDataStoreService();
+        protectedDataStoreService.addService(new MapStoreServiceFake());
+        //noinspection unchecked
+        storage = new P2PDataStorage(stub(NetworkNode.class),
+                stub(Broadcaster.class),
+                appendOnlyDataStoreService,
+                protectedDataStoreService,
+                stub(ResourceDataStoreService.class),
+                stub(PersistenceManager.class),
+                stub(RemovedPayloadsService.class),
+                Clock.systemDefaultZone(),
+                1000);
+    }
+
+    List<ProtectedStorageEntry> createEntries(Collection<? extends ProtectedStoragePayload> payloads,
+                                              KeyPair ownerKeyPair) throws CryptoException {
+        List<ProtectedStorageEntry> entries = new ArrayList<>(payloads.size());
+        for (ProtectedStoragePayload payload : payloads) {
+            entries.add(storage.getProtectedStorageEntry(payload, ownerKeyPair));
+        }
+        return entries;
+    }
+
+    void addProtectedStorageEntries(Collection<ProtectedStorageEntry> entries) {
+        entries.forEach(entry -> checkArgument(storage.addProtectedStorageEntry(entry, null, null),
+                "Entry was not accepted by P2PDataStorage"));
+    }
+
+    void addPersistableNetworkPayloads(Collection<? extends PersistableNetworkPayload> payloads) {
+        payloads.forEach(payload ->
+                appendOnlyDataStoreService.put(new P2PDataStorage.ByteArray(payload.getHash()), payload));
+    }
+
+    private static <T> T stub(Class<T> classToMock) {
+        return mock(classToMock, withSettings().stubOnly());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+import bisq.core.proto.persistable.CorePersistenceProtoResolver;
+import bisq.core.trade.statistics.TradeStatistics3Store;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.file.FileUtil;
+import bisq.common.persistence.PersistenceManager;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.time.Clock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Measures serializing, writing and reading a large TradeStatistics3Store with the PersistenceManager. Writing is
+ * done synchronously on the benchmark thread instead of the write thread of the PersistenceManager, so we measure
+ * the full cost of a write including the rolling backup and the fsync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PersistenceManagerBenchmark {
+    @Param({"10000", "100000"})
+    public int numTradeStatistics;
+
+    private File storageDir;
+    private String fileName;
+    private TradeStatistics3Store store;
+    private PersistenceManager<TradeStatistics3Store> persistenceManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("bisq-benchmarks").toFile();
+        fileName = "TradeStatistics3Store_" + numTradeStatistics;
+        store = new TradeStatistics3Store();
+        SyntheticData.createTradeStatistics3List(numTradeStatistics).forEach(payload ->
+                store.getMap().put(new P2PDataStorage.ByteArray(payload.getHash()), payload));
+
+        CorePersistenceProtoResolver persistenceProtoResolver = new CorePersistenceProtoResolver(() -> null,
+                new CoreNetworkProtoResolver(Clock.systemDefaultZone()));
+        persistenceManager = new PersistenceManager<>(storageDir, persistenceProtoResolver,
+                new CorruptedStorageFileHandler());
+        persistenceManager.initialize(store, fileName, PersistenceManager.Source.NETWORK);
+
+        // We need a file for the read benchmark
+        persistenceManager.writeToDisk(serialize(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        PersistenceManager.ALL_PERSISTENCE_MANAGERS.remove(fileName);
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Benchmark
+    public protobuf.PersistableEnvelope serialize() {
+        return (protobuf.PersistableEnvelope) store.toPersistableMessage();
+    }
+
+    @Benchmark
+    public void serializeAndWrite() {
+        persistenceManager.writeToDisk(serialize(), null);
+    }
+
+    @Benchmark
+    public TradeStatistics3Store read() {
+        return checkNotNull(persistenceManager.getPersisted(fileName), "Reading the store failed");
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.core.dao.governance.period.PeriodService;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
+import bisq.core.dao.node.full.RawTxOutput;
+import bisq.core.dao.node.parser.BlockParser;
+import bisq.core.dao.node.parser.TxParser;
+import bisq.core.dao.node.parser.exceptions.BlockHashNotConnectingException;
+import bisq.core.dao.node.parser.exceptions.BlockHeightNotConnectingException;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.UnspentTxOutputFilter;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.util.coin.BsqFormatter;
+
+import bisq.common.crypto.Hash;
+import bisq.common.util.Utilities;
+
+import com.google.common.collect.ImmutableList;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Builds a synthetic BSQ block chain by feeding raw blocks to a BlockParser. The genesis tx has one output for each
+ * tx we will create later. Each later tx spends one of the genesis outputs and splits it into two BSQ outputs, so
+ * the DAO state grows in blocks, txs and unspent tx outputs like the real one.
+ */
+final class SyntheticDaoChain {
+    private static final int GENESIS_BLOCK_HEIGHT = 100;
+    private static final long GENESIS_OUTPUT_VALUE = 100_000;
+    private static final long BLOCK_TIME = 1_600_000_000;
+
+    @Getter
+    private final DaoState daoState;
+    @Getter
+    private final DaoStateService daoStateService;
+    private final BlockParser blockParser;
+    private final String genesisTxId;
+    private final int numGenesisOutputs;
+
+    private int numSpentGenesisOutputs;
+    private int chainHeight;
+    private String lastBlockHash;
+
+    SyntheticDaoChain(int numGenesisOutputs) {
+        this.numGenesisOutputs = numGenesisOutputs;
+        genesisTxId = hash("genesis");
+        daoState = new DaoState();
+        GenesisTxInfo genesisTxInfo = new GenesisTxInfo(genesisTxId,
+                GENESIS_BLOCK_HEIGHT,
+                numGenesisOutputs * GENESIS_OUTPUT_VALUE);
+        daoStateService = new DaoStateService(daoState, genesisTxInfo, new BsqFormatter(),
+                new UnspentTxOutputFilter());
+        blockParser = new BlockParser(new TxParser(new PeriodService(daoStateService), daoStateService),
+                daoStateService);
+
+        chainHeight = GENESIS_BLOCK_HEIGHT;
+        lastBlockHash = hash("block-" + chainHeight);
+        List<RawTxOutput> outputs = new ArrayList<>(numGenesisOutputs);
+        for (int i = 0; i < numGenesisOutputs; i++) {
+            outputs.add(new RawTxOutput(i, GENESIS_OUTPUT_VALUE, genesisTxId, null, null, null, chainHeight));
+        }
+        RawTx genesisTx = new RawTx(genesisTxId, chainHeight, lastBlockHash, BLOCK_TIME, ImmutableList.of(),
+                ImmutableList.copyOf(outputs));
+        parseBlock(toRawBlock(chainHeight, BLOCK_TIME, lastBlockHash, "", List.of(genesisTx)));
+    }
+
+    void appendBlocks(int numBlocks, int numTxsPerBlock) {
+        for (int i = 0; i < numBlocks; i++) {
+            parseBlock(createNextBlock(numTxsPerBlock));
+        }
+    }
+
+    /**
+     * @return The next block of the chain. It is not parsed, so it can be parsed by the caller.
+     */
+    RawBlock createNextBlock(int numTxs) {
+        checkArgument(numSpentGenesisOutputs + numTxs <= numGenesisOutputs, "Not enough genesis outputs left");
+        int height = chainHeight + 1;
+        String blockHash = hash("block-" + height);
+        long time = BLOCK_TIME + (height - GENESIS_BLOCK_HEIGHT) * 600;
+        List<RawTx> txs = new ArrayList<>(numTxs);
+        for (int i = 0; i < numTxs; i++) {
+            String txId = hash("tx-" + height + "-" + i);
+            TxInput input = new TxInput(genesisTxId, numSpentGenesisOutputs++, null);
+            long value = GENESIS_OUTPUT_VALUE / 2;
+            ImmutableList<RawTxOutput> outputs = ImmutableList.of(
+                    new RawTxOutput(0, value, txId, null, null, null, height),
+                    new RawTxOutput(1, GENESIS_OUTPUT_VALUE - value, txId, null, null, null, height));
+            txs.add(new RawTx(txId, height, blockHash, time, ImmutableList.of(input), outputs));
+        }
+        RawBlock rawBlock = toRawBlock(height, time, blockHash, lastBlockHash, txs);
+        chainHeight = height;
+        lastBlockHash = blockHash;
+        return rawBlock;
+    }
+
+    void parseBlock(RawBlock rawBlock) {
+        try {
+            blockParser.parseBlock(rawBlock);
+        } catch (BlockHashNotConnectingException | BlockHeightNotConnectingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // RawBlock has only a package private constructor, so we create it from its protobuf representation
+    private static RawBlock toRawBlock(int height,
+                                       long time,
+                                       String hash,
+                                       String previousBlockHash,
+                                       List<RawTx> txs) {
+        return RawBlock.fromProto(protobuf.BaseBlock.newBuilder()
+                .setHeight(height)
+                .setTime(time)
+                .setHash(hash)
+                .setPreviousBlockHash(previousBlockHash)
+                .setRawBlock(protobuf.RawBlock.newBuilder()
+                        .addAllRawTxs(txs.stream().map(RawTx::toProtoMessage).collect(Collectors.toList())))
+                .build());
+    }
+
+    private static String hash(String seed) {
+        return Utilities.encodeToHex(Hash.getSha256Hash(seed.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.core.alert.Alert;
+import bisq.core.offer.OfferPayload;
+import bisq.core.trade.statistics.TradeStatistics2;
+import bisq.core.trade.statistics.TradeStatistics3;
+
+import bisq.common.app.Version;
+
+import java.security.KeyPair;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates synthetic but realistically shaped data sets for the benchmarks. We use a fixed seed so that runs with the
+ * same size parameters work on identical data.
+ */
+public final class SyntheticData {
+    public static final long SEED = 42;
+
+    private static final String[] CURRENCIES = {"EUR", "USD", "BSQ", "XMR", "GBP", "BRL", "CAD", "ETH", "AUD", "CHF"};
+    private static final String[] PAYMENT_METHODS = {"SEPA", "SEPA_INSTANT", "ZELLE", "BLOCK_CHAINS",
+            "BLOCK_CHAINS_INSTANT", "F2F", "NATIONAL_BANK", "REVOLUT"};
+    private static final String[] DISPUTE_AGENTS = {"qfn5bbfy7h2znw4t.onion:9999", "dzfb5bhgmgtmtdkw.onion:9999",
+            "6c4cim7h7t3bm4bnchbf727qrhdfrfr6lhod25wjtizm2sifpkktvwad.onion:9999"};
+    private static final long START_DATE = 1_500_000_000_000L;
+    private static final long MAX_DATE_OFFSET = TimeUnit.DAYS.toMillis(4 * 365);
+
+    private SyntheticData() {
+    }
+
+    public static List<TradeStatistics3> createTradeStatistics3List(int size) {
+        Random random = new Random(SEED);
+        List<TradeStatistics3> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new TradeStatistics3(pick(random, CURRENCIES),
+                    1 + random.nextInt(100_000_000),
+                    10_000 + random.nextInt(100_000_000),
+                    pick(random, PAYMENT_METHODS),
+                    START_DATE + (long) (random.nextDouble() * MAX_DATE_OFFSET),
+                    pick(random, DISPUTE_AGENTS),
+                    pick(random, DISPUTE_AGENTS),
+                    (Map<String, String>) null));
+        }
+        return list;
+    }
+
+    public static List<TradeStatistics2> createTradeStatistics2List(int size) {
+        Random random = new Random(SEED);
+        List<TradeStatistics2> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long offerDate = START_DATE + (long) (random.nextDouble() * MAX_DATE_OFFSET);
+            long offerAmount = 10_000 + random.nextInt(100_000_000);
+            Map<String, String> extraDataMap = new HashMap<>();
+            extraDataMap.put(TradeStatistics2.MEDIATOR_ADDRESS, pick(random, DISPUTE_AGENTS));
+            extraDataMap.put(TradeStatistics2.REFUND_AGENT_ADDRESS, pick(random, DISPUTE_AGENTS));
+            list.add(new TradeStatistics2(random.nextBoolean() ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL,
+                    "BTC",
+                    pick(random, CURRENCIES),
+                    pick(random, PAYMENT_METHODS),
+                    offerDate,
+                    random.nextBoolean(),
+                    random.nextDouble() / 10,
+                    offerAmount,
+                    offerAmount / 2,
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    1 + random.nextInt(100_000_000),
+                    offerAmount,
+                    offerDate + random.nextInt((int) TimeUnit.DAYS.toMillis(1)),
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    null,
+                    extraDataMap));
+        }
+        return list;
+    }
+
+    /**
+     * Alerts are simple ProtectedStoragePayloads which can be created without any further dependencies. As the
+     * payload signature is not checked by P2PDataStorage we do not need to sign each payload.
+     */
+    public static List<Alert> createAlerts(int size, KeyPair ownerKeyPair, String prefix) {
+        List<Alert> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Alert alert = new Alert(prefix + " alert " + i, false, Version.VERSION);
+            alert.setSigAndPubKey("signature", ownerKeyPair.getPublic());
+            list.add(alert);
+        }
+        return list;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
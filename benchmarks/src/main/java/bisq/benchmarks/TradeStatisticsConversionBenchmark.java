@@ -0,0 +1,85 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks;
+
+import bisq.core.trade.statistics.TradeStatistics3;
+import bisq.core.trade.statistics.TradeStatisticsConverter;
+
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion of the legacy TradeStatistics2 objects to TradeStatistics3 and the protobuf conversion of
+ * TradeStatistics3 objects as done when the trade statistics are read from disk or received from the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TradeStatisticsConversionBenchmark {
+    @Param({"10000", "100000"})
+    public int numTradeStatistics;
+
+    private List<PersistableNetworkPayload> tradeStatistics2List;
+    private List<TradeStatistics3> tradeStatistics3List;
+    private List<protobuf.TradeStatistics3> protoList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tradeStatistics2List = new ArrayList<>(SyntheticData.createTradeStatistics2List(numTradeStatistics));
+        tradeStatistics3List = SyntheticData.createTradeStatistics3List(numTradeStatistics);
+        protoList = toProto();
+    }
+
+    @Benchmark
+    public List<TradeStatistics3> convertToTradeStatistics3() {
+        return TradeStatisticsConverter.convertToTradeStatistics3(tradeStatistics2List);
+    }
+
+    @Benchmark
+    public List<protobuf.TradeStatistics3> toProto() {
+        return tradeStatistics3List.stream()
+                .map(TradeStatistics3::toProtoTradeStatistics3)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<TradeStatistics3> fromProto() {
+        return protoList.stream()
+                .map(TradeStatistics3::fromProto)
+                .collect(Collectors.toList());
+    }
+}
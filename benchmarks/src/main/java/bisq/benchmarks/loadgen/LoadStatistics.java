@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the outcome of all sent messages by traffic type and keeps their latencies for computing percentiles.
+ * Thread safe, the counters get updated from the network threads.
+ */
+public class LoadStatistics {
+
+    static class TypeStatistics {
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong timedOut = new AtomicLong();
+        // Refresh or remove without any offer of that peer
+        final AtomicLong skipped = new AtomicLong();
+        private final LatencyList latencies = new LatencyList();
+
+        long getLatencyPercentileMicros(double percentile) {
+            return latencies.getPercentile(percentile);
+        }
+    }
+
+    // Growable array of latencies in microseconds, so we do not box millions of values
+    private static class LatencyList {
+        private long[] values = new long[1024];
+        private int size;
+        private long[] sorted;
+
+        synchronized void add(long value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+            sorted = null;
+        }
+
+        synchronized long getPercentile(double percentile) {
+            if (size == 0)
+                return 0;
+
+            if (sorted == null) {
+                sorted = Arrays.copyOf(values, size);
+                Arrays.sort(sorted);
+            }
+            int index = (int) Math.ceil(percentile / 100 * size) - 1;
+            return sorted[Math.max(0, Math.min(index, size - 1))];
+        }
+    }
+
+    private final Map<TrafficType, TypeStatistics> statisticsByType = new EnumMap<>(TrafficType.class);
+    private final LatencyList scheduleLags = new LatencyList();
+
+    public LoadStatistics() {
+        for (TrafficType type : TrafficType.values()) {
+            statisticsByType.put(type, new TypeStatistics());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void onSent(TrafficType type) {
+        get(type).sent.incrementAndGet();
+    }
+
+    void onCompleted(TrafficType type, long durationNanos) {
+        TypeStatistics statistics = get(type);
+        statistics.completed.incrementAndGet();
+        statistics.latencies.add(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+    void onFailed(TrafficType type) {
+        get(type).failed.incrementAndGet();
+    }
+
+    void onTimedOut(TrafficType type) {
+        get(type).timedOut.incrementAndGet();
+    }
+
+    void onSkipped(TrafficType type) {
+        get(type).skipped.incrementAndGet();
+    }
+
+    // How late an event got dispatched compared to its scheduled time. If that gets large the load generator itself
+    // is the bottleneck.
+    void onScheduleLag(long lagNanos) {
+        scheduleLags.add(TimeUnit.NANOSECONDS.toMicros(lagNanos));
+    }
+
+    TypeStatistics get(TrafficType type) {
+        return statisticsByType.get(type);
+    }
+
+    long getScheduleLagPercentileMicros(double percentile) {
+        return scheduleLags.getPercentile(percentile);
+    }
+}
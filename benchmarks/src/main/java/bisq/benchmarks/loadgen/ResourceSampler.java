@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import bisq.common.util.Utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import java.lang.management.ManagementFactory;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Samples memory and thread count of the load generator and, if its pid is known, of the local seed node process.
+ * The seed node values are read from /proc/[pid]/status, so they are only available on Linux.
+ */
+@Slf4j
+class ResourceSampler {
+    private static final long SAMPLE_INTERVAL_MS = 1000;
+
+    private final long seedNodePid;
+    private final ScheduledExecutorService executor;
+
+    @Getter
+    private volatile long maxUsedHeapBytes;
+    @Getter
+    private volatile int maxThreadCount;
+    @Getter
+    private volatile long maxSeedNodeRssBytes = -1;
+    @Getter
+    private volatile int maxSeedNodeThreadCount = -1;
+    @Getter
+    private volatile long lastSeedNodeRssBytes = -1;
+    @Getter
+    private volatile int lastSeedNodeThreadCount = -1;
+
+    /**
+     * @param seedNodePid Pid of the local seed node or -1 if we should not sample it
+     */
+    ResourceSampler(long seedNodePid) {
+        this.seedNodePid = seedNodePid;
+        executor = Utilities.getScheduledThreadPoolExecutor("ResourceSampler", 1, 1, 5);
+    }
+
+    void start() {
+        executor.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        executor.shutdownNow();
+        sample();
+    }
+
+    boolean hasSeedNodeValues() {
+        return maxSeedNodeRssBytes >= 0;
+    }
+
+    private void sample() {
+        Runtime runtime = Runtime.getRuntime();
+        maxUsedHeapBytes = Math.max(maxUsedHeapBytes, runtime.totalMemory() - runtime.freeMemory());
+        maxThreadCount = Math.max(maxThreadCount, ManagementFactory.getThreadMXBean().getThreadCount());
+
+        if (seedNodePid < 0)
+            return;
+
+        File statusFile = new File("/proc/" + seedNodePid + "/status");
+        try {
+            List<String> lines = Files.readAllLines(statusFile.toPath(), StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    // Value is in kB
+                    lastSeedNodeRssBytes = Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                    maxSeedNodeRssBytes = Math.max(maxSeedNodeRssBytes, lastSeedNodeRssBytes);
+                } else if (line.startsWith("Threads:")) {
+                    lastSeedNodeThreadCount = Integer.parseInt(line.replaceAll("[^0-9]", ""));
+                    maxSeedNodeThreadCount = Math.max(maxSeedNodeThreadCount, lastSeedNodeThreadCount);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Could not read {}. Seed node resources are not sampled. {}", statusFile, e.toString());
+        }
+    }
+}
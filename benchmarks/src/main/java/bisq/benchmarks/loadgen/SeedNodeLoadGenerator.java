@@ -0,0 +1,221 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import bisq.network.p2p.NodeAddress;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays a traffic schedule with a set of synthetic peers against a seed node and reports throughput, latency
+ * percentiles and resource usage.
+ *
+ * Each peer executes its events in order on a shared worker pool, so signing and serializing happens in parallel
+ * for different peers. The delay between the scheduled and the actual dispatch of the events is reported as well,
+ * as a large delay means the load generator could not produce the requested load.
+ */
+@Slf4j
+public class SeedNodeLoadGenerator {
+    private static final long STARTUP_TIMEOUT_SEC = 60;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final NodeAddress seedNodeAddress;
+    private final int basePort;
+    private final int daoFromBlockHeight;
+    private final long randomSeed;
+    private final long drainTimeoutMs;
+    private final long seedNodePid;
+
+    private final LoadStatistics statistics = new LoadStatistics();
+    private final List<SyntheticPeer> peers = new ArrayList<>();
+    private final ExecutorService workerPool;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param seedNodeAddress     Address of the seed node under test
+     * @param basePort            Port of the first peer, the other peers use the following ports
+     * @param daoFromBlockHeight  Block height used in the GetBlocksRequests
+     * @param randomSeed          Seed for the content of the messages
+     * @param drainTimeoutMs      Max. time we wait for outstanding responses after the last event
+     * @param seedNodePid         Pid of the local seed node process or -1 if it should not be sampled
+     */
+    public SeedNodeLoadGenerator(NodeAddress seedNodeAddress,
+                                 int basePort,
+                                 int daoFromBlockHeight,
+                                 long randomSeed,
+                                 long drainTimeoutMs,
+                                 long seedNodePid) {
+        this.seedNodeAddress = seedNodeAddress;
+        this.basePort = basePort;
+        this.daoFromBlockHeight = daoFromBlockHeight;
+        this.randomSeed = randomSeed;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.seedNodePid = seedNodePid;
+        workerPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setNameFormat("LoadGenerator-worker-%d").setDaemon(true).build());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Blocks until the schedule has been replayed and all peers are shut down.
+     *
+     * @return The report
+     */
+    public String run(TrafficSchedule schedule) throws InterruptedException {
+        int numPeers = schedule.getNumPeers();
+        startPeers(numPeers);
+
+        List<Executor> peerExecutors = new ArrayList<>(numPeers);
+        peers.forEach(peer -> peerExecutors.add(MoreExecutors.newSequentialExecutor(workerPool)));
+
+        ResourceSampler resourceSampler = new ResourceSampler(seedNodePid);
+        resourceSampler.start();
+
+        log.info("Start replaying {} events with {} peers against {}",
+                schedule.getEvents().size(), numPeers, seedNodeAddress);
+        long startNanos = System.nanoTime();
+        for (TrafficEvent event : schedule.getEvents()) {
+            long scheduledNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(event.getOffsetMillis());
+            long delayNanos = scheduledNanos - System.nanoTime();
+            if (delayNanos > 0)
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+
+            SyntheticPeer peer = peers.get(event.getPeerIndex());
+            peerExecutors.get(event.getPeerIndex()).execute(() -> {
+                statistics.onScheduleLag(Math.max(0, System.nanoTime() - scheduledNanos));
+                peer.execute(event.getType());
+            });
+        }
+        long replayDurationNanos = System.nanoTime() - startNanos;
+        log.info("Replaying completed after {} ms. We wait for outstanding responses.",
+                TimeUnit.NANOSECONDS.toMillis(replayDurationNanos));
+
+        awaitResponses();
+        long durationNanos = System.nanoTime() - startNanos;
+        resourceSampler.stop();
+        peers.forEach(SyntheticPeer::timeOutPendingRequests);
+
+        String report = getReport(numPeers, schedule.getEvents().size(), durationNanos, resourceSampler);
+        shutDownPeers();
+        workerPool.shutdownNow();
+        return report;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void startPeers(int numPeers) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(numPeers);
+        for (int i = 0; i < numPeers; i++) {
+            SyntheticPeer peer = new SyntheticPeer(i,
+                    basePort + i,
+                    seedNodeAddress,
+                    statistics,
+                    daoFromBlockHeight,
+                    randomSeed);
+            peers.add(peer);
+            peer.start(latch::countDown);
+        }
+        if (!latch.await(STARTUP_TIMEOUT_SEC, TimeUnit.SECONDS))
+            throw new IllegalStateException("Peers did not start up within " + STARTUP_TIMEOUT_SEC + " sec.");
+        log.info("{} peers started", numPeers);
+    }
+
+    private void awaitResponses() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        while (System.currentTimeMillis() < deadline &&
+                peers.stream().anyMatch(peer -> peer.getNumPendingRequests() > 0)) {
+            Thread.sleep(100);
+        }
+    }
+
+    private void shutDownPeers() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(peers.size());
+        peers.forEach(peer -> peer.shutDown(latch::countDown));
+        if (!latch.await(STARTUP_TIMEOUT_SEC, TimeUnit.SECONDS))
+            log.warn("Not all peers did shut down within {} sec.", STARTUP_TIMEOUT_SEC);
+    }
+
+    private String getReport(int numPeers, int numEvents, long durationNanos, ResourceSampler resourceSampler) {
+        double durationSec = durationNanos / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%nLoad test against %s with %d peers, %d events in %.1f sec%n%n",
+                seedNodeAddress, numPeers, numEvents, durationSec));
+        sb.append(String.format(Locale.US, "%-14s %9s %9s %7s %8s %8s %10s %10s %10s %10s %10s%n",
+                "Type", "Sent", "Completed", "Failed", "TimedOut", "Skipped", "Msg/sec",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms"));
+        for (TrafficType type : TrafficType.values()) {
+            LoadStatistics.TypeStatistics typeStatistics = statistics.get(type);
+            if (typeStatistics.sent.get() == 0 && typeStatistics.skipped.get() == 0)
+                continue;
+
+            sb.append(String.format(Locale.US, "%-14s %9d %9d %7d %8d %8d %10.1f",
+                    type,
+                    typeStatistics.sent.get(),
+                    typeStatistics.completed.get(),
+                    typeStatistics.failed.get(),
+                    typeStatistics.timedOut.get(),
+                    typeStatistics.skipped.get(),
+                    typeStatistics.completed.get() / durationSec));
+            for (double percentile : PERCENTILES) {
+                sb.append(String.format(Locale.US, " %10.2f",
+                        typeStatistics.getLatencyPercentileMicros(percentile) / 1000d));
+            }
+            sb.append(System.lineSeparator());
+        }
+
+        sb.append(String.format(Locale.US, "%nSchedule lag: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                statistics.getScheduleLagPercentileMicros(50) / 1000d,
+                statistics.getScheduleLagPercentileMicros(99) / 1000d,
+                statistics.getScheduleLagPercentileMicros(100) / 1000d));
+        sb.append(String.format(Locale.US, "Load generator: max. heap used %d MB, max. threads %d%n",
+                resourceSampler.getMaxUsedHeapBytes() / 1024 / 1024,
+                resourceSampler.getMaxThreadCount()));
+        if (resourceSampler.hasSeedNodeValues()) {
+            sb.append(String.format(Locale.US, "Seed node (pid %d): RSS max. %d MB, at end %d MB; " +
+                            "threads max. %d, at end %d%n",
+                    seedNodePid,
+                    resourceSampler.getMaxSeedNodeRssBytes() / 1024 / 1024,
+                    resourceSampler.getLastSeedNodeRssBytes() / 1024 / 1024,
+                    resourceSampler.getMaxSeedNodeThreadCount(),
+                    resourceSampler.getLastSeedNodeThreadCount()));
+        }
+        return sb.toString();
+    }
+}
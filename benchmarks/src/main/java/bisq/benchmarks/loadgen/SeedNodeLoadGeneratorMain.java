@@ -0,0 +1,154 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+
+import bisq.common.UserThread;
+import bisq.common.app.Version;
+import bisq.common.config.BaseCurrencyNetwork;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Headless load generator for seed nodes. Start a local seed node, e.g. with
+ *
+ *      ./bisq-seednode --baseCurrencyNetwork=BTC_REGTEST --useLocalhostForP2P=true --nodePort=2002 --appName=seed_2002
+ *
+ * and run
+ *
+ *      ./gradlew :benchmarks:loadgen -PloadgenArgs="--numPeers=50 --durationSec=120 --seedNodePid=<pid of seed node>"
+ *
+ * Use --recordSchedule to keep the generated traffic and --replaySchedule to run exactly the same traffic against
+ * another version of the seed node.
+ */
+@Slf4j
+public class SeedNodeLoadGeneratorMain {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        OptionParser parser = new OptionParser();
+        OptionSpec<Void> helpOpt = parser.accepts("help", "Print this help text").forHelp();
+        OptionSpec<String> seedNodeOpt = parser.accepts("seedNode", "Address of the seed node under test")
+                .withRequiredArg().defaultsTo("localhost:2002");
+        OptionSpec<BaseCurrencyNetwork> networkOpt = parser.accepts("baseCurrencyNetwork",
+                "Base currency network of the seed node")
+                .withRequiredArg().ofType(BaseCurrencyNetwork.class).defaultsTo(BaseCurrencyNetwork.BTC_REGTEST);
+        OptionSpec<Integer> numPeersOpt = parser.accepts("numPeers", "Number of synthetic peers")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(10);
+        OptionSpec<Integer> basePortOpt = parser.accepts("basePort", "Port of the first synthetic peer")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(5000);
+        OptionSpec<Integer> durationOpt = parser.accepts("durationSec", "Duration of a generated schedule")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(60);
+        OptionSpec<Long> seedOpt = parser.accepts("randomSeed", "Seed for generating the traffic")
+                .withRequiredArg().ofType(Long.class).defaultsTo(42L);
+        Map<TrafficType, OptionSpec<Double>> rateOpts = new EnumMap<>(TrafficType.class);
+        rateOpts.put(TrafficType.GET_DATA, rateOption(parser, "getDataPerSec", 1));
+        rateOpts.put(TrafficType.GET_BLOCKS, rateOption(parser, "getBlocksPerSec", 1));
+        rateOpts.put(TrafficType.ADD_OFFER, rateOption(parser, "addOfferPerSec", 5));
+        rateOpts.put(TrafficType.REFRESH_OFFER, rateOption(parser, "refreshOfferPerSec", 5));
+        rateOpts.put(TrafficType.REMOVE_OFFER, rateOption(parser, "removeOfferPerSec", 2));
+        rateOpts.put(TrafficType.MAILBOX, rateOption(parser, "mailboxPerSec", 5));
+        OptionSpec<Integer> daoFromBlockHeightOpt = parser.accepts("daoFromBlockHeight",
+                "Block height used in the GetBlocksRequests")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(0);
+        OptionSpec<Integer> drainTimeoutOpt = parser.accepts("drainTimeoutSec",
+                "Max. time to wait for outstanding responses after the last event")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(30);
+        OptionSpec<Long> seedNodePidOpt = parser.accepts("seedNodePid",
+                "Pid of the local seed node for sampling its memory and threads (Linux only)")
+                .withRequiredArg().ofType(Long.class).defaultsTo(-1L);
+        OptionSpec<File> recordOpt = parser.accepts("recordSchedule", "Write the generated schedule to that file")
+                .withRequiredArg().ofType(File.class);
+        OptionSpec<File> replayOpt = parser.accepts("replaySchedule", "Replay the schedule from that file")
+                .withRequiredArg().ofType(File.class);
+
+        OptionSet options;
+        try {
+            options = parser.parse(args);
+        } catch (OptionException e) {
+            System.err.println(e.getMessage());
+            parser.printHelpOn(System.err);
+            System.exit(1);
+            return;
+        }
+        if (options.has(helpOpt)) {
+            parser.printHelpOn(System.out);
+            return;
+        }
+
+        TrafficSchedule schedule;
+        if (options.has(replayOpt)) {
+            schedule = TrafficSchedule.read(options.valueOf(replayOpt));
+        } else {
+            Map<TrafficType, Double> ratesPerSec = new EnumMap<>(TrafficType.class);
+            rateOpts.forEach((type, opt) -> ratesPerSec.put(type, options.valueOf(opt)));
+            schedule = TrafficSchedule.generate(options.valueOf(seedOpt),
+                    options.valueOf(numPeersOpt),
+                    TimeUnit.SECONDS.toMillis(options.valueOf(durationOpt)),
+                    ratesPerSec);
+        }
+        if (options.has(recordOpt))
+            schedule.write(options.valueOf(recordOpt));
+
+        setup(options.valueOf(networkOpt));
+
+        SeedNodeLoadGenerator loadGenerator = new SeedNodeLoadGenerator(
+                new NodeAddress(options.valueOf(seedNodeOpt)),
+                options.valueOf(basePortOpt),
+                options.valueOf(daoFromBlockHeightOpt),
+                options.valueOf(seedOpt),
+                TimeUnit.SECONDS.toMillis(options.valueOf(drainTimeoutOpt)),
+                options.valueOf(seedNodePidOpt));
+        String report = loadGenerator.run(schedule);
+        System.out.println(report);
+        System.exit(0);
+    }
+
+    private static void setup(BaseCurrencyNetwork network) {
+        Version.setBaseCryptoNetworkId(network.ordinal());
+
+        UserThread.setExecutor(Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(SeedNodeLoadGeneratorMain.class.getSimpleName())
+                .setDaemon(true)
+                .build()));
+
+        // The synthetic peers should be available without the simulated Tor delays
+        LocalhostNetworkNode.setSimulateTorDelayTorNode(0);
+        LocalhostNetworkNode.setSimulateTorDelayHiddenService(0);
+    }
+
+    private static OptionSpec<Double> rateOption(OptionParser parser, String name, double defaultValue) {
+        return parser.accepts(name, "Rate of that traffic type in messages per second, 0 to disable")
+                .withRequiredArg().ofType(Double.class).defaultsTo(defaultValue);
+    }
+}
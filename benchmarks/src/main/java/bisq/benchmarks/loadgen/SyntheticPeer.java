@@ -0,0 +1,396 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import bisq.core.dao.node.messages.GetBlocksRequest;
+import bisq.core.dao.node.messages.GetBlocksResponse;
+import bisq.core.offer.OfferPayload;
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.network.MessageListener;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.network.SetupListener;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.messages.AddDataMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RemoveDataMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import bisq.common.app.Version;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+import bisq.common.proto.network.NetworkEnvelope;
+import bisq.common.util.Utilities;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.security.KeyPair;
+
+import java.time.Clock;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+
+/**
+ * A peer with its own LocalhostNetworkNode which sends the traffic of the schedule to the seed node. The content of
+ * the messages is generated from the seeded random, so only the key pairs differ between runs.
+ *
+ * execute must not be called concurrently for the same peer, the responses are handled on the network threads.
+ */
+@Slf4j
+class SyntheticPeer implements MessageListener {
+    private static final String[] CURRENCIES = {"EUR", "USD", "GBP", "BRL", "CAD", "AUD", "CHF"};
+    private static final String[] PAYMENT_METHODS = {"SEPA", "SEPA_INSTANT", "ZELLE", "F2F", "NATIONAL_BANK"};
+
+    @Value
+    private static class PendingRequest {
+        TrafficType type;
+        long startNanos;
+    }
+
+    private static class LiveOffer {
+        final OfferPayload payload;
+        int sequenceNumber = 1;
+
+        LiveOffer(OfferPayload payload) {
+            this.payload = payload;
+        }
+    }
+
+    @Getter
+    private final int index;
+    private final NetworkNode networkNode;
+    private final NodeAddress seedNodeAddress;
+    private final LoadStatistics statistics;
+    private final int daoFromBlockHeight;
+    private final Random random;
+    private final Clock clock = Clock.systemDefaultZone();
+    private final KeyPair signatureKeyPair;
+    private final PubKeyRing pubKeyRing;
+    // Receiver of our mailbox messages. Only its key is needed as the seed node does not check the content.
+    private final KeyPair mailboxReceiverKeyPair;
+
+    private final Deque<LiveOffer> liveOffers = new ArrayDeque<>();
+    private final Map<Integer, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    SyntheticPeer(int index,
+                  int port,
+                  NodeAddress seedNodeAddress,
+                  LoadStatistics statistics,
+                  int daoFromBlockHeight,
+                  long randomSeed) {
+        this.index = index;
+        this.seedNodeAddress = seedNodeAddress;
+        this.statistics = statistics;
+        this.daoFromBlockHeight = daoFromBlockHeight;
+        random = new Random(randomSeed + index);
+        signatureKeyPair = Sig.generateKeyPair();
+        pubKeyRing = new PubKeyRing(signatureKeyPair.getPublic(), Encryption.generateKeyPair().getPublic());
+        mailboxReceiverKeyPair = Sig.generateKeyPair();
+        networkNode = new LocalhostNetworkNode(port, new CoreNetworkProtoResolver(clock), null);
+        networkNode.addMessageListener(this);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Lifecycle
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start(Runnable readyHandler) {
+        networkNode.start(new SetupListener() {
+            @Override
+            public void onTorNodeReady() {
+            }
+
+            @Override
+            public void onHiddenServicePublished() {
+                readyHandler.run();
+            }
+
+            @Override
+            public void onSetupFailed(Throwable throwable) {
+                log.error("Setup of peer {} failed. {}", index, throwable.toString());
+            }
+        });
+    }
+
+    void shutDown(Runnable completeHandler) {
+        networkNode.removeMessageListener(this);
+        networkNode.shutDown(completeHandler);
+    }
+
+    /**
+     * Counts all requests which did not get a response as timed out.
+     */
+    void timeOutPendingRequests() {
+        pendingRequests.values().forEach(request -> statistics.onTimedOut(request.getType()));
+        pendingRequests.clear();
+    }
+
+    int getNumPendingRequests() {
+        return pendingRequests.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void execute(TrafficType type) {
+        try {
+            switch (type) {
+                case GET_DATA:
+                    sendRequest(type, nonce -> new PreliminaryGetDataRequest(nonce, new HashSet<>()));
+                    break;
+                case GET_BLOCKS:
+                    sendRequest(type, nonce -> new GetBlocksRequest(daoFromBlockHeight, nonce,
+                            networkNode.getNodeAddress()));
+                    break;
+                case ADD_OFFER:
+                    addOffer();
+                    break;
+                case REFRESH_OFFER:
+                    refreshOffer();
+                    break;
+                case REMOVE_OFFER:
+                    removeOffer();
+                    break;
+                case MAILBOX:
+                    sendMailboxMessage();
+                    break;
+            }
+        } catch (CryptoException e) {
+            log.error("Creating {} failed. {}", type, e.toString());
+            statistics.onFailed(type);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MessageListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        if (networkEnvelope instanceof GetDataResponse) {
+            onResponse(((GetDataResponse) networkEnvelope).getRequestNonce());
+        } else if (networkEnvelope instanceof GetBlocksResponse) {
+            onResponse(((GetBlocksResponse) networkEnvelope).getRequestNonce());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void sendRequest(TrafficType type, IntFunction<NetworkEnvelope> requestFactory) {
+        int nonce = random.nextInt();
+        long startNanos = System.nanoTime();
+        pendingRequests.put(nonce, new PendingRequest(type, startNanos));
+        send(requestFactory.apply(nonce), type, startNanos, nonce);
+    }
+
+    private void onResponse(int nonce) {
+        PendingRequest request = pendingRequests.remove(nonce);
+        if (request != null)
+            statistics.onCompleted(request.getType(), System.nanoTime() - request.getStartNanos());
+    }
+
+    private void addOffer() throws CryptoException {
+        LiveOffer offer = new LiveOffer(createOfferPayload());
+        liveOffers.addLast(offer);
+        send(new AddDataMessage(createProtectedStorageEntry(offer.payload, offer.sequenceNumber)),
+                TrafficType.ADD_OFFER, System.nanoTime(), null);
+    }
+
+    private void refreshOffer() throws CryptoException {
+        LiveOffer offer = liveOffers.pollFirst();
+        if (offer == null) {
+            statistics.onSkipped(TrafficType.REFRESH_OFFER);
+            return;
+        }
+
+        // Refreshed offers move to the end, so we refresh and remove the least recently refreshed offer next
+        liveOffers.addLast(offer);
+        offer.sequenceNumber++;
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
+                new P2PDataStorage.DataAndSeqNrPair(offer.payload, offer.sequenceNumber));
+        byte[] signature = Sig.sign(signatureKeyPair.getPrivate(), hashOfDataAndSeqNr);
+        send(new RefreshOfferMessage(hashOfDataAndSeqNr,
+                        signature,
+                        P2PDataStorage.get32ByteHash(offer.payload),
+                        offer.sequenceNumber),
+                TrafficType.REFRESH_OFFER, System.nanoTime(), null);
+    }
+
+    private void removeOffer() throws CryptoException {
+        LiveOffer offer = liveOffers.pollFirst();
+        if (offer == null) {
+            statistics.onSkipped(TrafficType.REMOVE_OFFER);
+            return;
+        }
+
+        offer.sequenceNumber++;
+        send(new RemoveDataMessage(createProtectedStorageEntry(offer.payload, offer.sequenceNumber)),
+                TrafficType.REMOVE_OFFER, System.nanoTime(), null);
+    }
+
+    private void sendMailboxMessage() throws CryptoException {
+        // The seed node cannot decrypt the message, so random content of a realistic size is sufficient
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(randomBytes(256),
+                randomBytes(1000 + random.nextInt(4000)),
+                randomBytes(46),
+                signatureKeyPair.getPublic());
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(networkNode.getNodeAddress(),
+                sealedAndSigned);
+        MailboxStoragePayload payload = new MailboxStoragePayload(message,
+                signatureKeyPair.getPublic(),
+                mailboxReceiverKeyPair.getPublic(),
+                MailboxStoragePayload.TTL);
+        byte[] signature = sign(payload, 1);
+        ProtectedMailboxStorageEntry entry = new ProtectedMailboxStorageEntry(payload,
+                signatureKeyPair.getPublic(),
+                1,
+                signature,
+                mailboxReceiverKeyPair.getPublic(),
+                clock);
+        send(new AddDataMessage(entry), TrafficType.MAILBOX, System.nanoTime(), null);
+    }
+
+    private void send(NetworkEnvelope networkEnvelope,
+                      TrafficType type,
+                      long startNanos,
+                      @Nullable Integer nonce) {
+        statistics.onSent(type);
+        Futures.addCallback(networkNode.sendMessage(seedNodeAddress, networkEnvelope), new FutureCallback<>() {
+            @Override
+            public void onSuccess(Connection connection) {
+                if (!type.isRequest())
+                    statistics.onCompleted(type, System.nanoTime() - startNanos);
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (nonce != null)
+                    pendingRequests.remove(nonce);
+                statistics.onFailed(type);
+                log.debug("Sending {} from peer {} failed. {}", type, index, throwable.toString());
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private ProtectedStorageEntry createProtectedStorageEntry(ProtectedStoragePayload payload, int sequenceNumber)
+            throws CryptoException {
+        return new ProtectedStorageEntry(payload,
+                signatureKeyPair.getPublic(),
+                sequenceNumber,
+                sign(payload, sequenceNumber),
+                clock);
+    }
+
+    private byte[] sign(ProtectedStoragePayload payload, int sequenceNumber) throws CryptoException {
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
+                new P2PDataStorage.DataAndSeqNrPair(payload, sequenceNumber));
+        return Sig.sign(signatureKeyPair.getPrivate(), hashOfDataAndSeqNr);
+    }
+
+    private OfferPayload createOfferPayload() {
+        long amount = 100_000 + random.nextInt(10_000_000);
+        boolean useMarketBasedPrice = random.nextBoolean();
+        List<String> acceptedCountryCodes = new ArrayList<>(List.of("DE", "FR", "AT", "NL", "ES", "IT"));
+        return new OfferPayload(new UUID(random.nextLong(), random.nextLong()).toString(),
+                clock.millis(),
+                networkNode.getNodeAddress(),
+                pubKeyRing,
+                random.nextBoolean() ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL,
+                useMarketBasedPrice ? 0 : 1 + random.nextInt(100_000_000),
+                useMarketBasedPrice ? random.nextDouble() / 10 : 0,
+                useMarketBasedPrice,
+                amount,
+                amount / 2,
+                "BTC",
+                CURRENCIES[random.nextInt(CURRENCIES.length)],
+                new ArrayList<>(),
+                new ArrayList<>(),
+                PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)],
+                new UUID(random.nextLong(), random.nextLong()).toString(),
+                Utilities.encodeToHex(randomBytes(32)),
+                "DE",
+                acceptedCountryCodes,
+                null,
+                null,
+                Version.VERSION,
+                0,
+                5_000,
+                amount / 1000,
+                true,
+                amount * 15 / 100,
+                amount * 15 / 100,
+                100_000_000,
+                86_400_000,
+                false,
+                false,
+                0,
+                0,
+                false,
+                null,
+                null,
+                Version.TRADE_PROTOCOL_VERSION);
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
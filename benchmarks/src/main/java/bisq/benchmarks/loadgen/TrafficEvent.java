@@ -0,0 +1,43 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import lombok.Value;
+
+/**
+ * A single message to be sent by the given peer at the given offset from the start of the run.
+ */
+@Value
+public class TrafficEvent {
+    long offsetMillis;
+    int peerIndex;
+    TrafficType type;
+
+    String toLine() {
+        return offsetMillis + "," + peerIndex + "," + type.name();
+    }
+
+    static TrafficEvent fromLine(String line) {
+        String[] tokens = line.split(",");
+        if (tokens.length != 3)
+            throw new IllegalArgumentException("Invalid traffic event: " + line);
+
+        return new TrafficEvent(Long.parseLong(tokens[0].trim()),
+                Integer.parseInt(tokens[1].trim()),
+                TrafficType.valueOf(tokens[2].trim()));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The ordered list of traffic events of a run. A schedule is either generated from a seed, in which case the same
+ * seed and rates always give the same schedule, or read from a file recorded by an earlier run, so different seed
+ * node versions can be compared under identical load.
+ *
+ * The file format is one event per line: offsetMillis,peerIndex,type. Lines starting with # are ignored.
+ */
+@Slf4j
+public class TrafficSchedule {
+    @Getter
+    private final List<TrafficEvent> events;
+
+    private TrafficSchedule(List<TrafficEvent> events) {
+        this.events = events;
+    }
+
+    /**
+     * Creates a Poisson arrival process for each traffic type with the given rate, the sending peer is picked
+     * uniformly.
+     */
+    public static TrafficSchedule generate(long seed,
+                                           int numPeers,
+                                           long durationMillis,
+                                           Map<TrafficType, Double> ratesPerSec) {
+        Random random = new Random(seed);
+        List<TrafficEvent> events = new ArrayList<>();
+        // We iterate the enum values so the schedule does not depend on the iteration order of the map
+        for (TrafficType type : TrafficType.values()) {
+            double ratePerMillis = ratesPerSec.getOrDefault(type, 0d) / 1000;
+            if (ratePerMillis <= 0)
+                continue;
+
+            double offset = 0;
+            while (true) {
+                offset += -Math.log(1 - random.nextDouble()) / ratePerMillis;
+                if (offset >= durationMillis)
+                    break;
+                events.add(new TrafficEvent((long) offset, random.nextInt(numPeers), type));
+            }
+        }
+        events.sort(Comparator.comparingLong(TrafficEvent::getOffsetMillis));
+        return new TrafficSchedule(events);
+    }
+
+    public static TrafficSchedule read(File file) throws IOException {
+        List<TrafficEvent> events = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(TrafficEvent::fromLine)
+                .sorted(Comparator.comparingLong(TrafficEvent::getOffsetMillis))
+                .collect(Collectors.toList());
+        log.info("Read {} traffic events from {}", events.size(), file);
+        return new TrafficSchedule(events);
+    }
+
+    public void write(File file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("# offsetMillis,peerIndex,type");
+            writer.newLine();
+            for (TrafficEvent event : events) {
+                writer.write(event.toLine());
+                writer.newLine();
+            }
+        }
+        log.info("Wrote {} traffic events to {}", events.size(), file);
+    }
+
+    public int getNumPeers() {
+        return events.stream().mapToInt(TrafficEvent::getPeerIndex).max().orElse(-1) + 1;
+    }
+
+    public long getDurationMillis() {
+        return events.isEmpty() ? 0 : events.get(events.size() - 1).getOffsetMillis();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import lombok.Getter;
+
+/**
+ * The kinds of traffic a synthetic peer sends to the seed node.
+ */
+public enum TrafficType {
+    // PreliminaryGetDataRequest as sent by each peer at startup. Latency is measured until the GetDataResponse arrives.
+    GET_DATA(true),
+    // GetBlocksRequest as sent by lite nodes. Latency is measured until the GetBlocksResponse arrives.
+    GET_BLOCKS(true),
+    // AddDataMessage with a new offer
+    ADD_OFFER(false),
+    // RefreshOfferMessage for the oldest offer of the peer
+    REFRESH_OFFER(false),
+    // RemoveDataMessage for the oldest offer of the peer
+    REMOVE_OFFER(false),
+    // AddDataMessage with a mailbox message for another peer
+    MAILBOX(false);
+
+    // For request/response types we measure the round trip, otherwise the time until the message was sent
+    @Getter
+    private final boolean request;
+
+    TrafficType(boolean request) {
+        this.request = request;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.benchmarks.loadgen;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TrafficScheduleTest {
+
+    private static Map<TrafficType, Double> getRates() {
+        Map<TrafficType, Double> ratesPerSec = new EnumMap<>(TrafficType.class);
+        ratesPerSec.put(TrafficType.GET_DATA, 2d);
+        ratesPerSec.put(TrafficType.ADD_OFFER, 20d);
+        ratesPerSec.put(TrafficType.MAILBOX, 0d);
+        return ratesPerSec;
+    }
+
+    @Test
+    public void generate_sameSeedGivesSameSchedule() {
+        TrafficSchedule schedule = TrafficSchedule.generate(1, 10, 60_000, getRates());
+        assertEquals(schedule.getEvents(), TrafficSchedule.generate(1, 10, 60_000, getRates()).getEvents());
+    }
+
+    @Test
+    public void generate_eventsMatchRatesAndBounds() {
+        TrafficSchedule schedule = TrafficSchedule.generate(1, 10, 100_000, getRates());
+
+        long numGetData = schedule.getEvents().stream().filter(e -> e.getType() == TrafficType.GET_DATA).count();
+        long numAddOffer = schedule.getEvents().stream().filter(e -> e.getType() == TrafficType.ADD_OFFER).count();
+        long numMailbox = schedule.getEvents().stream().filter(e -> e.getType() == TrafficType.MAILBOX).count();
+        assertTrue(numGetData > 150 && numGetData < 250);
+        assertTrue(numAddOffer > 1800 && numAddOffer < 2200);
+        assertEquals(0, numMailbox);
+
+        long lastOffset = -1;
+        for (TrafficEvent event : schedule.getEvents()) {
+            assertTrue(event.getOffsetMillis() >= lastOffset);
+            assertTrue(event.getOffsetMillis() < 100_000);
+            assertTrue(event.getPeerIndex() >= 0 && event.getPeerIndex() < 10);
+            lastOffset = event.getOffsetMillis();
+        }
+    }
+
+    @Test
+    public void writeAndRead_givesSameSchedule() throws IOException {
+        TrafficSchedule schedule = TrafficSchedule.generate(1, 10, 10_000, getRates());
+        File file = Files.createTempFile("traffic", ".csv").toFile();
+        try {
+            schedule.write(file);
+            TrafficSchedule replayed = TrafficSchedule.read(file);
+            assertEquals(schedule.getEvents(), replayed.getEvents());
+            assertEquals(schedule.getNumPeers(), replayed.getNumPeers());
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+}
@@ -28,6 +28,8 @@ import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.util.Utilities;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import com.google.inject.Inject;
 
 import javax.inject.Named;
@@ -42,7 +44,13 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -83,6 +91,31 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     public static final Map<String, PersistenceManager<?>> ALL_PERSISTENCE_MANAGERS = new HashMap<>();
     public static boolean FLUSH_ALL_DATA_TO_DISK_CALLED = false;
 
+    // Reading is mostly parsing of protobuf data, so we use a pool with as many threads as we have cores. At startup
+    // many files are read at the same time, after startup the threads time out.
+    private static final ThreadPoolExecutor READ_EXECUTOR = getReadExecutor(Runtime.getRuntime().availableProcessors());
+    // Duration of reading and parsing each file, used for the startup time breakdown
+    private static final Map<String, Long> READ_DURATIONS = new ConcurrentHashMap<>();
+
+    public static Executor getReadExecutor() {
+        return READ_EXECUTOR;
+    }
+
+    public static Map<String, Long> getReadDurations() {
+        return new HashMap<>(READ_DURATIONS);
+    }
+
+    private static ThreadPoolExecutor getReadExecutor(int numThreads) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("PersistenceManager-read-%d")
+                .setDaemon(true)
+                .build();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
 
     // We require being called only once from the global shutdown routine. As the shutdown routine has a timeout
     // and error condition where we call the method as well beside the standard path and it could be that those
@@ -99,13 +132,27 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             FLUSH_ALL_DATA_TO_DISK_CALLED = true;
 
             log.info("Start flushAllDataToDisk at shutdown");
-            AtomicInteger openInstances = new AtomicInteger(ALL_PERSISTENCE_MANAGERS.size());
+            Set<RecordStore<?>> recordStores;
+            synchronized (RecordStore.ALL_RECORD_STORES) {
+                recordStores = new HashSet<>(RecordStore.ALL_RECORD_STORES.values());
+            }
+            AtomicInteger openInstances = new AtomicInteger(ALL_PERSISTENCE_MANAGERS.size() + recordStores.size());
 
             if (openInstances.get() == 0) {
                 log.info("No PersistenceManager instances have been created yet.");
                 completeHandler.handleResult();
             }
 
+            // Record stores write each change directly, we only need to wait until their queued writes are completed.
+            recordStores.forEach(recordStore -> recordStore.flush(() ->
+                    UserThread.execute(() -> {
+                        recordStore.shutdown();
+                        if (openInstances.decrementAndGet() == 0) {
+                            log.info("flushAllDataToDisk completed");
+                            completeHandler.handleResult();
+                        }
+                    })));
+
             new HashSet<>(ALL_PERSISTENCE_MANAGERS.values()).forEach(persistenceManager -> {
                 // For Priority.HIGH data we want to write to disk in any case to be on the safe side if we might have missed
                 // a requestPersistence call after an important state update. Those are usually rather small data stores.
@@ -261,7 +308,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     /**
-     * Read persisted file in a thread.
+     * Read persisted file on the read thread pool.
      *
      * @param resultHandler     Consumer of persisted data once it was read from disk.
      * @param orElse            Called if no file exists or reading of file failed.
@@ -271,7 +318,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     }
 
     /**
-     * Read persisted file in a thread.
+     * Read persisted file on the read thread pool.
      * We map result handler calls to UserThread, so clients don't need to worry about threading
      *
      * @param fileName          File name of our persisted data.
@@ -284,14 +331,14 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             return;
         }
 
-        new Thread(() -> {
+        READ_EXECUTOR.execute(() -> {
             T persisted = getPersisted(fileName);
             if (persisted != null) {
                 UserThread.execute(() -> resultHandler.accept(persisted));
             } else {
                 UserThread.execute(orElse);
             }
-        }, "PersistenceManager-read-" + fileName).start();
+        });
     }
 
     // API for synchronous reading of data. Not recommended to be used in application code.
@@ -320,7 +367,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             protobuf.PersistableEnvelope proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
             //noinspection unchecked
             T persistableEnvelope = (T) persistenceProtoResolver.fromProto(proto);
-            log.info("Reading {} completed in {} ms", fileName, System.currentTimeMillis() - ts);
+            long duration = System.currentTimeMillis() - ts;
+            READ_DURATIONS.put(fileName, duration);
+            log.info("Reading {} completed in {} ms", fileName, duration);
             return persistableEnvelope;
         } catch (Throwable t) {
             log.error("Reading {} failed with {}.", fileName, t.getMessage());
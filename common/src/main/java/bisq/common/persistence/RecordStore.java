@@ -0,0 +1,411 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import bisq.common.crypto.Hash;
+import bisq.common.file.FileUtil;
+import bisq.common.handlers.ErrorMessageHandler;
+import bisq.common.handlers.ResultHandler;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.util.Utilities;
+
+import com.google.protobuf.ByteString;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Record oriented store for large collections of private data which grow over time (e.g. closed trades). In contrast
+ * to the {@link PersistenceManager} which rewrites the whole collection at each write, each record is stored in its
+ * own file and a compact summary of each record is kept in an append-only index file. Adding, updating or removing a
+ * record costs O(1) disk I/O independent of the number of records. At startup only the index is read, full records
+ * are read on demand.
+ *
+ * Records are written on a single write thread in the order of the API calls. Records which are queued but not
+ * written yet are served from memory. The index file gets compacted if it contains much more entries than live
+ * records.
+ *
+ * Layout inside the storage dir:
+ * <pre>
+ *   [name]/index                 Length delimited protobuf.RecordIndexEntry messages
+ *   [name]/[sha256(key)].record  protobuf.PersistableEnvelope of the record
+ * </pre>
+ *
+ * @param <T>   The type of the {@link PersistableEnvelope} used as record
+ */
+@Slf4j
+public class RecordStore<T extends PersistableEnvelope> {
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Used by PersistenceManager.flushAllDataToDisk
+    static final Map<String, RecordStore<?>> ALL_RECORD_STORES = new HashMap<>();
+
+    private static final String INDEX_FILE_NAME = "index";
+    private static final String RECORD_FILE_EXTENSION = ".record";
+    private static final int MIN_INDEX_ENTRIES_FOR_COMPACTION = 100;
+    private static final int COMPACTION_FACTOR = 2;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Class fields
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private final File dir;
+    private final File indexFile;
+    private final String name;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final ExecutorService writeToDiskExecutor;
+
+    // Live summaries in insertion order
+    private final Map<String, byte[]> summaryByKey = new LinkedHashMap<>();
+    // Hash of the last written or read serialized record. Used to skip writes of unchanged records.
+    private final Map<String, byte[]> recordHashByKey = new HashMap<>();
+    // Serialized records which are queued for writing. Accessed from the write thread as well.
+    private final Map<String, byte[]> pendingRecords = new ConcurrentHashMap<>();
+    private int numIndexFileEntries;
+    // Set on the write thread if a write failed, reset when a flush completes
+    private volatile boolean writeFailed;
+
+    // Called at shutdown before we flush, so the owner can put records which got mutated in memory.
+    @Setter
+    @Nullable
+    private Runnable beforeFlushHandler;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public RecordStore(File storageDir, String name, PersistenceProtoResolver persistenceProtoResolver) {
+        this.name = name;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+        dir = new File(storageDir, name);
+        indexFile = new File(dir, INDEX_FILE_NAME);
+        writeToDiskExecutor = Utilities.getSingleThreadExecutor("Write-" + name + "_records-to-disk");
+
+        synchronized (ALL_RECORD_STORES) {
+            ALL_RECORD_STORES.put(dir.getAbsolutePath(), this);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean hasIndex() {
+        return indexFile.exists();
+    }
+
+    /**
+     * Reads the index file. Should be called once before any other method. Blocking, so should not be called from the
+     * user thread.
+     *
+     * @return Summaries by key in the order the records have been added.
+     */
+    public synchronized Map<String, byte[]> readIndex() {
+        summaryByKey.clear();
+        numIndexFileEntries = 0;
+        if (!indexFile.exists())
+            return new LinkedHashMap<>();
+
+        long ts = System.currentTimeMillis();
+        boolean requiresCompaction = false;
+        try (FileInputStream fileInputStream = new FileInputStream(indexFile)) {
+            while (true) {
+                protobuf.RecordIndexEntry entry;
+                try {
+                    entry = protobuf.RecordIndexEntry.parseDelimitedFrom(fileInputStream);
+                } catch (IOException e) {
+                    // An interrupted append can leave an incomplete last entry. We drop it and rewrite the index.
+                    log.warn("Reading index of {} failed after {} entries. We ignore the remaining data. {}",
+                            name, numIndexFileEntries, e.toString());
+                    requiresCompaction = true;
+                    break;
+                }
+                if (entry == null)
+                    break;
+
+                numIndexFileEntries++;
+                if (entry.getRemoved())
+                    summaryByKey.remove(entry.getKey());
+                else
+                    summaryByKey.put(entry.getKey(), entry.getSummary().toByteArray());
+            }
+        } catch (IOException e) {
+            log.error("Reading index of {} failed. {}", name, e.toString());
+        }
+        log.info("Reading index of {} with {} records completed in {} ms",
+                name, summaryByKey.size(), System.currentTimeMillis() - ts);
+
+        if (requiresCompaction || requiresCompaction())
+            compact();
+        return new LinkedHashMap<>(summaryByKey);
+    }
+
+    public synchronized boolean contains(String key) {
+        return summaryByKey.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return summaryByKey.size();
+    }
+
+    /**
+     * Reads a record from disk or from the queue of not yet written records.
+     */
+    @Nullable
+    public synchronized T readRecord(String key) {
+        if (!summaryByKey.containsKey(key))
+            return null;
+
+        byte[] serialized = pendingRecords.get(key);
+        if (serialized == null) {
+            File recordFile = getRecordFile(key);
+            try {
+                serialized = Files.readAllBytes(recordFile.toPath());
+            } catch (IOException e) {
+                log.error("Reading record {} of {} failed. {}", key, name, e.toString());
+                return null;
+            }
+        }
+
+        try {
+            //noinspection unchecked
+            T record = (T) persistenceProtoResolver.fromProto(protobuf.PersistableEnvelope.parseFrom(serialized));
+            recordHashByKey.put(key, Hash.getSha256Hash(serialized));
+            return record;
+        } catch (Throwable t) {
+            log.error("Parsing record {} of {} failed. {}", key, name, t.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Adds or updates a record. The record gets serialized on the calling thread and written on the write thread.
+     * If neither the summary nor the serialized record have changed we do not write anything.
+     *
+     * @return True if a write got queued.
+     */
+    public synchronized boolean put(String key, byte[] summary, T record) {
+        byte[] serialized = ((protobuf.PersistableEnvelope) record.toPersistableMessage()).toByteArray();
+        byte[] hash = Hash.getSha256Hash(serialized);
+        boolean summaryChanged = !Arrays.equals(summaryByKey.get(key), summary);
+        boolean recordChanged = !Arrays.equals(recordHashByKey.get(key), hash);
+        if (!summaryChanged && !recordChanged)
+            return false;
+
+        summaryByKey.put(key, summary);
+        recordHashByKey.put(key, hash);
+
+        if (recordChanged) {
+            pendingRecords.put(key, serialized);
+            writeToDiskExecutor.execute(() -> {
+                writeRecordFile(key, serialized);
+                pendingRecords.remove(key, serialized);
+            });
+        }
+
+        if (summaryChanged) {
+            appendToIndex(protobuf.RecordIndexEntry.newBuilder()
+                    .setKey(key)
+                    .setSummary(ByteString.copyFrom(summary))
+                    .build());
+        }
+        return true;
+    }
+
+    public synchronized boolean remove(String key) {
+        if (summaryByKey.remove(key) == null)
+            return false;
+
+        recordHashByKey.remove(key);
+        pendingRecords.remove(key);
+        appendToIndex(protobuf.RecordIndexEntry.newBuilder()
+                .setKey(key)
+                .setRemoved(true)
+                .build());
+        writeToDiskExecutor.execute(() -> {
+            try {
+                FileUtil.deleteFileIfExists(getRecordFile(key));
+            } catch (IOException e) {
+                log.error("Deleting record {} of {} failed. {}", key, name, e.toString());
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Calls the beforeFlushHandler and calls the completeHandler on the write thread once all queued writes are done.
+     */
+    public void flush(Runnable completeHandler) {
+        flush(completeHandler::run, errorMessage -> completeHandler.run());
+    }
+
+    /**
+     * Calls the beforeFlushHandler and once all queued writes are done calls on the write thread either the
+     * resultHandler or, if any write failed since the previous flush, the errorMessageHandler.
+     */
+    public void flush(ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
+        if (beforeFlushHandler != null) {
+            try {
+                beforeFlushHandler.run();
+            } catch (Throwable t) {
+                log.error("beforeFlushHandler of {} failed.", name, t);
+            }
+        }
+        writeToDiskExecutor.execute(() -> {
+            if (writeFailed) {
+                writeFailed = false;
+                errorMessageHandler.handleErrorMessage("Writing to record store " + name + " failed.");
+            } else {
+                resultHandler.handleResult();
+            }
+        });
+    }
+
+    public void shutdown() {
+        synchronized (ALL_RECORD_STORES) {
+            ALL_RECORD_STORES.remove(dir.getAbsolutePath());
+        }
+        writeToDiskExecutor.shutdown();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void appendToIndex(protobuf.RecordIndexEntry entry) {
+        numIndexFileEntries++;
+        if (requiresCompaction()) {
+            compact();
+            return;
+        }
+
+        writeToDiskExecutor.execute(() -> {
+            makeDir();
+            try (FileOutputStream fileOutputStream = new FileOutputStream(indexFile, true)) {
+                entry.writeDelimitedTo(fileOutputStream);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            } catch (IOException e) {
+                writeFailed = true;
+                log.error("Appending to index of {} failed.", name, e);
+            }
+        });
+    }
+
+    private boolean requiresCompaction() {
+        return numIndexFileEntries > MIN_INDEX_ENTRIES_FOR_COMPACTION &&
+                numIndexFileEntries > COMPACTION_FACTOR * summaryByKey.size();
+    }
+
+    // We take the snapshot of the live entries on the calling thread, so writes queued after the compaction get
+    // appended to the compacted index.
+    private void compact() {
+        List<protobuf.RecordIndexEntry> entries = summaryByKey.entrySet().stream()
+                .map(e -> protobuf.RecordIndexEntry.newBuilder()
+                        .setKey(e.getKey())
+                        .setSummary(ByteString.copyFrom(e.getValue()))
+                        .build())
+                .collect(Collectors.toList());
+        numIndexFileEntries = entries.size();
+        writeToDiskExecutor.execute(() -> {
+            long ts = System.currentTimeMillis();
+            makeDir();
+            File tempFile = new File(dir, INDEX_FILE_NAME + ".tmp");
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                for (protobuf.RecordIndexEntry entry : entries) {
+                    entry.writeDelimitedTo(fileOutputStream);
+                }
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            } catch (IOException e) {
+                writeFailed = true;
+                log.error("Compacting index of {} failed.", name, e);
+                return;
+            }
+            try {
+                FileUtil.renameFile(tempFile, indexFile);
+                log.info("Compacting index of {} with {} entries completed in {} ms",
+                        name, entries.size(), System.currentTimeMillis() - ts);
+            } catch (IOException e) {
+                writeFailed = true;
+                log.error("Renaming compacted index of {} failed.", name, e);
+            }
+        });
+    }
+
+    // Called on the write thread
+    private void writeRecordFile(String key, byte[] serialized) {
+        makeDir();
+        File recordFile = getRecordFile(key);
+        File tempFile = new File(dir, recordFile.getName() + ".tmp");
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                fileOutputStream.write(serialized);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, recordFile);
+        } catch (IOException e) {
+            writeFailed = true;
+            log.error("Writing record {} of {} failed.", key, name, e);
+        }
+    }
+
+    private File getRecordFile(String key) {
+        return new File(dir, Utilities.bytesAsHexString(Hash.getSha256Hash(key)) + RECORD_FILE_EXTENSION);
+    }
+
+    private void makeDir() {
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed {}", dir);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordStore{" +
+                "\n     name='" + name + '\'' +
+                ",\n     dir=" + dir +
+                "\n}";
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Deduplicates the strings and byte arrays which are repeated across many payloads (currency codes, payment method
+ * ids, node addresses, pub keys, extra data map keys,...). Protobuf creates a new instance for each field at parsing,
+ * so with 100k+ trade statistics, offers and witnesses the same values are kept many times in memory.
+ *
+ * Strings are pooled in a weak interner, so pooled strings which are not used anymore get garbage collected.
+ * Long strings are rarely repeated and are not pooled. Byte arrays need content equality, so they are pooled in a
+ * bounded cache. Pooled byte arrays must never be mutated.
+ *
+ * Thread safe, as fromProto is called from the network threads as well.
+ */
+public final class ProtoInterner {
+    private static final int MAX_STRING_LENGTH = 128;
+    private static final int MAX_BYTE_ARRAY_LENGTH = 256;
+    private static final int MAX_NUM_BYTE_ARRAYS = 10_000;
+
+    // Rough estimate of the object headers and fields of a string with its backing array and of a byte array.
+    private static final int STRING_OVERHEAD = 40;
+    private static final int BYTE_ARRAY_OVERHEAD = 16;
+
+    /**
+     * Counts the deduplicated allocations since start, i.e. how often parsing produced an instance which got replaced
+     * by the pooled one, and their estimated size. It is not the memory currently saved, as the replaced instances
+     * would have become garbage as well once their payloads got removed.
+     */
+    @Value
+    public static class Stats {
+        long numDeduplicatedAllocations;
+        long deduplicatedAllocationsSize;
+    }
+
+    private static final class ByteArrayKey {
+        private final byte[] bytes;
+        private final int hashCode;
+
+        ByteArrayKey(byte[] bytes) {
+            this.bytes = bytes;
+            this.hashCode = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof ByteArrayKey && Arrays.equals(bytes, ((ByteArrayKey) o).bytes));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final Interner<String> STRING_INTERNER = Interners.newWeakInterner();
+    private static final Cache<ByteArrayKey, byte[]> BYTE_ARRAY_POOL = CacheBuilder.newBuilder()
+            .maximumSize(MAX_NUM_BYTE_ARRAYS)
+            .build();
+
+    private static final AtomicLong numDeduplicatedAllocations = new AtomicLong();
+    private static final AtomicLong deduplicatedAllocationsSize = new AtomicLong();
+
+    private ProtoInterner() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    public static String intern(@Nullable String string) {
+        if (string == null || string.isEmpty() || string.length() > MAX_STRING_LENGTH)
+            return string;
+
+        String interned = STRING_INTERNER.intern(string);
+        if (interned != string)
+            onDeduplicated(STRING_OVERHEAD + string.length());
+        return interned;
+    }
+
+    @Nullable
+    public static byte[] intern(@Nullable byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes.length > MAX_BYTE_ARRAY_LENGTH)
+            return bytes;
+
+        byte[] interned = BYTE_ARRAY_POOL.asMap().putIfAbsent(new ByteArrayKey(bytes), bytes);
+        if (interned == null)
+            return bytes;
+
+        onDeduplicated(BYTE_ARRAY_OVERHEAD + bytes.length);
+        return interned;
+    }
+
+    /**
+     * @return A new mutable list with the interned strings.
+     */
+    public static List<String> internStrings(List<String> strings) {
+        List<String> result = new ArrayList<>(strings.size());
+        strings.forEach(string -> result.add(intern(string)));
+        return result;
+    }
+
+    /**
+     * We keep the iteration order of the map, as it defines the serialized form of the payload which is used for
+     * hashes and signatures.
+     *
+     * @return A new map with the interned keys and values.
+     */
+    public static Map<String, String> internEntries(Map<String, String> map) {
+        Map<String, String> result = new LinkedHashMap<>();
+        map.forEach((key, value) -> result.put(intern(key), intern(value)));
+        return result;
+    }
+
+    public static Stats getStats() {
+        return new Stats(numDeduplicatedAllocations.get(), deduplicatedAllocationsSize.get());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static void onDeduplicated(int size) {
+        numDeduplicatedAllocations.incrementAndGet();
+        deduplicatedAllocationsSize.addAndGet(size);
+    }
+}
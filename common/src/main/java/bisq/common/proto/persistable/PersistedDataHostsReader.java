@@ -0,0 +1,183 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+import bisq.common.UserThread;
+import bisq.common.persistence.PersistenceManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Reads the persisted data of all hosts at startup. Hosts without pending dependencies get started at once, so their
+ * files are read concurrently on the bounded read pool of the PersistenceManager. A host which depends on other hosts
+ * is started once all its dependencies have completed. Dependencies have to be added before the host depending on
+ * them, so there cannot be any cycles.
+ *
+ * Once all hosts have completed we log a breakdown of the startup time per host and per file.
+ *
+ * Must be used from the user thread.
+ */
+@Slf4j
+public class PersistedDataHostsReader {
+    private static class Task {
+        private final String name;
+        private final PersistedDataHost host;
+        private final List<Task> dependencies;
+        private boolean started;
+        private boolean completed;
+        private long startTime;
+        private long duration;
+
+        Task(String name, PersistedDataHost host, List<Task> dependencies) {
+            this.name = name;
+            this.host = host;
+            this.dependencies = dependencies;
+        }
+
+        boolean canStart() {
+            return !started && dependencies.stream().allMatch(dependency -> dependency.completed);
+        }
+    }
+
+    private final Map<PersistedDataHost, Task> taskByHost = new IdentityHashMap<>();
+    // In the order the hosts got added
+    private final List<Task> tasks = new ArrayList<>();
+    private Runnable completeHandler;
+    private long startTime;
+    private int numCompleted;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param host          The host to read
+     * @param dependencies  Hosts which need to have completed reading before we start reading the host. They must
+     *                      have been added already.
+     */
+    public PersistedDataHostsReader add(PersistedDataHost host, PersistedDataHost... dependencies) {
+        return add(host.getClass().getSimpleName(), host, dependencies);
+    }
+
+    public PersistedDataHostsReader add(String name, PersistedDataHost host, PersistedDataHost... dependencies) {
+        checkArgument(completeHandler == null, "Hosts must be added before readAll is called");
+        if (taskByHost.containsKey(host)) {
+            log.warn("{} has been added already", name);
+            return this;
+        }
+
+        List<Task> dependencyTasks = Arrays.stream(dependencies)
+                .map(dependency -> {
+                    Task task = taskByHost.get(dependency);
+                    checkArgument(task != null, "Dependency %s of %s must be added before",
+                            dependency.getClass().getSimpleName(), name);
+                    return task;
+                })
+                .collect(Collectors.toList());
+        Task task = new Task(name, host, dependencyTasks);
+        taskByHost.put(host, task);
+        tasks.add(task);
+        return this;
+    }
+
+    public void readAll(Runnable completeHandler) {
+        checkArgument(this.completeHandler == null, "readAll must be called only once");
+        this.completeHandler = completeHandler;
+        startTime = System.currentTimeMillis();
+        if (tasks.isEmpty()) {
+            completeHandler.run();
+            return;
+        }
+        startPendingTasks();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void startPendingTasks() {
+        List<Task> startable = tasks.stream()
+                .filter(Task::canStart)
+                .collect(Collectors.toList());
+        // We mark all first, so a host completing synchronously does not start a task twice
+        startable.forEach(task -> task.started = true);
+        startable.forEach(this::start);
+    }
+
+    private void start(Task task) {
+        task.startTime = System.currentTimeMillis();
+        try {
+            task.host.readPersisted(() -> UserThread.execute(() -> onCompleted(task)));
+        } catch (Throwable t) {
+            log.error("readPersisted of {} failed", task.name, t);
+            UserThread.execute(() -> onCompleted(task));
+        }
+    }
+
+    private void onCompleted(Task task) {
+        if (task.completed) {
+            log.warn("completeHandler of {} got called more than once", task.name);
+            return;
+        }
+
+        task.completed = true;
+        task.duration = System.currentTimeMillis() - task.startTime;
+        numCompleted++;
+        if (numCompleted == tasks.size()) {
+            logBreakdown();
+            completeHandler.run();
+        } else {
+            startPendingTasks();
+        }
+    }
+
+    private void logBreakdown() {
+        StringBuilder sb = new StringBuilder("\n\n##############################################################\n")
+                .append("Reading persisted data completed in ")
+                .append(System.currentTimeMillis() - startTime)
+                .append(" ms.\nHosts (start offset / duration):");
+        tasks.stream()
+                .sorted(Comparator.comparingLong((Task task) -> task.duration).reversed())
+                .forEach(task -> sb.append("\n    ").append(task.name)
+                        .append(": ").append(task.startTime - startTime)
+                        .append(" ms / ").append(task.duration).append(" ms"));
+
+        Set<Map.Entry<String, Long>> readDurations = PersistenceManager.getReadDurations().entrySet();
+        if (!readDurations.isEmpty()) {
+            sb.append("\nFiles (read and parse duration):");
+            new ArrayList<>(readDurations).stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(e -> sb.append("\n    ").append(e.getKey()).append(": ").append(e.getValue()).append(" ms"));
+        }
+        sb.append("\n##############################################################\n");
+        log.info(sb.toString());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of Bisq.
+ *
+ * bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.common.persistence;
+
+import bisq.common.Payload;
+import bisq.common.file.FileUtil;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import com.google.protobuf.Message;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RecordStoreTest {
+    private static class TestRecord implements PersistableEnvelope {
+        private final List<String> path;
+
+        TestRecord(List<String> path) {
+            this.path = path;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setNavigationPath(protobuf.NavigationPath.newBuilder().addAllPath(path))
+                    .build();
+        }
+    }
+
+    private File storageDir;
+    private PersistenceProtoResolver resolver;
+    private RecordStore<TestRecord> store;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("record_store_test").toFile();
+        resolver = new PersistenceProtoResolver() {
+            @Override
+            public PersistableEnvelope fromProto(protobuf.PersistableEnvelope proto) {
+                return new TestRecord(proto.getNavigationPath().getPathList());
+            }
+
+            @Override
+            public Payload fromProto(protobuf.PaymentAccountPayload proto) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public PersistablePayload fromProto(protobuf.PersistableNetworkPayload proto) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        store = new RecordStore<>(storageDir, "TestRecords", resolver);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.shutdown();
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testPutAndReadAfterRestart() throws InterruptedException {
+        assertFalse(store.hasIndex());
+        assertTrue(store.readIndex().isEmpty());
+
+        assertTrue(store.put("id1", new byte[]{1}, new TestRecord(Collections.singletonList("a"))));
+        assertTrue(store.put("id2", new byte[]{2}, new TestRecord(Collections.singletonList("b"))));
+        // Unchanged summary and record does not cause a write
+        assertFalse(store.put("id1", new byte[]{1}, new TestRecord(Collections.singletonList("a"))));
+        // Pending record is readable before it got written
+        assertEquals("b", store.readRecord("id2").path.get(0));
+        assertTrue(store.remove("id1"));
+        assertFalse(store.remove("id1"));
+        flush(store);
+
+        RecordStore<TestRecord> restarted = new RecordStore<>(storageDir, "TestRecords", resolver);
+        Map<String, byte[]> index = restarted.readIndex();
+        assertEquals(1, index.size());
+        assertArrayEquals(new byte[]{2}, index.get("id2"));
+        assertNull(restarted.readRecord("id1"));
+        assertEquals("b", restarted.readRecord("id2").path.get(0));
+        restarted.shutdown();
+    }
+
+    @Test
+    public void testIndexCompaction() throws InterruptedException {
+        store.readIndex();
+        for (int i = 0; i < 200; i++) {
+            store.put("id" + i, new byte[]{1}, new TestRecord(Collections.singletonList("a" + i)));
+            if (i > 0)
+                store.remove("id" + (i - 1));
+        }
+        flush(store);
+
+        RecordStore<TestRecord> restarted = new RecordStore<>(storageDir, "TestRecords", resolver);
+        Map<String, byte[]> index = restarted.readIndex();
+        assertEquals(1, index.size());
+        assertEquals("a199", restarted.readRecord("id199").path.get(0));
+        // Index got compacted, so the records dir contains the index and the single record
+        assertEquals(2, new File(storageDir, "TestRecords").listFiles().length);
+        restarted.shutdown();
+    }
+
+    private static void flush(RecordStore<?> store) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        store.flush(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProtoInternerTest {
+
+    @Test
+    public void testInternString() {
+        String first = new String("EUR");
+        String second = new String("EUR");
+        assertNotSame(first, second);
+
+        assertSame(ProtoInterner.intern(first), ProtoInterner.intern(second));
+        assertEquals("EUR", ProtoInterner.intern(second));
+        assertNull(ProtoInterner.intern((String) null));
+    }
+
+    @Test
+    public void testLongStringsAreNotPooled() {
+        char[] chars = new char[200];
+        Arrays.fill(chars, 'a');
+        String first = new String(chars);
+        String second = new String(chars);
+
+        ProtoInterner.intern(first);
+        assertSame(second, ProtoInterner.intern(second));
+    }
+
+    @Test
+    public void testInternBytes() {
+        byte[] first = {1, 2, 3, 4};
+        byte[] second = {1, 2, 3, 4};
+        byte[] other = {1, 2, 3, 5};
+
+        assertSame(ProtoInterner.intern(first), ProtoInterner.intern(second));
+        assertArrayEquals(new byte[]{1, 2, 3, 5}, ProtoInterner.intern(other));
+        assertNull(ProtoInterner.intern((byte[]) null));
+    }
+
+    @Test
+    public void testStatsCountDeduplicatedAllocations() {
+        ProtoInterner.Stats before = ProtoInterner.getStats();
+        ProtoInterner.intern(new String("ProtoInternerTest"));
+        ProtoInterner.intern(new String("ProtoInternerTest"));
+        ProtoInterner.Stats after = ProtoInterner.getStats();
+
+        assertTrue(after.getNumDeduplicatedAllocations() > before.getNumDeduplicatedAllocations());
+        assertTrue(after.getDeduplicatedAllocationsSize() > before.getDeduplicatedAllocationsSize());
+    }
+
+    @Test
+    public void testInternEntriesKeepsOrder() {
+        Map<String, String> map = ImmutableMap.of("b", "1", "a", "2", "c", "3");
+        Map<String, String> interned = ProtoInterner.internEntries(map);
+
+        assertEquals(map, interned);
+        assertEquals(List.of("b", "a", "c"), List.copyOf(interned.keySet()));
+    }
+
+    @Test
+    public void testInternStrings() {
+        List<String> strings = ProtoInterner.internStrings(Collections.singletonList(new String("DE")));
+        assertSame(ProtoInterner.intern("DE"), strings.get(0));
+    }
+}
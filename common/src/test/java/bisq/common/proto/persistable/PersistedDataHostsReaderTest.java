@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PersistedDataHostsReaderTest {
+    // Hosts which complete only when we call their completeHandler
+    private static class TestHost implements PersistedDataHost {
+        private final String name;
+        private final List<String> started;
+        private final Map<String, Runnable> completeHandlers;
+
+        TestHost(String name, List<String> started, Map<String, Runnable> completeHandlers) {
+            this.name = name;
+            this.started = started;
+            this.completeHandlers = completeHandlers;
+        }
+
+        @Override
+        public void readPersisted(Runnable completeHandler) {
+            started.add(name);
+            completeHandlers.put(name, completeHandler);
+        }
+    }
+
+    @Test
+    public void testDependentHostStartsAfterDependencies() {
+        List<String> started = new ArrayList<>();
+        Map<String, Runnable> completeHandlers = new HashMap<>();
+        TestHost a = new TestHost("a", started, completeHandlers);
+        TestHost b = new TestHost("b", started, completeHandlers);
+        TestHost c = new TestHost("c", started, completeHandlers);
+        AtomicBoolean completed = new AtomicBoolean();
+
+        new PersistedDataHostsReader()
+                .add(a)
+                .add(b)
+                .add(c, a, b)
+                .readAll(() -> completed.set(true));
+
+        // Independent hosts are started at once
+        assertEquals(Arrays.asList("a", "b"), started);
+
+        completeHandlers.get("b").run();
+        assertEquals(Arrays.asList("a", "b"), started);
+
+        completeHandlers.get("a").run();
+        assertEquals(Arrays.asList("a", "b", "c"), started);
+        assertFalse(completed.get());
+
+        completeHandlers.get("c").run();
+        assertTrue(completed.get());
+    }
+
+    @Test
+    public void testSynchronouslyCompletingHosts() {
+        List<String> started = new ArrayList<>();
+        PersistedDataHost a = completeHandler -> {
+            started.add("a");
+            completeHandler.run();
+        };
+        PersistedDataHost b = completeHandler -> {
+            started.add("b");
+            completeHandler.run();
+        };
+        AtomicBoolean completed = new AtomicBoolean();
+
+        new PersistedDataHostsReader()
+                .add("a", a)
+                .add("b", b, a)
+                .readAll(() -> completed.set(true));
+
+        assertEquals(Arrays.asList("a", "b"), started);
+        assertTrue(completed.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDependencyMustBeAddedBefore() {
+        PersistedDataHost a = completeHandler -> {
+        };
+        PersistedDataHost b = completeHandler -> {
+        };
+        new PersistedDataHostsReader().add("b", b, a);
+    }
+}
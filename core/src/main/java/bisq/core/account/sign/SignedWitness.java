@@ -26,6 +26,7 @@ import bisq.network.p2p.storage.payload.ProcessOncePersistableNetworkPayload;
 import bisq.common.app.Capabilities;
 import bisq.common.app.Capability;
 import bisq.common.crypto.Hash;
+import bisq.common.proto.ProtoInterner;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.util.Utilities;
 
@@ -126,8 +127,8 @@ public class SignedWitness implements ProcessOncePersistableNetworkPayload, Pers
                 SignedWitness.VerificationMethod.fromProto(proto.getVerificationMethod()),
                 proto.getAccountAgeWitnessHash().toByteArray(),
                 proto.getSignature().toByteArray(),
-                proto.getSignerPubKey().toByteArray(),
-                proto.getWitnessOwnerPubKey().toByteArray(),
+                ProtoInterner.intern(proto.getSignerPubKey().toByteArray()),
+                ProtoInterner.intern(proto.getWitnessOwnerPubKey().toByteArray()),
                 proto.getDate(),
                 proto.getTradeAmount());
     }
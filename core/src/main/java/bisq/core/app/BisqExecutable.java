@@ -31,6 +31,7 @@ import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.trade.txproof.xmr.XmrTxProofService;
 
 import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.P2PDataStorage;
 
 import bisq.common.UserThread;
 import bisq.common.app.AppModule;
@@ -40,6 +41,7 @@ import bisq.common.config.ConfigException;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.proto.persistable.PersistedDataHostsReader;
 import bisq.common.setup.CommonSetup;
 import bisq.common.setup.GracefulShutDownHandler;
 import bisq.common.setup.UncaughtExceptionHandler;
@@ -49,7 +51,6 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -173,19 +174,17 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
     }
 
     protected void readAllPersisted(@Nullable List<PersistedDataHost> additionalHosts, Runnable completeHandler) {
-        List<PersistedDataHost> hosts = CorePersistedDataHost.getPersistedDataHosts(injector);
+        PersistedDataHostsReader reader = CorePersistedDataHost.getPersistedDataHostsReader(injector);
         if (additionalHosts != null) {
-            hosts.addAll(additionalHosts);
+            additionalHosts.forEach(host -> reader.add(host));
         }
+        reader.readAll(() -> UserThread.execute(completeHandler));
 
-        AtomicInteger remaining = new AtomicInteger(hosts.size());
-        hosts.forEach(host -> {
-            host.readPersisted(() -> {
-                if (remaining.decrementAndGet() == 0) {
-                    UserThread.execute(completeHandler);
-                }
-            });
-        });
+        // Reading the data stores from resources does not depend on the hosts, so we start it concurrently instead of
+        // waiting for BisqSetup. BisqSetup will only wait for its completion.
+        String postFix = "_" + config.baseCurrencyNetwork.name();
+        P2PDataStorage p2PDataStorage = injector.getInstance(P2PDataStorage.class);
+        p2PDataStorage.readFromResources(postFix, () -> log.info("Reading data stores from resources completed"));
     }
 
     protected void setupAvoidStandbyMode() {
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Keeps the contribution of each wallet transaction to the BSQ balance categories and the running totals of
+ * those categories. Only transactions with a non-zero contribution are stored, so the ledger is small (pending
+ * txs, lockup and unlocking bonds and blind vote stakes) and the affected entries can be re-evaluated cheaply
+ * when the wallet or the DAO state changes.
+ *
+ * Not thread safe, we only use it from the user thread.
+ */
+class BsqBalanceLedger {
+
+    @Value
+    static class Entry {
+        static final Entry EMPTY = new Entry(0, 0, 0, 0);
+
+        long unverified;
+        long lockedForVoting;
+        long lockupBonds;
+        long unlockingBonds;
+
+        boolean isEmpty() {
+            return unverified == 0 && lockedForVoting == 0 && lockupBonds == 0 && unlockingBonds == 0;
+        }
+    }
+
+    private final Map<String, Entry> entryByTxId = new HashMap<>();
+
+    @Getter
+    private long unverified;
+    @Getter
+    private long lockedForVoting;
+    @Getter
+    private long lockupBonds;
+    @Getter
+    private long unlockingBonds;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void put(String txId, Entry entry) {
+        Entry previous = entry.isEmpty() ? entryByTxId.remove(txId) : entryByTxId.put(txId, entry);
+        if (previous != null)
+            apply(previous, -1);
+        apply(entry, 1);
+    }
+
+    void clear() {
+        entryByTxId.clear();
+        unverified = 0;
+        lockedForVoting = 0;
+        lockupBonds = 0;
+        unlockingBonds = 0;
+    }
+
+    Set<String> getTxIds() {
+        return new HashSet<>(entryByTxId.keySet());
+    }
+
+    Entry get(String txId) {
+        return entryByTxId.getOrDefault(txId, Entry.EMPTY);
+    }
+
+    int size() {
+        return entryByTxId.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void apply(Entry entry, int sign) {
+        unverified += sign * entry.getUnverified();
+        lockedForVoting += sign * entry.getLockedForVoting();
+        lockupBonds += sign * entry.getLockupBonds();
+        unlockingBonds += sign * entry.getUnlockingBonds();
+    }
+}
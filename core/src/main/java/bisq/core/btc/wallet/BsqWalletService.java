@@ -54,18 +54,17 @@ import org.bitcoinj.script.ScriptException;
 import org.bitcoinj.wallet.CoinSelection;
 import org.bitcoinj.wallet.CoinSelector;
 import org.bitcoinj.wallet.SendRequest;
+import org.bitcoinj.wallet.WalletTransaction;
 
 import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -95,6 +94,11 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
     private final List<WalletTransactionsChangeListener> walletTransactionsChangeListeners = new ArrayList<>();
     private boolean updateBsqWalletTransactionsPending;
+    // Per tx contributions to the unverified, locked for voting, lockup and unlocking balances. We only re-evaluate
+    // the txs which got changed by a wallet or DAO event instead of all wallet txs.
+    private final BsqBalanceLedger bsqBalanceLedger = new BsqBalanceLedger();
+    private final Set<String> txIdsToReEvaluate = new HashSet<>();
+    private boolean rebuildBsqBalanceLedger = true;
 
     // balance of non BSQ satoshis
     @Getter
@@ -145,15 +149,19 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 wallet.addCoinsSentEventListener(walletEventListener);
                 wallet.addReorganizeEventListener(walletEventListener);
                 wallet.addTransactionConfidenceEventListener(walletEventListener);
+                walletIndex.attach(wallet);
 
                 wallet.addCoinsReceivedEventListener((wallet, tx, prevBalance, newBalance) -> {
+                    txIdsToReEvaluate.add(tx.getTxId().toString());
                     updateBsqWalletTransactions();
                 });
                 wallet.addCoinsSentEventListener((wallet, tx, prevBalance, newBalance) -> {
+                    txIdsToReEvaluate.add(tx.getTxId().toString());
                     updateBsqWalletTransactions();
                 });
                 wallet.addReorganizeEventListener(wallet -> {
                     log.warn("onReorganize ");
+                    rebuildBsqBalanceLedger = true;
                     updateBsqWalletTransactions();
                     unconfirmedBsqChangeOutputListService.onReorganize();
                 });
@@ -161,16 +169,19 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                     // We are only interested in updates from unconfirmed txs and confirmed txs at the
                     // time when it gets into a block. Otherwise we would get called
                     // updateBsqWalletTransactions for each tx as the block depth changes for all.
-                    if (tx != null && tx.getConfidence() != null && tx.getConfidence().getDepthInBlocks() <= 1 &&
-                            daoStateService.isParseBlockChainComplete()) {
-                        updateBsqWalletTransactions();
+                    if (tx != null && tx.getConfidence() != null && tx.getConfidence().getDepthInBlocks() <= 1) {
+                        txIdsToReEvaluate.add(tx.getTxId().toString());
+                        if (daoStateService.isParseBlockChainComplete())
+                            updateBsqWalletTransactions();
                     }
                     unconfirmedBsqChangeOutputListService.onTransactionConfidenceChanged(tx);
                 });
                 wallet.addKeyChainEventListener(keys -> {
+                    rebuildBsqBalanceLedger = true;
                     updateBsqWalletTransactions();
                 });
                 wallet.addScriptsChangeEventListener((wallet, scripts, isAddingScripts) -> {
+                    rebuildBsqBalanceLedger = true;
                     updateBsqWalletTransactions();
                 });
                 wallet.addChangeEventListener(wallet -> {
@@ -193,9 +204,23 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     // DaoStateListener
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    @Override
+    public void onParseBlockComplete(Block block) {
+        // We get called for each block also during batch processing, so we do not miss any wallet tx which got
+        // parsed by the DAO.
+        if (isWalletReady()) {
+            block.getTxs().stream()
+                    .map(Tx::getId)
+                    .filter(txId -> getTransaction(txId) != null)
+                    .forEach(txIdsToReEvaluate::add);
+        }
+    }
+
     @Override
     public void onParseBlockCompleteAfterBatchProcessing(Block block) {
         if (isWalletReady()) {
+            // Bonds and blind vote stakes in the ledger might have been spent, unlocked or confiscated
+            txIdsToReEvaluate.addAll(bsqBalanceLedger.getTxIds());
             wallet.getTransactions(false).forEach(unconfirmedBsqChangeOutputListService::onTransactionConfidenceChanged);
             updateBsqWalletTransactions();
         }
@@ -220,84 +245,126 @@ public class BsqWalletService extends WalletService implements DaoStateListener
 
     private void updateBsqBalance() {
         long ts = System.currentTimeMillis();
-        unverifiedBalance = Coin.valueOf(
-                getTransactions(false).stream()
-                        .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
-                        .mapToLong(tx -> {
-                            // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
-                            // outputs since those inputs will be accounted for in lockupBondsBalance and
-                            // unlockingBondsBalance
-                            long outputs = tx.getOutputs().stream()
-                                    .filter(out -> out.isMine(wallet))
-                                    .filter(TransactionOutput::isAvailableForSpending)
-                                    .mapToLong(out -> out.getValue().value)
-                                    .sum();
-                            // Account for spending of locked connectedOutputs
-                            long lockedInputs = tx.getInputs().stream()
-                                    .filter(in -> {
-                                        TransactionOutput connectedOutput = in.getConnectedOutput();
-                                        if (connectedOutput != null) {
-                                            Transaction parentTransaction = connectedOutput.getParentTransaction();
-                                            // TODO SQ
-                                            if (parentTransaction != null/* &&
-                                                    parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
-                                                TxOutputKey key = new TxOutputKey(parentTransaction.getTxId().toString(),
-                                                        connectedOutput.getIndex());
-
-                                                return (connectedOutput.isMine(wallet)
-                                                        && (daoStateService.isLockupOutput(key)
-                                                        || daoStateService.isUnlockingAndUnspent(key)));
-                                            }
-                                        }
-                                        return false;
-                                    })
-                                    .mapToLong(in -> in.getValue() != null ? in.getValue().value : 0)
-                                    .sum();
-                            return outputs - lockedInputs;
-                        })
-                        .sum()
-        );
-
-        Set<String> confirmedTxIdSet = getTransactions(false).stream()
-                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
-                .map(Transaction::getTxId)
-                .map(Sha256Hash::toString)
-                .collect(Collectors.toSet());
-
-        lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
+        updateBsqBalanceLedger();
+        unverifiedBalance = Coin.valueOf(bsqBalanceLedger.getUnverified());
+        lockedForVotingBalance = Coin.valueOf(bsqBalanceLedger.getLockedForVoting());
+        lockupBondsBalance = Coin.valueOf(bsqBalanceLedger.getLockupBonds());
+        unlockingBondsBalance = Coin.valueOf(bsqBalanceLedger.getUnlockingBonds());
 
-        lockupBondsBalance = Coin.valueOf(daoStateService.getLockupTxOutputs().stream()
-                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
-                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        unlockingBondsBalance = Coin.valueOf(daoStateService.getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+        List<TransactionOutput> spendCandidates = wallet.calculateAllSpendCandidates();
+        availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY, spendCandidates).valueGathered;
 
         if (availableConfirmedBalance.isNegative())
             availableConfirmedBalance = Coin.ZERO;
 
         unconfirmedChangeBalance = unconfirmedBsqChangeOutputListService.getBalance();
 
-        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY, spendCandidates).valueGathered;
 
         bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableConfirmedBalance, availableNonBsqBalance, unverifiedBalance,
                 unconfirmedChangeBalance, lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
         log.info("updateBsqBalance took {} ms", System.currentTimeMillis() - ts);
     }
 
+    private void updateBsqBalanceLedger() {
+        if (rebuildBsqBalanceLedger) {
+            rebuildBsqBalanceLedger = false;
+            txIdsToReEvaluate.clear();
+            bsqBalanceLedger.clear();
+            getTransactions(false).forEach(tx -> bsqBalanceLedger.put(tx.getTxId().toString(), getBsqBalanceEntry(tx)));
+            log.info("Rebuilt BSQ balance ledger. Entries with balance: {}", bsqBalanceLedger.size());
+            return;
+        }
+
+        // The available outputs of pending txs can change when they get spent by another pending tx, so we
+        // re-evaluate all pending txs and all txs which had been pending at the last update. The pending pool is small.
+        wallet.getTransactionPool(WalletTransaction.Pool.PENDING).keySet().stream()
+                .map(Sha256Hash::toString)
+                .forEach(txIdsToReEvaluate::add);
+        bsqBalanceLedger.getTxIds().stream()
+                .filter(txId -> bsqBalanceLedger.get(txId).getUnverified() != 0)
+                .forEach(txIdsToReEvaluate::add);
+
+        txIdsToReEvaluate.forEach(txId -> {
+            Transaction tx = getTransaction(txId);
+            bsqBalanceLedger.put(txId, tx != null ? getBsqBalanceEntry(tx) : BsqBalanceLedger.Entry.EMPTY);
+        });
+        txIdsToReEvaluate.clear();
+    }
+
+    private BsqBalanceLedger.Entry getBsqBalanceEntry(Transaction tx) {
+        TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+        if (confidenceType == PENDING) {
+            return new BsqBalanceLedger.Entry(getUnverifiedBalance(tx), 0, 0, 0);
+        } else if (confidenceType == BUILDING) {
+            Optional<Tx> optionalTx = daoStateService.getTx(tx.getTxId().toString());
+            if (!optionalTx.isPresent())
+                return BsqBalanceLedger.Entry.EMPTY;
+
+            long lockedForVoting = 0;
+            long lockupBonds = 0;
+            long unlockingBonds = 0;
+            String txId = optionalTx.get().getId();
+            for (TxOutput txOutput : optionalTx.get().getTxOutputs()) {
+                if (!daoStateService.isUnspent(txOutput.getKey()))
+                    continue;
+
+                switch (txOutput.getTxOutputType()) {
+                    case BLIND_VOTE_LOCK_STAKE_OUTPUT:
+                        lockedForVoting += txOutput.getValue();
+                        break;
+                    case LOCKUP_OUTPUT:
+                        if (!daoStateService.isConfiscatedLockupTxOutput(txId))
+                            lockupBonds += txOutput.getValue();
+                        break;
+                    case UNLOCK_OUTPUT:
+                        if (!daoStateService.isLockTimeOverForUnlockTxOutput(txOutput) &&
+                                !daoStateService.isConfiscatedUnlockTxOutput(txId))
+                            unlockingBonds += txOutput.getValue();
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return new BsqBalanceLedger.Entry(0, lockedForVoting, lockupBonds, unlockingBonds);
+        } else {
+            return BsqBalanceLedger.Entry.EMPTY;
+        }
+    }
+
+    // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
+    // outputs since those inputs will be accounted for in lockupBondsBalance and
+    // unlockingBondsBalance
+    private long getUnverifiedBalance(Transaction tx) {
+        long outputs = tx.getOutputs().stream()
+                .filter(out -> out.isMine(wallet))
+                .filter(TransactionOutput::isAvailableForSpending)
+                .mapToLong(out -> out.getValue().value)
+                .sum();
+        // Account for spending of locked connectedOutputs
+        long lockedInputs = tx.getInputs().stream()
+                .filter(in -> {
+                    TransactionOutput connectedOutput = in.getConnectedOutput();
+                    if (connectedOutput != null) {
+                        Transaction parentTransaction = connectedOutput.getParentTransaction();
+                        // TODO SQ
+                        if (parentTransaction != null/* &&
+                                parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
+                            TxOutputKey key = new TxOutputKey(parentTransaction.getTxId().toString(),
+                                    connectedOutput.getIndex());
+
+                            return (connectedOutput.isMine(wallet)
+                                    && (daoStateService.isLockupOutput(key)
+                                    || daoStateService.isUnlockingAndUnspent(key)));
+                        }
+                    }
+                    return false;
+                })
+                .mapToLong(in -> in.getValue() != null ? in.getValue().value : 0)
+                .sum();
+        return outputs - lockedInputs;
+    }
+
     public void addBsqBalanceListener(BsqBalanceListener listener) {
         bsqBalanceListeners.add(listener);
     }
@@ -347,37 +414,14 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         }
     }
 
-    private Set<Transaction> getBsqWalletTransactions() {
+    public Set<Transaction> getUnverifiedBsqTransactions() {
+        // Wallet txs which are neither pending nor known by the DAO. Single pass without building txId maps and sets.
         return getTransactions(false).stream()
-                .filter(transaction -> transaction.getConfidence().getConfidenceType() == PENDING ||
-                        daoStateService.containsTx(transaction.getTxId().toString()))
+                .filter(transaction -> transaction.getConfidence().getConfidenceType() != PENDING &&
+                        !daoStateService.containsTx(transaction.getTxId().toString()))
                 .collect(Collectors.toSet());
     }
 
-    public Set<Transaction> getUnverifiedBsqTransactions() {
-        Set<Transaction> bsqWalletTransactions = getBsqWalletTransactions();
-        Set<Transaction> walletTxs = new HashSet<>(getTransactions(false));
-        checkArgument(walletTxs.size() >= bsqWalletTransactions.size(),
-                "We cannot have more txsWithOutputsFoundInBsqTxo than walletTxs");
-        if (walletTxs.size() == bsqWalletTransactions.size()) {
-            // As expected
-            return new HashSet<>();
-        } else {
-            Map<String, Transaction> map = walletTxs.stream()
-                    .collect(Collectors.toMap(t -> t.getTxId().toString(), Function.identity()));
-
-            Set<String> walletTxIds = walletTxs.stream()
-                    .map(Transaction::getTxId).map(Sha256Hash::toString).collect(Collectors.toSet());
-            Set<String> bsqTxIds = bsqWalletTransactions.stream()
-                    .map(Transaction::getTxId).map(Sha256Hash::toString).collect(Collectors.toSet());
-
-            walletTxIds.stream()
-                    .filter(bsqTxIds::contains)
-                    .forEach(map::remove);
-            return new HashSet<>(map.values());
-        }
-    }
-
     @Override
     public Coin getValueSentFromMeForTransaction(Transaction transaction) throws ScriptException {
         Coin result = Coin.ZERO;
@@ -103,6 +103,7 @@ public class BtcWalletService extends WalletService {
             wallet.addCoinsSentEventListener(walletEventListener);
             wallet.addReorganizeEventListener(walletEventListener);
             wallet.addTransactionConfidenceEventListener(walletEventListener);
+            walletIndex.attach(wallet);
 
             walletsSetup.getChain().addNewBestBlockListener(block -> chainHeightProperty.set(block.getHeight()));
             chainHeightProperty.set(walletsSetup.getChain().getBestChainHeight());
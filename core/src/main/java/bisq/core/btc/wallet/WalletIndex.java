@@ -0,0 +1,285 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.core.listeners.TransactionConfidenceEventListener;
+import org.bitcoinj.utils.Threading;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.listeners.WalletChangeEventListener;
+import org.bitcoinj.wallet.listeners.WalletCoinsReceivedEventListener;
+import org.bitcoinj.wallet.listeners.WalletCoinsSentEventListener;
+import org.bitcoinj.wallet.listeners.WalletReorganizeEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Address and txId indexed view on a wallet.
+ *
+ * We listen on the wallet events with Threading.SAME_THREAD so the index is updated or
+ * invalidated inside the wallet lock, before any user thread code can observe the changed
+ * wallet. To avoid lock order inversion with the wallet lock the callbacks never block:
+ * they only write to concurrent maps or bump the change counter.
+ *
+ * Spend candidates grouped by address are rebuilt lazily at the first lookup after a wallet
+ * change, so that many balance lookups between two wallet changes cost only one
+ * wallet.calculateAllSpendCandidates() call. The address to tx mapping is maintained
+ * incrementally from the tx events and only rebuilt after a reorg.
+ */
+@Slf4j
+class WalletIndex implements WalletChangeEventListener, WalletCoinsReceivedEventListener,
+        WalletCoinsSentEventListener, WalletReorganizeEventListener, TransactionConfidenceEventListener {
+
+    private static class SpendCandidatesSnapshot {
+        private final long version;
+        private final Map<Address, List<TransactionOutput>> outputsByAddress;
+
+        SpendCandidatesSnapshot(long version, Map<Address, List<TransactionOutput>> outputsByAddress) {
+            this.version = version;
+            this.outputsByAddress = outputsByAddress;
+        }
+    }
+
+    @Nullable
+    private Wallet wallet;
+    private final AtomicLong walletChangeCounter = new AtomicLong();
+    @Nullable
+    private volatile SpendCandidatesSnapshot spendCandidatesSnapshot;
+
+    private final Map<Address, Set<Sha256Hash>> txIdsByAddress = new ConcurrentHashMap<>();
+    private final AtomicLong txIndexGeneration = new AtomicLong();
+    private volatile boolean txIndexComplete;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Lifecycle
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void attach(Wallet wallet) {
+        detach();
+        this.wallet = wallet;
+        wallet.addChangeEventListener(Threading.SAME_THREAD, this);
+        wallet.addCoinsReceivedEventListener(Threading.SAME_THREAD, this);
+        wallet.addCoinsSentEventListener(Threading.SAME_THREAD, this);
+        wallet.addReorganizeEventListener(Threading.SAME_THREAD, this);
+        wallet.addTransactionConfidenceEventListener(Threading.SAME_THREAD, this);
+        resetTxIndex();
+        walletChangeCounter.incrementAndGet();
+    }
+
+    void detach() {
+        if (wallet != null) {
+            wallet.removeChangeEventListener(this);
+            wallet.removeCoinsReceivedEventListener(this);
+            wallet.removeCoinsSentEventListener(this);
+            wallet.removeReorganizeEventListener(this);
+            wallet.removeTransactionConfidenceEventListener(this);
+            wallet = null;
+        }
+        resetTxIndex();
+        walletChangeCounter.incrementAndGet();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Wallet listeners
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onWalletChanged(Wallet wallet) {
+        walletChangeCounter.incrementAndGet();
+    }
+
+    @Override
+    public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+        walletChangeCounter.incrementAndGet();
+        indexTx(tx);
+    }
+
+    @Override
+    public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+        walletChangeCounter.incrementAndGet();
+        indexTx(tx);
+    }
+
+    @Override
+    public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
+        walletChangeCounter.incrementAndGet();
+        indexTx(tx);
+    }
+
+    @Override
+    public void onReorganize(Wallet wallet) {
+        walletChangeCounter.incrementAndGet();
+        resetTxIndex();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    List<TransactionOutput> getSpendCandidates(Address address) {
+        if (address == null)
+            return Collections.emptyList();
+
+        List<TransactionOutput> outputs = getSpendCandidatesByAddress().get(address);
+        return outputs != null ? outputs : Collections.emptyList();
+    }
+
+    /**
+     * @return The non-dead wallet transactions which have an output or a connected output of the given address.
+     */
+    List<Transaction> getTransactions(Address address) {
+        Wallet wallet = this.wallet;
+        if (wallet == null || address == null)
+            return Collections.emptyList();
+
+        maybeBuildTxIndex(wallet);
+        Set<Sha256Hash> txIds = txIdsByAddress.get(address);
+        if (txIds == null)
+            return Collections.emptyList();
+
+        List<Transaction> transactions = new ArrayList<>(txIds.size());
+        for (Sha256Hash txId : txIds) {
+            Transaction tx = wallet.getTransaction(txId);
+            if (tx != null && !isDead(tx))
+                transactions.add(tx);
+        }
+        return transactions;
+    }
+
+    /**
+     * @return The non-dead wallet transaction with the given txId. Uses the hash map of the wallet, so no
+     * scan over all transactions is required.
+     */
+    @Nullable
+    Transaction getTransaction(String txId) {
+        Wallet wallet = this.wallet;
+        if (wallet == null || txId == null)
+            return null;
+
+        Sha256Hash hash;
+        try {
+            hash = Sha256Hash.wrap(txId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid txId {}", txId);
+            return null;
+        }
+        Transaction tx = wallet.getTransaction(hash);
+        return tx != null && !isDead(tx) ? tx : null;
+    }
+
+    /**
+     * @return The addresses of the outputs of the tx and of the outputs connected to its inputs.
+     */
+    static Set<Address> getAffectedAddresses(Transaction tx) {
+        Set<Address> addresses = new HashSet<>();
+        for (TransactionOutput output : tx.getOutputs()) {
+            addAddress(addresses, output);
+        }
+        for (TransactionInput input : tx.getInputs()) {
+            TransactionOutput connectedOutput = input.getConnectedOutput();
+            if (connectedOutput != null)
+                addAddress(addresses, connectedOutput);
+        }
+        return addresses;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Map<Address, List<TransactionOutput>> getSpendCandidatesByAddress() {
+        Wallet wallet = this.wallet;
+        if (wallet == null)
+            return Collections.emptyMap();
+
+        long version = walletChangeCounter.get();
+        SpendCandidatesSnapshot snapshot = spendCandidatesSnapshot;
+        if (snapshot != null && snapshot.version == version)
+            return snapshot.outputsByAddress;
+
+        Map<Address, List<TransactionOutput>> outputsByAddress = new HashMap<>();
+        for (TransactionOutput output : wallet.calculateAllSpendCandidates()) {
+            Address address = WalletService.getAddressFromOutput(output);
+            if (address != null)
+                outputsByAddress.computeIfAbsent(address, k -> new ArrayList<>()).add(output);
+        }
+
+        // If the wallet has changed while we have been building the map we do not cache it, so a
+        // stale snapshot is never used.
+        if (walletChangeCounter.get() == version)
+            spendCandidatesSnapshot = new SpendCandidatesSnapshot(version, outputsByAddress);
+        return outputsByAddress;
+    }
+
+    private void maybeBuildTxIndex(Wallet wallet) {
+        if (txIndexComplete)
+            return;
+
+        long generation = txIndexGeneration.get();
+        wallet.getTransactions(true).forEach(this::indexTx);
+        if (txIndexGeneration.get() == generation)
+            txIndexComplete = true;
+    }
+
+    private void indexTx(@Nullable Transaction tx) {
+        if (tx == null)
+            return;
+
+        Sha256Hash txId = tx.getTxId();
+        getAffectedAddresses(tx).forEach(address ->
+                txIdsByAddress.computeIfAbsent(address, k -> ConcurrentHashMap.newKeySet()).add(txId));
+    }
+
+    private void resetTxIndex() {
+        txIndexGeneration.incrementAndGet();
+        txIndexComplete = false;
+        txIdsByAddress.clear();
+    }
+
+    private static void addAddress(Set<Address> addresses, TransactionOutput output) {
+        Address address = WalletService.getAddressFromOutput(output);
+        if (address != null)
+            addresses.add(address);
+    }
+
+    private static boolean isDead(Transaction tx) {
+        return tx.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.DEAD;
+    }
+}
@@ -83,7 +83,9 @@ import org.bouncycastle.crypto.params.KeyParameter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
@@ -107,8 +109,12 @@ public abstract class WalletService {
     protected final FeeService feeService;
     protected final NetworkParameters params;
     protected final BisqWalletListener walletEventListener = new BisqWalletListener();
-    protected final CopyOnWriteArraySet<AddressConfidenceListener> addressConfidenceListeners = new CopyOnWriteArraySet<>();
-    protected final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
+    protected final WalletIndex walletIndex = new WalletIndex();
+    // Listeners are kept by address or txId so that we only dispatch to the listeners affected by a tx.
+    protected final Map<Address, CopyOnWriteArraySet<AddressConfidenceListener>> addressConfidenceListeners = new ConcurrentHashMap<>();
+    protected final Map<String, CopyOnWriteArraySet<TxConfidenceListener>> txConfidenceListeners = new ConcurrentHashMap<>();
+    protected final Map<Address, CopyOnWriteArraySet<BalanceListener>> addressBalanceListeners = new ConcurrentHashMap<>();
+    // Listeners without address which get notified with the available confirmed balance
     protected final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
     @Getter
     protected Wallet wallet;
@@ -146,6 +152,7 @@ public abstract class WalletService {
             wallet.removeReorganizeEventListener(walletEventListener);
             wallet.removeTransactionConfidenceEventListener(walletEventListener);
         }
+        walletIndex.detach();
     }
 
 
@@ -181,27 +188,50 @@ public abstract class WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void addAddressConfidenceListener(AddressConfidenceListener listener) {
-        addressConfidenceListeners.add(listener);
+        addListener(addressConfidenceListeners, listener.getAddress(), listener);
     }
 
     public void removeAddressConfidenceListener(AddressConfidenceListener listener) {
-        addressConfidenceListeners.remove(listener);
+        removeListener(addressConfidenceListeners, listener.getAddress(), listener);
     }
 
     public void addTxConfidenceListener(TxConfidenceListener listener) {
-        txConfidenceListeners.add(listener);
+        addListener(txConfidenceListeners, listener.getTxID(), listener);
     }
 
     public void removeTxConfidenceListener(TxConfidenceListener listener) {
-        txConfidenceListeners.remove(listener);
+        removeListener(txConfidenceListeners, listener.getTxID(), listener);
     }
 
     public void addBalanceListener(BalanceListener listener) {
-        balanceListeners.add(listener);
+        if (listener.getAddress() != null)
+            addListener(addressBalanceListeners, listener.getAddress(), listener);
+        else
+            balanceListeners.add(listener);
     }
 
     public void removeBalanceListener(BalanceListener listener) {
-        balanceListeners.remove(listener);
+        if (listener.getAddress() != null)
+            removeListener(addressBalanceListeners, listener.getAddress(), listener);
+        else
+            balanceListeners.remove(listener);
+    }
+
+    private static <K, L> void addListener(Map<K, CopyOnWriteArraySet<L>> listenersByKey, K key, L listener) {
+        if (key == null) {
+            log.warn("Listener without key is ignored. listener={}", listener);
+            return;
+        }
+        listenersByKey.computeIfAbsent(key, k -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    private static <K, L> void removeListener(Map<K, CopyOnWriteArraySet<L>> listenersByKey, K key, L listener) {
+        if (key == null)
+            return;
+        listenersByKey.computeIfPresent(key, (k, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
     }
 
 
@@ -371,11 +401,9 @@ public abstract class WalletService {
     public TransactionConfidence getConfidenceForAddress(Address address) {
         List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
         if (wallet != null) {
-            Set<Transaction> transactions = wallet.getTransactions(false);
-            if (transactions != null) {
-                transactionConfidenceList.addAll(transactions.stream().map(tx ->
-                        getTransactionConfidence(tx, address)).collect(Collectors.toList()));
-            }
+            // We only look up the txs which are indexed for that address instead of iterating all wallet txs
+            transactionConfidenceList.addAll(walletIndex.getTransactions(address).stream().map(tx ->
+                    getTransactionConfidence(tx, address)).collect(Collectors.toList()));
         }
         return getMostRecentConfidence(transactionConfidenceList);
     }
@@ -383,11 +411,9 @@ public abstract class WalletService {
     @Nullable
     public TransactionConfidence getConfidenceForTxId(String txId) {
         if (wallet != null) {
-            Set<Transaction> transactions = wallet.getTransactions(false);
-            for (Transaction tx : transactions) {
-                if (tx.getTxId().toString().equals(txId))
-                    return tx.getConfidence();
-            }
+            Transaction tx = walletIndex.getTransaction(txId);
+            if (tx != null)
+                return tx.getConfidence();
         }
         return null;
     }
@@ -454,7 +480,8 @@ public abstract class WalletService {
     }
 
     public Coin getBalanceForAddress(Address address) {
-        return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
+        // The spend candidates are grouped by address in the index, so we only sum up the outputs of that address
+        return wallet != null ? getBalance(walletIndex.getSpendCandidates(address), address) : Coin.ZERO;
     }
 
     protected Coin getBalance(List<TransactionOutput> transactionOutputs, Address address) {
@@ -805,31 +832,38 @@ public abstract class WalletService {
 
         @Override
         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
-            for (AddressConfidenceListener addressConfidenceListener : addressConfidenceListeners) {
-                List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
-                transactionConfidenceList.add(getTransactionConfidence(tx, addressConfidenceListener.getAddress()));
+            if (tx == null)
+                return;
 
-                TransactionConfidence transactionConfidence = getMostRecentConfidence(transactionConfidenceList);
-                addressConfidenceListener.onTransactionConfidenceChanged(transactionConfidence);
+            if (!addressConfidenceListeners.isEmpty()) {
+                for (Address address : WalletIndex.getAffectedAddresses(tx)) {
+                    CopyOnWriteArraySet<AddressConfidenceListener> listeners = addressConfidenceListeners.get(address);
+                    if (listeners != null) {
+                        TransactionConfidence transactionConfidence = getTransactionConfidence(tx, address);
+                        listeners.forEach(listener -> listener.onTransactionConfidenceChanged(transactionConfidence));
+                    }
+                }
             }
-            txConfidenceListeners.stream()
-                    .filter(txConfidenceListener -> tx != null &&
-                            tx.getTxId().toString() != null &&
-                            txConfidenceListener != null &&
-                            tx.getTxId().toString().equals(txConfidenceListener.getTxID()))
-                    .forEach(txConfidenceListener ->
-                            txConfidenceListener.onTransactionConfidenceChanged(tx.getConfidence()));
+
+            CopyOnWriteArraySet<TxConfidenceListener> listeners = txConfidenceListeners.get(tx.getTxId().toString());
+            if (listeners != null)
+                listeners.forEach(listener -> listener.onTransactionConfidenceChanged(tx.getConfidence()));
         }
 
         void notifyBalanceListeners(Transaction tx) {
-            for (BalanceListener balanceListener : balanceListeners) {
-                Coin balance;
-                if (balanceListener.getAddress() != null)
-                    balance = getBalanceForAddress(balanceListener.getAddress());
-                else
-                    balance = getAvailableConfirmedBalance();
-
-                balanceListener.onBalanceChanged(balance, tx);
+            if (!addressBalanceListeners.isEmpty()) {
+                for (Address address : WalletIndex.getAffectedAddresses(tx)) {
+                    CopyOnWriteArraySet<BalanceListener> listeners = addressBalanceListeners.get(address);
+                    if (listeners != null) {
+                        Coin balance = getBalanceForAddress(address);
+                        listeners.forEach(listener -> listener.onBalanceChanged(balance, tx));
+                    }
+                }
+            }
+
+            if (!balanceListeners.isEmpty()) {
+                Coin balance = getAvailableConfirmedBalance();
+                balanceListeners.forEach(listener -> listener.onBalanceChanged(balance, tx));
             }
         }
     }
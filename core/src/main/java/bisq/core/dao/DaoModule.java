@@ -81,6 +81,7 @@ import bisq.core.dao.node.parser.TxParser;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.DaoStateSnapshotService;
 import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.UnspentTxOutputFilter;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.storage.DaoStateStorageService;
 import bisq.core.dao.state.unconfirmed.UnconfirmedBsqChangeOutputListService;
@@ -118,6 +119,7 @@ public class DaoModule extends AppModule {
         bind(GenesisTxInfo.class).in(Singleton.class);
         bind(DaoState.class).in(Singleton.class);
         bind(DaoStateService.class).in(Singleton.class);
+        bind(UnspentTxOutputFilter.class).in(Singleton.class);
         bind(DaoStateSnapshotService.class).in(Singleton.class);
         bind(DaoStateStorageService.class).in(Singleton.class);
         bind(DaoStateMonitoringService.class).in(Singleton.class);
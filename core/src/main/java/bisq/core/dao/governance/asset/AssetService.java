@@ -36,6 +36,7 @@ import bisq.core.dao.state.model.blockchain.TxType;
 import bisq.core.dao.state.model.governance.EvaluatedProposal;
 import bisq.core.dao.state.model.governance.RemoveAssetProposal;
 import bisq.core.locale.CurrencyUtil;
+import bisq.core.trade.statistics.TradeStatistics3;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.util.coin.BsqFormatter;
 
@@ -49,25 +50,23 @@ import org.bitcoinj.core.Transaction;
 
 import javax.inject.Inject;
 
+import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
-import javax.annotation.Nullable;
-
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
@@ -83,6 +82,13 @@ public class AssetService implements DaoSetupService, DaoStateListener {
 
     // Only accessed via getter which fills the list on demand
     private final List<StatefulAsset> lazyLoadedStatefulAssets = new ArrayList<>();
+    private final AssetTradeVolumeIndex tradeVolumeIndex = new AssetTradeVolumeIndex();
+    private final SetChangeListener<TradeStatistics3> tradeStatisticsListener = change -> {
+        // Trade statistics are append only, so we only need to handle additions
+        if (change.wasAdded())
+            addToTradeVolumeIndex(change.getElementAdded());
+    };
+    private boolean tradeVolumeIndexInitialized;
     private long bsqFeePerDay;
     private long minVolumeInBtc;
 
@@ -148,17 +154,10 @@ public class AssetService implements DaoSetupService, DaoStateListener {
         return lazyLoadedStatefulAssets;
     }
 
-    // Call takes bout 22 ms. Should be only called on demand (e.g. view is showing the data)
+    // Should be only called on demand (e.g. view is showing the data). The trade volumes are looked up from an index
+    // which is updated at each new trade statistics, so the costs only depend on the number of assets.
     public void updateAssetStates() {
-        // For performance optimisation we map the trade stats to a temporary lookup map and convert it to a custom
-        // TradeAmountDateTuple object holding only the data we need.
-        Map<String, List<TradeAmountDateTuple>> lookupMap = new HashMap<>();
-        tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> CurrencyUtil.isCryptoCurrency(e.getCurrency()))
-                .forEach(e -> {
-                    lookupMap.putIfAbsent(e.getCurrency(), new ArrayList<>());
-                    lookupMap.get(e.getCurrency()).add(new TradeAmountDateTuple(e.getAmount(), e.getDateAsLong()));
-                });
+        maybeInitTradeVolumeIndex();
 
         getStatefulAssets().stream()
                 .filter(e -> AssetState.REMOVED_BY_VOTING != e.getAssetState()) // if once set to REMOVED_BY_VOTING we ignore it for further processing
@@ -172,7 +171,7 @@ public class AssetService implements DaoSetupService, DaoStateListener {
                         long lookBackPeriodInDays = getLookBackPeriodInDays(statefulAsset);
                         statefulAsset.setLookBackPeriodInDays(lookBackPeriodInDays);
                         long lookupDate = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(lookBackPeriodInDays);
-                        long tradeVolume = getTradeVolume(lookupDate, lookupMap.get(tickerSymbol));
+                        long tradeVolume = tradeVolumeIndex.getTradeVolume(tickerSymbol, lookupDate);
                         statefulAsset.setTradeVolume(tradeVolume);
                         if (isInTrialPeriod(statefulAsset)) {
                             assetState = AssetState.IN_TRIAL_PERIOD;
@@ -184,8 +183,6 @@ public class AssetService implements DaoSetupService, DaoStateListener {
                     }
                     statefulAsset.setAssetState(assetState);
                 });
-
-        lookupMap.clear();
     }
 
     public boolean isActive(String tickerSymbol) {
@@ -238,17 +235,24 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // Get the trade volume from lookupDate until current date
-    private long getTradeVolume(long lookupDate, @Nullable List<TradeAmountDateTuple> tradeAmountDateTupleList) {
-        if (tradeAmountDateTupleList == null) {
-            // Was never traded
-            return 0;
-        }
+    // We fill the index at the first use and keep it updated from the trade statistics listener after that. The set
+    // has no order, so we add the trades sorted by date to get only appends instead of inserts with shifting sums.
+    private void maybeInitTradeVolumeIndex() {
+        if (tradeVolumeIndexInitialized)
+            return;
+
+        ObservableSet<TradeStatistics3> tradeStatisticsSet = tradeStatisticsManager.getObservableTradeStatisticsSet();
+        tradeStatisticsSet.stream()
+                .filter(tradeStatistics -> CurrencyUtil.isCryptoCurrency(tradeStatistics.getCurrency()))
+                .sorted(Comparator.comparingLong(TradeStatistics3::getDateAsLong))
+                .forEach(this::addToTradeVolumeIndex);
+        tradeStatisticsSet.addListener(tradeStatisticsListener);
+        tradeVolumeIndexInitialized = true;
+    }
 
-        return tradeAmountDateTupleList.stream()
-                .filter(e -> e.getTradeDate() > lookupDate)
-                .mapToLong(TradeAmountDateTuple::getTradeAmount)
-                .sum();
+    private void addToTradeVolumeIndex(TradeStatistics3 tradeStatistics) {
+        if (CurrencyUtil.isCryptoCurrency(tradeStatistics.getCurrency()))
+            tradeVolumeIndex.add(tradeStatistics.getCurrency(), tradeStatistics.getDateAsLong(), tradeStatistics.getAmount());
     }
 
     private boolean isInTrialPeriod(StatefulAsset statefulAsset) {
@@ -290,12 +294,10 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     }
 
     private List<Tx> getFeeTxs(StatefulAsset statefulAsset) {
+        byte[] hash = AssetConsensus.getHash(statefulAsset);
+        byte[] opReturnData = AssetConsensus.getOpReturnData(hash);
         return daoStateService.getAssetListingFeeOpReturnTxOutputs().stream()
-                .filter(txOutput -> {
-                    byte[] hash = AssetConsensus.getHash(statefulAsset);
-                    byte[] opReturnData = AssetConsensus.getOpReturnData(hash);
-                    return Arrays.equals(opReturnData, txOutput.getOpReturnData());
-                })
+                .filter(txOutput -> Arrays.equals(opReturnData, txOutput.getOpReturnData()))
                 .map(txOutput -> daoStateService.getTx(txOutput.getTxId()).orElse(null))
                 .filter(Objects::nonNull)
                 .sorted(Comparator.comparing(BaseTx::getTime))
@@ -321,15 +323,4 @@ public class AssetService implements DaoSetupService, DaoStateListener {
                 .filter(EvaluatedProposal::isAccepted)
                 .map(e -> ((RemoveAssetProposal) e.getProposal()));
     }
-
-    @Value
-    private static final class TradeAmountDateTuple {
-        private final long tradeAmount;
-        private final long tradeDate;
-
-        TradeAmountDateTuple(long tradeAmount, long tradeDate) {
-            this.tradeAmount = tradeAmount;
-            this.tradeDate = tradeDate;
-        }
-    }
 }
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.asset;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trade dates and running sums of the trade amounts per asset, so the trade volume of an asset since any date is a
+ * binary search instead of a scan over all trade statistics. The look back period differs per asset (it depends on
+ * the paid listing fee), so we keep all trades and not only a fixed window.
+ *
+ * Trades are added as they arrive. New trades are usually the most recent ones and get appended, older ones are
+ * inserted at their position.
+ *
+ * Not thread safe, we only use it from the user thread.
+ */
+class AssetTradeVolumeIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static class Trades {
+        private long[] dates = new long[INITIAL_CAPACITY];
+        // Sum of the amounts of all trades up to and including the trade at the same index
+        private long[] amountSums = new long[INITIAL_CAPACITY];
+        private int size;
+
+        void add(long date, long amount) {
+            if (size == dates.length) {
+                dates = Arrays.copyOf(dates, size * 2);
+                amountSums = Arrays.copyOf(amountSums, size * 2);
+            }
+
+            if (size == 0 || date >= dates[size - 1]) {
+                dates[size] = date;
+                amountSums[size] = getSumUpTo(size - 1) + amount;
+                size++;
+                return;
+            }
+
+            // We insert after all trades with the same date and add the amount to the sums of all later trades
+            int index = getNumTradesUpTo(date);
+            System.arraycopy(dates, index, dates, index + 1, size - index);
+            System.arraycopy(amountSums, index, amountSums, index + 1, size - index);
+            dates[index] = date;
+            amountSums[index] = getSumUpTo(index - 1) + amount;
+            size++;
+            for (int i = index + 1; i < size; i++) {
+                amountSums[i] += amount;
+            }
+        }
+
+        long getVolumeAfter(long date) {
+            return getSumUpTo(size - 1) - getSumUpTo(getNumTradesUpTo(date) - 1);
+        }
+
+        private long getSumUpTo(int index) {
+            return index < 0 ? 0 : amountSums[index];
+        }
+
+        // Number of trades with a date <= the given date
+        private int getNumTradesUpTo(long date) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dates[mid] <= date) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final Map<String, Trades> tradesByTickerSymbol = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(String tickerSymbol, long date, long amount) {
+        tradesByTickerSymbol.computeIfAbsent(tickerSymbol, k -> new Trades()).add(date, amount);
+    }
+
+    /**
+     * @return The sum of the trade amounts of the trades of the asset with a date after the given date
+     */
+    long getTradeVolume(String tickerSymbol, long lookupDate) {
+        Trades trades = tradesByTickerSymbol.get(tickerSymbol);
+        // If null it was never traded
+        return trades != null ? trades.getVolumeAfter(lookupDate) : 0;
+    }
+}
@@ -19,12 +19,14 @@ package bisq.core.dao.node.explorer;
 
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.IssuanceType;
+
+import bisq.common.UserThread;
 
 import bisq.common.config.Config;
 import bisq.common.file.FileUtil;
@@ -42,6 +44,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 
 import java.nio.file.Paths;
 
@@ -49,24 +52,49 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    private static final int BLOCKS_PER_SEGMENT = 100;
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
 
     private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
             1, 1, 1200);
-    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager, blockSegmentsFileManager;
+    private File blockSegmentsDir;
+
+    // Only accessed from the user thread. Updated once the export has been written.
+    private int lastExportedHeight;
+    // Number of entries of the confiscated lockup tx list covered by the last written export
+    private int lastExportedNumConfiscatedLockupTxs;
+    @Nullable
+    private String lastExportedBlockHash;
+    // Hash of the last block of the export which is queued or in progress
+    @Nullable
+    private String pendingBlockHash;
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
@@ -93,6 +121,7 @@ public class ExportJsonFilesService implements DaoSetupService {
             File txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
             File txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
             File bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
+            blockSegmentsDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all", "blocks").toString());
             try {
                 if (txDir.exists())
                     FileUtil.deleteDirectory(txDir);
@@ -119,9 +148,13 @@ public class ExportJsonFilesService implements DaoSetupService {
             if (!bsqStateDir.mkdir())
                 log.warn("make bsqStateDir failed.\nbsqStateDir=" + bsqStateDir.getAbsolutePath());
 
+            if (!blockSegmentsDir.mkdir())
+                log.warn("make blockSegmentsDir failed.\nblockSegmentsDir=" + blockSegmentsDir.getAbsolutePath());
+
             txFileManager = new JsonFileManager(txDir);
             txOutputFileManager = new JsonFileManager(txOutputDir);
             bsqStateFileManager = new JsonFileManager(bsqStateDir);
+            blockSegmentsFileManager = new JsonFileManager(blockSegmentsDir);
         }
     }
 
@@ -130,46 +163,235 @@ public class ExportJsonFilesService implements DaoSetupService {
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
             bsqStateFileManager.shutDown();
+            blockSegmentsFileManager.shutDown();
         }
     }
 
+    /**
+     * At the first call after startup or after a reorg we export all data. Afterwards we only write the txs and tx
+     * outputs of the new blocks, the txs and tx outputs which got spent in the new blocks, the txs which got issued
+     * in the new blocks, the lockup and unlock txs of the bonds which got confiscated in the new blocks, the segments
+     * of the blocks containing any of those txs and the blocks index. Each segment contains BLOCKS_PER_SEGMENT blocks
+     * so we never need to rewrite the whole chain.
+     */
     public void maybeExportToJson() {
-        if (dumpBlockchainData &&
-                daoStateService.isParseBlockChainComplete()) {
-            // We store the data we need once we write the data to disk (in the thread) locally.
-            // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getUnorderedTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
-
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
+        exportToJson();
+    }
+
+    /**
+     * @return The future of the export, which completes once the export state got updated, or null if there was
+     * nothing to export.
+     */
+    @Nullable
+    ListenableFuture<Void> exportToJson() {
+        if (!dumpBlockchainData || !daoStateService.isParseBlockChainComplete())
+            return null;
+
+        Optional<Block> optionalLastBlock = daoStateService.getLastBlock();
+        if (!optionalLastBlock.isPresent())
+            return null;
+
+        Block lastBlock = optionalLastBlock.get();
+        int height = lastBlock.getHeight();
+        String hash = lastBlock.getHash();
+        int numConfiscatedLockupTxs = daoStateService.getConfiscatedLockupTxList().size();
+        if (hash.equals(lastExportedBlockHash) || hash.equals(pendingBlockHash))
+            return null;
+
+        // We store the data we need once we write the data to disk (in the thread) locally.
+        // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
+        // Until a previous export has been written we export from the last written block, so a failed write gets
+        // repeated.
+        Callable<Void> writeTask = isLastExportedBlockInChain() ? getExportNewBlocksTask() : getExportAllTask();
+        pendingBlockHash = hash;
+
+        ListenableFuture<Void> future = executor.submit(writeTask);
+        SettableFuture<Void> result = SettableFuture.create();
+        Futures.addCallback(future, new FutureCallback<>() {
+            public void onSuccess(Void ignore) {
+                UserThread.execute(() -> {
+                    lastExportedHeight = height;
+                    lastExportedBlockHash = hash;
+                    lastExportedNumConfiscatedLockupTxs = numConfiscatedLockupTxs;
+                    if (hash.equals(pendingBlockHash))
+                        pendingBlockHash = null;
+                    result.set(null);
+                });
+            }
+
+            public void onFailure(@NotNull Throwable throwable) {
+                log.error(throwable.toString());
+                throwable.printStackTrace();
+                UserThread.execute(() -> {
+                    if (hash.equals(pendingBlockHash))
+                        pendingBlockHash = null;
+                    result.setException(throwable);
+                });
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private Callable<Void> getExportAllTask() {
+        List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
+        List<JsonTx> jsonTxs = daoStateService.getUnorderedTxStream()
+                .map(tx -> {
+                    JsonTx jsonTx = getJsonTx(tx);
+                    allJsonTxOutputs.addAll(jsonTx.getOutputs());
+                    return jsonTx;
+                }).collect(Collectors.toList());
+
+        Map<Integer, List<JsonBlock>> jsonBlocksBySegment = new TreeMap<>();
+        daoStateService.getBlocks().forEach(block ->
+                jsonBlocksBySegment.computeIfAbsent(getSegmentStartHeight(block.getHeight()), k -> new ArrayList<>())
+                        .add(getJsonBlock(block)));
+        int chainHeight = daoStateService.getChainHeight();
+        JsonBlocksIndex jsonBlocksIndex = getJsonBlocksIndex();
+
+        log.info("Export all data to json. Blocks: {}, txs: {}, tx outputs: {}",
+                daoStateService.getBlocks().size(), jsonTxs.size(), allJsonTxOutputs.size());
+        return () -> {
+            // After a reorg we might have segments above the new chain height
+            File[] segmentFiles = blockSegmentsDir.listFiles();
+            if (segmentFiles != null) {
+                for (File segmentFile : segmentFiles) {
+                    if (!segmentFile.delete())
+                        log.warn("Could not delete segment file {}", segmentFile);
+                }
+            }
+            jsonBlocksBySegment.forEach((segmentStartHeight, jsonBlockList) ->
+                    blockSegmentsFileManager.writeToDisc(Utilities.objectToJson(new JsonBlocks(chainHeight, jsonBlockList)),
+                            String.valueOf(segmentStartHeight)));
+            bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocksIndex), "blocksIndex");
+            allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+            jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+            return null;
+        };
+    }
+
+    private Callable<Void> getExportNewBlocksTask() {
+        List<Block> newBlocks = getBlocksInRange(lastExportedHeight + 1, Integer.MAX_VALUE);
+
+        // The txs of the new blocks and the txs with outputs spent by the new blocks. The spent state is part of the
+        // tx, the tx output and the block json.
+        Map<String, Tx> changedTxsById = new LinkedHashMap<>();
+        Set<String> changedTxOutputIds = new HashSet<>();
+        Set<Integer> changedSegments = new TreeSet<>();
+        // If a compensation or reimbursement request got accepted in the new blocks, the issuance candidate output of
+        // the request tx, which is in an earlier block, becomes a BSQ output.
+        Arrays.stream(IssuanceType.values())
+                .flatMap(issuanceType -> daoStateService.getIssuanceSetForType(issuanceType).stream())
+                .filter(issuance -> issuance.getChainHeight() > lastExportedHeight)
+                .forEach(issuance -> daoStateService.getTx(issuance.getTxId()).ifPresent(issuedTx ->
+                        addChangedTx(issuedTx, changedTxsById, changedTxOutputIds, changedSegments)));
+        // A bond confiscation in the new blocks changes the state of the lockup tx and of the unlock tx spending it,
+        // which are both in earlier blocks. The list is only appended to, except for a reorg or a snapshot which
+        // leads to a full export.
+        List<String> confiscatedLockupTxList = daoStateService.getConfiscatedLockupTxList();
+        int fromIndex = lastExportedNumConfiscatedLockupTxs <= confiscatedLockupTxList.size() ?
+                lastExportedNumConfiscatedLockupTxs : 0;
+        confiscatedLockupTxList.subList(fromIndex, confiscatedLockupTxList.size())
+                .forEach(lockupTxId -> daoStateService.getTx(lockupTxId).ifPresent(lockupTx -> {
+                    addChangedTx(lockupTx, changedTxsById, changedTxOutputIds, changedSegments);
+                    daoStateService.getLockupTxOutput(lockupTxId)
+                            .flatMap(daoStateService::getSpentInfo)
+                            .flatMap(spentInfo -> daoStateService.getTx(spentInfo.getTxId()))
+                            .ifPresent(unlockTx -> addChangedTx(unlockTx, changedTxsById, changedTxOutputIds,
+                                    changedSegments));
+                }));
+        newBlocks.forEach(block -> {
+            changedSegments.add(getSegmentStartHeight(block.getHeight()));
+            block.getTxs().forEach(tx -> {
+                changedTxsById.put(tx.getId(), tx);
+                tx.getTxOutputs().forEach(txOutput -> changedTxOutputIds.add(tx.getId() + ":" + txOutput.getIndex()));
+                tx.getTxInputs().forEach(txInput -> daoStateService.getTx(txInput.getConnectedTxOutputTxId())
+                        .ifPresent(connectedTx -> {
+                            changedTxsById.putIfAbsent(connectedTx.getId(), connectedTx);
+                            changedTxOutputIds.add(connectedTx.getId() + ":" + txInput.getConnectedTxOutputIndex());
+                            changedSegments.add(getSegmentStartHeight(connectedTx.getBlockHeight()));
+                        }));
+            });
+        });
+
+        List<JsonTx> jsonTxs = changedTxsById.values().stream()
+                .map(this::getJsonTx)
+                .collect(Collectors.toList());
+        List<JsonTxOutput> jsonTxOutputs = jsonTxs.stream()
+                .flatMap(jsonTx -> jsonTx.getOutputs().stream())
+                .filter(jsonTxOutput -> changedTxOutputIds.contains(jsonTxOutput.getId()))
+                .collect(Collectors.toList());
+        int chainHeight = daoStateService.getChainHeight();
+        Map<Integer, JsonBlocks> jsonBlocksBySegment = new TreeMap<>();
+        changedSegments.forEach(segmentStartHeight -> {
+            List<JsonBlock> jsonBlockList = getBlocksInRange(segmentStartHeight, segmentStartHeight + BLOCKS_PER_SEGMENT).stream()
                     .map(this::getJsonBlock)
                     .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
+            jsonBlocksBySegment.put(segmentStartHeight, new JsonBlocks(chainHeight, jsonBlockList));
+        });
+        JsonBlocksIndex jsonBlocksIndex = getJsonBlocksIndex();
+
+        log.debug("Export {} new blocks to json. Segments: {}, txs: {}, tx outputs: {}",
+                newBlocks.size(), changedSegments.size(), jsonTxs.size(), jsonTxOutputs.size());
+        return () -> {
+            jsonBlocksBySegment.forEach((segmentStartHeight, jsonBlocks) ->
+                    blockSegmentsFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), String.valueOf(segmentStartHeight)));
+            bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocksIndex), "blocksIndex");
+            jsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+            jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+            return null;
+        };
+    }
 
-            ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
-                return null;
-            });
+    private void addChangedTx(Tx tx,
+                              Map<String, Tx> changedTxsById,
+                              Set<String> changedTxOutputIds,
+                              Set<Integer> changedSegments) {
+        changedTxsById.put(tx.getId(), tx);
+        tx.getTxOutputs().forEach(txOutput -> changedTxOutputIds.add(tx.getId() + ":" + txOutput.getIndex()));
+        changedSegments.add(getSegmentStartHeight(tx.getBlockHeight()));
+    }
 
-            Futures.addCallback(future, new FutureCallback<>() {
-                public void onSuccess(Void ignore) {
-                }
+    private boolean isLastExportedBlockInChain() {
+        if (lastExportedBlockHash == null)
+            return false;
+
+        Iterator<Block> iterator = daoStateService.getBlocks().descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() == lastExportedHeight)
+                return block.getHash().equals(lastExportedBlockHash);
+            if (block.getHeight() < lastExportedHeight)
+                return false;
+        }
+        return false;
+    }
 
-                public void onFailure(@NotNull Throwable throwable) {
-                    log.error(throwable.toString());
-                    throwable.printStackTrace();
-                }
-            }, MoreExecutors.directExecutor());
+    // Blocks are sorted by height, so for recent heights we only iterate over the tail of the list.
+    private List<Block> getBlocksInRange(int fromHeight, int toHeightExclusive) {
+        LinkedList<Block> blocks = new LinkedList<>();
+        Iterator<Block> iterator = daoStateService.getBlocks().descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() < fromHeight)
+                break;
+            if (block.getHeight() < toHeightExclusive)
+                blocks.addFirst(block);
+        }
+        return blocks;
+    }
+
+    private JsonBlocksIndex getJsonBlocksIndex() {
+        List<String> segments = new ArrayList<>();
+        int lastSegmentStartHeight = getSegmentStartHeight(daoStateService.getBlockHeightOfLastBlock());
+        for (int height = daoStateService.getGenesisBlockHeight(); height <= lastSegmentStartHeight; height += BLOCKS_PER_SEGMENT) {
+            segments.add(String.valueOf(height));
         }
+        return new JsonBlocksIndex(daoStateService.getChainHeight(), BLOCKS_PER_SEGMENT, segments);
+    }
+
+    private int getSegmentStartHeight(int height) {
+        int genesisBlockHeight = daoStateService.getGenesisBlockHeight();
+        return genesisBlockHeight + (height - genesisBlockHeight) / BLOCKS_PER_SEGMENT * BLOCKS_PER_SEGMENT;
     }
 
     private JsonBlock getJsonBlock(Block block) {
@@ -17,6 +17,7 @@
 
 package bisq.core.dao.node.full;
 
+import bisq.core.dao.state.UnspentTxOutputFilter;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.TxInput;
 import bisq.core.user.Preferences;
@@ -33,6 +34,7 @@ import com.neemre.btcdcli4j.core.BtcdCli4jVersion;
 import com.neemre.btcdcli4j.core.CommunicationException;
 import com.neemre.btcdcli4j.core.client.BtcdClient;
 import com.neemre.btcdcli4j.core.client.BtcdClientImpl;
+import com.neemre.btcdcli4j.core.domain.RawInput;
 import com.neemre.btcdcli4j.core.domain.RawTransaction;
 import com.neemre.btcdcli4j.core.domain.enums.ScriptTypes;
 import com.neemre.btcdcli4j.daemon.BtcdDaemon;
@@ -54,8 +56,11 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -76,6 +81,7 @@ public class RpcService {
     private final int rpcPort;
     private final int rpcBlockPort;
     private final String rpcBlockHost;
+    private final UnspentTxOutputFilter unspentTxOutputFilter;
 
     private BtcdClient client;
     private BtcdDaemon daemon;
@@ -92,12 +98,14 @@ public class RpcService {
     @SuppressWarnings("WeakerAccess")
     @Inject
     public RpcService(Preferences preferences,
+                      UnspentTxOutputFilter unspentTxOutputFilter,
                       @Named(Config.RPC_HOST) String rpcHost,
                       @Named(Config.RPC_PORT) int rpcPort,
                       @Named(Config.RPC_BLOCK_NOTIFICATION_PORT) int rpcBlockPort,
                       @Named(Config.RPC_BLOCK_NOTIFICATION_HOST) String rpcBlockHost) {
         this.rpcUser = preferences.getRpcUser();
         this.rpcPassword = preferences.getRpcPw();
+        this.unspentTxOutputFilter = unspentTxOutputFilter;
 
         // mainnet is 8332, testnet 18332, regtest 18443
         boolean isHostSet = !rpcHost.isEmpty();
@@ -205,7 +213,7 @@ public class RpcService {
 
                 try {
                     log.info("New block received: height={}, id={}", rawBtcBlock.getHeight(), rawBtcBlock.getHash());
-                    List<RawTx> txList = rawBtcBlock.getTx().stream()
+                    List<RawTx> txList = getBsqCandidateTxs(rawBtcBlock).stream()
                             .map(e -> getTxFromRawTransaction(e, rawBtcBlock))
                             .collect(Collectors.toList());
                     UserThread.execute(() -> {
@@ -242,11 +250,11 @@ public class RpcService {
             long startTs = System.currentTimeMillis();
             String blockHash = client.getBlockHash(blockHeight);
             com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock = client.getBlock(blockHash, 2);
-            List<RawTx> txList = rawBtcBlock.getTx().stream()
+            List<RawTx> txList = getBsqCandidateTxs(rawBtcBlock).stream()
                     .map(e -> getTxFromRawTransaction(e, rawBtcBlock))
                     .collect(Collectors.toList());
-            log.info("requestBtcBlock from bitcoind at blockHeight {} with {} txs took {} ms",
-                    blockHeight, txList.size(), System.currentTimeMillis() - startTs);
+            log.info("requestBtcBlock from bitcoind at blockHeight {} with {} txs ({} BSQ candidates) took {} ms",
+                    blockHeight, rawBtcBlock.getTx().size(), txList.size(), System.currentTimeMillis() - startTs);
             return new RawBlock(rawBtcBlock.getHeight(),
                     rawBtcBlock.getTime() * 1000, // rawBtcBlock.getTime() is in sec but we want ms
                     rawBtcBlock.getHash(),
@@ -273,6 +281,52 @@ public class RpcService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // We only convert the txs which spend an unspent BSQ tx output (or an output of a candidate tx of the same block).
+    // The filter is updated from the user thread, so we can only use it if it reflects the DAO state after the
+    // previous block and did not change while we have used it. Otherwise we return all txs and leave the filtering
+    // to the BlockParser.
+    private List<RawTransaction> getBsqCandidateTxs(com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock) {
+        List<RawTransaction> rawBtcTxs = rawBtcBlock.getTx();
+        String tipBlockHash = unspentTxOutputFilter.getTipBlockHash();
+        long modCount = unspentTxOutputFilter.getModCount();
+        if (tipBlockHash == null || !tipBlockHash.equals(rawBtcBlock.getPreviousBlockHash()))
+            return rawBtcTxs;
+
+        Set<String> candidateTxIds = new HashSet<>();
+        List<RawTransaction> candidates = new ArrayList<>();
+        for (RawTransaction rawBtcTx : rawBtcTxs) {
+            if (isBsqCandidate(rawBtcTx, candidateTxIds)) {
+                candidates.add(rawBtcTx);
+                candidateTxIds.add(rawBtcTx.getTxId());
+            }
+        }
+
+        if (unspentTxOutputFilter.getModCount() != modCount ||
+                !tipBlockHash.equals(unspentTxOutputFilter.getTipBlockHash())) {
+            log.info("UnspentTxOutputFilter has changed while filtering block {}. We use all txs.", rawBtcBlock.getHeight());
+            return rawBtcTxs;
+        }
+
+        log.info("Prefilter at block height {}: BSQ candidates: {}, rejected: {}",
+                rawBtcBlock.getHeight(), candidates.size(), rawBtcTxs.size() - candidates.size());
+        return candidates;
+    }
+
+    private boolean isBsqCandidate(RawTransaction rawBtcTx, Set<String> candidateTxIds) {
+        if (rawBtcTx.getVIn() == null)
+            return false;
+
+        for (RawInput rawInput : rawBtcTx.getVIn()) {
+            if (rawInput == null || rawInput.getVOut() == null || rawInput.getTxId() == null)
+                continue;
+
+            if (candidateTxIds.contains(rawInput.getTxId()) ||
+                    unspentTxOutputFilter.contains(rawInput.getTxId(), rawInput.getVOut()))
+                return true;
+        }
+        return false;
+    }
+
     private RawTx getTxFromRawTransaction(RawTransaction rawBtcTx,
                                           com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock) {
         String txId = rawBtcTx.getTxId();
@@ -18,10 +18,12 @@
 package bisq.core.dao.node.parser;
 
 import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
 import bisq.core.dao.node.parser.exceptions.BlockHashNotConnectingException;
 import bisq.core.dao.node.parser.exceptions.BlockHeightNotConnectingException;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.TxInput;
 
 import bisq.common.app.DevEnv;
 
@@ -104,20 +106,39 @@ public class BlockParser {
         // Lately there is a patter with 24 iterations observed
         long startTs = System.currentTimeMillis();
 
-        rawBlock.getRawTxs().forEach(rawTx ->
-                txParser.findTx(rawTx,
-                        genesisTxId,
-                        genesisBlockHeight,
-                        genesisTotalSupply)
-                        .ifPresent(tx -> daoStateService.onNewTxForLastBlock(block, tx)));
+        int numCandidates = 0;
+        for (RawTx rawTx : rawBlock.getRawTxs()) {
+            // Most txs do not spend any BSQ, we reject those before the TxParser creates any objects.
+            if (!isBsqCandidate(rawTx))
+                continue;
+
+            numCandidates++;
+            txParser.findTx(rawTx,
+                    genesisTxId,
+                    genesisBlockHeight,
+                    genesisTotalSupply)
+                    .ifPresent(tx -> daoStateService.onNewTxForLastBlock(block, tx));
+        }
 
-        log.info("Parsing {} transactions at block height {} took {} ms", rawBlock.getRawTxs().size(),
-                blockHeight, System.currentTimeMillis() - startTs);
+        log.info("Parsing {} transactions at block height {} took {} ms. BSQ candidates: {}, rejected by prefilter: {}",
+                rawBlock.getRawTxs().size(), blockHeight, System.currentTimeMillis() - startTs,
+                numCandidates, rawBlock.getRawTxs().size() - numCandidates);
 
         daoStateService.onParseBlockComplete(block);
         return block;
     }
 
+    private boolean isBsqCandidate(RawTx rawTx) {
+        if (GenesisTxParser.isGenesis(rawTx, genesisTxId, genesisBlockHeight))
+            return true;
+
+        for (TxInput txInput : rawTx.getTxInputs()) {
+            if (daoStateService.isUnspent(txInput.getConnectedTxOutputTxId(), txInput.getConnectedTxOutputIndex()))
+                return true;
+        }
+        return false;
+    }
+
     private void validateIfBlockIsConnecting(RawBlock rawBlock) throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
         LinkedList<Block> blocks = daoStateService.getBlocks();
 
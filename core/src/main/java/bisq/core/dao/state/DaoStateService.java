@@ -42,14 +42,14 @@ import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -69,6 +69,8 @@ public class DaoStateService implements DaoSetupService {
     private final DaoState daoState;
     private final GenesisTxInfo genesisTxInfo;
     private final BsqFormatter bsqFormatter;
+    private final UnspentTxOutputFilter unspentTxOutputFilter;
+    private final ParamChangeIndex paramChangeIndex = new ParamChangeIndex();
     private final List<DaoStateListener> daoStateListeners = new CopyOnWriteArrayList<>();
     @Getter
     private boolean parseBlockChainComplete;
@@ -80,10 +82,14 @@ public class DaoStateService implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public DaoStateService(DaoState daoState, GenesisTxInfo genesisTxInfo, BsqFormatter bsqFormatter) {
+    public DaoStateService(DaoState daoState,
+                           GenesisTxInfo genesisTxInfo,
+                           BsqFormatter bsqFormatter,
+                           UnspentTxOutputFilter unspentTxOutputFilter) {
         this.daoState = daoState;
         this.genesisTxInfo = genesisTxInfo;
         this.bsqFormatter = bsqFormatter;
+        this.unspentTxOutputFilter = unspentTxOutputFilter;
     }
 
 
@@ -125,6 +131,8 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getUnspentTxOutputMap().clear();
         daoState.getUnspentTxOutputMap().putAll(snapshot.getUnspentTxOutputMap());
+        unspentTxOutputFilter.reset(daoState.getUnspentTxOutputMap().keySet(),
+                getLastBlock().map(Block::getHash).orElse(null));
 
         daoState.getSpentInfoMap().clear();
         daoState.getSpentInfoMap().putAll(snapshot.getSpentInfoMap());
@@ -137,6 +145,7 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getParamChangeList().clear();
         daoState.getParamChangeList().addAll(snapshot.getParamChangeList());
+        paramChangeIndex.rebuild(daoState.getParamChangeList());
 
         daoState.getEvaluatedProposalList().clear();
         daoState.getEvaluatedProposalList().addAll(snapshot.getEvaluatedProposalList());
@@ -205,6 +214,7 @@ public class DaoStateService implements DaoSetupService {
     // First we get the blockHeight set
     public void onNewBlockHeight(int blockHeight) {
         allowDaoStateChange = true;
+        unspentTxOutputFilter.setTipBlockHash(null);
         daoState.setChainHeight(blockHeight);
         daoStateListeners.forEach(listener -> listener.onNewBlockHeight(blockHeight));
     }
@@ -264,6 +274,8 @@ public class DaoStateService implements DaoSetupService {
         // generate a hash of the state.
         allowDaoStateChange = false;
         daoStateListeners.forEach(l -> l.onDaoStateChanged(block));
+
+        unspentTxOutputFilter.setTipBlockHash(block.getHash());
     }
 
     // Called after parsing of all pending blocks is completed
@@ -449,24 +461,32 @@ public class DaoStateService implements DaoSetupService {
     // UnspentTxOutput
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public TreeMap<TxOutputKey, TxOutput> getUnspentTxOutputMap() {
+    public Map<TxOutputKey, TxOutput> getUnspentTxOutputMap() {
         return daoState.getUnspentTxOutputMap();
     }
 
     public void addUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
         getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        unspentTxOutputFilter.add(txOutput.getKey());
     }
 
     public void removeUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
         getUnspentTxOutputMap().remove(txOutput.getKey());
+        unspentTxOutputFilter.remove(txOutput.getKey());
     }
 
     public boolean isUnspent(TxOutputKey key) {
         return getUnspentTxOutputMap().containsKey(key);
     }
 
+    // Uses the Bloom filter backed UnspentTxOutputFilter, so it does not require any allocation for the usual case
+    // of a not BSQ tx output.
+    public boolean isUnspent(String txId, int index) {
+        return unspentTxOutputFilter.contains(txId, index);
+    }
+
     public Set<TxOutput> getUnspentTxOutputs() {
         return new HashSet<>(getUnspentTxOutputMap().values());
     }
@@ -881,6 +901,11 @@ public class DaoStateService implements DaoSetupService {
         return false;
     }
 
+    // Lockup tx ids in the order the bonds got confiscated
+    public List<String> getConfiscatedLockupTxList() {
+        return Collections.unmodifiableList(daoState.getConfiscatedLockupTxList());
+    }
+
     public boolean isConfiscatedLockupTxOutput(String lockupTxId) {
         return daoState.getConfiscatedLockupTxList().contains(lockupTxId);
     }
@@ -905,24 +930,19 @@ public class DaoStateService implements DaoSetupService {
                     paramChangeList.add(paramChange);
                     // Addition with older height should not be possible but to ensure correct sorting lets run a sort.
                     paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
+                    paramChangeIndex.rebuild(paramChangeList);
                 });
     }
 
     public String getParamValue(Param param, int blockHeight) {
-        List<ParamChange> paramChangeList = new ArrayList<>(daoState.getParamChangeList());
-        if (!paramChangeList.isEmpty()) {
-            // List is sorted by height, we start from latest entries to find most recent entry.
-            for (int i = paramChangeList.size() - 1; i >= 0; i--) {
-                ParamChange paramChange = paramChangeList.get(i);
-                if (paramChange.getParamName().equals(param.name()) &&
-                        blockHeight >= paramChange.getActivationHeight()) {
-                    return paramChange.getValue();
-                }
-            }
-        }
+        List<ParamChange> paramChangeList = daoState.getParamChangeList();
+        if (!paramChangeIndex.isInSync(paramChangeList))
+            paramChangeIndex.rebuild(paramChangeList);
+
+        String value = paramChangeIndex.getValue(param, blockHeight);
 
         // If no value found we use default values
-        return param.getDefaultValue();
+        return value != null ? value : param.getDefaultValue();
     }
 
     public Coin getParamValueAsCoin(Param param, String paramValue) {
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Height indexed history of the param changes per param. The param change list of the DaoState is sorted by
+ * activation height, so the activation heights of each param are sorted as well and we can use a binary search.
+ * Lookups at the chain tip, which is the common case, are answered from the last entry without any search.
+ *
+ * The index is rebuilt on the user thread but getParamValue is called from other threads as well. A rebuild
+ * therefore builds a new immutable snapshot and publishes it with a single volatile write, so readers see either the
+ * old or the new index but never a partially filled one.
+ */
+@Slf4j
+class ParamChangeIndex {
+    private static class History {
+        private final int[] activationHeights;
+        private final String[] values;
+
+        History(List<ParamChange> paramChanges) {
+            int size = paramChanges.size();
+            activationHeights = new int[size];
+            values = new String[size];
+            for (int i = 0; i < size; i++) {
+                activationHeights[i] = paramChanges.get(i).getActivationHeight();
+                values[i] = paramChanges.get(i).getValue();
+            }
+        }
+
+        @Nullable
+        String getValue(int blockHeight) {
+            int last = activationHeights.length - 1;
+            if (blockHeight >= activationHeights[last])
+                return values[last];
+
+            // We search the last entry with an activation height <= blockHeight. If there are multiple entries at
+            // the same height the last added one wins, as it was the case when we iterated the list backwards.
+            int low = 0;
+            int high = last;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (activationHeights[mid] <= blockHeight)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low > 0 ? values[low - 1] : null;
+        }
+    }
+
+    private static class Snapshot {
+        private final Map<Param, History> historyByParam;
+        private final int numIndexedParamChanges;
+
+        Snapshot(Map<Param, History> historyByParam, int numIndexedParamChanges) {
+            this.historyByParam = historyByParam;
+            this.numIndexedParamChanges = numIndexedParamChanges;
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(new EnumMap<>(Param.class), -1);
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void rebuild(List<ParamChange> paramChangeList) {
+        List<ParamChange> paramChanges = new ArrayList<>(paramChangeList);
+        Map<Param, List<ParamChange>> paramChangesByParam = new EnumMap<>(Param.class);
+        paramChanges.forEach(paramChange -> {
+            try {
+                Param param = Param.valueOf(paramChange.getParamName());
+                paramChangesByParam.computeIfAbsent(param, k -> new ArrayList<>()).add(paramChange);
+            } catch (IllegalArgumentException e) {
+                log.warn("We got a param change for an unknown param. paramChange={}", paramChange);
+            }
+        });
+
+        Map<Param, History> historyByParam = new EnumMap<>(Param.class);
+        paramChangesByParam.forEach((param, list) -> historyByParam.put(param, new History(list)));
+        snapshot = new Snapshot(historyByParam, paramChanges.size());
+    }
+
+    // The param change list only grows or gets replaced at snapshot apply, where we rebuild the index. The size check
+    // covers the case that the list got changed without our knowledge.
+    boolean isInSync(List<ParamChange> paramChangeList) {
+        return snapshot.numIndexedParamChanges == paramChangeList.size();
+    }
+
+    /**
+     * @return The value of the most recent param change for the given param which is active at the given block
+     * height or null if there is none.
+     */
+    @Nullable
+    String getValue(Param param, int blockHeight) {
+        History history = snapshot.historyByParam.get(param);
+        return history != null ? history.getValue(blockHeight) : null;
+    }
+}
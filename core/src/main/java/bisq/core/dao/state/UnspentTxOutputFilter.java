@@ -0,0 +1,173 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Membership filter over the keys of the unspent BSQ tx outputs. Only a tx which spends an unspent BSQ tx output can
+ * be a BSQ tx (beside the genesis tx), so the full node uses it to reject the vast majority of the bitcoin txs
+ * before any parsing objects are created.
+ *
+ * A Bloom filter is used in front of an exact hash set. Nearly all lookups are answered by the Bloom filter without
+ * any allocation, the rare positives are verified in the hash set. As we cannot remove entries from the Bloom filter,
+ * removed keys stay set until we rebuild it once the number of added keys exceeds its capacity.
+ *
+ * Mutations happen only from the user thread (via DaoStateService). The RpcService reads it from its own thread to
+ * filter the txs of a new block. Such a lookup is only valid if the filter reflects the state after the previous
+ * block of the requested block, so readers check the tipBlockHash and modCount before and after using it.
+ */
+@Slf4j
+public class UnspentTxOutputFilter {
+    private static final int MIN_CAPACITY = 1 << 14;
+    private static final int BITS_PER_KEY = 16;
+    private static final int NUM_HASH_FUNCTIONS = 6;
+
+    private final Set<TxOutputKey> keys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong modCount = new AtomicLong();
+    private volatile long[] bloomBits;
+    private int bloomCapacity;
+    private int numBloomKeys;
+    // Hash of the block after which the filter reflects the DAO state. Null while a block is parsed.
+    @Getter
+    @Nullable
+    private volatile String tipBlockHash;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public UnspentTxOutputFilter() {
+        rebuildBloomFilter(MIN_CAPACITY);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean contains(String txId, int index) {
+        return mightContain(bloomBits, hash(txId, index)) && keys.contains(new TxOutputKey(txId, index));
+    }
+
+    public long getModCount() {
+        return modCount.get();
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package private, only called by DaoStateService from the user thread
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(TxOutputKey key) {
+        if (!keys.add(key))
+            return;
+
+        if (numBloomKeys >= bloomCapacity) {
+            rebuildBloomFilter(Math.max(MIN_CAPACITY, keys.size() * 2));
+        } else {
+            setBits(bloomBits, hash(key.getTxId(), key.getIndex()));
+            numBloomKeys++;
+        }
+        modCount.incrementAndGet();
+    }
+
+    void remove(TxOutputKey key) {
+        if (keys.remove(key))
+            modCount.incrementAndGet();
+    }
+
+    void reset(Collection<TxOutputKey> unspentKeys, @Nullable String tipBlockHash) {
+        this.tipBlockHash = null;
+        keys.clear();
+        keys.addAll(unspentKeys);
+        rebuildBloomFilter(Math.max(MIN_CAPACITY, keys.size() * 2));
+        modCount.incrementAndGet();
+        this.tipBlockHash = tipBlockHash;
+    }
+
+    void setTipBlockHash(@Nullable String tipBlockHash) {
+        this.tipBlockHash = tipBlockHash;
+        modCount.incrementAndGet();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void rebuildBloomFilter(int capacity) {
+        // Number of bits is a power of 2 so we can use a mask instead of a modulo
+        int numBits = Integer.highestOneBit(capacity * BITS_PER_KEY - 1) << 1;
+        long[] bits = new long[numBits >>> 6];
+        keys.forEach(key -> setBits(bits, hash(key.getTxId(), key.getIndex())));
+        bloomCapacity = capacity;
+        numBloomKeys = keys.size();
+        bloomBits = bits;
+        log.debug("Rebuilt Bloom filter with {} keys and a capacity of {}", numBloomKeys, capacity);
+    }
+
+    private static void setBits(long[] bits, long hash) {
+        int mask = (bits.length << 6) - 1;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+            int bitIndex = (h1 + i * h2) & mask;
+            bits[bitIndex >>> 6] |= 1L << bitIndex;
+        }
+    }
+
+    private static boolean mightContain(long[] bits, long hash) {
+        int mask = (bits.length << 6) - 1;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+            int bitIndex = (h1 + i * h2) & mask;
+            if ((bits[bitIndex >>> 6] & (1L << bitIndex)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    // String.hashCode is cached in the string instance. We spread it with the output index using the finalizer of
+    // MurmurHash3 so both halves of the result can be used as independent hashes.
+    private static long hash(String txId, int index) {
+        long h = txId.hashCode() * 0x9E3779B97F4A7C15L + index;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
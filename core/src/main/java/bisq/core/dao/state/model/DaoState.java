@@ -55,7 +55,8 @@ import lombok.extern.slf4j.Slf4j;
  * One BSQ block with empty txs adds 152 bytes which results in about 8 MB/year
  *
  * For supporting the hashChain we need to ensure deterministic sorting behaviour of all collections so we use a
- * TreeMap which is sorted by the key.
+ * TreeMap which is sorted by the key. The large maps for the unspent tx outputs and the spent infos are HashMaps for
+ * O(1) lookups and get sorted by the key when we create the protobuf data.
  */
 @Slf4j
 public class DaoState implements PersistablePayload {
@@ -81,12 +82,12 @@ public class DaoState implements PersistablePayload {
     private final LinkedList<Cycle> cycles;
 
     // These maps represent mutual data which can get changed at parsing a transaction
-    // We use TreeMaps instead of HashMaps because we need deterministic sorting of the maps for the hashChains
-    // used for the DAO monitor.
+    // We need deterministic sorting of the maps for the hashChains used for the DAO monitor, so we sort the entries
+    // at getBsqStateBuilderExcludingBlocks.
     @Getter
-    private final TreeMap<TxOutputKey, TxOutput> unspentTxOutputMap;
+    private final HashMap<TxOutputKey, TxOutput> unspentTxOutputMap;
     @Getter
-    private final TreeMap<TxOutputKey, SpentInfo> spentInfoMap;
+    private final HashMap<TxOutputKey, SpentInfo> spentInfoMap;
 
     // These maps are related to state change triggered by voting
     @Getter
@@ -118,8 +119,8 @@ public class DaoState implements PersistablePayload {
         this(0,
                 new LinkedList<>(),
                 new LinkedList<>(),
-                new TreeMap<>(),
-                new TreeMap<>(),
+                new HashMap<>(),
+                new HashMap<>(),
                 new ArrayList<>(),
                 new TreeMap<>(),
                 new ArrayList<>(),
@@ -136,8 +137,8 @@ public class DaoState implements PersistablePayload {
     private DaoState(int chainHeight,
                      LinkedList<Block> blocks,
                      LinkedList<Cycle> cycles,
-                     TreeMap<TxOutputKey, TxOutput> unspentTxOutputMap,
-                     TreeMap<TxOutputKey, SpentInfo> spentInfoMap,
+                     HashMap<TxOutputKey, TxOutput> unspentTxOutputMap,
+                     HashMap<TxOutputKey, SpentInfo> spentInfoMap,
                      List<String> confiscatedLockupTxList,
                      TreeMap<String, Issuance> issuanceMap,
                      List<ParamChange> paramChangeList,
@@ -177,8 +178,10 @@ public class DaoState implements PersistablePayload {
         builder.setChainHeight(chainHeight)
                 .addAllCycles(cycles.stream().map(Cycle::toProtoMessage).collect(Collectors.toList()))
                 .putAllUnspentTxOutputMap(unspentTxOutputMap.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
                         .collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().toProtoMessage())))
                 .putAllSpentInfoMap(spentInfoMap.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
                         .collect(Collectors.toMap(e -> e.getKey().toString(), entry -> entry.getValue().toProtoMessage())))
                 .addAllConfiscatedLockupTxList(confiscatedLockupTxList)
                 .putAllIssuanceMap(issuanceMap.entrySet().stream()
@@ -195,10 +198,18 @@ public class DaoState implements PersistablePayload {
                 .collect(Collectors.toCollection(LinkedList::new));
         LinkedList<Cycle> cycles = proto.getCyclesList().stream()
                 .map(Cycle::fromProto).collect(Collectors.toCollection(LinkedList::new));
-        TreeMap<TxOutputKey, TxOutput> unspentTxOutputMap = new TreeMap<>(proto.getUnspentTxOutputMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> TxOutput.fromProto(e.getValue()))));
-        TreeMap<TxOutputKey, SpentInfo> spentInfoMap = new TreeMap<>(proto.getSpentInfoMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> SpentInfo.fromProto(e.getValue()))));
+        // The txId of a key is the id of a tx in our blocks. We use the String instance of the tx for the key, so
+        // the keys do not hold their own copy of the txId.
+        Map<String, String> txIds = blocks.stream()
+                .flatMap(block -> block.getTxs().stream())
+                .map(Tx::getId)
+                .collect(Collectors.toMap(Function.identity(), Function.identity(), (x, y) -> x, HashMap::new));
+        HashMap<TxOutputKey, TxOutput> unspentTxOutputMap = new HashMap<>(proto.getUnspentTxOutputMapCount() * 4 / 3 + 1);
+        proto.getUnspentTxOutputMapMap().forEach((key, value) ->
+                unspentTxOutputMap.put(getKeyFromString(key, txIds), TxOutput.fromProto(value)));
+        HashMap<TxOutputKey, SpentInfo> spentInfoMap = new HashMap<>(proto.getSpentInfoMapCount() * 4 / 3 + 1);
+        proto.getSpentInfoMapMap().forEach((key, value) ->
+                spentInfoMap.put(getKeyFromString(key, txIds), SpentInfo.fromProto(value)));
         List<String> confiscatedLockupTxList = new ArrayList<>(proto.getConfiscatedLockupTxListList());
         TreeMap<String, Issuance> issuanceMap = new TreeMap<>(proto.getIssuanceMapMap().entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> Issuance.fromProto(e.getValue()))));
@@ -221,6 +232,13 @@ public class DaoState implements PersistablePayload {
     }
 
 
+    private static TxOutputKey getKeyFromString(String keyAsString, Map<String, String> txIds) {
+        TxOutputKey key = TxOutputKey.getKeyFromString(keyAsString);
+        String txId = txIds.get(key.getTxId());
+        return txId != null ? new TxOutputKey(txId, key.getIndex()) : key;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -31,7 +31,7 @@ import javax.annotation.concurrent.Immutable;
  */
 @Immutable
 @Value
-public final class TxOutputKey implements ImmutableDaoStateModel, Comparable {
+public final class TxOutputKey implements ImmutableDaoStateModel, Comparable<TxOutputKey> {
     private final String txId;
     private final int index;
 
@@ -50,8 +50,45 @@ public final class TxOutputKey implements ImmutableDaoStateModel, Comparable {
         return new TxOutputKey(tokens[0], Integer.valueOf(tokens[1]));
     }
 
+    // The order must be the same as the order of the toString() values as it defines the order of the data used for
+    // the DAO state hash. For txIds of the same length (all real txIds) and non-negative indices (all real indices)
+    // we get that order without creating the strings.
     @Override
-    public int compareTo(@NotNull Object o) {
-        return toString().compareTo(o.toString());
+    public int compareTo(@NotNull TxOutputKey other) {
+        if (txId.length() != other.txId.length() || index < 0 || other.index < 0)
+            return toString().compareTo(other.toString());
+
+        int result = txId.compareTo(other.txId);
+        if (result != 0)
+            return result;
+
+        return compareDecimalStrings(index, other.index);
+    }
+
+    // Compares the decimal strings of the non-negative values a and b. Digit strings of the same length have the
+    // numeric order, so we cut the longer one to the length of the shorter one. If those are equal the shorter
+    // string is a prefix of the longer one and comes first.
+    private static int compareDecimalStrings(int a, int b) {
+        int numDigitsA = getNumDigits(a);
+        int numDigitsB = getNumDigits(b);
+        int prefixA = a;
+        int prefixB = b;
+        for (int i = numDigitsB; i < numDigitsA; i++) {
+            prefixA /= 10;
+        }
+        for (int i = numDigitsA; i < numDigitsB; i++) {
+            prefixB /= 10;
+        }
+        int result = Integer.compare(prefixA, prefixB);
+        return result != 0 ? result : Integer.compare(numDigitsA, numDigitsB);
+    }
+
+    private static int getNumDigits(int value) {
+        int numDigits = 1;
+        while (value >= 10) {
+            value /= 10;
+            numDigits++;
+        }
+        return numDigits;
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentAccountPayload;
+
+import bisq.network.p2p.NodeAddress;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import java.lang.reflect.Method;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable lookup structures compiled from a filter, so the ban checks in FilterManager are hash lookups instead of
+ * iterations over the lists of the filter. Some of the checks are done from the network threads for each message,
+ * so a new instance gets created for each new filter and swapped in by the FilterManager.
+ */
+@Slf4j
+final class FilterIndex {
+    static final FilterIndex EMPTY = new FilterIndex(null);
+
+    // The getter methods of the payment account payload classes used in the payment account filters
+    private static final Map<Class<?>, Map<String, Method>> GETTERS_BY_CLASS = new ConcurrentHashMap<>();
+
+    private final Set<String> bannedOfferIds;
+    private final Set<NodeAddress> nodeAddressesBannedFromTrading;
+    private final Set<NodeAddress> nodeAddressesBannedFromNetwork;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethodIds;
+    private final Set<String> bannedAutoConfExplorers;
+    private final Set<String> bannedAccountWitnessSignerPubKeys;
+    private final Set<String> bannedPrivilegedDevPubKeys;
+    private final Map<String, List<PaymentAccountFilter>> bannedPaymentAccountsByPaymentMethodId;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    FilterIndex(@Nullable Filter filter) {
+        if (filter == null) {
+            bannedOfferIds = Collections.emptySet();
+            nodeAddressesBannedFromTrading = Collections.emptySet();
+            nodeAddressesBannedFromNetwork = Collections.emptySet();
+            bannedCurrencies = Collections.emptySet();
+            bannedPaymentMethodIds = Collections.emptySet();
+            bannedAutoConfExplorers = Collections.emptySet();
+            bannedAccountWitnessSignerPubKeys = Collections.emptySet();
+            bannedPrivilegedDevPubKeys = Collections.emptySet();
+            bannedPaymentAccountsByPaymentMethodId = Collections.emptyMap();
+            return;
+        }
+
+        bannedOfferIds = toSet(filter.getBannedOfferIds());
+        nodeAddressesBannedFromTrading = toNodeAddressSet(filter.getNodeAddressesBannedFromTrading());
+        nodeAddressesBannedFromNetwork = toNodeAddressSet(filter.getNodeAddressesBannedFromNetwork());
+        bannedCurrencies = toSet(filter.getBannedCurrencies());
+        bannedPaymentMethodIds = toSet(filter.getBannedPaymentMethods());
+        bannedAutoConfExplorers = toSet(filter.getBannedAutoConfExplorers());
+        bannedAccountWitnessSignerPubKeys = toSet(filter.getBannedAccountWitnessSignerPubKeys());
+        bannedPrivilegedDevPubKeys = toSet(filter.getBannedPrivilegedDevPubKeys());
+        bannedPaymentAccountsByPaymentMethodId = filter.getBannedPaymentAccounts() == null ?
+                Collections.emptyMap() :
+                filter.getBannedPaymentAccounts().stream()
+                        .collect(Collectors.groupingBy(PaymentAccountFilter::getPaymentMethodId, HashMap::new,
+                                Collectors.toList()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isNodeAddressBannedFromTrading(NodeAddress nodeAddress) {
+        return nodeAddressesBannedFromTrading.contains(nodeAddress);
+    }
+
+    boolean isNodeAddressBannedFromNetwork(NodeAddress nodeAddress) {
+        return nodeAddressesBannedFromNetwork.contains(nodeAddress);
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethodIds.contains(paymentMethodId);
+    }
+
+    boolean isAutoConfExplorerBanned(String address) {
+        return bannedAutoConfExplorers.contains(address);
+    }
+
+    boolean isWitnessSignerPubKeyBanned(String witnessSignerPubKeyAsHex) {
+        return bannedAccountWitnessSignerPubKeys.contains(witnessSignerPubKeyAsHex);
+    }
+
+    boolean isPrivilegedDevPubKeyBanned(String pubKeyAsHex) {
+        return bannedPrivilegedDevPubKeys.contains(pubKeyAsHex);
+    }
+
+    boolean arePeersPaymentAccountDataBanned(PaymentAccountPayload paymentAccountPayload) {
+        List<PaymentAccountFilter> paymentAccountFilters =
+                bannedPaymentAccountsByPaymentMethodId.get(paymentAccountPayload.getPaymentMethodId());
+        if (paymentAccountFilters == null)
+            return false;
+
+        return paymentAccountFilters.stream().anyMatch(paymentAccountFilter -> {
+            try {
+                Method method = getGetter(paymentAccountPayload.getClass(), paymentAccountFilter.getGetMethodName());
+                // We invoke getter methods (no args), e.g. getHolderName
+                String valueFromInvoke = (String) method.invoke(paymentAccountPayload);
+                return valueFromInvoke.equalsIgnoreCase(paymentAccountFilter.getValue());
+            } catch (Throwable e) {
+                log.error(e.getMessage());
+                return false;
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Method getGetter(Class<?> clazz, String methodName) throws NoSuchMethodException {
+        Map<String, Method> getters = GETTERS_BY_CLASS.computeIfAbsent(clazz, c -> new ConcurrentHashMap<>());
+        Method method = getters.get(methodName);
+        if (method == null) {
+            method = clazz.getMethod(methodName);
+            getters.put(methodName, method);
+        }
+        return method;
+    }
+
+    private static Set<String> toSet(@Nullable Collection<String> collection) {
+        return collection == null || collection.isEmpty() ? Collections.emptySet() : new HashSet<>(collection);
+    }
+
+    // The filter contains the full addresses (host:port). Entries which are not valid addresses cannot match any
+    // node address, so we skip those.
+    private static Set<NodeAddress> toNodeAddressSet(@Nullable Collection<String> fullAddresses) {
+        if (fullAddresses == null || fullAddresses.isEmpty())
+            return Collections.emptySet();
+
+        Set<NodeAddress> nodeAddresses = new HashSet<>();
+        fullAddresses.forEach(fullAddress -> {
+            try {
+                nodeAddresses.add(new NodeAddress(fullAddress));
+            } catch (RuntimeException e) {
+                log.warn("Invalid node address in filter: {}", fullAddress);
+            }
+        });
+        return nodeAddresses;
+    }
+}
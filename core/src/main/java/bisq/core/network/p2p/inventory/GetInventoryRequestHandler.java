@@ -41,6 +41,7 @@ import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.app.Version;
 import bisq.common.config.Config;
+import bisq.common.proto.ProtoInterner;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Profiler;
 import bisq.common.util.Utilities;
@@ -153,6 +154,9 @@ public class GetInventoryRequestHandler implements MessageListener {
             inventory.put(InventoryItem.version, Version.VERSION);
             inventory.put(InventoryItem.commitHash, RequestInfo.COMMIT_HASH);
             inventory.put(InventoryItem.usedMemory, String.valueOf(Profiler.getUsedMemoryInBytes()));
+            ProtoInterner.Stats internerStats = ProtoInterner.getStats();
+            inventory.put(InventoryItem.numDeduplicatedAllocations, String.valueOf(internerStats.getNumDeduplicatedAllocations()));
+            inventory.put(InventoryItem.deduplicatedAllocationsSize, String.valueOf(internerStats.getDeduplicatedAllocationsSize()));
             inventory.put(InventoryItem.jvmStartTime, String.valueOf(ManagementFactory.getRuntimeMXBean().getStartTime()));
 
             Filter filter = filterManager.getFilter();
@@ -124,6 +124,8 @@ public enum InventoryItem {
     version("version", false),
     commitHash("commitHash", false),
     usedMemory("usedMemory", true),
+    numDeduplicatedAllocations("numDeduplicatedAllocations", true),
+    deduplicatedAllocationsSize("deduplicatedAllocationsSize", true),
     jvmStartTime("jvmStartTime", true),
     filteredSeeds("filteredSeeds", false);
 
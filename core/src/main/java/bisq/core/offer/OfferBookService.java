@@ -166,6 +166,23 @@ public class OfferBookService {
         }
     }
 
+    public void refreshTTL(Collection<OfferPayload> offerPayloads,
+                           ResultHandler resultHandler,
+                           ErrorMessageHandler errorMessageHandler) {
+        if (filterManager.requireUpdateToNewVersionForTrading()) {
+            errorMessageHandler.handleErrorMessage(Res.get("popup.warning.mandatoryUpdate.trading"));
+            return;
+        }
+
+        int numRefreshed = p2PService.refreshTTL(offerPayloads);
+        if (numRefreshed == offerPayloads.size()) {
+            resultHandler.handleResult();
+        } else {
+            errorMessageHandler.handleErrorMessage("Refresh TTL failed for " + (offerPayloads.size() - numRefreshed) +
+                    " of " + offerPayloads.size() + " offers.");
+        }
+    }
+
     public void activateOffer(Offer offer,
                               @Nullable ResultHandler resultHandler,
                               @Nullable ErrorMessageHandler errorMessageHandler) {
@@ -23,6 +23,7 @@ import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 import bisq.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
 
 import bisq.common.crypto.PubKeyRing;
+import bisq.common.proto.ProtoInterner;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.util.CollectionUtils;
 import bisq.common.util.ExtraDataMapValidator;
@@ -30,7 +31,6 @@ import bisq.common.util.JsonExclude;
 
 import java.security.PublicKey;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -317,12 +317,12 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
     public static OfferPayload fromProto(protobuf.OfferPayload proto) {
         checkArgument(!proto.getOfferFeePaymentTxId().isEmpty(), "OfferFeePaymentTxId must be set in PB.OfferPayload");
         List<String> acceptedBankIds = proto.getAcceptedBankIdsList().isEmpty() ?
-                null : new ArrayList<>(proto.getAcceptedBankIdsList());
+                null : ProtoInterner.internStrings(proto.getAcceptedBankIdsList());
         List<String> acceptedCountryCodes = proto.getAcceptedCountryCodesList().isEmpty() ?
-                null : new ArrayList<>(proto.getAcceptedCountryCodesList());
+                null : ProtoInterner.internStrings(proto.getAcceptedCountryCodesList());
         String hashOfChallenge = ProtoUtil.stringOrNullFromProto(proto.getHashOfChallenge());
         Map<String, String> extraDataMapMap = CollectionUtils.isEmpty(proto.getExtraDataMap()) ?
-                null : proto.getExtraDataMap();
+                null : ProtoInterner.internEntries(proto.getExtraDataMap());
 
         return new OfferPayload(proto.getId(),
                 proto.getDate(),
@@ -334,22 +334,22 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
                 proto.getUseMarketBasedPrice(),
                 proto.getAmount(),
                 proto.getMinAmount(),
-                proto.getBaseCurrencyCode(),
-                proto.getCounterCurrencyCode(),
+                ProtoInterner.intern(proto.getBaseCurrencyCode()),
+                ProtoInterner.intern(proto.getCounterCurrencyCode()),
                 proto.getArbitratorNodeAddressesList().stream()
                         .map(NodeAddress::fromProto)
                         .collect(Collectors.toList()),
                 proto.getMediatorNodeAddressesList().stream()
                         .map(NodeAddress::fromProto)
                         .collect(Collectors.toList()),
-                proto.getPaymentMethodId(),
+                ProtoInterner.intern(proto.getPaymentMethodId()),
                 proto.getMakerPaymentAccountId(),
                 proto.getOfferFeePaymentTxId(),
-                ProtoUtil.stringOrNullFromProto(proto.getCountryCode()),
+                ProtoInterner.intern(ProtoUtil.stringOrNullFromProto(proto.getCountryCode())),
                 acceptedCountryCodes,
-                ProtoUtil.stringOrNullFromProto(proto.getBankId()),
+                ProtoInterner.intern(ProtoUtil.stringOrNullFromProto(proto.getBankId())),
                 acceptedBankIds,
-                proto.getVersionNr(),
+                ProtoInterner.intern(proto.getVersionNr()),
                 proto.getBlockHeightAtOfferCreation(),
                 proto.getTxFee(),
                 proto.getMakerFee(),
@@ -66,6 +66,7 @@ import bisq.network.p2p.AckMessage;
 import bisq.network.p2p.BundleOfEnvelopes;
 import bisq.network.p2p.CloseConnectionMessage;
 import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.peers.getdata.messages.GetDataChunkRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
@@ -76,6 +77,7 @@ import bisq.network.p2p.peers.peerexchange.messages.GetPeersResponse;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RefreshOffersMessage;
 import bisq.network.p2p.storage.messages.RemoveDataMessage;
 import bisq.network.p2p.storage.messages.RemoveMailboxDataMessage;
 import bisq.network.p2p.storage.payload.MailboxStoragePayload;
@@ -113,6 +115,8 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
                     return PreliminaryGetDataRequest.fromProto(proto.getPreliminaryGetDataRequest(), messageVersion);
                 case GET_DATA_RESPONSE:
                     return GetDataResponse.fromProto(proto.getGetDataResponse(), this, messageVersion);
+                case GET_DATA_CHUNK_REQUEST:
+                    return GetDataChunkRequest.fromProto(proto.getGetDataChunkRequest(), messageVersion);
                 case GET_UPDATED_DATA_REQUEST:
                     return GetUpdatedDataRequest.fromProto(proto.getGetUpdatedDataRequest(), messageVersion);
 
@@ -131,6 +135,8 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
                     return OfferAvailabilityResponse.fromProto(proto.getOfferAvailabilityResponse(), messageVersion);
                 case REFRESH_OFFER_MESSAGE:
                     return RefreshOfferMessage.fromProto(proto.getRefreshOfferMessage(), messageVersion);
+                case REFRESH_OFFERS_MESSAGE:
+                    return RefreshOffersMessage.fromProto(proto.getRefreshOffersMessage(), messageVersion);
 
                 case ADD_DATA_MESSAGE:
                     return AddDataMessage.fromProto(proto.getAddDataMessage(), this, messageVersion);
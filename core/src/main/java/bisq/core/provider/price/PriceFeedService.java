@@ -49,15 +49,12 @@ import javafx.beans.property.StringProperty;
 
 import java.time.Instant;
 
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
-import java.util.Set;
 import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
@@ -257,14 +254,15 @@ public class PriceFeedService {
         return cache.getOrDefault(currencyCode, null);
     }
 
-    private void setBisqMarketPrice(String currencyCode, Price price) {
+    private boolean setBisqMarketPrice(String currencyCode, Price price) {
         if (!cache.containsKey(currencyCode) || !cache.get(currencyCode).isExternallyProvidedPrice()) {
             cache.put(currencyCode, new MarketPrice(currencyCode,
                     MathUtils.scaleDownByPowerOf10(price.getValue(), CurrencyUtil.isCryptoCurrency(currencyCode) ? 8 : 4),
                     0,
                     false));
-            updateCounter.set(updateCounter.get() + 1);
+            return true;
         }
+        return false;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -301,28 +299,18 @@ public class PriceFeedService {
         return new Date(epochInMillisAtLastRequest);
     }
 
-    public void applyLatestBisqMarketPrice(Set<TradeStatistics3> tradeStatisticsSet) {
-        // takes about 10 ms for 5000 items
-        Map<String, List<TradeStatistics3>> mapByCurrencyCode = new HashMap<>();
-        tradeStatisticsSet.forEach(e -> {
-            List<TradeStatistics3> list;
-            String currencyCode = e.getCurrency();
-            if (mapByCurrencyCode.containsKey(currencyCode)) {
-                list = mapByCurrencyCode.get(currencyCode);
-            } else {
-                list = new ArrayList<>();
-                mapByCurrencyCode.put(currencyCode, list);
-            }
-            list.add(e);
-        });
-
-        mapByCurrencyCode.values().stream()
-                .filter(list -> !list.isEmpty())
-                .forEach(list -> {
-                    list.sort(Comparator.comparing(TradeStatistics3::getDate));
-                    TradeStatistics3 tradeStatistics = list.get(list.size() - 1);
-                    setBisqMarketPrice(tradeStatistics.getCurrency(), tradeStatistics.getTradePrice());
-                });
+    /**
+     * @param latestTradeStatistics The latest trade statistics of the currencies which have changed. Must contain
+     *                              at most one item per currency.
+     */
+    public void applyLatestBisqMarketPrice(Collection<TradeStatistics3> latestTradeStatistics) {
+        boolean changed = false;
+        for (TradeStatistics3 tradeStatistics : latestTradeStatistics) {
+            changed |= setBisqMarketPrice(tradeStatistics.getCurrency(), tradeStatistics.getTradePrice());
+        }
+        // We notify our listeners only once for all changed prices
+        if (changed)
+            updateCounter.set(updateCounter.get() + 1);
     }
 
     public Optional<Price> getBsqPrice() {
@@ -41,7 +41,10 @@ public class CoreNetworkCapabilities {
                 Capability.REFUND_AGENT,
                 Capability.TRADE_STATISTICS_HASH_UPDATE,
                 Capability.NO_ADDRESS_PRE_FIX,
-                Capability.TRADE_STATISTICS_3
+                Capability.TRADE_STATISTICS_3,
+                Capability.REFRESH_OFFERS_BATCH,
+                Capability.COMPRESSED_ENVELOPE,
+                Capability.GET_DATA_RESPONSE_CHUNKS
         );
 
         if (config.daoActivated) {
@@ -43,6 +43,7 @@ import bisq.network.p2p.storage.persistence.RemovedPayloadsService;
 
 import bisq.common.config.Config;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.proto.persistable.PersistedDataHostsReader;
 
 import com.google.inject.Injector;
 
@@ -84,4 +85,23 @@ public class CorePersistedDataHost {
         }
         return persistedDataHosts;
     }
+
+    /**
+     * @return A reader for all hosts with the dependencies between them. Hosts without dependencies are read
+     * concurrently.
+     */
+    public static PersistedDataHostsReader getPersistedDataHostsReader(Injector injector) {
+        PersistedDataHostsReader reader = new PersistedDataHostsReader();
+        Preferences preferences = injector.getInstance(Preferences.class);
+        User user = injector.getInstance(User.class);
+        getPersistedDataHosts(injector).forEach(host -> {
+            if (host == user) {
+                // User applies the default language which depends on the locale set by the persisted preferences
+                reader.add(user, preferences);
+            } else {
+                reader.add(host);
+            }
+        });
+        return reader;
+    }
 }
@@ -100,6 +100,11 @@ public abstract class SupportManager {
 
     public abstract void requestPersistence();
 
+    // Subclasses which can persist the data holding the chat message individually override that
+    protected void requestPersistence(ChatMessage message) {
+        requestPersistence();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Delegates p2pService
@@ -176,8 +181,8 @@ public abstract class SupportManager {
                             msg.setAcknowledged(true);
                         else
                             msg.setAckError(ackMessage.getErrorMessage());
+                        requestPersistence(msg);
                     });
-            requestPersistence();
         }
     }
 
@@ -204,7 +209,7 @@ public abstract class SupportManager {
                             log.info("{} arrived at peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             message.setArrived(true);
-                            requestPersistence();
+                            requestPersistence(message);
                         }
 
                         @Override
@@ -212,7 +217,7 @@ public abstract class SupportManager {
                             log.info("{} stored in mailbox for peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             message.setStoredInMailbox(true);
-                            requestPersistence();
+                            requestPersistence(message);
                         }
 
                         @Override
@@ -220,7 +225,7 @@ public abstract class SupportManager {
                             log.error("{} failed: Peer {}. tradeId={}, uid={}, errorMessage={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid(), errorMessage);
                             message.setSendMessageError(errorMessage);
-                            requestPersistence();
+                            requestPersistence(message);
                         }
                     }
             );
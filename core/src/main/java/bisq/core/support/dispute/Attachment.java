@@ -17,31 +17,93 @@
 
 package bisq.core.support.dispute;
 
+import bisq.common.crypto.Hash;
+import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.network.NetworkPayload;
 
 import com.google.protobuf.ByteString;
 
-import lombok.Value;
+import java.util.function.Function;
 
-@Value
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.annotation.Nullable;
+
+/**
+ * Attachments which have been persisted by the DisputeRecordStore do not hold their bytes in memory but only the
+ * hash of the content in the AttachmentStore. The bytes are loaded on demand. The proto message always contains the
+ * bytes, so the content hash is not visible to peers. The DisputeRecordStore serializes the attachments of its records
+ * itself.
+ *
+ * Equality is based on the file name and the content hash, so a detached attachment equals the in-memory attachment
+ * with the same content.
+ */
+@EqualsAndHashCode(exclude = "bytes")
+@ToString(exclude = "bytes")
 public final class Attachment implements NetworkPayload {
+    @Getter
     private final String fileName;
+    @Nullable
     private final byte[] bytes;
+    @Getter
+    private final byte[] contentHash;
+    @Nullable
+    private transient Function<byte[], byte[]> bytesLoader;
 
     public Attachment(String fileName, byte[] bytes) {
+        this(fileName, bytes, Hash.getSha256Hash(bytes));
+    }
+
+    private Attachment(String fileName, @Nullable byte[] bytes, byte[] contentHash) {
         this.fileName = fileName;
         this.bytes = bytes;
+        this.contentHash = contentHash;
     }
 
     @Override
     public protobuf.Attachment toProtoMessage() {
         return protobuf.Attachment.newBuilder()
                 .setFileName(fileName)
-                .setBytes(ByteString.copyFrom(bytes))
+                .setBytes(ByteString.copyFrom(getBytes()))
                 .build();
     }
 
     public static Attachment fromProto(protobuf.Attachment proto) {
+        byte[] contentHash = ProtoUtil.byteArrayOrNullFromProto(proto.getContentHash());
+        if (contentHash != null && proto.getBytes().isEmpty())
+            return new Attachment(proto.getFileName(), null, contentHash);
+
         return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return The bytes of the attachment. For persisted attachments we read them from disk at each call and do not
+     * keep them in memory.
+     * @throws IllegalStateException if the bytes of a persisted attachment cannot be loaded
+     */
+    public byte[] getBytes() {
+        if (bytes != null)
+            return bytes;
+
+        byte[] loaded = bytesLoader != null ? bytesLoader.apply(contentHash) : null;
+        if (loaded == null)
+            throw new IllegalStateException("Bytes of attachment " + fileName + " are not available");
+
+        return loaded;
+    }
+
+    boolean isDetached() {
+        return bytes == null;
+    }
+
+    void setBytesLoader(Function<byte[], byte[]> bytesLoader) {
+        this.bytesLoader = bytesLoader;
+    }
 }
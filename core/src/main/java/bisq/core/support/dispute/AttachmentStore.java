@@ -0,0 +1,103 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.support.dispute;
+
+import bisq.common.crypto.Hash;
+import bisq.common.file.FileUtil;
+import bisq.common.util.Utilities;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Content addressed store for the bytes of chat message attachments. Each attachment is stored in a file named by the
+ * hex encoded sha256 hash of its content, so an attachment which got added to multiple messages is stored only once.
+ */
+@Slf4j
+class AttachmentStore {
+    private final File dir;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    AttachmentStore(File dir) {
+        this.dir = dir;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the bytes if not stored yet. We write on the calling thread as the record referencing the attachment must
+     * not be written before the attachment.
+     *
+     * @return The content hash of the bytes
+     */
+    synchronized byte[] put(byte[] bytes) throws IOException {
+        byte[] contentHash = Hash.getSha256Hash(bytes);
+        File file = getFile(contentHash);
+        if (file.exists())
+            return contentHash;
+
+        if (!dir.exists() && !dir.mkdirs())
+            throw new IOException("Could not create attachment dir " + dir);
+
+        File tempFile = new File(dir, file.getName() + ".tmp");
+        try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+            fileOutputStream.write(bytes);
+            fileOutputStream.getFD().sync();
+        }
+        FileUtil.renameFile(tempFile, file);
+        return contentHash;
+    }
+
+    @Nullable
+    byte[] get(byte[] contentHash) {
+        File file = getFile(contentHash);
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            log.error("Reading attachment {} failed. {}", file.getName(), e.toString());
+            return null;
+        }
+    }
+
+    boolean contains(byte[] contentHash) {
+        return getFile(contentHash).exists();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private File getFile(byte[] contentHash) {
+        return new File(dir, Utilities.bytesAsHexString(contentHash));
+    }
+}
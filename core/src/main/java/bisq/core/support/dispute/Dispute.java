@@ -42,11 +42,15 @@ import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -111,6 +115,9 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
     @Setter
     @Nullable
     private transient String uid;
+    // Index of the uids of the chat messages, so checking for duplicates is O(1)
+    @Getter(AccessLevel.NONE)
+    private final transient Set<String> chatMessageUids = new HashSet<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -167,6 +174,11 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
 
     @Override
     public protobuf.Dispute toProtoMessage() {
+        return toProtoMessage(Attachment::toProtoMessage);
+    }
+
+    // Used by the DisputeRecordStore, which persists the attachments in its own format
+    protobuf.Dispute toProtoMessage(Function<Attachment, protobuf.Attachment> attachmentToProto) {
         // Needed to avoid ConcurrentModificationException
         List<ChatMessage> clonedChatMessages = new ArrayList<>(chatMessages);
         protobuf.Dispute.Builder builder = protobuf.Dispute.newBuilder()
@@ -181,7 +193,7 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
                 .setAgentPubKeyRing(agentPubKeyRing.toProtoMessage())
                 .setIsSupportTicket(isSupportTicket)
                 .addAllChatMessage(clonedChatMessages.stream()
-                        .map(msg -> msg.toProtoNetworkEnvelope().getChatMessage())
+                        .map(msg -> msg.toProtoChatMessage(attachmentToProto))
                         .collect(Collectors.toList()))
                 .setIsClosed(isClosedProperty.get())
                 .setOpeningDate(openingDate)
@@ -195,7 +207,7 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
         Optional.ofNullable(disputePayoutTxId).ifPresent(builder::setDisputePayoutTxId);
         Optional.ofNullable(makerContractSignature).ifPresent(builder::setMakerContractSignature);
         Optional.ofNullable(takerContractSignature).ifPresent(builder::setTakerContractSignature);
-        Optional.ofNullable(disputeResultProperty.get()).ifPresent(result -> builder.setDisputeResult(disputeResultProperty.get().toProtoMessage()));
+        Optional.ofNullable(disputeResultProperty.get()).ifPresent(result -> builder.setDisputeResult(disputeResultProperty.get().toProtoMessage(attachmentToProto)));
         Optional.ofNullable(supportType).ifPresent(result -> builder.setSupportType(SupportType.toProtoMessage(supportType)));
         Optional.ofNullable(mediatorsDisputeResult).ifPresent(result -> builder.setMediatorsDisputeResult(mediatorsDisputeResult));
         Optional.ofNullable(delayedPayoutTxId).ifPresent(result -> builder.setDelayedPayoutTxId(delayedPayoutTxId));
@@ -227,6 +239,7 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
         dispute.chatMessages.addAll(proto.getChatMessageList().stream()
                 .map(ChatMessage::fromPayloadProto)
                 .collect(Collectors.toList()));
+        dispute.chatMessages.forEach(chatMessage -> dispute.chatMessageUids.add(chatMessage.getUid()));
 
         dispute.isClosedProperty.set(proto.getIsClosed());
         if (proto.hasDisputeResult())
@@ -256,14 +269,23 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void addAndPersistChatMessage(ChatMessage chatMessage) {
-        if (!chatMessages.contains(chatMessage)) {
+    /**
+     * @return True if the chat message got added, false if we have a chat message with the same uid already.
+     */
+    public boolean addAndPersistChatMessage(ChatMessage chatMessage) {
+        if (chatMessageUids.add(chatMessage.getUid())) {
             chatMessages.add(chatMessage);
+            return true;
         } else {
             log.error("disputeDirectMessage already exists");
+            return false;
         }
     }
 
+    public boolean hasChatMessage(String uid) {
+        return chatMessageUids.contains(uid);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Setters
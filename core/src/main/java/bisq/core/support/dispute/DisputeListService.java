@@ -24,6 +24,7 @@ import bisq.network.p2p.NodeAddress;
 import bisq.common.UserThread;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 
 import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.Subscription;
@@ -33,6 +34,8 @@ import javafx.beans.property.SimpleIntegerProperty;
 
 import javafx.collections.ObservableList;
 
+import java.io.File;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +53,7 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     protected final PersistenceManager<T> persistenceManager;
     @Getter
     private final T disputeList;
+    private final DisputeRecordStore<T> disputeRecordStore;
     private final Map<String, Subscription> disputeIsClosedSubscriptionsMap = new HashMap<>();
     @Getter
     private final IntegerProperty numOpenDisputes = new SimpleIntegerProperty();
@@ -59,11 +63,21 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public DisputeListService(PersistenceManager<T> persistenceManager) {
+    /**
+     * @param persistenceManager  Not initialized PersistenceManager, only used for reading the legacy file
+     */
+    public DisputeListService(PersistenceManager<T> persistenceManager,
+                              PersistenceProtoResolver persistenceProtoResolver,
+                              File storageDir) {
         this.persistenceManager = persistenceManager;
         disputeList = getConcreteDisputeList();
 
-        this.persistenceManager.initialize(disputeList, getFileName(), PersistenceManager.Source.PRIVATE);
+        disputeRecordStore = new DisputeRecordStore<>(storageDir,
+                getFileName(),
+                disputeList,
+                this::getConcreteDisputeList,
+                persistenceProtoResolver,
+                persistenceManager);
     }
 
 
@@ -80,11 +94,7 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
 
     @Override
     public void readPersisted(Runnable completeHandler) {
-        persistenceManager.readPersisted(getFileName(), persisted -> {
-                    disputeList.setAll(persisted.getList());
-                    completeHandler.run();
-                },
-                completeHandler);
+        disputeRecordStore.readPersisted(completeHandler);
     }
 
     protected String getFileName() {
@@ -172,6 +182,10 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     }
 
     public void requestPersistence() {
-        persistenceManager.requestPersistence();
+        disputeRecordStore.requestPersistence();
+    }
+
+    public void requestPersistence(Dispute dispute) {
+        disputeRecordStore.requestPersistence(dispute);
     }
 }
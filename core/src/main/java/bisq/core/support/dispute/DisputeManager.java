@@ -141,6 +141,20 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         disputeListService.requestPersistence();
     }
 
+    @Override
+    protected void requestPersistence(ChatMessage message) {
+        Optional<Dispute> disputeOptional = findDispute(message);
+        if (disputeOptional.isPresent()) {
+            requestPersistence(disputeOptional.get());
+        } else {
+            requestPersistence();
+        }
+    }
+
+    public void requestPersistence(Dispute dispute) {
+        disputeListService.requestPersistence(dispute);
+    }
+
     @Override
     public NodeAddress getPeerNodeAddress(ChatMessage message) {
         Optional<Dispute> disputeOptional = findDispute(message);
@@ -179,9 +193,8 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
     @Override
     public void addAndPersistChatMessage(ChatMessage message) {
         findDispute(message).ifPresent(dispute -> {
-            if (dispute.getChatMessages().stream().noneMatch(m -> m.getUid().equals(message.getUid()))) {
-                dispute.addAndPersistChatMessage(message);
-                requestPersistence();
+            if (dispute.addAndPersistChatMessage(message)) {
+                requestPersistence(dispute);
             } else {
                 log.warn("We got a chatMessage that we have already stored. UId = {} TradeId = {}",
                         message.getUid(), message.getTradeId());
@@ -356,7 +369,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.error(e.toString());
             validationExceptions.add(e);
         }
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // Not-dispute-requester receives that msg from dispute agent
@@ -419,7 +432,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         }
 
         sendAckMessage(peerOpenedDisputeMessage, dispute.getAgentPubKeyRing(), errorMessage == null, errorMessage);
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
 
@@ -498,7 +511,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                             // We use the chatMessage wrapped inside the openNewDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             chatMessage.setArrived(true);
-                            requestPersistence();
+                            requestPersistence(dispute);
                             resultHandler.handleResult();
                         }
 
@@ -513,7 +526,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                             // We use the chatMessage wrapped inside the openNewDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             chatMessage.setStoredInMailbox(true);
-                            requestPersistence();
+                            requestPersistence(dispute);
                             resultHandler.handleResult();
                         }
 
@@ -528,7 +541,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                             // We use the chatMessage wrapped inside the openNewDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             chatMessage.setSendMessageError(errorMessage);
-                            requestPersistence();
+                            requestPersistence(dispute);
                             faultHandler.handleFault("Sending dispute message failed: " +
                                     errorMessage, new DisputeMessageDeliveryFailedException());
                         }
@@ -540,7 +553,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.warn(msg);
             faultHandler.handleFault(msg, new DisputeAlreadyOpenException());
         }
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // Dispute agent sends that to trading peer when he received openDispute request
@@ -644,7 +657,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the peerOpenedDisputeMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setArrived(true);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
 
                     @Override
@@ -658,7 +671,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the peerOpenedDisputeMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setStoredInMailbox(true);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
 
                     @Override
@@ -672,11 +685,11 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the peerOpenedDisputeMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setSendMessageError(errorMessage);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
                 }
         );
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // dispute agent send result to trader
@@ -726,7 +739,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setArrived(true);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
 
                     @Override
@@ -740,7 +753,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setStoredInMailbox(true);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
 
                     @Override
@@ -754,11 +767,11 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setSendMessageError(errorMessage);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
                 }
         );
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
 
@@ -838,7 +851,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                     p2PService.getAddress());
             mediatorsDisputeResultMessage.setSystemMessage(true);
             dispute.addAndPersistChatMessage(mediatorsDisputeResultMessage);
-            requestPersistence();
+            requestPersistence(dispute);
         }
     }
 
@@ -911,7 +924,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                 p2PService.getAddress());
         priceInfoMessage.setSystemMessage(true);
         dispute.addAndPersistChatMessage(priceInfoMessage);
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     @Nullable
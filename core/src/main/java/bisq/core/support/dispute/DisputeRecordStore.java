@@ -0,0 +1,351 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.support.dispute;
+
+import bisq.core.support.messages.ChatMessage;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.file.FileUtil;
+import bisq.common.persistence.PersistenceManager;
+import bisq.common.persistence.RecordStore;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persists the disputes of a dispute list as one record per dispute in a {@link RecordStore}. The bytes of the chat
+ * message attachments are moved to a content addressed {@link AttachmentStore} and are only loaded when they are
+ * accessed. Dispute agents have thousands of disputes with attachments, so with the previous single file format each
+ * change caused a rewrite of hundreds of MB and all attachments have been kept in memory.
+ *
+ * Disputes which got changed are marked dirty and written with a short delay. Calling requestPersistence without a
+ * dispute marks all disputes dirty, the record store only writes the records which have actually changed.
+ *
+ * Data persisted with the previous single file format gets migrated to the record store at the first start. The
+ * records are stored in a separate dir, as the legacy file has the same name.
+ *
+ * Must be used from the user thread, except for readPersisted which reads from disk on the read thread pool of the
+ * PersistenceManager.
+ */
+@Slf4j
+public class DisputeRecordStore<T extends DisputeList<Dispute>> {
+    private static final String MIGRATED_BACKUP_DIR = "backup_of_migrated_data";
+    private static final String RECORDS_DIR_POSTFIX = "_records";
+    private static final String ATTACHMENTS_DIR_POSTFIX = "_attachments";
+
+    private final File storageDir;
+    private final String fileName;
+    private final T disputeList;
+    private final Supplier<T> disputeListFactory;
+    private final RecordStore<PersistableEnvelope> recordStore;
+    private final AttachmentStore attachmentStore;
+    private final PersistenceManager<T> legacyPersistenceManager;
+
+    // Disputes of the dispute list by record key
+    private final Map<String, Dispute> disputeByKey = new HashMap<>();
+    // Dispute has a deep and mutable hashCode, so we use identity
+    private final Set<Dispute> dirtyDisputes = Collections.newSetFromMap(new IdentityHashMap<>());
+    @Nullable
+    private Timer persistTimer;
+    private boolean allDirty;
+    // Set if storing an attachment failed. The attachment is then kept in the record.
+    private boolean attachmentWriteFailed;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param storageDir                The storage dir
+     * @param fileName                  Name of the legacy file, also used as prefix of the record store dirs
+     * @param disputeList               The list we read the disputes into and whose changes we persist
+     * @param disputeListFactory        Creates an empty list of the concrete type, used for the records
+     * @param persistenceProtoResolver  Resolver for reading records
+     * @param legacyPersistenceManager  Not initialized PersistenceManager used for reading the legacy file
+     */
+    public DisputeRecordStore(File storageDir,
+                              String fileName,
+                              T disputeList,
+                              Supplier<T> disputeListFactory,
+                              PersistenceProtoResolver persistenceProtoResolver,
+                              PersistenceManager<T> legacyPersistenceManager) {
+        this.storageDir = storageDir;
+        this.fileName = fileName;
+        this.disputeList = disputeList;
+        this.disputeListFactory = disputeListFactory;
+        this.legacyPersistenceManager = legacyPersistenceManager;
+        recordStore = new RecordStore<>(storageDir, fileName + RECORDS_DIR_POSTFIX, persistenceProtoResolver);
+        recordStore.setBeforeFlushHandler(this::persistDirtyDisputes);
+        attachmentStore = new AttachmentStore(new File(storageDir, fileName + ATTACHMENTS_DIR_POSTFIX));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void readPersisted(Runnable completeHandler) {
+        PersistenceManager.getReadExecutor().execute(() -> {
+            long ts = System.currentTimeMillis();
+            Map<String, byte[]> index = recordStore.readIndex();
+            Map<String, Dispute> disputes = new LinkedHashMap<>();
+            List<String> staleKeys = new ArrayList<>();
+            index.keySet().forEach(storedKey -> {
+                T record = readRecord(storedKey);
+                if (record == null || record.isEmpty()) {
+                    log.error("Record for dispute {} in {} is missing or corrupted.", storedKey, fileName);
+                    return;
+                }
+                Dispute dispute = record.getList().get(0);
+                String key = getKey(dispute);
+                // Records stored with a previous key format get stored again with the current key
+                if (!key.equals(storedKey))
+                    staleKeys.add(storedKey);
+                if (disputes.containsKey(key)) {
+                    log.warn("Dispute {} in {} is stored twice. We ignore record {}.", key, fileName, storedKey);
+                    return;
+                }
+                setBytesLoader(dispute);
+                disputes.put(key, dispute);
+            });
+            log.info("Reading {} disputes of {} took {} ms", disputes.size(), fileName, System.currentTimeMillis() - ts);
+            T legacyDisputeList = readLegacyFile();
+
+            UserThread.execute(() -> {
+                disputeByKey.putAll(disputes);
+                disputeList.setAll(disputes.values());
+                if (!staleKeys.isEmpty()) {
+                    staleKeys.forEach(recordStore::remove);
+                    disputes.forEach((key, dispute) -> {
+                        if (!recordStore.contains(key))
+                            put(dispute);
+                    });
+                }
+                if (legacyDisputeList != null) {
+                    migrate(legacyDisputeList);
+                }
+                disputeList.addListener(change -> {
+                    while (change.next()) {
+                        change.getRemoved().forEach(dispute -> {
+                            String key = getKey(dispute);
+                            if (disputeByKey.get(key) == dispute)
+                                disputeByKey.remove(key);
+                            recordStore.remove(key);
+                        });
+                        change.getAddedSubList().forEach(dispute -> {
+                            disputeByKey.put(getKey(dispute), dispute);
+                            requestPersistence(dispute);
+                        });
+                    }
+                });
+                completeHandler.run();
+            });
+        });
+    }
+
+    public void requestPersistence(Dispute dispute) {
+        dirtyDisputes.add(dispute);
+        schedulePersistence();
+    }
+
+    public void requestPersistence() {
+        allDirty = true;
+        schedulePersistence();
+    }
+
+    /**
+     * Writes the dirty disputes and calls the completeHandler on the write thread once all writes are done.
+     */
+    public void flush(Runnable completeHandler) {
+        recordStore.flush(completeHandler);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void schedulePersistence() {
+        if (persistTimer == null) {
+            persistTimer = UserThread.runAfter(() -> {
+                persistTimer = null;
+                persistDirtyDisputes();
+            }, PersistenceManager.Source.PRIVATE.getDelay(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void persistDirtyDisputes() {
+        List<Dispute> disputes = allDirty ? new ArrayList<>(disputeList.getList()) : new ArrayList<>(dirtyDisputes);
+        allDirty = false;
+        dirtyDisputes.clear();
+        disputes.stream()
+                .filter(dispute -> disputeByKey.get(getKey(dispute)) == dispute)
+                .forEach(this::put);
+    }
+
+    private void put(Dispute dispute) {
+        recordStore.put(getKey(dispute), new byte[0], new DisputeRecord(dispute));
+    }
+
+    @Nullable
+    private T readRecord(String key) {
+        //noinspection unchecked
+        return (T) recordStore.readRecord(key);
+    }
+
+    // The dispute id is not unique if a dispute got re-opened, so we add the opening date. We use the epoch millis
+    // as Date.toString depends on the time zone.
+    static String getKey(Dispute dispute) {
+        return dispute.getId() + "_" + dispute.getOpeningDate().getTime();
+    }
+
+    private void setBytesLoader(Dispute dispute) {
+        Consumer<ChatMessage> setLoader = chatMessage -> chatMessage.getAttachments().stream()
+                .filter(Attachment::isDetached)
+                .forEach(attachment -> attachment.setBytesLoader(attachmentStore::get));
+        dispute.getChatMessages().forEach(setLoader);
+        DisputeResult disputeResult = dispute.getDisputeResultProperty().get();
+        if (disputeResult != null && disputeResult.getChatMessage() != null)
+            setLoader.accept(disputeResult.getChatMessage());
+    }
+
+    // Attachments are persisted with their content hash and their bytes are moved to the attachment store. Detached
+    // attachments are already stored, so persisting a dispute does not read its attachments back from disk.
+    // Attachments which have been stored already only cost a file exists check.
+    private protobuf.Attachment toRecordProto(Attachment attachment) {
+        protobuf.Attachment.Builder builder = protobuf.Attachment.newBuilder()
+                .setFileName(attachment.getFileName())
+                .setContentHash(ByteString.copyFrom(attachment.getContentHash()));
+        if (attachment.isDetached() || attachmentStore.contains(attachment.getContentHash()))
+            return builder.build();
+
+        try {
+            attachmentStore.put(attachment.getBytes());
+        } catch (IOException e) {
+            // We keep the bytes in the record so no data gets lost
+            attachmentWriteFailed = true;
+            log.error("Storing attachment {} failed. {}", attachment.getFileName(), e.toString());
+            builder.setBytes(ByteString.copyFrom(attachment.getBytes()));
+        }
+        return builder.build();
+    }
+
+    @Nullable
+    private T readLegacyFile() {
+        File legacyFile = new File(storageDir, fileName);
+        if (!legacyFile.exists())
+            return null;
+
+        log.info("Found legacy file {}. We migrate it to the record store.", fileName);
+        return legacyPersistenceManager.getPersisted(fileName);
+    }
+
+    // Puts are idempotent, so if the migration got interrupted or a write failed we can repeat it at the next start
+    // as the legacy file is only moved to the backup dir once all records and attachments have been written
+    // successfully.
+    private void migrate(T legacyDisputeList) {
+        attachmentWriteFailed = false;
+        legacyDisputeList.forEach(dispute -> {
+            String key = getKey(dispute);
+            if (disputeByKey.containsKey(key))
+                return;
+
+            disputeByKey.put(key, dispute);
+            disputeList.add(dispute);
+            put(dispute);
+        });
+        if (attachmentWriteFailed) {
+            log.error("Migration of {} failed as not all attachments could be stored. We keep the legacy file and " +
+                    "retry at the next start.", fileName);
+            return;
+        }
+
+        recordStore.flush(() -> {
+            try {
+                FileUtil.removeAndBackupFile(storageDir, new File(storageDir, fileName), fileName, MIGRATED_BACKUP_DIR);
+                log.info("Migration of {} with {} disputes completed", fileName, legacyDisputeList.size());
+            } catch (IOException e) {
+                log.error("Could not move migrated legacy file {}. {}", fileName, e.toString());
+            }
+        }, errorMessage -> log.error("Migration of {} failed. We keep the legacy file and retry at the next start. {}",
+                fileName, errorMessage));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // DisputeRecord
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Serialized as a dispute list with a single dispute. The attachments are moved to the attachment store at
+    // serialisation.
+    private class DisputeRecord implements PersistableEnvelope {
+        private final Dispute dispute;
+
+        DisputeRecord(Dispute dispute) {
+            this.dispute = dispute;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            protobuf.Dispute disputeProto = dispute.toProtoMessage(DisputeRecordStore.this::toRecordProto);
+            protobuf.PersistableEnvelope.Builder builder =
+                    ((protobuf.PersistableEnvelope) disputeListFactory.get().toProtoMessage()).toBuilder();
+            switch (builder.getMessageCase()) {
+                case ARBITRATION_DISPUTE_LIST:
+                    builder.getArbitrationDisputeListBuilder().addDispute(disputeProto);
+                    break;
+                case MEDIATION_DISPUTE_LIST:
+                    builder.getMediationDisputeListBuilder().addDispute(disputeProto);
+                    break;
+                case REFUND_DISPUTE_LIST:
+                    builder.getRefundDisputeListBuilder().addDispute(disputeProto);
+                    break;
+                default:
+                    log.error("Unexpected dispute list type {}. We keep the attachments in the record.",
+                            builder.getMessageCase());
+                    T disputeList = disputeListFactory.get();
+                    disputeList.add(dispute);
+                    return disputeList.toProtoMessage();
+            }
+            return builder.build();
+        }
+    }
+}
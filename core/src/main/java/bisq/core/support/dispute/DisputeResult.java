@@ -34,6 +34,7 @@ import javafx.beans.property.StringProperty;
 
 import java.util.Date;
 import java.util.Optional;
+import java.util.function.Function;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -154,6 +155,10 @@ public final class DisputeResult implements NetworkPayload {
 
     @Override
     public protobuf.DisputeResult toProtoMessage() {
+        return toProtoMessage(Attachment::toProtoMessage);
+    }
+
+    protobuf.DisputeResult toProtoMessage(Function<Attachment, protobuf.Attachment> attachmentToProto) {
         final protobuf.DisputeResult.Builder builder = protobuf.DisputeResult.newBuilder()
                 .setTradeId(tradeId)
                 .setTraderId(traderId)
@@ -171,7 +176,7 @@ public final class DisputeResult implements NetworkPayload {
         Optional.ofNullable(arbitratorPubKey).ifPresent(arbitratorPubKey -> builder.setArbitratorPubKey(ByteString.copyFrom(arbitratorPubKey)));
         Optional.ofNullable(winner).ifPresent(result -> builder.setWinner(protobuf.DisputeResult.Winner.valueOf(winner.name())));
         Optional.ofNullable(chatMessage).ifPresent(chatMessage ->
-                builder.setChatMessage(chatMessage.toProtoNetworkEnvelope().getChatMessage()));
+                builder.setChatMessage(chatMessage.toProtoChatMessage(attachmentToProto)));
 
         return builder.build();
     }
@@ -19,11 +19,16 @@ package bisq.core.support.dispute.arbitration;
 
 import bisq.core.support.dispute.DisputeListService;
 
+import bisq.common.config.Config;
 import bisq.common.persistence.PersistenceManager;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
+import java.io.File;
+
 @Singleton
 public final class ArbitrationDisputeListService extends DisputeListService<ArbitrationDisputeList> {
 
@@ -32,8 +37,10 @@ public final class ArbitrationDisputeListService extends DisputeListService<Arbi
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public ArbitrationDisputeListService(PersistenceManager<ArbitrationDisputeList> persistenceManager) {
-        super(persistenceManager);
+    public ArbitrationDisputeListService(PersistenceManager<ArbitrationDisputeList> persistenceManager,
+                                         PersistenceProtoResolver persistenceProtoResolver,
+                                         @Named(Config.STORAGE_DIR) File storageDir) {
+        super(persistenceManager, persistenceProtoResolver, storageDir);
     }
 
 
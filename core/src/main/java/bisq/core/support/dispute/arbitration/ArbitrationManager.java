@@ -212,7 +212,7 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
 
         Dispute dispute = disputeOptional.get();
         cleanupRetryMap(uid);
-        if (!dispute.getChatMessages().contains(chatMessage)) {
+        if (!dispute.hasChatMessage(chatMessage.getUid())) {
             dispute.addAndPersistChatMessage(chatMessage);
         } else {
             log.warn("We got a dispute mail msg what we have already stored. TradeId = " + chatMessage.getTradeId());
@@ -338,7 +338,7 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
             sendAckMessage(chatMessage, dispute.getAgentPubKeyRing(), success, errorMessage);
         }
 
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // Losing trader or in case of 50/50 the seller gets the tx sent from the winner or buyer
@@ -373,7 +373,7 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
 
         // We can only send the ack msg if we have the peersPubKeyRing which requires the dispute
         sendAckMessage(peerPublishedDisputePayoutTxMessage, peersPubKeyRing, true, null);
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
 
@@ -19,11 +19,16 @@ package bisq.core.support.dispute.mediation;
 
 import bisq.core.support.dispute.DisputeListService;
 
+import bisq.common.config.Config;
 import bisq.common.persistence.PersistenceManager;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
+import java.io.File;
+
 @Singleton
 public final class MediationDisputeListService extends DisputeListService<MediationDisputeList> {
 
@@ -32,8 +37,10 @@ public final class MediationDisputeListService extends DisputeListService<Mediat
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public MediationDisputeListService(PersistenceManager<MediationDisputeList> persistenceManager) {
-        super(persistenceManager);
+    public MediationDisputeListService(PersistenceManager<MediationDisputeList> persistenceManager,
+                                       PersistenceProtoResolver persistenceProtoResolver,
+                                       @Named(Config.STORAGE_DIR) File storageDir) {
+        super(persistenceManager, persistenceProtoResolver, storageDir);
     }
 
 
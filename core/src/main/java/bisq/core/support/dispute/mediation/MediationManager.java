@@ -188,7 +188,7 @@ public final class MediationManager extends DisputeManager<MediationDisputeList>
 
         Dispute dispute = disputeOptional.get();
         cleanupRetryMap(uid);
-        if (!dispute.getChatMessages().contains(chatMessage)) {
+        if (!dispute.hasChatMessage(chatMessage.getUid())) {
             dispute.addAndPersistChatMessage(chatMessage);
         } else {
             log.warn("We got a dispute mail msg what we have already stored. TradeId = " + chatMessage.getTradeId());
@@ -215,7 +215,7 @@ public final class MediationManager extends DisputeManager<MediationDisputeList>
         }
         sendAckMessage(chatMessage, dispute.getAgentPubKeyRing(), true, null);
 
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
 
@@ -19,11 +19,16 @@ package bisq.core.support.dispute.refund;
 
 import bisq.core.support.dispute.DisputeListService;
 
+import bisq.common.config.Config;
 import bisq.common.persistence.PersistenceManager;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
+import java.io.File;
+
 @Singleton
 public final class RefundDisputeListService extends DisputeListService<RefundDisputeList> {
 
@@ -32,8 +37,10 @@ public final class RefundDisputeListService extends DisputeListService<RefundDis
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public RefundDisputeListService(PersistenceManager<RefundDisputeList> persistenceManager) {
-        super(persistenceManager);
+    public RefundDisputeListService(PersistenceManager<RefundDisputeList> persistenceManager,
+                                    PersistenceProtoResolver persistenceProtoResolver,
+                                    @Named(Config.STORAGE_DIR) File storageDir) {
+        super(persistenceManager, persistenceProtoResolver, storageDir);
     }
 
 
@@ -185,7 +185,7 @@ public final class RefundManager extends DisputeManager<RefundDisputeList> {
 
         Dispute dispute = disputeOptional.get();
         cleanupRetryMap(uid);
-        if (!dispute.getChatMessages().contains(chatMessage)) {
+        if (!dispute.hasChatMessage(chatMessage.getUid())) {
             dispute.addAndPersistChatMessage(chatMessage);
         } else {
             log.warn("We got a dispute mail msg what we have already stored. TradeId = " + chatMessage.getTradeId());
@@ -221,7 +221,7 @@ public final class RefundManager extends DisputeManager<RefundDisputeList> {
             openOfferOptional.ifPresent(openOffer -> openOfferManager.closeOpenOffer(openOffer.getOffer()));
         }
 
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
 
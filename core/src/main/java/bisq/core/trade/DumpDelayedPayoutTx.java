@@ -28,7 +28,10 @@ import java.io.File;
 
 import java.util.stream.Collectors;
 
+import lombok.Getter;
+
 public class DumpDelayedPayoutTx {
+    @Getter
     private final boolean dumpDelayedPayoutTxs;
     private final JsonFileManager jsonFileManager;
 
@@ -64,29 +64,33 @@ public final class TradableList<T extends Tradable> extends PersistableListAsObs
                                                    CoreProtoResolver coreProtoResolver,
                                                    BtcWalletService btcWalletService) {
         List<Tradable> list = proto.getTradableList().stream()
-                .map(tradable -> {
-                    switch (tradable.getMessageCase()) {
-                        case OPEN_OFFER:
-                            return OpenOffer.fromProto(tradable.getOpenOffer());
-                        case BUYER_AS_MAKER_TRADE:
-                            return BuyerAsMakerTrade.fromProto(tradable.getBuyerAsMakerTrade(), btcWalletService, coreProtoResolver);
-                        case BUYER_AS_TAKER_TRADE:
-                            return BuyerAsTakerTrade.fromProto(tradable.getBuyerAsTakerTrade(), btcWalletService, coreProtoResolver);
-                        case SELLER_AS_MAKER_TRADE:
-                            return SellerAsMakerTrade.fromProto(tradable.getSellerAsMakerTrade(), btcWalletService, coreProtoResolver);
-                        case SELLER_AS_TAKER_TRADE:
-                            return SellerAsTakerTrade.fromProto(tradable.getSellerAsTakerTrade(), btcWalletService, coreProtoResolver);
-                        default:
-                            log.error("Unknown messageCase. tradable.getMessageCase() = " + tradable.getMessageCase());
-                            throw new ProtobufferRuntimeException("Unknown messageCase. tradable.getMessageCase() = " +
-                                    tradable.getMessageCase());
-                    }
-                })
+                .map(tradable -> fromProto(tradable, coreProtoResolver, btcWalletService))
                 .collect(Collectors.toList());
 
         return new TradableList<>(list);
     }
 
+    public static Tradable fromProto(protobuf.Tradable tradable,
+                                     CoreProtoResolver coreProtoResolver,
+                                     BtcWalletService btcWalletService) {
+        switch (tradable.getMessageCase()) {
+            case OPEN_OFFER:
+                return OpenOffer.fromProto(tradable.getOpenOffer());
+            case BUYER_AS_MAKER_TRADE:
+                return BuyerAsMakerTrade.fromProto(tradable.getBuyerAsMakerTrade(), btcWalletService, coreProtoResolver);
+            case BUYER_AS_TAKER_TRADE:
+                return BuyerAsTakerTrade.fromProto(tradable.getBuyerAsTakerTrade(), btcWalletService, coreProtoResolver);
+            case SELLER_AS_MAKER_TRADE:
+                return SellerAsMakerTrade.fromProto(tradable.getSellerAsMakerTrade(), btcWalletService, coreProtoResolver);
+            case SELLER_AS_TAKER_TRADE:
+                return SellerAsTakerTrade.fromProto(tradable.getSellerAsTakerTrade(), btcWalletService, coreProtoResolver);
+            default:
+                log.error("Unknown messageCase. tradable.getMessageCase() = " + tradable.getMessageCase());
+                throw new ProtobufferRuntimeException("Unknown messageCase. tradable.getMessageCase() = " +
+                        tradable.getMessageCase());
+        }
+    }
+
     @Override
     public String toString() {
         return "TradableList{" +
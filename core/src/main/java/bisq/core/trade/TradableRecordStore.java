@@ -0,0 +1,354 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.common.UserThread;
+import bisq.common.file.FileUtil;
+import bisq.common.persistence.PersistenceManager;
+import bisq.common.persistence.RecordStore;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persists a growing list of tradables (closed or failed trades) as one record per tradable in a {@link RecordStore}.
+ * At startup we only read the summaries. Tradables are loaded on demand, either individually by id or all at once
+ * when the observable list is requested. Services which need all tradables at startup should use
+ * getTradableListAsync, which reads the records on the read thread pool instead of the user thread. Adding or
+ * removing a tradable costs O(1) disk I/O.
+ *
+ * Tradables which got loaded can get mutated in memory, so we put them again periodically and at shutdown. The record
+ * store only writes the records whose serialized data has changed.
+ *
+ * Data persisted with the previous single file format gets migrated to the record store at the first start. The
+ * records are stored in a separate dir, as the legacy file has the same name.
+ *
+ * Must be used from the user thread. readPersisted and getTradableListAsync read from disk on the read thread pool of
+ * the PersistenceManager.
+ */
+@Slf4j
+public class TradableRecordStore<T extends Tradable> {
+    private static final String MIGRATED_BACKUP_DIR = "backup_of_migrated_data";
+    private static final String RECORDS_DIR_POSTFIX = "_records";
+    private static final long PUT_LOADED_TRADABLES_INTERVAL_SEC = 60;
+
+    @Value
+    static class Summary {
+        long date;
+        boolean isTrade;
+        boolean isFundsLockedIn;
+
+        static Summary from(Tradable tradable) {
+            boolean isTrade = tradable instanceof Trade;
+            return new Summary(tradable.getDate().getTime(), isTrade, isTrade && ((Trade) tradable).isFundsLockedIn());
+        }
+
+        byte[] toBytes() {
+            return protobuf.TradableSummary.newBuilder()
+                    .setDate(date)
+                    .setIsTrade(isTrade)
+                    .setIsFundsLockedIn(isFundsLockedIn)
+                    .build()
+                    .toByteArray();
+        }
+
+        static Summary fromBytes(byte[] bytes) throws InvalidProtocolBufferException {
+            protobuf.TradableSummary proto = protobuf.TradableSummary.parseFrom(bytes);
+            return new Summary(proto.getDate(), proto.getIsTrade(), proto.getIsFundsLockedIn());
+        }
+    }
+
+    private final File storageDir;
+    private final String fileName;
+    private final RecordStore<TradableList<T>> recordStore;
+    private final PersistenceManager<TradableList<T>> legacyPersistenceManager;
+    private final Consumer<T> onLoadedHandler;
+
+    private final Map<String, Summary> summaryById = new LinkedHashMap<>();
+    private final Map<String, T> loadedById = new HashMap<>();
+    // Contains all tradables once they got materialized
+    private final TradableList<T> tradables = new TradableList<>();
+    private boolean allLoaded;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param storageDir                The storage dir
+     * @param fileName                  Name of the legacy file, also used as prefix of the record store dir
+     * @param persistenceProtoResolver  Resolver for reading records
+     * @param legacyPersistenceManager  Not initialized PersistenceManager used for reading the legacy file
+     * @param onLoadedHandler           Called for each tradable once it got loaded from disk
+     */
+    public TradableRecordStore(File storageDir,
+                               String fileName,
+                               PersistenceProtoResolver persistenceProtoResolver,
+                               PersistenceManager<TradableList<T>> legacyPersistenceManager,
+                               Consumer<T> onLoadedHandler) {
+        this.storageDir = storageDir;
+        this.fileName = fileName;
+        this.legacyPersistenceManager = legacyPersistenceManager;
+        this.onLoadedHandler = onLoadedHandler;
+        recordStore = new RecordStore<>(storageDir, fileName + RECORDS_DIR_POSTFIX, persistenceProtoResolver);
+        recordStore.setBeforeFlushHandler(this::putLoadedTradables);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void readPersisted(Runnable completeHandler) {
+        PersistenceManager.getReadExecutor().execute(() -> {
+            Map<String, byte[]> index = recordStore.readIndex();
+            Map<String, Summary> summaries = new LinkedHashMap<>();
+            index.forEach((id, bytes) -> {
+                try {
+                    summaries.put(id, Summary.fromBytes(bytes));
+                } catch (InvalidProtocolBufferException e) {
+                    log.error("Parsing summary of {} in {} failed. {}", id, fileName, e.toString());
+                }
+            });
+            TradableList<T> legacyTradables = readLegacyFile();
+
+            UserThread.execute(() -> {
+                summaryById.putAll(summaries);
+                if (legacyTradables != null) {
+                    migrate(legacyTradables);
+                }
+                UserThread.runPeriodically(this::putLoadedTradables, PUT_LOADED_TRADABLES_INTERVAL_SEC);
+                completeHandler.run();
+            });
+        });
+    }
+
+    public boolean add(T tradable) {
+        String id = tradable.getId();
+        if (summaryById.containsKey(id))
+            return false;
+
+        put(tradable);
+        loadedById.put(id, tradable);
+        if (allLoaded)
+            tradables.add(tradable);
+        return true;
+    }
+
+    public boolean remove(T tradable) {
+        String id = tradable.getId();
+        if (summaryById.remove(id) == null)
+            return false;
+
+        recordStore.remove(id);
+        loadedById.remove(id);
+        if (allLoaded)
+            tradables.remove(tradable);
+        return true;
+    }
+
+    public boolean contains(String id) {
+        return summaryById.containsKey(id);
+    }
+
+    public Optional<T> getById(String id) {
+        if (!summaryById.containsKey(id))
+            return Optional.empty();
+
+        return Optional.ofNullable(load(id));
+    }
+
+    /**
+     * @return The list of all tradables. Loads all tradables which have not been loaded yet.
+     */
+    public TradableList<T> getTradableList() {
+        if (!allLoaded) {
+            long ts = System.currentTimeMillis();
+            List<T> list = new ArrayList<>(summaryById.size());
+            new ArrayList<>(summaryById.keySet()).forEach(id -> {
+                T tradable = load(id);
+                if (tradable != null)
+                    list.add(tradable);
+            });
+            tradables.setAll(list);
+            allLoaded = true;
+            log.info("Loading {} tradables of {} took {} ms", list.size(), fileName, System.currentTimeMillis() - ts);
+        }
+        return tradables;
+    }
+
+    /**
+     * Reads the tradables which have not been loaded yet on the read thread pool and calls the resultHandler on the
+     * user thread with the list of all tradables.
+     */
+    public void getTradableListAsync(Consumer<TradableList<T>> resultHandler) {
+        if (allLoaded) {
+            resultHandler.accept(tradables);
+            return;
+        }
+
+        List<String> ids = summaryById.keySet().stream()
+                .filter(id -> !loadedById.containsKey(id))
+                .collect(Collectors.toList());
+        PersistenceManager.getReadExecutor().execute(() -> {
+            long ts = System.currentTimeMillis();
+            Map<String, T> readTradables = new HashMap<>();
+            ids.forEach(id -> {
+                T tradable = read(id);
+                if (tradable != null)
+                    readTradables.put(id, tradable);
+            });
+            log.info("Reading {} tradables of {} took {} ms",
+                    readTradables.size(), fileName, System.currentTimeMillis() - ts);
+
+            UserThread.execute(() -> {
+                // Tradables might have been loaded or removed in the meantime
+                readTradables.forEach((id, tradable) -> {
+                    if (summaryById.containsKey(id) && !loadedById.containsKey(id))
+                        onLoaded(id, tradable);
+                });
+                resultHandler.accept(getTradableList());
+            });
+        });
+    }
+
+    /**
+     * We use the live state of loaded trades and the persisted summary for the not loaded ones, so we usually do not
+     * need to load any trade.
+     */
+    public Stream<Trade> getTradesStreamWithFundsLockedIn() {
+        List<Trade> trades = new ArrayList<>();
+        new ArrayList<>(summaryById.entrySet()).forEach(e -> {
+            T loaded = loadedById.get(e.getKey());
+            if (loaded != null) {
+                if (loaded instanceof Trade && ((Trade) loaded).isFundsLockedIn())
+                    trades.add((Trade) loaded);
+            } else if (e.getValue().isFundsLockedIn()) {
+                T tradable = load(e.getKey());
+                if (tradable instanceof Trade && ((Trade) tradable).isFundsLockedIn())
+                    trades.add((Trade) tradable);
+            }
+        });
+        return trades.stream();
+    }
+
+    public int size() {
+        return summaryById.size();
+    }
+
+    /**
+     * Puts the loaded tradables and calls the completeHandler on the write thread once all writes are done.
+     */
+    public void flush(Runnable completeHandler) {
+        recordStore.flush(completeHandler);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    private T load(String id) {
+        T tradable = loadedById.get(id);
+        if (tradable != null)
+            return tradable;
+
+        tradable = read(id);
+        if (tradable != null)
+            onLoaded(id, tradable);
+        return tradable;
+    }
+
+    // Only reads from disk, so it can be called from any thread
+    @Nullable
+    private T read(String id) {
+        TradableList<T> record = recordStore.readRecord(id);
+        if (record == null || record.isEmpty()) {
+            log.error("Record for tradable {} in {} is missing or corrupted.", id, fileName);
+            return null;
+        }
+        return record.getList().get(0);
+    }
+
+    private void onLoaded(String id, T tradable) {
+        loadedById.put(id, tradable);
+        onLoadedHandler.accept(tradable);
+    }
+
+    private void put(T tradable) {
+        Summary summary = Summary.from(tradable);
+        summaryById.put(tradable.getId(), summary);
+        recordStore.put(tradable.getId(), summary.toBytes(), new TradableList<>(Collections.singletonList(tradable)));
+    }
+
+    private void putLoadedTradables() {
+        new ArrayList<>(loadedById.values()).stream()
+                .filter(tradable -> summaryById.containsKey(tradable.getId()))
+                .forEach(this::put);
+    }
+
+    @Nullable
+    private TradableList<T> readLegacyFile() {
+        File legacyFile = new File(storageDir, fileName);
+        if (!legacyFile.exists())
+            return null;
+
+        log.info("Found legacy file {}. We migrate it to the record store.", fileName);
+        return legacyPersistenceManager.getPersisted(fileName);
+    }
+
+    // Puts are idempotent, so if the migration got interrupted or a write failed we can repeat it at the next start
+    // as the legacy file is only moved to the backup dir once all records have been written successfully.
+    private void migrate(TradableList<T> legacyTradables) {
+        legacyTradables.forEach(tradable -> {
+            onLoadedHandler.accept(tradable);
+            loadedById.put(tradable.getId(), tradable);
+            put(tradable);
+        });
+        recordStore.flush(() -> {
+            try {
+                FileUtil.removeAndBackupFile(storageDir, new File(storageDir, fileName), fileName, MIGRATED_BACKUP_DIR);
+                log.info("Migration of {} with {} tradables completed", fileName, legacyTradables.size());
+            } catch (IOException e) {
+                log.error("Could not move migrated legacy file {}. {}", fileName, e.toString());
+            }
+        }, errorMessage -> log.error("Migration of {} failed. We keep the legacy file and retry at the next start. {}",
+                fileName, errorMessage));
+    }
+}
@@ -343,12 +343,15 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         tradableList.forEach(this::initPersistedTrade);
         persistedTradesInitialized.set(true);
 
-        // We do not include failed trades as they should not be counted anyway in the trade statistics
-        Set<Trade> allTrades = new HashSet<>(closedTradableManager.getClosedTrades());
-        allTrades.addAll(tradableList.getList());
-        String referralId = referralIdService.getOptionalReferralId().orElse(null);
-        boolean isTorNetworkNode = p2PService.getNetworkNode() instanceof TorNetworkNode;
-        tradeStatisticsManager.maybeRepublishTradeStatistics(allTrades, referralId, isTorNetworkNode);
+        // We do not include failed trades as they should not be counted anyway in the trade statistics.
+        // The closed trades are read from disk on the read thread pool.
+        closedTradableManager.getClosedTradesAsync(closedTrades -> {
+            Set<Trade> allTrades = new HashSet<>(closedTrades);
+            allTrades.addAll(tradableList.getList());
+            String referralId = referralIdService.getOptionalReferralId().orElse(null);
+            boolean isTorNetworkNode = p2PService.getNetworkNode() instanceof TorNetworkNode;
+            tradeStatisticsManager.maybeRepublishTradeStatistics(allTrades, referralId, isTorNetworkNode);
+        });
     }
 
     private void initPersistedTrade(Trade trade) {
@@ -33,7 +33,8 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import javax.inject.Inject;
 
-import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -60,17 +61,21 @@ public class CleanupMailboxMessages {
         this.mailboxMessageService = mailboxMessageService;
     }
 
-    public void handleTrades(List<Trade> trades) {
+    /**
+     * @param tradeById Lookup of the trades by trade id. We only look up the trades we have a mailbox message for, so
+     *                  the trades do not need to be loaded all at once.
+     */
+    public void handleTrades(Function<String, Optional<Trade>> tradeById) {
         // We wrap in a try catch as in failed trades we cannot be sure if expected data is set, so we could get
         // a NullPointer and do not want that this escalate to the user.
         try {
             if (p2PService.isBootstrapped()) {
-                cleanupMailboxMessages(trades);
+                cleanupMailboxMessages(tradeById);
             } else {
                 p2PService.addP2PServiceListener(new BootstrapListener() {
                     @Override
                     public void onUpdatedDataReceived() {
-                        cleanupMailboxMessages(trades);
+                        cleanupMailboxMessages(tradeById);
                     }
                 });
             }
@@ -79,29 +84,33 @@ public class CleanupMailboxMessages {
         }
     }
 
-    private void cleanupMailboxMessages(List<Trade> trades) {
+    private void cleanupMailboxMessages(Function<String, Optional<Trade>> tradeById) {
         mailboxMessageService.getMyDecryptedMailboxMessages()
-                .forEach(message -> handleDecryptedMessageWithPubKey(message, trades));
+                .forEach(message -> handleDecryptedMessageWithPubKey(message, tradeById));
     }
 
     private void handleDecryptedMessageWithPubKey(DecryptedMessageWithPubKey decryptedMessageWithPubKey,
-                                                  List<Trade> trades) {
-        trades.stream()
-                .filter(trade -> isMessageForTrade(decryptedMessageWithPubKey, trade))
+                                                  Function<String, Optional<Trade>> tradeById) {
+        NetworkEnvelope networkEnvelope = decryptedMessageWithPubKey.getNetworkEnvelope();
+        if (!(networkEnvelope instanceof MailboxMessage))
+            return;
+
+        getTradeId(networkEnvelope)
+                .flatMap(tradeById)
                 .filter(trade -> isPubKeyValid(decryptedMessageWithPubKey, trade))
-                .filter(trade -> decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage)
-                .forEach(trade -> removeEntryFromMailbox((MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope(), trade));
+                .ifPresent(trade -> removeEntryFromMailbox((MailboxMessage) networkEnvelope, trade));
     }
 
-    private boolean isMessageForTrade(DecryptedMessageWithPubKey decryptedMessageWithPubKey, Trade trade) {
-        NetworkEnvelope networkEnvelope = decryptedMessageWithPubKey.getNetworkEnvelope();
+    private Optional<String> getTradeId(NetworkEnvelope networkEnvelope) {
         if (networkEnvelope instanceof TradeMessage) {
-            return isMyMessage((TradeMessage) networkEnvelope, trade);
+            return Optional.ofNullable(((TradeMessage) networkEnvelope).getTradeId());
         } else if (networkEnvelope instanceof AckMessage) {
-            return isMyMessage((AckMessage) networkEnvelope, trade);
+            AckMessage ackMessage = (AckMessage) networkEnvelope;
+            if (ackMessage.getSourceType() == AckMessageSourceType.TRADE_MESSAGE)
+                return Optional.ofNullable(ackMessage.getSourceId());
         }
         // Instance must be TradeMessage or AckMessage.
-        return false;
+        return Optional.empty();
     }
 
     private void removeEntryFromMailbox(MailboxMessage mailboxMessage, Trade trade) {
@@ -111,15 +120,6 @@ public class CleanupMailboxMessages {
         mailboxMessageService.removeMailboxMsg(mailboxMessage);
     }
 
-    private boolean isMyMessage(TradeMessage message, Trade trade) {
-        return message.getTradeId().equals(trade.getId());
-    }
-
-    private boolean isMyMessage(AckMessage ackMessage, Trade trade) {
-        return ackMessage.getSourceType() == AckMessageSourceType.TRADE_MESSAGE &&
-                ackMessage.getSourceId().equals(trade.getId());
-    }
-
     private boolean isPubKeyValid(DecryptedMessageWithPubKey decryptedMessageWithPubKey, Trade trade) {
         // We can only validate the peers pubKey if we have it already. If we are the taker we get it from the offer
         // Otherwise it depends on the state of the trade protocol if we have received the peers pubKeyRing already.
@@ -22,20 +22,28 @@ import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.DumpDelayedPayoutTx;
 import bisq.core.trade.Tradable;
 import bisq.core.trade.TradableList;
+import bisq.core.trade.TradableRecordStore;
 import bisq.core.trade.Trade;
 
+import bisq.common.config.Config;
 import bisq.common.crypto.KeyRing;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 
 import com.google.inject.Inject;
 
+import javax.inject.Named;
+
 import com.google.common.collect.ImmutableList;
 
 import javafx.collections.ObservableList;
 
+import java.io.File;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -43,8 +51,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class ClosedTradableManager implements PersistedDataHost {
-    private final PersistenceManager<TradableList<Tradable>> persistenceManager;
-    private final TradableList<Tradable> closedTradables = new TradableList<>();
+    private final TradableRecordStore<Tradable> closedTradables;
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
     private final CleanupMailboxMessages cleanupMailboxMessages;
@@ -54,44 +61,46 @@ public class ClosedTradableManager implements PersistedDataHost {
     public ClosedTradableManager(KeyRing keyRing,
                                  PriceFeedService priceFeedService,
                                  PersistenceManager<TradableList<Tradable>> persistenceManager,
+                                 PersistenceProtoResolver persistenceProtoResolver,
+                                 @Named(Config.STORAGE_DIR) File storageDir,
                                  CleanupMailboxMessages cleanupMailboxMessages,
                                  DumpDelayedPayoutTx dumpDelayedPayoutTx) {
         this.keyRing = keyRing;
         this.priceFeedService = priceFeedService;
         this.cleanupMailboxMessages = cleanupMailboxMessages;
         this.dumpDelayedPayoutTx = dumpDelayedPayoutTx;
-        this.persistenceManager = persistenceManager;
 
-        this.persistenceManager.initialize(closedTradables, "ClosedTrades", PersistenceManager.Source.PRIVATE);
+        // The persistenceManager is only used for reading the legacy file at the migration to the record store
+        closedTradables = new TradableRecordStore<>(storageDir,
+                "ClosedTrades",
+                persistenceProtoResolver,
+                persistenceManager,
+                tradable -> {
+                    if (tradable.getOffer() != null)
+                        tradable.getOffer().setPriceFeedService(priceFeedService);
+                });
     }
 
     @Override
     public void readPersisted(Runnable completeHandler) {
-        persistenceManager.readPersisted(persisted -> {
-                    closedTradables.setAll(persisted.getList());
-                    closedTradables.stream()
-                            .filter(tradable -> tradable.getOffer() != null)
-                            .forEach(tradable -> tradable.getOffer().setPriceFeedService(priceFeedService));
-                    dumpDelayedPayoutTx.maybeDumpDelayedPayoutTxs(closedTradables, "delayed_payout_txs_closed");
-                    completeHandler.run();
-                },
-                completeHandler);
+        closedTradables.readPersisted(() -> {
+            if (dumpDelayedPayoutTx.isDumpDelayedPayoutTxs()) {
+                dumpDelayedPayoutTx.maybeDumpDelayedPayoutTxs(closedTradables.getTradableList(), "delayed_payout_txs_closed");
+            }
+            completeHandler.run();
+        });
     }
 
     public void onAllServicesInitialized() {
-        cleanupMailboxMessages.handleTrades(getClosedTrades());
+        cleanupMailboxMessages.handleTrades(this::getClosedTradeById);
     }
 
     public void add(Tradable tradable) {
-        if (closedTradables.add(tradable)) {
-            requestPersistence();
-        }
+        closedTradables.add(tradable);
     }
 
     public void remove(Tradable tradable) {
-        if (closedTradables.remove(tradable)) {
-            requestPersistence();
-        }
+        closedTradables.remove(tradable);
     }
 
     public boolean wasMyOffer(Offer offer) {
@@ -99,26 +108,39 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public ObservableList<Tradable> getObservableList() {
-        return closedTradables.getObservableList();
+        return closedTradables.getTradableList().getObservableList();
     }
 
     public List<Trade> getClosedTrades() {
-        return ImmutableList.copyOf(getObservableList().stream()
-                .filter(e -> e instanceof Trade)
-                .map(e -> (Trade) e)
-                .collect(Collectors.toList()));
+        return toTrades(getObservableList().stream());
+    }
+
+    /**
+     * Reads the closed trades which have not been loaded yet on the read thread pool and calls the resultHandler on
+     * the user thread.
+     */
+    public void getClosedTradesAsync(Consumer<List<Trade>> resultHandler) {
+        closedTradables.getTradableListAsync(tradableList -> resultHandler.accept(toTrades(tradableList.stream())));
+    }
+
+    public Optional<Trade> getClosedTradeById(String id) {
+        return closedTradables.getById(id)
+                .filter(tradable -> tradable instanceof Trade)
+                .map(tradable -> (Trade) tradable);
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return closedTradables.getById(id);
     }
 
     public Stream<Trade> getTradesStreamWithFundsLockedIn() {
-        return getClosedTrades().stream()
-                .filter(Trade::isFundsLockedIn);
+        return closedTradables.getTradesStreamWithFundsLockedIn();
     }
 
-    private void requestPersistence() {
-        persistenceManager.requestPersistence();
+    private static List<Trade> toTrades(Stream<Tradable> tradables) {
+        return ImmutableList.copyOf(tradables
+                .filter(e -> e instanceof Trade)
+                .map(e -> (Trade) e)
+                .collect(Collectors.toList()));
     }
 }
@@ -23,18 +23,25 @@ import bisq.core.offer.Offer;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.DumpDelayedPayoutTx;
 import bisq.core.trade.TradableList;
+import bisq.core.trade.TradableRecordStore;
 import bisq.core.trade.Trade;
 import bisq.core.trade.TradeUtil;
 import bisq.core.trade.closed.CleanupMailboxMessages;
 
+import bisq.common.config.Config;
 import bisq.common.crypto.KeyRing;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 
 import com.google.inject.Inject;
 
+import javax.inject.Named;
+
 import javafx.collections.ObservableList;
 
+import java.io.File;
+
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -46,12 +53,11 @@ import lombok.Setter;
 
 public class FailedTradesManager implements PersistedDataHost {
     private static final Logger log = LoggerFactory.getLogger(FailedTradesManager.class);
-    private final TradableList<Trade> failedTrades = new TradableList<>();
+    private final TradableRecordStore<Trade> failedTrades;
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
     private final CleanupMailboxMessages cleanupMailboxMessages;
-    private final PersistenceManager<TradableList<Trade>> persistenceManager;
     private final TradeUtil tradeUtil;
     private final DumpDelayedPayoutTx dumpDelayedPayoutTx;
     @Setter
@@ -62,6 +68,8 @@ public class FailedTradesManager implements PersistedDataHost {
                                PriceFeedService priceFeedService,
                                BtcWalletService btcWalletService,
                                PersistenceManager<TradableList<Trade>> persistenceManager,
+                               PersistenceProtoResolver persistenceProtoResolver,
+                               @Named(Config.STORAGE_DIR) File storageDir,
                                TradeUtil tradeUtil,
                                CleanupMailboxMessages cleanupMailboxMessages,
                                DumpDelayedPayoutTx dumpDelayedPayoutTx) {
@@ -70,39 +78,39 @@ public class FailedTradesManager implements PersistedDataHost {
         this.btcWalletService = btcWalletService;
         this.cleanupMailboxMessages = cleanupMailboxMessages;
         this.dumpDelayedPayoutTx = dumpDelayedPayoutTx;
-        this.persistenceManager = persistenceManager;
         this.tradeUtil = tradeUtil;
 
-        this.persistenceManager.initialize(failedTrades, "FailedTrades", PersistenceManager.Source.PRIVATE);
+        // The persistenceManager is only used for reading the legacy file at the migration to the record store
+        failedTrades = new TradableRecordStore<>(storageDir,
+                "FailedTrades",
+                persistenceProtoResolver,
+                persistenceManager,
+                trade -> {
+                    if (trade.getOffer() != null)
+                        trade.getOffer().setPriceFeedService(priceFeedService);
+                });
     }
 
     @Override
     public void readPersisted(Runnable completeHandler) {
-        persistenceManager.readPersisted(persisted -> {
-                    failedTrades.setAll(persisted.getList());
-                    failedTrades.stream()
-                            .filter(trade -> trade.getOffer() != null)
-                            .forEach(trade -> trade.getOffer().setPriceFeedService(priceFeedService));
-                    dumpDelayedPayoutTx.maybeDumpDelayedPayoutTxs(failedTrades, "delayed_payout_txs_failed");
-                    completeHandler.run();
-                },
-                completeHandler);
+        failedTrades.readPersisted(() -> {
+            if (dumpDelayedPayoutTx.isDumpDelayedPayoutTxs()) {
+                dumpDelayedPayoutTx.maybeDumpDelayedPayoutTxs(failedTrades.getTradableList(), "delayed_payout_txs_failed");
+            }
+            completeHandler.run();
+        });
     }
 
     public void onAllServicesInitialized() {
-        cleanupMailboxMessages.handleTrades(failedTrades.getList());
+        cleanupMailboxMessages.handleTrades(failedTrades::getById);
     }
 
     public void add(Trade trade) {
-        if (failedTrades.add(trade)) {
-            requestPersistence();
-        }
+        failedTrades.add(trade);
     }
 
     public void removeTrade(Trade trade) {
-        if (failedTrades.remove(trade)) {
-            requestPersistence();
-        }
+        failedTrades.remove(trade);
     }
 
     public boolean wasMyOffer(Offer offer) {
@@ -110,16 +118,15 @@ public class FailedTradesManager implements PersistedDataHost {
     }
 
     public ObservableList<Trade> getObservableList() {
-        return failedTrades.getObservableList();
+        return failedTrades.getTradableList().getObservableList();
     }
 
     public Optional<Trade> getTradeById(String id) {
-        return failedTrades.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return failedTrades.getById(id);
     }
 
     public Stream<Trade> getTradesStreamWithFundsLockedIn() {
-        return failedTrades.stream()
-                .filter(Trade::isFundsLockedIn);
+        return failedTrades.getTradesStreamWithFundsLockedIn();
     }
 
     public void unFailTrade(Trade trade) {
@@ -128,9 +135,7 @@ public class FailedTradesManager implements PersistedDataHost {
 
         if (unFailTradeCallback.apply(trade)) {
             log.info("Unfailing trade {}", trade.getId());
-            if (failedTrades.remove(trade)) {
-                requestPersistence();
-            }
+            failedTrades.remove(trade);
         }
     }
 
@@ -151,8 +156,4 @@ public class FailedTradesManager implements PersistedDataHost {
         }
         return blockingTrades.toString();
     }
-
-    private void requestPersistence() {
-        persistenceManager.requestPersistence();
-    }
 }
@@ -35,6 +35,7 @@ import bisq.network.p2p.storage.payload.ProcessOncePersistableNetworkPayload;
 import bisq.common.app.Capabilities;
 import bisq.common.app.Capability;
 import bisq.common.crypto.Hash;
+import bisq.common.proto.ProtoInterner;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.util.CollectionUtils;
 import bisq.common.util.ExtraDataMapValidator;
@@ -302,14 +303,14 @@ public final class TradeStatistics3 implements ProcessOncePersistableNetworkPayl
 
     public static TradeStatistics3 fromProto(protobuf.TradeStatistics3 proto) {
         return new TradeStatistics3(
-                proto.getCurrency(),
+                ProtoInterner.intern(proto.getCurrency()),
                 proto.getPrice(),
                 proto.getAmount(),
-                proto.getPaymentMethod(),
+                ProtoInterner.intern(proto.getPaymentMethod()),
                 proto.getDate(),
-                ProtoUtil.stringOrNullFromProto(proto.getMediator()),
-                ProtoUtil.stringOrNullFromProto(proto.getRefundAgent()),
-                CollectionUtils.isEmpty(proto.getExtraDataMap()) ? null : proto.getExtraDataMap(),
+                ProtoInterner.intern(ProtoUtil.stringOrNullFromProto(proto.getMediator())),
+                ProtoInterner.intern(ProtoUtil.stringOrNullFromProto(proto.getRefundAgent())),
+                CollectionUtils.isEmpty(proto.getExtraDataMap()) ? null : ProtoInterner.internEntries(proto.getExtraDataMap()),
                 proto.getHash().toByteArray());
     }
 
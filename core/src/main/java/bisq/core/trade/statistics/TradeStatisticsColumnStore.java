@@ -0,0 +1,211 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Read optimized columnar copy of the trade statistics. Date, price, amount and currency of each trade are kept in
+ * primitive arrays sorted by date, with currencies stored as ids of a dictionary. Queries over a date range use a binary search for the first row and then scan only the rows of the
+ * range, without touching the TradeStatistics3 objects.
+ *
+ * New trades are usually the most recent ones, so adding is an append in most cases. Older trades get inserted at
+ * their position.
+ *
+ * Not thread safe, we only use it from the user thread.
+ */
+public class TradeStatisticsColumnStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public interface RowConsumer {
+        void accept(long date, long price, long amount);
+    }
+
+    private long[] dates = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] currencyIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final List<String> currencies = new ArrayList<>();
+    private final Map<String, Integer> currencyIdByCode = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(TradeStatistics3 tradeStatistics) {
+        ensureCapacity(size + 1);
+        long date = tradeStatistics.getDateAsLong();
+        int row = size;
+        if (size > 0 && date < dates[size - 1]) {
+            // We insert after all rows with the same date
+            row = getFirstRow(date + 1);
+            int numRowsToMove = size - row;
+            System.arraycopy(dates, row, dates, row + 1, numRowsToMove);
+            System.arraycopy(prices, row, prices, row + 1, numRowsToMove);
+            System.arraycopy(amounts, row, amounts, row + 1, numRowsToMove);
+            System.arraycopy(currencyIds, row, currencyIds, row + 1, numRowsToMove);
+        }
+        setRow(row, tradeStatistics);
+        size++;
+    }
+
+    public void addAll(Collection<TradeStatistics3> tradeStatisticsCollection) {
+        if (tradeStatisticsCollection.isEmpty())
+            return;
+
+        List<TradeStatistics3> sorted = new ArrayList<>(tradeStatisticsCollection);
+        sorted.sort(Comparator.comparingLong(TradeStatistics3::getDateAsLong));
+        if (size == 0 || sorted.get(0).getDateAsLong() >= dates[size - 1]) {
+            ensureCapacity(size + sorted.size());
+            sorted.forEach(tradeStatistics -> setRow(size++, tradeStatistics));
+        } else {
+            merge(sorted);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Passes the rows with fromDate <= date < toDate in the order of their dates to the consumer.
+     *
+     * @param currency  The currency of the trades or null for all currencies
+     */
+    public void forEachInRange(@Nullable String currency, long fromDate, long toDate, RowConsumer consumer) {
+        int currencyId = -1;
+        if (currency != null) {
+            Integer id = currencyIdByCode.get(currency);
+            if (id == null)
+                return;
+            currencyId = id;
+        }
+
+        for (int row = getFirstRow(fromDate); row < size && dates[row] < toDate; row++) {
+            if (currencyId == -1 || currencyIds[row] == currencyId)
+                consumer.accept(dates[row], prices[row], amounts[row]);
+        }
+    }
+
+    /**
+     * @return The number of trades with fromDate <= date < toDate grouped by currency
+     */
+    public Map<String, Integer> getNumTradesByCurrency(long fromDate, long toDate) {
+        int[] counts = new int[currencies.size()];
+        for (int row = getFirstRow(fromDate); row < size && dates[row] < toDate; row++) {
+            counts[currencyIds[row]]++;
+        }
+
+        Map<String, Integer> result = new HashMap<>();
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > 0)
+                result.put(currencies.get(id), counts[id]);
+        }
+        return result;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Index of the first row with a date >= the given date
+    private int getFirstRow(long date) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dates[mid] < date) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void setRow(int row, TradeStatistics3 tradeStatistics) {
+        dates[row] = tradeStatistics.getDateAsLong();
+        prices[row] = tradeStatistics.getPrice();
+        amounts[row] = tradeStatistics.getAmount();
+        currencyIds[row] = getId(tradeStatistics.getCurrency(), currencies, currencyIdByCode);
+    }
+
+    private static int getId(String value, List<String> dictionary, Map<String, Integer> idByValue) {
+        return idByValue.computeIfAbsent(value, k -> {
+            dictionary.add(k);
+            return dictionary.size() - 1;
+        });
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= dates.length)
+            return;
+
+        int capacity = Math.max(minCapacity, dates.length * 2);
+        dates = Arrays.copyOf(dates, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        currencyIds = Arrays.copyOf(currencyIds, capacity);
+    }
+
+    // Merges the sorted new trades with the existing rows into new arrays, so a bulk add of older trades does not
+    // shift the existing rows for each trade.
+    private void merge(List<TradeStatistics3> sorted) {
+        long[] oldDates = dates;
+        long[] oldPrices = prices;
+        long[] oldAmounts = amounts;
+        int[] oldCurrencyIds = currencyIds;
+        int oldSize = size;
+
+        int capacity = Math.max(INITIAL_CAPACITY, oldSize + sorted.size());
+        dates = new long[capacity];
+        prices = new long[capacity];
+        amounts = new long[capacity];
+        currencyIds = new int[capacity];
+        size = 0;
+
+        int oldRow = 0;
+        int newIndex = 0;
+        while (oldRow < oldSize || newIndex < sorted.size()) {
+            if (newIndex == sorted.size() ||
+                    (oldRow < oldSize && oldDates[oldRow] <= sorted.get(newIndex).getDateAsLong())) {
+                dates[size] = oldDates[oldRow];
+                prices[size] = oldPrices[oldRow];
+                amounts[size] = oldAmounts[oldRow];
+                currencyIds[size] = oldCurrencyIds[oldRow];
+                oldRow++;
+            } else {
+                setRow(size, sorted.get(newIndex));
+                newIndex++;
+            }
+            size++;
+        }
+    }
+}
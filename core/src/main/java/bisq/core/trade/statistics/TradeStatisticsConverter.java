@@ -32,6 +32,8 @@ import bisq.common.util.Utilities;
 
 import com.google.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -115,7 +117,9 @@ public class TradeStatisticsConverter {
             executor.shutdown();
     }
 
-    private static List<TradeStatistics3> convertToTradeStatistics3(Collection<PersistableNetworkPayload> persistableNetworkPayloads) {
+    // Public for the benchmarks
+    @VisibleForTesting
+    public static List<TradeStatistics3> convertToTradeStatistics3(Collection<PersistableNetworkPayload> persistableNetworkPayloads) {
         List<TradeStatistics3> list = new ArrayList<>();
         long ts = System.currentTimeMillis();
 
@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per currency index of the latest trade. Adding a trade statistics object tells in O(1) if it is the new latest trade
+ * of its currency, instead of grouping and sorting the whole set.
+ *
+ * Not thread safe, we only use it from the user thread.
+ */
+public class TradeStatisticsIndex {
+    private final Map<String, TradeStatistics3> latestByCurrency = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return True if the tradeStatistics is the new latest trade of its currency
+     */
+    public boolean add(TradeStatistics3 tradeStatistics) {
+        String currency = tradeStatistics.getCurrency();
+        TradeStatistics3 latest = latestByCurrency.get(currency);
+        if (latest == null || tradeStatistics.getDateAsLong() > latest.getDateAsLong()) {
+            latestByCurrency.put(currency, tradeStatistics);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The tradeStatistics which became the latest trade of their currency
+     */
+    public List<TradeStatistics3> addAll(Collection<TradeStatistics3> tradeStatisticsCollection) {
+        Map<String, TradeStatistics3> changed = new HashMap<>();
+        tradeStatisticsCollection.forEach(tradeStatistics -> {
+            if (add(tradeStatistics))
+                changed.put(tradeStatistics.getCurrency(), tradeStatistics);
+        });
+        return new ArrayList<>(changed.values());
+    }
+}
@@ -40,11 +40,10 @@ import javax.inject.Singleton;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 
-import java.time.Instant;
-
 import java.io.File;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -64,6 +63,8 @@ public class TradeStatisticsManager {
     private final File storageDir;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics3> observableTradeStatisticsSet = FXCollections.observableSet();
+    private final TradeStatisticsIndex tradeStatisticsIndex = new TradeStatisticsIndex();
+    private final TradeStatisticsColumnStore tradeStatisticsColumnStore = new TradeStatisticsColumnStore();
     private JsonFileManager jsonFileManager;
 
     @Inject
@@ -99,8 +100,12 @@ public class TradeStatisticsManager {
                 if (!tradeStatistics.isValid()) {
                     return;
                 }
-                observableTradeStatisticsSet.add(tradeStatistics);
-                priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
+                if (observableTradeStatisticsSet.add(tradeStatistics)) {
+                    tradeStatisticsColumnStore.add(tradeStatistics);
+                    if (tradeStatisticsIndex.add(tradeStatistics)) {
+                        priceFeedService.applyLatestBisqMarketPrice(Collections.singletonList(tradeStatistics));
+                    }
+                }
                 maybeDumpStatistics();
             }
         });
@@ -111,7 +116,8 @@ public class TradeStatisticsManager {
                 .filter(TradeStatistics3::isValid)
                 .collect(Collectors.toSet());
         observableTradeStatisticsSet.addAll(set);
-        priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
+        tradeStatisticsColumnStore.addAll(set);
+        priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsIndex.addAll(set));
         maybeDumpStatistics();
     }
 
@@ -119,6 +125,13 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
+    /**
+     * @return Columnar view on the trade statistics for queries over date ranges
+     */
+    public TradeStatisticsColumnStore getTradeStatisticsColumnStore() {
+        return tradeStatisticsColumnStore;
+    }
+
     private void maybeDumpStatistics() {
         if (!dumpStatistics) {
             return;
@@ -139,11 +152,9 @@ public class TradeStatisticsManager {
             cryptoCurrencyList.add(0, new CurrencyTuple(Res.getBaseCurrencyCode(), Res.getBaseCurrencyName(), 8));
             jsonFileManager.writeToDiscThreaded(Utilities.objectToJson(cryptoCurrencyList), "crypto_currency_list");
 
-            Instant yearAgo = Instant.ofEpochSecond(Instant.now().getEpochSecond() - TimeUnit.DAYS.toSeconds(365));
-            Set<String> activeCurrencies = observableTradeStatisticsSet.stream()
-                    .filter(e -> e.getDate().toInstant().isAfter(yearAgo))
-                    .map(p -> p.getCurrency())
-                    .collect(Collectors.toSet());
+            long yearAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365);
+            Set<String> activeCurrencies = tradeStatisticsColumnStore.getNumTradesByCurrency(yearAgo + 1, Long.MAX_VALUE)
+                    .keySet();
 
             ArrayList<CurrencyTuple> activeFiatCurrencyList = fiatCurrencyList.stream()
                     .filter(e -> activeCurrencies.contains(e.code))
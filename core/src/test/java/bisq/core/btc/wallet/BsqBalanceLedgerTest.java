@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.btc.wallet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BsqBalanceLedgerTest {
+    @Test
+    public void testPutUpdatesTotals() {
+        BsqBalanceLedger ledger = new BsqBalanceLedger();
+        ledger.put("tx1", new BsqBalanceLedger.Entry(100, 0, 0, 0));
+        ledger.put("tx2", new BsqBalanceLedger.Entry(0, 200, 300, 0));
+        ledger.put("tx3", new BsqBalanceLedger.Entry(0, 0, 0, 400));
+
+        assertEquals(100, ledger.getUnverified());
+        assertEquals(200, ledger.getLockedForVoting());
+        assertEquals(300, ledger.getLockupBonds());
+        assertEquals(400, ledger.getUnlockingBonds());
+        assertEquals(3, ledger.size());
+
+        // tx1 got confirmed and became a lockup tx
+        ledger.put("tx1", new BsqBalanceLedger.Entry(0, 0, 100, 0));
+        assertEquals(0, ledger.getUnverified());
+        assertEquals(400, ledger.getLockupBonds());
+        assertEquals(3, ledger.size());
+    }
+
+    @Test
+    public void testEmptyEntryRemovesTx() {
+        BsqBalanceLedger ledger = new BsqBalanceLedger();
+        ledger.put("tx1", new BsqBalanceLedger.Entry(0, 0, 300, 0));
+        ledger.put("tx2", new BsqBalanceLedger.Entry(0, 0, 200, 0));
+
+        // Lockup output of tx1 got spent
+        ledger.put("tx1", BsqBalanceLedger.Entry.EMPTY);
+        assertEquals(200, ledger.getLockupBonds());
+        assertEquals(1, ledger.size());
+        assertEquals(BsqBalanceLedger.Entry.EMPTY, ledger.get("tx1"));
+
+        // Unknown tx with empty entry has no effect
+        ledger.put("tx3", BsqBalanceLedger.Entry.EMPTY);
+        assertEquals(200, ledger.getLockupBonds());
+        assertEquals(1, ledger.size());
+
+        ledger.clear();
+        assertEquals(0, ledger.getLockupBonds());
+        assertEquals(0, ledger.size());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.common.config.Config;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Context;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.script.Script;
+import org.bitcoinj.wallet.Wallet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WalletIndexTest {
+    private NetworkParameters params;
+    private Wallet wallet;
+    private final Map<Sha256Hash, Transaction> walletTransactions = new HashMap<>();
+    private WalletIndex walletIndex;
+    private Address address1;
+    private Address address2;
+
+    @Before
+    public void setUp() {
+        params = Config.baseCurrencyNetworkParameters();
+        Context.propagate(new Context(params));
+        address1 = Address.fromKey(params, new ECKey(), Script.ScriptType.P2PKH);
+        address2 = Address.fromKey(params, new ECKey(), Script.ScriptType.P2PKH);
+
+        wallet = mock(Wallet.class);
+        when(wallet.getTransaction(any(Sha256Hash.class))).thenAnswer(invocation ->
+                walletTransactions.get(invocation.<Sha256Hash>getArgument(0)));
+        when(wallet.getTransactions(true)).thenAnswer(invocation -> new HashSet<>(walletTransactions.values()));
+
+        walletIndex = new WalletIndex();
+    }
+
+    @Test
+    public void testAddTx() {
+        Transaction tx1 = addToWallet(createTx(address1, 1000));
+        walletIndex.attach(wallet);
+        assertEquals(Collections.singletonList(tx1), walletIndex.getTransactions(address1));
+        assertTrue(walletIndex.getTransactions(address2).isEmpty());
+
+        // tx2 spends the output of tx1, so it affects the address of the connected output as well
+        Transaction tx2 = createTx(address2, 500);
+        tx2.addInput(tx1.getOutput(0));
+        addToWallet(tx2);
+        walletIndex.onCoinsSent(wallet, tx2, Coin.valueOf(1000), Coin.valueOf(500));
+
+        assertEquals(new HashSet<>(Arrays.asList(tx1, tx2)), new HashSet<>(walletIndex.getTransactions(address1)));
+        assertEquals(Collections.singletonList(tx2), walletIndex.getTransactions(address2));
+        assertSame(tx2, walletIndex.getTransaction(tx2.getTxId().toString()));
+    }
+
+    @Test
+    public void testRemovedAndDeadTxs() {
+        Transaction tx1 = addToWallet(createTx(address1, 1000));
+        Transaction tx2 = addToWallet(createTx(address1, 2000));
+        walletIndex.attach(wallet);
+        assertEquals(2, walletIndex.getTransactions(address1).size());
+
+        tx1.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.DEAD);
+        walletIndex.onTransactionConfidenceChanged(wallet, tx1);
+        assertEquals(Collections.singletonList(tx2), walletIndex.getTransactions(address1));
+        assertNull(walletIndex.getTransaction(tx1.getTxId().toString()));
+
+        // A tx which is not in the wallet anymore is not returned even if it is still indexed
+        walletTransactions.remove(tx2.getTxId());
+        assertTrue(walletIndex.getTransactions(address1).isEmpty());
+
+        walletIndex.detach();
+        assertTrue(walletIndex.getTransactions(address1).isEmpty());
+        assertNull(walletIndex.getTransaction(tx2.getTxId().toString()));
+    }
+
+    @Test
+    public void testReorg() {
+        Transaction tx1 = addToWallet(createTx(address1, 1000));
+        walletIndex.attach(wallet);
+        assertEquals(Collections.singletonList(tx1), walletIndex.getTransactions(address1));
+
+        // After the reorg tx1 is replaced by tx2 which pays to another address
+        walletTransactions.clear();
+        Transaction tx2 = addToWallet(createTx(address2, 1000));
+        walletIndex.onReorganize(wallet);
+
+        assertTrue(walletIndex.getTransactions(address1).isEmpty());
+        assertEquals(Collections.singletonList(tx2), walletIndex.getTransactions(address2));
+    }
+
+    @Test
+    public void testSpendCandidatesAreCachedUntilWalletChange() {
+        Transaction tx1 = createTx(address1, 1000);
+        Transaction tx2 = createTx(address2, 2000);
+        when(wallet.calculateAllSpendCandidates()).thenReturn(Arrays.asList(tx1.getOutput(0), tx2.getOutput(0)));
+        walletIndex.attach(wallet);
+
+        assertEquals(Collections.singletonList(tx1.getOutput(0)), walletIndex.getSpendCandidates(address1));
+        assertEquals(Collections.singletonList(tx2.getOutput(0)), walletIndex.getSpendCandidates(address2));
+        verify(wallet, times(1)).calculateAllSpendCandidates();
+
+        List<TransactionOutput> remaining = Collections.singletonList(tx2.getOutput(0));
+        when(wallet.calculateAllSpendCandidates()).thenReturn(remaining);
+        walletIndex.onWalletChanged(wallet);
+
+        assertTrue(walletIndex.getSpendCandidates(address1).isEmpty());
+        assertEquals(remaining, walletIndex.getSpendCandidates(address2));
+        verify(wallet, times(2)).calculateAllSpendCandidates();
+    }
+
+    private Transaction createTx(Address address, long value) {
+        Transaction tx = new Transaction(params);
+        tx.addOutput(Coin.valueOf(value), address);
+        return tx;
+    }
+
+    private Transaction addToWallet(Transaction tx) {
+        walletTransactions.put(tx.getTxId(), tx);
+        return tx;
+    }
+}
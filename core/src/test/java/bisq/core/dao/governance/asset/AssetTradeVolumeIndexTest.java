@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.asset;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AssetTradeVolumeIndexTest {
+    private AssetTradeVolumeIndex index;
+
+    @Before
+    public void setUp() {
+        index = new AssetTradeVolumeIndex();
+    }
+
+    @Test
+    public void testNeverTradedAsset() {
+        assertEquals(0, index.getTradeVolume("XMR", 0));
+    }
+
+    @Test
+    public void testVolumeExcludesTradesAtOrBeforeLookupDate() {
+        index.add("XMR", 1000, 10);
+        index.add("XMR", 2000, 20);
+        index.add("XMR", 3000, 30);
+        index.add("ETH", 3000, 100);
+
+        assertEquals(60, index.getTradeVolume("XMR", 0));
+        assertEquals(50, index.getTradeVolume("XMR", 1000));
+        assertEquals(30, index.getTradeVolume("XMR", 2500));
+        assertEquals(0, index.getTradeVolume("XMR", 3000));
+        assertEquals(100, index.getTradeVolume("ETH", 2999));
+    }
+
+    @Test
+    public void testInsertOlderTrades() {
+        index.add("XMR", 3000, 30);
+        index.add("XMR", 1000, 10);
+        index.add("XMR", 2000, 20);
+        index.add("XMR", 2000, 5);
+
+        assertEquals(65, index.getTradeVolume("XMR", 0));
+        assertEquals(55, index.getTradeVolume("XMR", 1000));
+        assertEquals(30, index.getTradeVolume("XMR", 2000));
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        for (int i = 100; i > 0; i--) {
+            index.add("XMR", i, i);
+        }
+
+        assertEquals(5050, index.getTradeVolume("XMR", 0));
+        assertEquals(5050 - 1275, index.getTradeVolume("XMR", 50));
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.UnspentTxOutputFilter;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.util.coin.BsqFormatter;
+
+import org.bitcoinj.core.Coin;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.io.File;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExportJsonFilesServiceTest {
+    private static final int GENESIS_HEIGHT = 100;
+
+    private File storageDir;
+    private DaoStateService daoStateService;
+    private ExportJsonFilesService exportJsonFilesService;
+
+    @Before
+    public void setUp() throws Exception {
+        storageDir = Files.createTempDirectory("storage").toFile();
+        daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("genesisTxId", GENESIS_HEIGHT, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                new UnspentTxOutputFilter());
+        addBlock(GENESIS_HEIGHT, null);
+        daoStateService.onParseBlockChainComplete();
+
+        exportJsonFilesService = new ExportJsonFilesService(daoStateService, storageDir, true);
+        exportJsonFilesService.start();
+    }
+
+    @After
+    public void tearDown() {
+        exportJsonFilesService.shutDown();
+    }
+
+    @Test
+    public void testExportNewBlocks() throws Exception {
+        export();
+        assertFalse(getTxFile("tx1").exists());
+
+        addBlock(GENESIS_HEIGHT + 1, getTx("tx1", GENESIS_HEIGHT + 1, protobuf.TxType.TRANSFER_BSQ,
+                protobuf.TxOutputType.BSQ_OUTPUT));
+        export();
+        assertTrue(getTxFile("tx1").exists());
+        assertTrue(readTxOutput("tx1:0").contains("\"isVerified\": true"));
+
+        // Nothing to export if there is no new block
+        assertNull(exportJsonFilesService.exportToJson());
+    }
+
+    @Test
+    public void testIssuanceInNewBlockUpdatesRequestTx() throws Exception {
+        addBlock(GENESIS_HEIGHT + 1, getTx("compRequestTx", GENESIS_HEIGHT + 1, protobuf.TxType.COMPENSATION_REQUEST,
+                protobuf.TxOutputType.ISSUANCE_CANDIDATE_OUTPUT));
+        export();
+        assertTrue(readTxOutput("compRequestTx:0").contains("\"isVerified\": false"));
+
+        // The vote result got applied in a later block
+        Block block = new Block(GENESIS_HEIGHT + 2, 0, "blockHash" + (GENESIS_HEIGHT + 2), null);
+        daoStateService.onNewBlockHeight(block.getHeight());
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        daoStateService.addIssuance(new Issuance("compRequestTx", block.getHeight(), 1000, null,
+                IssuanceType.COMPENSATION));
+        daoStateService.onParseBlockComplete(block);
+        export();
+
+        String txOutputJson = readTxOutput("compRequestTx:0");
+        assertTrue(txOutputJson.contains("\"isVerified\": true"));
+        assertTrue(txOutputJson.contains("\"bsqAmount\": 1000"));
+    }
+
+    @Test
+    public void testBondConfiscationInNewBlockUpdatesLockupTx() throws Exception {
+        Block lockupBlock = new Block(GENESIS_HEIGHT + 1, 0, "blockHash" + (GENESIS_HEIGHT + 1),
+                "blockHash" + GENESIS_HEIGHT);
+        Tx lockupTx = getTx("lockupTx", lockupBlock.getHeight(), protobuf.TxType.LOCKUP,
+                protobuf.TxOutputType.LOCKUP_OUTPUT);
+        daoStateService.onNewBlockHeight(lockupBlock.getHeight());
+        daoStateService.onNewBlockWithEmptyTxs(lockupBlock);
+        daoStateService.onNewTxForLastBlock(lockupBlock, lockupTx);
+        daoStateService.addUnspentTxOutput(lockupTx.getTxOutputs().get(0));
+        daoStateService.onParseBlockComplete(lockupBlock);
+        export();
+
+        // We delete the exported files to see if they get written again
+        assertTrue(getTxFile("lockupTx").delete());
+        assertTrue(getTxOutputFile("lockupTx:0").delete());
+        addBlock(GENESIS_HEIGHT + 2, null);
+        export();
+        assertFalse(getTxFile("lockupTx").exists());
+
+        // The bond got confiscated by the vote result in a later block
+        Block block = new Block(GENESIS_HEIGHT + 3, 0, "blockHash" + (GENESIS_HEIGHT + 3),
+                "blockHash" + (GENESIS_HEIGHT + 2));
+        daoStateService.onNewBlockHeight(block.getHeight());
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        daoStateService.confiscateBond("lockupTx");
+        daoStateService.onParseBlockComplete(block);
+        export();
+
+        assertTrue(getTxFile("lockupTx").exists());
+        assertTrue(getTxOutputFile("lockupTx:0").exists());
+    }
+
+    private void export() throws Exception {
+        exportJsonFilesService.exportToJson().get(10, TimeUnit.SECONDS);
+    }
+
+    private void addBlock(int height, Tx tx) {
+        Block block = new Block(height, 0, "blockHash" + height, height > GENESIS_HEIGHT ? "blockHash" + (height - 1) : null);
+        daoStateService.onNewBlockHeight(height);
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        if (tx != null)
+            daoStateService.onNewTxForLastBlock(block, tx);
+        daoStateService.onParseBlockComplete(block);
+    }
+
+    private File getTxFile(String txId) {
+        return Paths.get(storageDir.getAbsolutePath(), "json", "tx", txId + ".json").toFile();
+    }
+
+    private File getTxOutputFile(String txOutputId) {
+        return Paths.get(storageDir.getAbsolutePath(), "json", "txo", txOutputId + ".json").toFile();
+    }
+
+    private String readTxOutput(String txOutputId) throws Exception {
+        return new String(Files.readAllBytes(getTxOutputFile(txOutputId).toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static Tx getTx(String txId,
+                            int height,
+                            protobuf.TxType txType,
+                            protobuf.TxOutputType txOutputType) {
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash("blockHash" + height)
+                .setTx(protobuf.Tx.newBuilder()
+                        .setTxType(txType)
+                        .addTxOutputs(protobuf.BaseTxOutput.newBuilder()
+                                .setIndex(0)
+                                .setValue(1000)
+                                .setTxId(txId)
+                                .setBlockHeight(height)
+                                .setTxOutput(protobuf.TxOutput.newBuilder()
+                                        .setTxOutputType(txOutputType))))
+                .build());
+    }
+}
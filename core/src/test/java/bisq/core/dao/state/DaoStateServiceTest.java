@@ -32,7 +32,8 @@ public class DaoStateServiceTest {
         DaoStateService stateService = new DaoStateService(
                 new DaoState(),
                 new GenesisTxInfo("fakegenesistxid", 100, Coin.parseCoin("2.5").value),
-                new BsqFormatter());
+                new BsqFormatter(),
+                new UnspentTxOutputFilter());
         Assert.assertEquals(
                 "Unknown block should not exist.",
                 false,
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParamChangeIndexTest {
+    @Test
+    public void testGetValue() {
+        List<ParamChange> paramChangeList = new ArrayList<>();
+        paramChangeList.add(new ParamChange(Param.DEFAULT_MAKER_FEE_BTC.name(), "0.002", 100));
+        paramChangeList.add(new ParamChange(Param.DEFAULT_TAKER_FEE_BTC.name(), "0.004", 150));
+        paramChangeList.add(new ParamChange(Param.DEFAULT_MAKER_FEE_BTC.name(), "0.003", 200));
+        paramChangeList.add(new ParamChange(Param.DEFAULT_MAKER_FEE_BTC.name(), "0.0035", 200));
+        paramChangeList.add(new ParamChange(Param.DEFAULT_MAKER_FEE_BTC.name(), "0.004", 300));
+        paramChangeList.add(new ParamChange("REMOVED_PARAM", "1", 300));
+
+        ParamChangeIndex index = new ParamChangeIndex();
+        assertFalse(index.isInSync(paramChangeList));
+        index.rebuild(paramChangeList);
+        assertTrue(index.isInSync(paramChangeList));
+
+        assertNull(index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 99));
+        assertEquals("0.002", index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 100));
+        assertEquals("0.002", index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 199));
+        // The last added change at the same height wins
+        assertEquals("0.0035", index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 200));
+        assertEquals("0.0035", index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 299));
+        assertEquals("0.004", index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 300));
+        assertEquals("0.004", index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 10_000));
+
+        assertNull(index.getValue(Param.DEFAULT_TAKER_FEE_BTC, 149));
+        assertEquals("0.004", index.getValue(Param.DEFAULT_TAKER_FEE_BTC, 150));
+        assertNull(index.getValue(Param.MIN_MAKER_FEE_BTC, 10_000));
+    }
+
+    @Test
+    public void testRebuildReplacesIndex() {
+        List<ParamChange> paramChangeList = new ArrayList<>();
+        paramChangeList.add(new ParamChange(Param.DEFAULT_MAKER_FEE_BTC.name(), "0.002", 100));
+        ParamChangeIndex index = new ParamChangeIndex();
+        index.rebuild(paramChangeList);
+        assertEquals("0.002", index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 100));
+
+        // A snapshot apply replaces the list, entries which are not in the new list must not survive the rebuild
+        List<ParamChange> newParamChangeList = new ArrayList<>();
+        newParamChangeList.add(new ParamChange(Param.DEFAULT_TAKER_FEE_BTC.name(), "0.004", 150));
+        index.rebuild(newParamChangeList);
+        assertTrue(index.isInSync(newParamChangeList));
+        assertNull(index.getValue(Param.DEFAULT_MAKER_FEE_BTC, 100));
+        assertEquals("0.004", index.getValue(Param.DEFAULT_TAKER_FEE_BTC, 150));
+
+        // Changes of the passed list after the rebuild are not visible in the index until the next rebuild
+        newParamChangeList.add(new ParamChange(Param.DEFAULT_TAKER_FEE_BTC.name(), "0.005", 200));
+        assertFalse(index.isInSync(newParamChangeList));
+        assertEquals("0.004", index.getValue(Param.DEFAULT_TAKER_FEE_BTC, 200));
+    }
+}
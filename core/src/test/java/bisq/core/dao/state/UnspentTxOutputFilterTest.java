@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UnspentTxOutputFilterTest {
+    @Test
+    public void testAddAndRemove() {
+        UnspentTxOutputFilter filter = new UnspentTxOutputFilter();
+        TxOutputKey key = new TxOutputKey("txId", 1);
+        assertFalse(filter.contains("txId", 1));
+
+        filter.add(key);
+        assertTrue(filter.contains("txId", 1));
+        assertFalse(filter.contains("txId", 0));
+        assertFalse(filter.contains("otherTxId", 1));
+
+        filter.remove(key);
+        assertFalse(filter.contains("txId", 1));
+        assertEquals(0, filter.size());
+    }
+
+    @Test
+    public void testNoFalseNegativesAfterGrowing() {
+        UnspentTxOutputFilter filter = new UnspentTxOutputFilter();
+        List<TxOutputKey> keys = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            TxOutputKey key = new TxOutputKey("tx" + i, i % 3);
+            keys.add(key);
+            filter.add(key);
+        }
+        keys.forEach(key -> assertTrue(filter.contains(key.getTxId(), key.getIndex())));
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(filter.contains("unknownTx" + i, 0));
+        }
+    }
+
+    @Test
+    public void testResetAndModCount() {
+        UnspentTxOutputFilter filter = new UnspentTxOutputFilter();
+        filter.add(new TxOutputKey("txId", 0));
+        long modCount = filter.getModCount();
+
+        filter.reset(List.of(new TxOutputKey("snapshotTxId", 0)), "blockHash");
+        assertTrue(filter.getModCount() > modCount);
+        assertEquals("blockHash", filter.getTipBlockHash());
+        assertFalse(filter.contains("txId", 0));
+        assertTrue(filter.contains("snapshotTxId", 0));
+
+        filter.setTipBlockHash(null);
+        assertNull(filter.getTipBlockHash());
+    }
+}
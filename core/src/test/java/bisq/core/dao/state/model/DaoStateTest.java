@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state.model;
+
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import com.google.common.hash.Hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DaoStateTest {
+    @Test
+    public void testTxOutputKeyOrderMatchesStringOrder() {
+        Random random = new Random(1);
+        List<TxOutputKey> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(new TxOutputKey(randomTxId(random), random.nextInt(30)));
+        }
+        // Same txId with indices which sort differently as numbers and as strings
+        keys.add(new TxOutputKey(keys.get(0).getTxId(), 9));
+        keys.add(new TxOutputKey(keys.get(0).getTxId(), 10));
+        keys.add(new TxOutputKey(keys.get(0).getTxId(), 100));
+        keys.add(new TxOutputKey(keys.get(0).getTxId(), 2));
+        keys.add(new TxOutputKey(keys.get(0).getTxId(), 1999));
+        keys.add(new TxOutputKey("shortId", 1));
+
+        List<String> expected = keys.stream().map(TxOutputKey::toString).sorted().collect(Collectors.toList());
+        List<String> actual = keys.stream().sorted().map(TxOutputKey::toString).collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSerializedStateHasSameOrderAsTreeMap() {
+        Random random = new Random(2);
+        DaoState daoState = new DaoState();
+        daoState.getBlocks().add(new Block(1, 1534800000, "blockHash", null));
+        Map<TxOutputKey, SpentInfo> treeMap = new TreeMap<>();
+        for (int i = 0; i < 5000; i++) {
+            TxOutputKey key = new TxOutputKey(randomTxId(random), i % 12);
+            SpentInfo spentInfo = new SpentInfo(2, randomTxId(random), i % 2);
+            daoState.getSpentInfoMap().put(key, spentInfo);
+            treeMap.put(key, spentInfo);
+        }
+
+        // That is how the data got created when we used a TreeMap in DaoState
+        List<String> expected = new ArrayList<>(protobuf.DaoState.newBuilder()
+                .putAllSpentInfoMap(treeMap.entrySet().stream()
+                        .collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().toProtoMessage())))
+                .build()
+                .getSpentInfoMapMap()
+                .keySet());
+        List<String> actual = new ArrayList<>(daoState.getBsqStateBuilder().build().getSpentInfoMapMap().keySet());
+        assertEquals(expected, actual);
+
+        // A clone has to produce the same serialized state
+        assertArrayEquals(daoState.getSerializedStateForHashChain(),
+                DaoState.getClone(daoState).getSerializedStateForHashChain());
+    }
+
+    private static String randomTxId(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Hashing.sha256().hashBytes(bytes).toString();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.ClearXchangeAccountPayload;
+import bisq.core.payment.payload.PaymentMethod;
+
+import bisq.network.p2p.NodeAddress;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FilterIndexTest {
+
+    @Test
+    public void testEmptyIndex() {
+        FilterIndex index = FilterIndex.EMPTY;
+        assertFalse(index.isOfferIdBanned("offerId"));
+        assertFalse(index.isNodeAddressBannedFromTrading(new NodeAddress("host.onion:9999")));
+        assertFalse(index.isNodeAddressBannedFromNetwork(new NodeAddress("host.onion:9999")));
+        assertFalse(index.isCurrencyBanned("EUR"));
+        assertFalse(index.isPaymentMethodBanned(PaymentMethod.CLEAR_X_CHANGE_ID));
+        assertFalse(index.arePeersPaymentAccountDataBanned(createPayload("holder")));
+    }
+
+    @Test
+    public void testNullListsInFilter() {
+        FilterIndex index = new FilterIndex(createFilter(Lists.newArrayList(), null, null));
+        assertFalse(index.isCurrencyBanned("EUR"));
+        assertFalse(index.isPaymentMethodBanned(PaymentMethod.CLEAR_X_CHANGE_ID));
+        assertFalse(index.isWitnessSignerPubKeyBanned("pubKey"));
+    }
+
+    @Test
+    public void testBannedEntries() {
+        FilterIndex index = new FilterIndex(createFilter(Lists.newArrayList(),
+                Lists.newArrayList("EUR"),
+                Lists.newArrayList(PaymentMethod.CLEAR_X_CHANGE_ID)));
+        assertTrue(index.isOfferIdBanned("bannedOfferId"));
+        assertFalse(index.isOfferIdBanned("offerId"));
+        assertTrue(index.isCurrencyBanned("EUR"));
+        assertFalse(index.isCurrencyBanned("USD"));
+        assertTrue(index.isPaymentMethodBanned(PaymentMethod.CLEAR_X_CHANGE_ID));
+        assertFalse(index.isPaymentMethodBanned(PaymentMethod.SEPA_ID));
+        assertTrue(index.isAutoConfExplorerBanned("explorer.onion"));
+        assertTrue(index.isPrivilegedDevPubKeyBanned("devPubKey"));
+    }
+
+    @Test
+    public void testBannedNodeAddresses() {
+        FilterIndex index = new FilterIndex(createFilter(Lists.newArrayList(), null, null));
+        assertTrue(index.isNodeAddressBannedFromTrading(new NodeAddress("trader.onion", 9999)));
+        assertFalse(index.isNodeAddressBannedFromTrading(new NodeAddress("trader.onion", 9998)));
+        assertFalse(index.isNodeAddressBannedFromTrading(new NodeAddress("peer.onion", 9999)));
+        assertTrue(index.isNodeAddressBannedFromNetwork(new NodeAddress("peer.onion", 9999)));
+        assertFalse(index.isNodeAddressBannedFromNetwork(new NodeAddress("trader.onion", 9999)));
+    }
+
+    @Test
+    public void testBannedPaymentAccounts() {
+        List<PaymentAccountFilter> bannedPaymentAccounts = Lists.newArrayList(
+                new PaymentAccountFilter(PaymentMethod.CLEAR_X_CHANGE_ID, "getHolderName", "Banned Holder"),
+                new PaymentAccountFilter(PaymentMethod.CLEAR_X_CHANGE_ID, "getMissingMethod", "value"));
+        FilterIndex index = new FilterIndex(createFilter(bannedPaymentAccounts, null, null));
+
+        assertTrue(index.arePeersPaymentAccountDataBanned(createPayload("Banned Holder")));
+        assertTrue(index.arePeersPaymentAccountDataBanned(createPayload("banned holder")));
+        assertFalse(index.arePeersPaymentAccountDataBanned(createPayload("Other Holder")));
+
+        ClearXchangeAccountPayload otherPaymentMethod = new ClearXchangeAccountPayload(PaymentMethod.SEPA_ID, "id");
+        otherPaymentMethod.setHolderName("Banned Holder");
+        assertFalse(index.arePeersPaymentAccountDataBanned(otherPaymentMethod));
+    }
+
+    private static ClearXchangeAccountPayload createPayload(String holderName) {
+        ClearXchangeAccountPayload payload = new ClearXchangeAccountPayload(PaymentMethod.CLEAR_X_CHANGE_ID, "id");
+        payload.setHolderName(holderName);
+        return payload;
+    }
+
+    private static Filter createFilter(List<PaymentAccountFilter> bannedPaymentAccounts,
+                                       List<String> bannedCurrencies,
+                                       List<String> bannedPaymentMethods) {
+        return new Filter(Lists.newArrayList("bannedOfferId"),
+                Lists.newArrayList("trader.onion:9999", "ill-formed"),
+                bannedPaymentAccounts,
+                bannedCurrencies,
+                bannedPaymentMethods,
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                false,
+                Lists.newArrayList(),
+                false,
+                null,
+                null,
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                null,
+                Lists.newArrayList(),
+                null,
+                0,
+                null,
+                null,
+                null,
+                Lists.newArrayList("devPubKey"),
+                false,
+                Lists.newArrayList("explorer.onion"),
+                Sets.newHashSet("peer.onion:9999"),
+                false);
+    }
+}
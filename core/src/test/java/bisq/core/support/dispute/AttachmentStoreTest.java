@@ -0,0 +1,88 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.support.dispute;
+
+import com.google.protobuf.ByteString;
+
+import java.nio.file.Files;
+
+import java.io.File;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AttachmentStoreTest {
+    private File dir;
+    private AttachmentStore attachmentStore;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = new File(Files.createTempDirectory("storage").toFile(), "attachments");
+        attachmentStore = new AttachmentStore(dir);
+    }
+
+    @Test
+    public void testPutIsContentAddressed() throws Exception {
+        byte[] bytes = "attachment".getBytes();
+        byte[] contentHash = attachmentStore.put(bytes);
+        assertTrue(attachmentStore.contains(contentHash));
+        assertArrayEquals(bytes, attachmentStore.get(contentHash));
+
+        // Same content is stored only once
+        assertArrayEquals(contentHash, attachmentStore.put(Arrays.copyOf(bytes, bytes.length)));
+        assertEquals(1, dir.listFiles().length);
+
+        attachmentStore.put("other".getBytes());
+        assertEquals(2, dir.listFiles().length);
+        assertFalse(attachmentStore.contains(new byte[32]));
+    }
+
+    @Test
+    public void testDetachedAttachment() throws Exception {
+        byte[] bytes = "attachment".getBytes();
+        byte[] contentHash = attachmentStore.put(bytes);
+        protobuf.Attachment proto = protobuf.Attachment.newBuilder()
+                .setFileName("file.txt")
+                .setContentHash(ByteString.copyFrom(contentHash))
+                .build();
+
+        Attachment attachment = Attachment.fromProto(proto);
+        assertTrue(attachment.isDetached());
+        try {
+            attachment.getBytes();
+            fail("Expected an IllegalStateException as the bytes cannot be loaded");
+        } catch (IllegalStateException ignore) {
+        }
+
+        attachment.setBytesLoader(attachmentStore::get);
+        assertArrayEquals(bytes, attachment.getBytes());
+        // Over the network we send the bytes
+        assertArrayEquals(bytes, attachment.toProtoMessage().getBytes().toByteArray());
+        // A detached attachment equals the in-memory attachment with the same content
+        assertEquals(new Attachment("file.txt", bytes), attachment);
+        assertEquals(new Attachment("file.txt", bytes).hashCode(), attachment.hashCode());
+    }
+}
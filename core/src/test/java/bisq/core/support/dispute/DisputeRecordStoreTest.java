@@ -0,0 +1,285 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.support.dispute;
+
+import bisq.core.support.SupportType;
+import bisq.core.support.messages.ChatMessage;
+import bisq.core.trade.Contract;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+import bisq.common.persistence.PersistenceManager;
+import bisq.common.persistence.RecordStore;
+import bisq.common.proto.ProtoUtil;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+
+import java.nio.file.Files;
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DisputeRecordStoreTest {
+    private static final String FILE_NAME = "TestDisputeList";
+    private static final String RECORDS_DIR_NAME = FILE_NAME + "_records";
+
+    private File storageDir;
+    private PersistenceProtoResolver persistenceProtoResolver;
+    private PubKeyRing pubKeyRing;
+    private Contract contract;
+
+    @Before
+    public void setUp() throws Exception {
+        storageDir = Files.createTempDirectory("storage").toFile();
+        pubKeyRing = new PubKeyRing(Sig.generateKeyPair().getPublic(), Encryption.generateKeyPair().getPublic());
+        contract = mock(Contract.class);
+        when(contract.toProtoMessage()).thenReturn(protobuf.Contract.getDefaultInstance());
+
+        // Contract.fromProto would require a full contract, so we rebuild the dispute from the fields we care about
+        persistenceProtoResolver = mock(PersistenceProtoResolver.class);
+        when(persistenceProtoResolver.fromProto(any())).thenAnswer(invocation -> {
+            protobuf.PersistableEnvelope proto = invocation.getArgument(0);
+            protobuf.Dispute disputeProto = proto.getArbitrationDisputeList().getDispute(0);
+            return new TestDisputeList(Collections.singletonList(
+                    newDispute(disputeProto.getTradeId(), disputeProto.getOpeningDate())));
+        });
+    }
+
+    @Test
+    public void testPutReloadAndRemove() throws Exception {
+        TestDisputeList disputeList = new TestDisputeList();
+        DisputeRecordStore<TestDisputeList> store = newStore(disputeList);
+        readPersisted(store);
+        Dispute dispute = newDispute("trade1", 1000L);
+        disputeList.add(dispute);
+        flush(store);
+
+        TestDisputeList reloadedList = new TestDisputeList();
+        DisputeRecordStore<TestDisputeList> reloadedStore = newStore(reloadedList);
+        readPersisted(reloadedStore);
+        assertEquals(1, reloadedList.size());
+        Dispute reloaded = reloadedList.getList().get(0);
+        assertEquals(dispute.getId(), reloaded.getId());
+        assertEquals(dispute.getOpeningDate(), reloaded.getOpeningDate());
+
+        reloadedList.remove(reloaded);
+        flush(reloadedStore);
+
+        TestDisputeList emptyList = new TestDisputeList();
+        readPersisted(newStore(emptyList));
+        assertTrue(emptyList.isEmpty());
+    }
+
+    @Test
+    public void testKeyDoesNotDependOnTimeZone() {
+        Dispute dispute = newDispute("trade1", 1000L);
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            String key = DisputeRecordStore.getKey(dispute);
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            assertEquals(key, DisputeRecordStore.getKey(dispute));
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test
+    public void testRecordWithPreviousKeyFormatGetsRekeyed() throws Exception {
+        Dispute dispute = newDispute("trade1", 1000L);
+        String previousKey = dispute.getId() + "_" + dispute.getOpeningDate();
+        RecordStore<PersistableEnvelope> recordStore = new RecordStore<>(storageDir, RECORDS_DIR_NAME, persistenceProtoResolver);
+        recordStore.put(previousKey, new byte[0], new TestDisputeList(Collections.singletonList(dispute)));
+        CountDownLatch latch = new CountDownLatch(1);
+        recordStore.flush(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        recordStore.shutdown();
+
+        TestDisputeList disputeList = new TestDisputeList();
+        DisputeRecordStore<TestDisputeList> store = newStore(disputeList);
+        readPersisted(store);
+        assertEquals(1, disputeList.size());
+        flush(store);
+
+        RecordStore<PersistableEnvelope> reloaded = new RecordStore<>(storageDir, RECORDS_DIR_NAME, persistenceProtoResolver);
+        assertEquals(Collections.singleton(DisputeRecordStore.getKey(dispute)), reloaded.readIndex().keySet());
+    }
+
+    @Test
+    public void testDetachedAttachmentsAreNotLoaded() throws Exception {
+        Attachment attachment = Attachment.fromProto(protobuf.Attachment.newBuilder()
+                .setFileName("file.txt")
+                .setContentHash(ByteString.copyFrom(new byte[32]))
+                .build());
+        AtomicInteger numLoads = new AtomicInteger();
+        attachment.setBytesLoader(hash -> {
+            numLoads.incrementAndGet();
+            return new byte[0];
+        });
+        Dispute dispute = newDispute("trade1", 1000L);
+        dispute.addAndPersistChatMessage(newChatMessage(attachment));
+
+        TestDisputeList disputeList = new TestDisputeList();
+        DisputeRecordStore<TestDisputeList> store = newStore(disputeList);
+        readPersisted(store);
+        disputeList.add(dispute);
+        flush(store);
+        assertEquals(0, numLoads.get());
+    }
+
+    @Test
+    public void testMigrationOfLegacyFile() throws Exception {
+        File legacyFile = new File(storageDir, FILE_NAME);
+        assertTrue(legacyFile.createNewFile());
+        Dispute dispute = newDispute("trade1", 1000L);
+        dispute.addAndPersistChatMessage(newChatMessage(new Attachment("file.txt", "attachment".getBytes())));
+
+        TestDisputeList disputeList = new TestDisputeList();
+        DisputeRecordStore<TestDisputeList> store = newStore(disputeList,
+                new TestDisputeList(Collections.singletonList(dispute)));
+        readPersisted(store);
+        assertEquals(1, disputeList.size());
+        flush(store);
+        assertFalse(legacyFile.exists());
+        assertEquals(1, new File(storageDir, FILE_NAME + "_attachments").listFiles().length);
+    }
+
+    @Test
+    public void testFailedAttachmentWriteKeepsLegacyFile() throws Exception {
+        File legacyFile = new File(storageDir, FILE_NAME);
+        assertTrue(legacyFile.createNewFile());
+        Dispute dispute = newDispute("trade1", 1000L);
+        dispute.addAndPersistChatMessage(newChatMessage(new Attachment("file.txt", "attachment".getBytes())));
+        TestDisputeList legacyDisputeList = new TestDisputeList(Collections.singletonList(dispute));
+
+        // A file in place of the attachment dir lets storing the attachment fail
+        File blockingFile = new File(storageDir, FILE_NAME + "_attachments");
+        assertTrue(blockingFile.createNewFile());
+        DisputeRecordStore<TestDisputeList> store = newStore(new TestDisputeList(), legacyDisputeList);
+        readPersisted(store);
+        flush(store);
+        assertTrue(legacyFile.exists());
+
+        assertTrue(blockingFile.delete());
+        DisputeRecordStore<TestDisputeList> retryStore = newStore(new TestDisputeList(), legacyDisputeList);
+        readPersisted(retryStore);
+        flush(retryStore);
+        assertFalse(legacyFile.exists());
+    }
+
+    private DisputeRecordStore<TestDisputeList> newStore(TestDisputeList disputeList) {
+        return newStore(disputeList, null);
+    }
+
+    private DisputeRecordStore<TestDisputeList> newStore(TestDisputeList disputeList,
+                                                         TestDisputeList legacyDisputeList) {
+        @SuppressWarnings("unchecked")
+        PersistenceManager<TestDisputeList> legacyPersistenceManager = mock(PersistenceManager.class);
+        when(legacyPersistenceManager.getPersisted(FILE_NAME)).thenReturn(legacyDisputeList);
+        return new DisputeRecordStore<>(storageDir,
+                FILE_NAME,
+                disputeList,
+                TestDisputeList::new,
+                persistenceProtoResolver,
+                legacyPersistenceManager);
+    }
+
+    private static void readPersisted(DisputeRecordStore<TestDisputeList> store) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        store.readPersisted(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private static void flush(DisputeRecordStore<TestDisputeList> store) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        store.flush(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private static ChatMessage newChatMessage(Attachment attachment) {
+        return new ChatMessage(SupportType.ARBITRATION,
+                "trade1",
+                1,
+                true,
+                "message",
+                new NodeAddress("localhost", 9999),
+                new ArrayList<>(Collections.singletonList(attachment)));
+    }
+
+    private Dispute newDispute(String tradeId, long openingDate) {
+        return new Dispute(openingDate,
+                tradeId,
+                1,
+                true,
+                true,
+                pubKeyRing,
+                openingDate - 1,
+                contract,
+                null,
+                null,
+                null,
+                null,
+                null,
+                "contractAsJson",
+                null,
+                null,
+                pubKeyRing,
+                false,
+                SupportType.ARBITRATION);
+    }
+
+    private static class TestDisputeList extends DisputeList<Dispute> {
+        TestDisputeList() {
+            super();
+        }
+
+        TestDisputeList(Collection<Dispute> collection) {
+            super(collection);
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setArbitrationDisputeList(protobuf.ArbitrationDisputeList.newBuilder()
+                            .addAllDispute(ProtoUtil.collectionToProto(getList(), protobuf.Dispute.class)))
+                    .build();
+        }
+    }
+}
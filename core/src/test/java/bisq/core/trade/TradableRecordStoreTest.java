@@ -0,0 +1,229 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.trade;
+
+import bisq.common.persistence.PersistenceManager;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import java.nio.file.Files;
+
+import java.io.File;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TradableRecordStoreTest {
+    private static final String FILE_NAME = "ClosedTrades";
+
+    private File storageDir;
+    private PersistenceProtoResolver persistenceProtoResolver;
+    private PersistenceManager<TradableList<Tradable>> legacyPersistenceManager;
+
+    @Before
+    public void setUp() throws Exception {
+        storageDir = Files.createTempDirectory("storage").toFile();
+
+        // Parsing real trades would require a full trade, so the record only contains the id and the date
+        persistenceProtoResolver = mock(PersistenceProtoResolver.class);
+        when(persistenceProtoResolver.fromProto(any())).thenAnswer(invocation -> {
+            protobuf.PersistableEnvelope proto = invocation.getArgument(0);
+            protobuf.OfferPayload offerPayload = proto.getTradableList().getTradable(0).getOpenOffer().getOffer()
+                    .getOfferPayload();
+            return new TradableList<>(Collections.singletonList(newTradable(offerPayload.getId(),
+                    offerPayload.getDate())));
+        });
+
+        //noinspection unchecked
+        legacyPersistenceManager = mock(PersistenceManager.class);
+    }
+
+    @Test
+    public void testAddReloadAndRemove() throws Exception {
+        TradableRecordStore<Tradable> store = newStore();
+        readPersisted(store);
+        Tradable tradable = newTradable("id1", 1000L);
+        assertTrue(store.add(tradable));
+        assertFalse(store.add(tradable));
+        assertTrue(store.add(newTradable("id2", 2000L)));
+        flush(store);
+
+        TradableRecordStore<Tradable> reloadedStore = newStore();
+        readPersisted(reloadedStore);
+        assertEquals(2, reloadedStore.size());
+        assertTrue(reloadedStore.contains("id1"));
+        Tradable reloaded = reloadedStore.getById("id1").orElseThrow();
+        assertEquals(new Date(1000L), reloaded.getDate());
+        // Loaded tradables are kept in memory
+        assertSame(reloaded, reloadedStore.getById("id1").orElseThrow());
+
+        assertTrue(reloadedStore.remove(reloaded));
+        assertFalse(reloadedStore.getById("id1").isPresent());
+        flush(reloadedStore);
+
+        TradableRecordStore<Tradable> storeAfterRemove = newStore();
+        readPersisted(storeAfterRemove);
+        assertEquals(Collections.singletonList("id2"), getIds(storeAfterRemove.getTradableList().getList()));
+    }
+
+    @Test
+    public void testGetTradableListAsync() throws Exception {
+        TradableRecordStore<Tradable> store = newStore();
+        readPersisted(store);
+        store.add(newTradable("id1", 1000L));
+        store.add(newTradable("id2", 2000L));
+        flush(store);
+
+        TradableRecordStore<Tradable> reloadedStore = newStore();
+        readPersisted(reloadedStore);
+        Tradable loaded = reloadedStore.getById("id2").orElseThrow();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<TradableList<Tradable>> result = new AtomicReference<>();
+        reloadedStore.getTradableListAsync(tradableList -> {
+            result.set(tradableList);
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("id1", "id2"), getIds(result.get().getList()));
+        // Already loaded tradables are not read again
+        assertSame(loaded, result.get().getList().get(1));
+        assertSame(result.get(), reloadedStore.getTradableList());
+    }
+
+    @Test
+    public void testMigrationOfLegacyFile() throws Exception {
+        File legacyFile = new File(storageDir, FILE_NAME);
+        assertTrue(legacyFile.createNewFile());
+        TradableList<Tradable> legacyTradables = new TradableList<>(Arrays.asList(newTradable("id1", 1000L),
+                newTradable("id2", 2000L)));
+        when(legacyPersistenceManager.getPersisted(FILE_NAME)).thenReturn(legacyTradables);
+
+        TradableRecordStore<Tradable> store = newStore();
+        readPersisted(store);
+        assertEquals(2, store.size());
+        assertSame(legacyTradables.getList().get(0), store.getById("id1").orElseThrow());
+        flush(store);
+        assertFalse(legacyFile.exists());
+
+        // After the migration the tradables are read from the record store
+        TradableRecordStore<Tradable> reloadedStore = newStore();
+        readPersisted(reloadedStore);
+        assertEquals(Arrays.asList("id1", "id2"), getIds(reloadedStore.getTradableList().getList()));
+    }
+
+    @Test
+    public void testInterruptedMigrationGetsRepeated() throws Exception {
+        TradableRecordStore<Tradable> store = newStore();
+        readPersisted(store);
+        store.add(newTradable("id1", 1000L));
+        flush(store);
+
+        // The legacy file still exists as the previous migration got interrupted
+        File legacyFile = new File(storageDir, FILE_NAME);
+        assertTrue(legacyFile.createNewFile());
+        when(legacyPersistenceManager.getPersisted(FILE_NAME)).thenReturn(
+                new TradableList<>(Arrays.asList(newTradable("id1", 1000L), newTradable("id2", 2000L))));
+
+        TradableRecordStore<Tradable> reloadedStore = newStore();
+        readPersisted(reloadedStore);
+        assertEquals(2, reloadedStore.size());
+        flush(reloadedStore);
+        assertFalse(legacyFile.exists());
+    }
+
+    @Test
+    public void testFailedMigrationKeepsLegacyFile() throws Exception {
+        File legacyFile = new File(storageDir, FILE_NAME);
+        assertTrue(legacyFile.createNewFile());
+        when(legacyPersistenceManager.getPersisted(FILE_NAME)).thenReturn(
+                new TradableList<>(Arrays.asList(newTradable("id1", 1000L), newTradable("id2", 2000L))));
+
+        // A file in place of the record store dir lets all writes fail
+        File blockingFile = new File(storageDir, FILE_NAME + "_records");
+        assertTrue(blockingFile.createNewFile());
+        TradableRecordStore<Tradable> store = newStore();
+        readPersisted(store);
+        flush(store);
+        assertTrue(legacyFile.exists());
+
+        assertTrue(blockingFile.delete());
+        TradableRecordStore<Tradable> retryStore = newStore();
+        readPersisted(retryStore);
+        flush(retryStore);
+        assertFalse(legacyFile.exists());
+
+        TradableRecordStore<Tradable> reloadedStore = newStore();
+        readPersisted(reloadedStore);
+        assertEquals(Arrays.asList("id1", "id2"), getIds(reloadedStore.getTradableList().getList()));
+    }
+
+    private TradableRecordStore<Tradable> newStore() {
+        return new TradableRecordStore<>(storageDir,
+                FILE_NAME,
+                persistenceProtoResolver,
+                legacyPersistenceManager,
+                tradable -> {
+                });
+    }
+
+    private static void readPersisted(TradableRecordStore<Tradable> store) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        store.readPersisted(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private static void flush(TradableRecordStore<Tradable> store) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        store.flush(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private static List<String> getIds(List<Tradable> tradables) {
+        return tradables.stream().map(Tradable::getId).collect(Collectors.toList());
+    }
+
+    private static Tradable newTradable(String id, long date) {
+        Tradable tradable = mock(Tradable.class);
+        when(tradable.getId()).thenReturn(id);
+        when(tradable.getDate()).thenReturn(new Date(date));
+        when(tradable.toProtoMessage()).thenReturn(protobuf.Tradable.newBuilder()
+                .setOpenOffer(protobuf.OpenOffer.newBuilder()
+                        .setOffer(protobuf.Offer.newBuilder()
+                                .setOfferPayload(protobuf.OfferPayload.newBuilder()
+                                        .setId(id)
+                                        .setDate(date))))
+                .build());
+        return tradable;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsColumnStoreTest {
+    private TradeStatisticsColumnStore store;
+
+    @Before
+    public void setUp() {
+        store = new TradeStatisticsColumnStore();
+    }
+
+    @Test
+    public void add_keepsRowsSortedByDate() {
+        store.add(tradeStatistics("EUR", 100, 1, 3000));
+        store.add(tradeStatistics("EUR", 200, 1, 1000));
+        store.add(tradeStatistics("EUR", 300, 1, 2000));
+        store.add(tradeStatistics("EUR", 400, 1, 4000));
+
+        assertEquals(Arrays.asList(1000L, 2000L, 3000L, 4000L), getDates(null, 0, Long.MAX_VALUE));
+        assertEquals(Arrays.asList(200L, 300L, 100L, 400L), getPrices(null, 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void addAll_mergesWithExistingRows() {
+        store.add(tradeStatistics("EUR", 100, 1, 2000));
+        store.add(tradeStatistics("EUR", 100, 1, 4000));
+        store.addAll(Arrays.asList(tradeStatistics("USD", 100, 1, 5000),
+                tradeStatistics("USD", 100, 1, 1000),
+                tradeStatistics("USD", 100, 1, 3000)));
+
+        assertEquals(5, store.size());
+        assertEquals(Arrays.asList(1000L, 2000L, 3000L, 4000L, 5000L), getDates(null, 0, Long.MAX_VALUE));
+        assertEquals(Arrays.asList(1000L, 3000L, 5000L), getDates("USD", 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void addAll_growsBeyondInitialCapacity() {
+        List<TradeStatistics3> list = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            list.add(tradeStatistics(i % 2 == 0 ? "EUR" : "USD", 100, 1, 5000 - i));
+        }
+        store.addAll(list);
+
+        assertEquals(5000, store.size());
+        List<Long> dates = getDates(null, 0, Long.MAX_VALUE);
+        for (int i = 1; i < dates.size(); i++) {
+            assertTrue(dates.get(i - 1) <= dates.get(i));
+        }
+    }
+
+    @Test
+    public void forEachInRange_includesFromDateAndExcludesToDate() {
+        store.addAll(Arrays.asList(tradeStatistics("EUR", 100, 1, 1000),
+                tradeStatistics("EUR", 200, 1, 2000),
+                tradeStatistics("USD", 300, 1, 2500),
+                tradeStatistics("EUR", 400, 1, 3000)));
+
+        assertEquals(Arrays.asList(2000L, 2500L), getDates(null, 2000, 3000));
+        assertEquals(Arrays.asList(200L), getPrices("EUR", 2000, 3000));
+        assertTrue(getDates("XMR", 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void getNumTradesByCurrency_countsRowsInRange() {
+        store.addAll(Arrays.asList(tradeStatistics("EUR", 100, 10, 1000),
+                tradeStatistics("EUR", 100, 20, 2000),
+                tradeStatistics("XMR", 100, 30, 2000),
+                tradeStatistics("XMR", 100, 40, 3000)));
+
+        Map<String, Integer> numTradesByCurrency = store.getNumTradesByCurrency(0, Long.MAX_VALUE);
+        assertEquals(2, (int) numTradesByCurrency.get("EUR"));
+        assertEquals(2, (int) numTradesByCurrency.get("XMR"));
+
+        numTradesByCurrency = store.getNumTradesByCurrency(1500, 3000);
+        assertEquals(2, numTradesByCurrency.size());
+        assertEquals(1, (int) numTradesByCurrency.get("EUR"));
+        assertEquals(1, (int) numTradesByCurrency.get("XMR"));
+    }
+
+    private List<Long> getDates(String currency, long fromDate, long toDate) {
+        List<Long> dates = new ArrayList<>();
+        store.forEachInRange(currency, fromDate, toDate, (date, price, amount) -> dates.add(date));
+        return dates;
+    }
+
+    private List<Long> getPrices(String currency, long fromDate, long toDate) {
+        List<Long> prices = new ArrayList<>();
+        store.forEachInRange(currency, fromDate, toDate, (date, price, amount) -> prices.add(price));
+        return prices;
+    }
+
+    private static TradeStatistics3 tradeStatistics(String currency, long price, long amount, long date) {
+        return new TradeStatistics3(currency,
+                price,
+                amount,
+                "SEPA",
+                date,
+                null,
+                null,
+                (Map<String, String>) null);
+    }
+}
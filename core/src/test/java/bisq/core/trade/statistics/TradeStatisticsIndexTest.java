@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsIndexTest {
+    private TradeStatisticsIndex index;
+    private long now;
+
+    @Before
+    public void setUp() {
+        index = new TradeStatisticsIndex();
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    public void add_keepsLatestPerCurrency() {
+        TradeStatistics3 older = tradeStatistics("BSQ", 100, 1_000_000, now - 2000);
+        TradeStatistics3 newer = tradeStatistics("BSQ", 200, 1_000_000, now - 1000);
+        TradeStatistics3 newest = tradeStatistics("BSQ", 300, 1_000_000, now);
+        TradeStatistics3 other = tradeStatistics("XMR", 300, 1_000_000, now - 3000);
+
+        assertTrue(index.add(newer));
+        assertFalse(index.add(older));
+        assertTrue(index.add(other));
+        assertTrue(index.add(newest));
+        assertFalse(index.add(newer));
+    }
+
+    @Test
+    public void addAll_returnsOnlyChangedLatest() {
+        TradeStatistics3 bsq1 = tradeStatistics("BSQ", 100, 1_000_000, now - 3000);
+        TradeStatistics3 bsq2 = tradeStatistics("BSQ", 200, 1_000_000, now - 2000);
+        TradeStatistics3 xmr = tradeStatistics("XMR", 300, 1_000_000, now - 1000);
+
+        List<TradeStatistics3> changed = index.addAll(Arrays.asList(bsq1, bsq2, xmr));
+        assertEquals(2, changed.size());
+        assertTrue(changed.contains(bsq2));
+        assertTrue(changed.contains(xmr));
+
+        assertTrue(index.addAll(Arrays.asList(bsq1)).isEmpty());
+    }
+
+    private static TradeStatistics3 tradeStatistics(String currency, long price, long amount, long date) {
+        return new TradeStatistics3(currency,
+                price,
+                amount,
+                "SEPA",
+                date,
+                null,
+                null,
+                (Map<String, String>) null);
+    }
+}
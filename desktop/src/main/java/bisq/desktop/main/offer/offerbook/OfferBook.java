@@ -22,19 +22,27 @@ import bisq.core.offer.Offer;
 import bisq.core.offer.OfferBookService;
 import bisq.core.trade.TradeManager;
 
+import bisq.common.UserThread;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static bisq.core.offer.OfferPayload.Direction.BUY;
 
 /**
@@ -52,6 +60,11 @@ public class OfferBook {
     private final Map<String, Integer> buyOfferCountMap = new HashMap<>();
     private final Map<String, Integer> sellOfferCountMap = new HashMap<>();
     private final FilterManager filterManager;
+    // Index of the items in offerBookListItems
+    private final Map<String, OfferBookListItem> offerBookListItemById = new HashMap<>();
+    // Offers added or removed since the last applyPendingChanges call by offer ID. A null value marks a removed offer.
+    private final Map<String, Offer> pendingChanges = new LinkedHashMap<>();
+    private boolean applyPendingChangesScheduled;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -67,33 +80,15 @@ public class OfferBook {
             public void onAdded(Offer offer) {
                 // We get onAdded called every time a new ProtectedStorageEntry is received.
                 // Mostly it is the same OfferPayload but the ProtectedStorageEntry is different.
-                // We filter here to only add new offers if the same offer (using equals) was not already added and it
-                // is not banned.
+                // We filter at applyPendingChanges to only add new offers if the same offer (using equals) was not
+                // already added.
 
                 if (filterManager.isOfferIdBanned(offer.getId())) {
                     log.debug("Ignored banned offer. ID={}", offer.getId());
                     return;
                 }
 
-                boolean hasSameOffer = offerBookListItems.stream()
-                        .anyMatch(item -> item.getOffer().equals(offer));
-                if (!hasSameOffer) {
-                    OfferBookListItem offerBookListItem = new OfferBookListItem(offer);
-                    // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
-                    // If we have an offer with same ID we remove it and add the new offer as it might have a changed state.
-                    Optional<OfferBookListItem> candidateWithSameId = offerBookListItems.stream()
-                            .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                            .findAny();
-                    if (candidateWithSameId.isPresent()) {
-                        log.warn("We had an old offer in the list with the same Offer ID. We remove the old one. " +
-                                "old offerBookListItem={}, new offerBookListItem={}", candidateWithSameId.get(), offerBookListItem);
-                        offerBookListItems.remove(candidateWithSameId.get());
-                    }
-
-                    offerBookListItems.add(offerBookListItem);
-                } else {
-                    log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
-                }
+                addPendingChange(offer.getId(), offer);
             }
 
             @Override
@@ -108,11 +103,7 @@ public class OfferBook {
         offer.setState(Offer.State.REMOVED);
 
         offer.cancelAvailabilityRequest();
-        // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
-        Optional<OfferBookListItem> candidateToRemove = offerBookListItems.stream()
-                .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                .findAny();
-        candidateToRemove.ifPresent(offerBookListItems::remove);
+        addPendingChange(offer.getId(), null);
     }
 
     public ObservableList<OfferBookListItem> getOfferBookListItems() {
@@ -123,11 +114,15 @@ public class OfferBook {
         try {
             // setAll causes sometimes an UnsupportedOperationException
             // Investigate why....
+            pendingChanges.clear();
+            offerBookListItemById.clear();
             offerBookListItems.clear();
-            offerBookListItems.addAll(offerBookService.getOffers().stream()
+            List<OfferBookListItem> items = offerBookService.getOffers().stream()
                     .filter(o -> !filterManager.isOfferIdBanned(o.getId()))
                     .map(OfferBookListItem::new)
-                    .collect(Collectors.toList()));
+                    .collect(Collectors.toList());
+            items.forEach(item -> offerBookListItemById.put(item.getOffer().getId(), item));
+            offerBookListItems.addAll(items);
 
             log.debug("offerBookListItems.size {}", offerBookListItems.size());
             fillOfferCountMaps();
@@ -145,6 +140,62 @@ public class OfferBook {
         return sellOfferCountMap;
     }
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addPendingChange(String offerId, @Nullable Offer offer) {
+        pendingChanges.put(offerId, offer);
+        if (!applyPendingChangesScheduled) {
+            applyPendingChangesScheduled = true;
+            UserThread.execute(this::applyPendingChanges);
+        }
+    }
+
+    // We apply all changes which arrived since the last call with at most one remove and one add call to the list,
+    // so the FilteredList, SortedList and their listeners get processed once instead of once per offer.
+    private void applyPendingChanges() {
+        applyPendingChangesScheduled = false;
+        if (pendingChanges.isEmpty())
+            return;
+
+        Set<OfferBookListItem> itemsToRemove = new HashSet<>();
+        List<OfferBookListItem> itemsToAdd = new ArrayList<>();
+        pendingChanges.forEach((offerId, offer) -> {
+            OfferBookListItem existingItem = offerBookListItemById.get(offerId);
+            if (offer == null) {
+                if (existingItem != null) {
+                    itemsToRemove.add(existingItem);
+                    offerBookListItemById.remove(offerId);
+                }
+                return;
+            }
+
+            if (existingItem != null) {
+                if (existingItem.getOffer().equals(offer)) {
+                    log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offerId);
+                    return;
+                }
+
+                // The equals method in Offer takes state and errorMessage into account.
+                // If we have an offer with same ID we remove it and add the new offer as it might have a changed state.
+                log.warn("We had an old offer in the list with the same Offer ID. We remove the old one. " +
+                        "old offerBookListItem={}, new offer={}", existingItem, offer);
+                itemsToRemove.add(existingItem);
+            }
+
+            OfferBookListItem offerBookListItem = new OfferBookListItem(offer);
+            offerBookListItemById.put(offerId, offerBookListItem);
+            itemsToAdd.add(offerBookListItem);
+        });
+        pendingChanges.clear();
+
+        if (!itemsToRemove.isEmpty())
+            offerBookListItems.removeAll(itemsToRemove);
+        if (!itemsToAdd.isEmpty())
+            offerBookListItems.addAll(itemsToAdd);
+    }
+
     private void fillOfferCountMaps() {
         buyOfferCountMap.clear();
         sellOfferCountMap.clear();
@@ -0,0 +1,156 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.desktop.main.offer.offerbook;
+
+import bisq.core.monetary.Price;
+import bisq.core.offer.Offer;
+
+import javafx.collections.ListChangeListener;
+
+import java.text.DecimalFormat;
+
+import java.util.List;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the items with the highest amount, price and market price margin and the number of range offers of a list of
+ * offer book items. Added items are applied incrementally. Only if one of the current highest items gets removed we
+ * need to iterate the whole list again.
+ *
+ * Offers with a market based price change their price with the market price or have no price until we got one, so we
+ * only cache the highest fixed price and look up the market based prices at each change.
+ *
+ * Not thread safe, we only use it from the user thread.
+ */
+class OfferBookListItemsStatistics {
+    private final DecimalFormat marginFormat = new DecimalFormat("#0.00");
+
+    @Nullable
+    @Getter
+    private OfferBookListItem highestAmountItem;
+    @Nullable
+    @Getter
+    private OfferBookListItem highestPriceItem;
+    @Nullable
+    private OfferBookListItem highestFixedPriceItem;
+    private int numMarketBasedPriceItems;
+    @Nullable
+    @Getter
+    private OfferBookListItem highestMarketPriceMarginItem;
+    private int highestMarketPriceMarginLength;
+    private int numRangeItems;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void onChanged(ListChangeListener.Change<? extends OfferBookListItem> change, List<? extends OfferBookListItem> items) {
+        boolean requiresRebuild = false;
+        while (change.next()) {
+            if (change.wasPermutated() || change.wasUpdated())
+                continue;
+
+            for (OfferBookListItem item : change.getRemoved()) {
+                if (item.getOffer().isRange())
+                    numRangeItems--;
+                if (item.getOffer().isUseMarketBasedPrice())
+                    numMarketBasedPriceItems--;
+                if (item == highestAmountItem || item == highestFixedPriceItem || item == highestMarketPriceMarginItem)
+                    requiresRebuild = true;
+            }
+
+            if (!requiresRebuild)
+                change.getAddedSubList().forEach(this::add);
+        }
+
+        if (requiresRebuild)
+            rebuild(items);
+        else
+            updateHighestPriceItem(items);
+    }
+
+    void rebuild(List<? extends OfferBookListItem> items) {
+        highestAmountItem = null;
+        highestFixedPriceItem = null;
+        highestMarketPriceMarginItem = null;
+        highestMarketPriceMarginLength = 0;
+        numRangeItems = 0;
+        numMarketBasedPriceItems = 0;
+        items.forEach(this::add);
+        updateHighestPriceItem(items);
+    }
+
+    boolean containsRangeAmount() {
+        return numRangeItems > 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // If multiple items have the same value we keep the first one, as Stream.max did when we iterated the list.
+    private void add(OfferBookListItem item) {
+        Offer offer = item.getOffer();
+        if (offer.isRange())
+            numRangeItems++;
+
+        if (highestAmountItem == null ||
+                offer.getAmount().getValue() > highestAmountItem.getOffer().getAmount().getValue())
+            highestAmountItem = item;
+
+        if (!offer.isUseMarketBasedPrice()) {
+            Price price = offer.getPrice();
+            if (price != null) {
+                Price highestPrice = highestFixedPriceItem != null ? highestFixedPriceItem.getOffer().getPrice() : null;
+                if (highestPrice == null || price.getValue() > highestPrice.getValue())
+                    highestFixedPriceItem = item;
+            }
+        } else {
+            numMarketBasedPriceItems++;
+            int marginLength = marginFormat.format(offer.getMarketPriceMargin() * 100).length();
+            if (highestMarketPriceMarginItem == null || marginLength > highestMarketPriceMarginLength) {
+                highestMarketPriceMarginItem = item;
+                highestMarketPriceMarginLength = marginLength;
+            }
+        }
+    }
+
+    private void updateHighestPriceItem(List<? extends OfferBookListItem> items) {
+        highestPriceItem = highestFixedPriceItem;
+        if (numMarketBasedPriceItems == 0)
+            return;
+
+        Price highestPrice = highestPriceItem != null ? highestPriceItem.getOffer().getPrice() : null;
+        for (OfferBookListItem item : items) {
+            Offer offer = item.getOffer();
+            if (!offer.isUseMarketBasedPrice())
+                continue;
+
+            Price price = offer.getPrice();
+            if (price != null && (highestPrice == null || price.getValue() > highestPrice.getValue())) {
+                highestPriceItem = item;
+                highestPrice = price;
+            }
+        }
+    }
+}
@@ -80,8 +80,6 @@ import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 
-import java.text.DecimalFormat;
-
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -113,6 +111,7 @@ class OfferBookViewModel extends ActivatableViewModel {
     private final SortedList<OfferBookListItem> sortedItems;
     private final ListChangeListener<TradeCurrency> tradeCurrencyListChangeListener;
     private final ListChangeListener<OfferBookListItem> filterItemsListener;
+    private final OfferBookListItemsStatistics filteredItemsStatistics = new OfferBookListItemsStatistics();
     private TradeCurrency selectedTradeCurrency;
     private final ObservableList<TradeCurrency> allTradeCurrencies = FXCollections.observableArrayList();
 
@@ -177,41 +176,14 @@ class OfferBookViewModel extends ActivatableViewModel {
         tradeCurrencyListChangeListener = c -> fillAllTradeCurrencies();
 
         filterItemsListener = c -> {
-            final Optional<OfferBookListItem> highestAmountOffer = filteredItems.stream()
-                    .max(Comparator.comparingLong(o -> o.getOffer().getAmount().getValue()));
-
-            final boolean containsRangeAmount = filteredItems.stream().anyMatch(o -> o.getOffer().isRange());
-
-            if (highestAmountOffer.isPresent()) {
-                final OfferBookListItem item = highestAmountOffer.get();
-                if (!item.getOffer().isRange() && containsRangeAmount) {
-                    maxPlacesForAmount.set(formatAmount(item.getOffer(), false)
-                            .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
-                    maxPlacesForVolume.set(formatVolume(item.getOffer(), false)
-                            .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
-                } else {
-                    maxPlacesForAmount.set(formatAmount(item.getOffer(), false).length());
-                    maxPlacesForVolume.set(formatVolume(item.getOffer(), false).length());
-                }
-
-            }
-
-            final Optional<OfferBookListItem> highestPriceOffer = filteredItems.stream()
-                    .filter(o -> o.getOffer().getPrice() != null)
-                    .max(Comparator.comparingLong(o -> o.getOffer().getPrice() != null ? o.getOffer().getPrice().getValue() : 0));
-
-            highestPriceOffer.ifPresent(offerBookListItem -> maxPlacesForPrice.set(formatPrice(offerBookListItem.getOffer(), false).length()));
-
-            final Optional<OfferBookListItem> highestMarketPriceMarginOffer = filteredItems.stream()
-                    .filter(o -> o.getOffer().isUseMarketBasedPrice())
-                    .max(Comparator.comparing(o -> new DecimalFormat("#0.00").format(o.getOffer().getMarketPriceMargin() * 100).length()));
-
-            highestMarketPriceMarginOffer.ifPresent(offerBookListItem -> maxPlacesForMarketPriceMargin.set(formatMarketPriceMargin(offerBookListItem.getOffer(), false).length()));
+            filteredItemsStatistics.onChanged(c, filteredItems);
+            updateMaxPlaces();
         };
     }
 
     @Override
     protected void activate() {
+        filteredItemsStatistics.rebuild(filteredItems);
         filteredItems.addListener(filterItemsListener);
 
         String code = direction == OfferPayload.Direction.BUY ? preferences.getBuyScreenCurrencyCode() : preferences.getSellScreenCurrencyCode();
@@ -535,6 +507,30 @@ class OfferBookViewModel extends ActivatableViewModel {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void updateMaxPlaces() {
+        OfferBookListItem highestAmountItem = filteredItemsStatistics.getHighestAmountItem();
+        if (highestAmountItem != null) {
+            Offer offer = highestAmountItem.getOffer();
+            if (!offer.isRange() && filteredItemsStatistics.containsRangeAmount()) {
+                maxPlacesForAmount.set(formatAmount(offer, false)
+                        .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
+                maxPlacesForVolume.set(formatVolume(offer, false)
+                        .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
+            } else {
+                maxPlacesForAmount.set(formatAmount(offer, false).length());
+                maxPlacesForVolume.set(formatVolume(offer, false).length());
+            }
+        }
+
+        OfferBookListItem highestPriceItem = filteredItemsStatistics.getHighestPriceItem();
+        if (highestPriceItem != null)
+            maxPlacesForPrice.set(formatPrice(highestPriceItem.getOffer(), false).length());
+
+        OfferBookListItem highestMarketPriceMarginItem = filteredItemsStatistics.getHighestMarketPriceMarginItem();
+        if (highestMarketPriceMarginItem != null)
+            maxPlacesForMarketPriceMargin.set(formatMarketPriceMargin(highestMarketPriceMarginItem.getOffer(), false).length());
+    }
+
     private void setMarketPriceFeedCurrency() {
         if (isTabSelected) {
             if (showAllTradeCurrenciesProperty.get())
@@ -661,7 +661,7 @@ public class DisputeSummaryWindow extends Overlay<DisputeSummaryWindow> {
 
         cancelButton.setOnAction(e -> {
             dispute.setDisputeResult(disputeResult);
-            checkNotNull(getDisputeManager(dispute)).requestPersistence();
+            checkNotNull(getDisputeManager(dispute)).requestPersistence(dispute);
             hide();
         });
     }
@@ -863,7 +863,7 @@ public class DisputeSummaryWindow extends Overlay<DisputeSummaryWindow> {
 
         finalizeDisputeHandlerOptional.ifPresent(Runnable::run);
 
-        disputeManager.requestPersistence();
+        disputeManager.requestPersistence(dispute);
 
         closeTicketButton.disableProperty().unbind();
 
@@ -586,7 +586,7 @@ public class ChatView extends AnchorPane {
         if (file != null) {
             try (FileOutputStream fileOutputStream = new FileOutputStream(file.getAbsolutePath())) {
                 fileOutputStream.write(attachment.getBytes());
-            } catch (IOException e) {
+            } catch (IOException | IllegalStateException e) {
                 e.printStackTrace();
                 System.out.println(e.getMessage());
             }
@@ -479,7 +479,7 @@ public abstract class DisputeView extends ActivatableView<VBox, Void> {
         if (selectedDispute != null) {
             selectedDispute.setIsClosed(false);
             handleOnSelectDispute(selectedDispute);
-            disputeManager.requestPersistence();
+            disputeManager.requestPersistence(selectedDispute);
         }
     }
 
@@ -261,6 +261,26 @@ public class OfferBookViewModelTest {
         assertEquals(7, model.maxPlacesForAmount.intValue());
     }
 
+    @Test
+    public void testMaxCharactersForAmountAfterRemovingHighestAmountOffer() {
+        OfferBook offerBook = mock(OfferBook.class);
+        OpenOfferManager openOfferManager = mock(OpenOfferManager.class);
+        final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
+        offerBookListItems.addAll(make(OfferBookListItemMaker.btcBuyItem));
+
+        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+
+        final OfferBookViewModel model = new OfferBookViewModel(null, openOfferManager, offerBook, empty, null, null, null,
+                null, null, null, getPriceUtil(), null, coinFormatter, new BsqFormatter());
+        model.activate();
+
+        OfferBookListItem highestAmountItem = make(btcBuyItem.but(with(amount, 2000000000L)));
+        offerBookListItems.add(highestAmountItem);
+        assertEquals(7, model.maxPlacesForAmount.intValue());
+        offerBookListItems.remove(highestAmountItem);
+        assertEquals(6, model.maxPlacesForAmount.intValue());
+    }
+
     @Test
     public void testMaxCharactersForAmountRange() {
         OfferBook offerBook = mock(OfferBook.class);
@@ -365,6 +385,39 @@ public class OfferBookViewModelTest {
         assertEquals(10, model.maxPlacesForPrice.intValue());
     }
 
+    @Test
+    public void testMaxCharactersForPriceWithMarketBasedPrice() {
+        OfferBook offerBook = mock(OfferBook.class);
+        OpenOfferManager openOfferManager = mock(OpenOfferManager.class);
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
+
+        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        when(priceFeedService.getMarketPrice(anyString())).thenReturn(null);
+
+        final OfferBookListItem marketBasedItem = make(btcBuyItem.but(
+                with(useMarketBasedPrice, true),
+                with(marketPriceMargin, 0.01)));
+        marketBasedItem.getOffer().setPriceFeedService(priceFeedService);
+        offerBookListItems.addAll(marketBasedItem, make(OfferBookListItemMaker.btcBuyItem));
+
+        final OfferBookViewModel model = new OfferBookViewModel(null, openOfferManager, offerBook, empty, null, null, priceFeedService,
+                null, null, null, getPriceUtil(), null, coinFormatter, new BsqFormatter());
+        model.activate();
+
+        // No market price yet, so only the fixed price offer is considered
+        assertEquals(7, model.maxPlacesForPrice.intValue());
+
+        when(priceFeedService.getMarketPrice(anyString())).thenReturn(new MarketPrice("USD", 12684.0450, Instant.now().getEpochSecond(), true));
+        offerBookListItems.addAll(make(OfferBookListItemMaker.btcBuyItem));
+        assertEquals(10, model.maxPlacesForPrice.intValue()); //12557.2046
+
+        // The market based offer stays the highest one but its price went down
+        when(priceFeedService.getMarketPrice(anyString())).thenReturn(new MarketPrice("USD", 1268.4045, Instant.now().getEpochSecond(), true));
+        offerBookListItems.addAll(make(OfferBookListItemMaker.btcBuyItem));
+        assertEquals(9, model.maxPlacesForPrice.intValue()); //1255.7205
+    }
+
     @Test
     public void testMaxCharactersForPriceDistanceWithNoOffers() {
         OfferBook offerBook = mock(OfferBook.class);
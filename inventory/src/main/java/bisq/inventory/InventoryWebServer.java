@@ -179,6 +179,17 @@ public class InventoryWebServer {
                     .append(memoryString)
                     .append("<br/>");
 
+            String deduplicatedAllocationsSize = requestInfo.getValue(InventoryItem.deduplicatedAllocationsSize);
+            String deduplicatedAllocationsSizeString = deduplicatedAllocationsSize != null ?
+                    Utilities.readableFileSize(Long.parseLong(deduplicatedAllocationsSize)) :
+                    "n/a";
+            sb.append("Deduplicated allocations since start: ")
+                    .append(requestInfo.getDisplayValue(InventoryItem.numDeduplicatedAllocations))
+                    .append(" (")
+                    .append(deduplicatedAllocationsSizeString)
+                    .append(")")
+                    .append("<br/>");
+
             String jvmStartTimeString = requestInfo.getValue(InventoryItem.jvmStartTime);
             long jvmStartTime = jvmStartTimeString != null ? Long.parseLong(jvmStartTimeString) : 0;
             sb.append("Node started at: ")
@@ -71,4 +71,11 @@ public abstract class Reporter extends Configurable {
      */
     public abstract void report(String key, String value, String timestamp, String prefix);
 
+    /**
+     * Delivers pending reports and releases resources. Does nothing by default.
+     *
+     * @param timeoutMs max. time to wait for pending reports to be delivered
+     */
+    public void shutdown(long timeoutMs) {
+    }
 }
@@ -32,16 +32,50 @@ import com.google.common.base.Charsets;
 import java.net.Socket;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Reports our findings to a graphite service.
  *
+ * The values are queued and a single sender thread writes them to a persistent
+ * connection, batching all queued lines into a single write using the plaintext
+ * protocol. If the connection fails or the serviceUrl is missing or malformed the
+ * batch is kept and we retry with an exponential backoff. The reporter reports its own queue depth, write latency,
+ * dropped lines and reconnects as "graphiteReporter" metrics.
+ *
  * @author Florian Reimair
  */
+@Slf4j
 public class GraphiteReporter extends Reporter {
+    private static final int MAX_QUEUE_SIZE = 100_000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final long MIN_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+    private static final long SELF_REPORT_INTERVAL_MS = 60_000;
+    private static final String SELF_REPORT_PREFIX = "graphiteReporter";
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(MAX_QUEUE_SIZE);
+    private final AtomicLong numDroppedLines = new AtomicLong();
+    private Thread sender;
+
+    // Only accessed by the sender thread
+    private Socket socket;
+    private String connectedServiceUrl;
+    private long backoff = MIN_BACKOFF_MS;
+    private long numReconnects;
+    private long lastWriteLatency;
+    private long lastSelfReportTs = System.currentTimeMillis();
 
     @Override
     public void report(long value, String prefix) {
@@ -59,48 +93,152 @@ public class GraphiteReporter extends Reporter {
     @Override
     public void report(Map<String, String> values, String prefix) {
         String timestamp = String.valueOf(System.currentTimeMillis());
-        values.forEach((key, value) -> {
-
-            report(key, value, timestamp, prefix);
-            try {
-                // give Tor some slack
-                // TODO maybe use the pickle protocol?
-                // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
-        });
+        values.forEach((key, value) -> report(key, value, timestamp, prefix));
     }
 
     @Override
     public void report(String key, String value, String timeInMilliseconds, String prefix) {
         // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-        String report = "bisq" + (Version.getBaseCurrencyNetwork() != 0 ? "-" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].getNetwork() : "")
+        String line = "bisq" + (Version.getBaseCurrencyNetwork() != 0 ? "-" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].getNetwork() : "")
                 + (prefix.isEmpty() ? "" : "." + prefix)
                 + (key.isEmpty() ? "" : "." + key)
                 + " " + value + " " + Long.parseLong(timeInMilliseconds) / 1000 + "\n";
 
-        try {
-            NodeAddress nodeAddress = OnionParser.getNodeAddress(configuration.getProperty("serviceUrl"));
-            Socket socket;
-            if (nodeAddress.getFullAddress().contains(".onion"))
-                socket = new TorSocket(nodeAddress.getHostName(), nodeAddress.getPort());
-            else
-                socket = new Socket(nodeAddress.getHostName(), nodeAddress.getPort());
-
-            socket.getOutputStream().write(report.getBytes(Charsets.UTF_8));
-            socket.close();
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+        if (!queue.offer(line)) {
+            numDroppedLines.incrementAndGet();
+            return;
         }
-
+        maybeStartSender();
     }
 
     @Override
     public void report(Map<String, String> values) {
         report(values, "");
     }
+
+    @Override
+    public void shutdown(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        try {
+            while (!queue.isEmpty() && System.currentTimeMillis() < deadline)
+                Thread.sleep(50);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (sender != null)
+                sender.interrupt();
+        }
+    }
+
+    /**
+     * @return Number of lines waiting to be sent
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Sender thread
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void maybeStartSender() {
+        if (sender != null && sender.isAlive())
+            return;
+
+        sender = new Thread(this::sendLoop, "GraphiteReporter");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    private void sendLoop() {
+        List<String> batch = new ArrayList<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (batch.isEmpty()) {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                }
+
+                if (send(batch)) {
+                    batch.clear();
+                    backoff = MIN_BACKOFF_MS;
+                    maybeReportSelf();
+                } else {
+                    // We keep the batch and retry after the backoff
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSocket();
+        }
+    }
+
+    private boolean send(List<String> batch) {
+        StringBuilder sb = new StringBuilder();
+        batch.forEach(sb::append);
+        byte[] bytes = sb.toString().getBytes(Charsets.UTF_8);
+        try {
+            long ts = System.currentTimeMillis();
+            OutputStream outputStream = getSocket().getOutputStream();
+            outputStream.write(bytes);
+            outputStream.flush();
+            lastWriteLatency = System.currentTimeMillis() - ts;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // A RuntimeException is caused by a missing or malformed serviceUrl. We keep the sender thread alive, as
+            // the configuration can get fixed by a reload.
+            log.warn("Sending {} lines to graphite failed. We retry in {} ms. {}", batch.size(), backoff, e.toString());
+            closeSocket();
+            return false;
+        }
+    }
+
+    private Socket getSocket() throws IOException {
+        // The serviceUrl can change if the configuration gets reloaded
+        String serviceUrl = configuration.getProperty("serviceUrl");
+        if (serviceUrl == null)
+            throw new IllegalStateException("No serviceUrl configured");
+
+        if (socket != null && !socket.isClosed() && serviceUrl.equals(connectedServiceUrl))
+            return socket;
+
+        closeSocket();
+        NodeAddress nodeAddress = OnionParser.getNodeAddress(serviceUrl);
+        if (nodeAddress.getFullAddress().contains(".onion"))
+            socket = new TorSocket(nodeAddress.getHostName(), nodeAddress.getPort());
+        else
+            socket = new Socket(nodeAddress.getHostName(), nodeAddress.getPort());
+        connectedServiceUrl = serviceUrl;
+        numReconnects++;
+        return socket;
+    }
+
+    private void closeSocket() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+            socket = null;
+        }
+    }
+
+    private void maybeReportSelf() {
+        long now = System.currentTimeMillis();
+        if (now - lastSelfReportTs < SELF_REPORT_INTERVAL_MS)
+            return;
+
+        lastSelfReportTs = now;
+        Map<String, String> values = new HashMap<>();
+        values.put("queueDepth", String.valueOf(queue.size()));
+        values.put("writeLatency", String.valueOf(lastWriteLatency));
+        values.put("droppedLines", String.valueOf(numDroppedLines.get()));
+        values.put("connects", String.valueOf(numReconnects));
+        report(values, SELF_REPORT_PREFIX);
+    }
 }
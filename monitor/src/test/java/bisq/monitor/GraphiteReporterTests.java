@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.monitor;
+
+import bisq.monitor.reporter.GraphiteReporter;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GraphiteReporterTests {
+
+    @Test
+    public void reportUsesSinglePersistentConnection() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            serverSocket.setSoTimeout(10_000);
+
+            GraphiteReporter reporter = new GraphiteReporter();
+            Properties properties = new Properties();
+            properties.put("GraphiteReporter.serviceUrl", "127.0.0.1:" + serverSocket.getLocalPort());
+            reporter.configure(properties);
+
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < 300; i++)
+                values.put("market" + i, String.valueOf(i));
+            reporter.report(values, "test");
+            reporter.report(42, "other");
+
+            List<String> lines = new ArrayList<>();
+            try (Socket socket = serverSocket.accept()) {
+                socket.setSoTimeout(10_000);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                while (lines.size() < 301)
+                    lines.add(reader.readLine());
+            }
+            reporter.shutdown(1000);
+
+            assertEquals(301, lines.size());
+            assertTrue(lines.stream().allMatch(line -> line.matches("bisq[^ ]*\\.(test\\.market\\d+|other) \\d+ \\d+")));
+            assertTrue(lines.get(300).contains(".other 42 "));
+        }
+    }
+
+    @Test
+    public void missingServiceUrlKeepsBatch() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            serverSocket.setSoTimeout(10_000);
+
+            GraphiteReporter reporter = new GraphiteReporter();
+            Properties properties = new Properties();
+            reporter.configure(properties);
+            reporter.report(42, "test");
+
+            // The sender thread survives the failed send and uses the fixed configuration at the retry
+            properties.put("GraphiteReporter.serviceUrl", "127.0.0.1:" + serverSocket.getLocalPort());
+            reporter.configure(properties);
+
+            String line;
+            try (Socket socket = serverSocket.accept()) {
+                socket.setSoTimeout(10_000);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                line = reader.readLine();
+            }
+            reporter.shutdown(1000);
+
+            assertTrue(line.contains(".test 42 "));
+        }
+    }
+}
@@ -19,6 +19,7 @@ package bisq.network.p2p;
 
 import bisq.common.consensus.UsedForTradeContractJson;
 import bisq.common.crypto.Hash;
+import bisq.common.proto.ProtoInterner;
 import bisq.common.proto.network.NetworkPayload;
 import bisq.common.proto.persistable.PersistablePayload;
 import bisq.common.util.JsonExclude;
@@ -63,7 +64,7 @@ public final class NodeAddress implements PersistablePayload, NetworkPayload, Us
     }
 
     public static NodeAddress fromProto(protobuf.NodeAddress proto) {
-        return new NodeAddress(proto.getHostName(), proto.getPort());
+        return new NodeAddress(ProtoInterner.intern(proto.getHostName()), proto.getPort());
     }
 
 
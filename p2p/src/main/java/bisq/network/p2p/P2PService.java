@@ -34,6 +34,7 @@ import bisq.network.p2p.peers.peerexchange.PeerExchangeManager;
 import bisq.network.p2p.storage.HashMapChangedListener;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RefreshOffersMessage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
@@ -50,6 +51,7 @@ import bisq.common.proto.network.NetworkEnvelope;
 import com.google.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -65,6 +67,9 @@ import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -492,6 +497,39 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         }
     }
 
+    /**
+     * Refreshes the TTL of all given payloads. The refreshes are broadcast in batches of up to
+     * RefreshOffersMessage.MAX_ENTRIES entries, so peers process them with one message per batch.
+     *
+     * @return the number of payloads which got refreshed
+     */
+    public int refreshTTL(Collection<? extends ProtectedStoragePayload> protectedStoragePayloads) {
+        if (isBootstrapped()) {
+            List<RefreshOfferMessage> refreshOfferMessages = new ArrayList<>();
+            for (ProtectedStoragePayload protectedStoragePayload : protectedStoragePayloads) {
+                try {
+                    refreshOfferMessages.add(p2PDataStorage.getRefreshTTLMessage(protectedStoragePayload, keyRing.getSignatureKeyPair()));
+                } catch (CryptoException e) {
+                    log.error("Signing at getDataWithSignedSeqNr failed. That should never happen.");
+                }
+            }
+
+            int numRefreshed = 0;
+            for (List<RefreshOfferMessage> batch : Lists.partition(refreshOfferMessages, RefreshOffersMessage.MAX_ENTRIES)) {
+                if (batch.size() == 1) {
+                    if (p2PDataStorage.refreshTTL(batch.get(0), networkNode.getNodeAddress()))
+                        numRefreshed++;
+                } else {
+                    numRefreshed += p2PDataStorage.refreshTTL(new RefreshOffersMessage(new ArrayList<>(batch)),
+                            networkNode.getNodeAddress());
+                }
+            }
+            return numRefreshed;
+        } else {
+            throw new NetworkNotReadyException();
+        }
+    }
+
     public boolean removeData(ProtectedStoragePayload protectedStoragePayload) {
         if (isBootstrapped()) {
             try {
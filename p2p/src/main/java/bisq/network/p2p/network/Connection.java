@@ -47,6 +47,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 
 import javax.inject.Inject;
 
+import com.google.common.base.CaseFormat;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
 
@@ -127,6 +128,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private final ConnectionListener connectionListener;
     @Nullable
     private final NetworkFilter networkFilter;
+    @Nullable
+    private final InboundEnvelopeFilter inboundEnvelopeFilter;
     @Getter
     private final String uid;
     private final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "Connection.java executor-service"));
@@ -172,10 +175,12 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                ConnectionListener connectionListener,
                @Nullable NodeAddress peersNodeAddress,
                NetworkProtoResolver networkProtoResolver,
-               @Nullable NetworkFilter networkFilter) {
+               @Nullable NetworkFilter networkFilter,
+               @Nullable InboundEnvelopeFilter inboundEnvelopeFilter) {
         this.socket = socket;
         this.connectionListener = connectionListener;
         this.networkFilter = networkFilter;
+        this.inboundEnvelopeFilter = inboundEnvelopeFilter;
         uid = UUID.randomUUID().toString();
         statistic = new Statistic();
 
@@ -195,7 +200,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
             // the associated ObjectOutputStream on the other end of the connection has written.
             // It will not return until that header has been read.
-            protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
+            protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic, capabilities);
             protoInputStream = socket.getInputStream();
             // We create a thread for handling inputStream data
             singleThreadExecutor.submit(this);
@@ -765,7 +770,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     }
 
                     // Blocking read from the inputStream
-                    protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.parseDelimitedFrom(protoInputStream);
+                    protobuf.NetworkEnvelope receivedProto = protobuf.NetworkEnvelope.parseDelimitedFrom(protoInputStream);
 
                     long ts = System.currentTimeMillis();
 
@@ -776,7 +781,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         return;
                     }
 
-                    if (proto == null) {
+                    if (receivedProto == null) {
                         if (protoInputStream.read() == -1) {
                             log.warn("proto is null because protoInputStream.read()=-1 (EOF). That is expected if client got stopped without proper shutdown.");
                         } else {
@@ -803,13 +808,32 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         Thread.sleep(20);
                     }
 
+                    // We apply the size checks to the uncompressed data, but track the received bytes
+                    protobuf.NetworkEnvelope proto = EnvelopeCompression.maybeDecompress(receivedProto, MAX_PERMITTED_MESSAGE_SIZE);
+
+                    // Gossiped data we have already is the common case on a well connected node, so we drop it
+                    // before it gets converted to domain objects. Throttle limits and statistics still apply.
+                    if (isRedundant(proto)) {
+                        lastReadTimeStamp = now;
+                        statistic.addReceivedBytes(receivedProto.getSerializedSize());
+                        statistic.addReceivedMessage(CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL,
+                                proto.getMessageCase().name()));
+                        if (violatesThrottleLimit() && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
+                            return;
+
+                        statistic.updateLastActivityTimestamp();
+                        int size = proto.getSerializedSize();
+                        UserThread.execute(() -> connectionStatistics.addReceivedMsgMetrics(System.currentTimeMillis() - ts, size));
+                        continue;
+                    }
+
                     NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
                     lastReadTimeStamp = now;
                     log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
                     int size = proto.getSerializedSize();
 
                     // We want to track the size of each object even if it is invalid data
-                    statistic.addReceivedBytes(size);
+                    statistic.addReceivedBytes(receivedProto.getSerializedSize());
 
                     // We want to track the network_messages also before the checks, so do it early...
                     statistic.addReceivedMessage(networkEnvelope);
@@ -899,6 +923,14 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         }
     }
 
+    // Envelopes which would cause a rule violation take the normal path
+    private boolean isRedundant(protobuf.NetworkEnvelope proto) {
+        return inboundEnvelopeFilter != null &&
+                proto.getMessageVersion() == Version.getP2PMessageVersion() &&
+                proto.getSerializedSize() <= PERMITTED_MESSAGE_SIZE &&
+                inboundEnvelopeFilter.isRedundant(proto);
+    }
+
     public boolean maybeHandleSupportedCapabilitiesMessage(NetworkEnvelope networkEnvelope) {
         if (!(networkEnvelope instanceof SupportedCapabilitiesMessage)) {
             return false;
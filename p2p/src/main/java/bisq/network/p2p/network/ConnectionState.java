@@ -21,6 +21,7 @@ import bisq.network.p2p.BundleOfEnvelopes;
 import bisq.network.p2p.InitialDataRequest;
 import bisq.network.p2p.InitialDataResponse;
 import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
@@ -100,7 +101,9 @@ public class ConnectionState implements MessageListener {
             numInitialDataRequests++;
             onInitialDataExchange();
         } else if (networkEnvelope instanceof InitialDataResponse) {
-            numInitialDataResponses++;
+            // All chunks of a chunked GetDataResponse count as one response
+            if (!(networkEnvelope instanceof GetDataResponse) || !((GetDataResponse) networkEnvelope).hasMoreChunks())
+                numInitialDataResponses++;
             onInitialDataExchange();
         } else if (networkEnvelope instanceof PrefixedSealedAndSignedMessage &&
                 connection.getPeersNodeAddressOptional().isPresent()) {
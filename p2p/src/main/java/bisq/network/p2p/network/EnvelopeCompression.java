@@ -0,0 +1,172 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.app.Version;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wraps large network envelopes into a CompressedEnvelope if the peer supports Capability.COMPRESSED_ENVELOPE.
+ * Small messages are sent uncompressed as the overhead would not pay off. Used for bulk responses like
+ * GetDataResponse or GetBlocksResponse which can have several MB.
+ *
+ * We compress the serialized envelope instead of the stream so that the framing stays compatible with peers not
+ * supporting compression and the compression is done only once per message.
+ */
+@Slf4j
+class EnvelopeCompression {
+    static final int COMPRESSION_THRESHOLD = 32 * 1024;
+
+    private static final AtomicLong numCompressedMessages = new AtomicLong();
+    private static final AtomicLong totalUncompressedBytes = new AtomicLong();
+    private static final AtomicLong totalCompressedBytes = new AtomicLong();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static boolean isSupported(Capabilities peersCapabilities) {
+        return peersCapabilities.containsAll(new Capabilities(Capability.COMPRESSED_ENVELOPE));
+    }
+
+    /**
+     * @return The CompressedEnvelope wrapping the given proto, or the given proto if it is below the threshold or
+     * does not compress well.
+     */
+    static protobuf.NetworkEnvelope maybeCompress(protobuf.NetworkEnvelope proto) {
+        int size = proto.getSerializedSize();
+        if (size < COMPRESSION_THRESHOLD)
+            return proto;
+
+        byte[] compressed = deflate(proto.toByteArray());
+        if (compressed.length >= size)
+            return proto;
+
+        numCompressedMessages.incrementAndGet();
+        totalUncompressedBytes.addAndGet(size);
+        totalCompressedBytes.addAndGet(compressed.length);
+        return protobuf.NetworkEnvelope.newBuilder()
+                .setMessageVersion(Version.getP2PMessageVersion())
+                .setCompressedEnvelope(protobuf.CompressedEnvelope.newBuilder()
+                        .setCompressedNetworkEnvelope(ByteString.copyFrom(compressed))
+                        .setUncompressedSize(size))
+                .build();
+    }
+
+    /**
+     * @param proto     The received proto
+     * @param maxSize   We do not inflate more than maxSize bytes to protect against decompression bombs
+     * @return The wrapped proto if the given proto is a CompressedEnvelope, otherwise the given proto.
+     */
+    static protobuf.NetworkEnvelope maybeDecompress(protobuf.NetworkEnvelope proto, int maxSize)
+            throws InvalidProtocolBufferException {
+        if (!proto.hasCompressedEnvelope())
+            return proto;
+
+        protobuf.CompressedEnvelope compressedEnvelope = proto.getCompressedEnvelope();
+        int uncompressedSize = compressedEnvelope.getUncompressedSize();
+        if (uncompressedSize < 0 || uncompressedSize > maxSize)
+            throw new InvalidProtocolBufferException("Uncompressed size of CompressedEnvelope is invalid. uncompressedSize=" +
+                    uncompressedSize + ", maxSize=" + maxSize);
+
+        byte[] buffer = inflate(compressedEnvelope.getCompressedNetworkEnvelope().toByteArray(), uncompressedSize);
+        protobuf.NetworkEnvelope unwrapped;
+        try {
+            unwrapped = protobuf.NetworkEnvelope.parseFrom(CodedInputStream.newInstance(buffer, 0, uncompressedSize));
+        } catch (InvalidProtocolBufferException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InvalidProtocolBufferException(e.getMessage());
+        }
+        if (unwrapped.hasCompressedEnvelope())
+            throw new InvalidProtocolBufferException("Nested CompressedEnvelope is not permitted");
+
+        return unwrapped;
+    }
+
+    static String getStatistics() {
+        long uncompressed = totalUncompressedBytes.get();
+        double ratio = uncompressed > 0 ? (double) totalCompressedBytes.get() / uncompressed : 1;
+        return "Compressed messages: " + numCompressedMessages.get() +
+                "; uncompressed size: " + uncompressed / 1024 + " kb" +
+                "; compressed size: " + totalCompressedBytes.get() / 1024 + " kb" +
+                "; ratio: " + String.format("%.2f", ratio);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // We inflate into a buffer with one spare byte, so we detect if the data exceeds the announced size
+    private static byte[] inflate(byte[] bytes, int uncompressedSize) throws InvalidProtocolBufferException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            byte[] buffer = new byte[uncompressedSize + 1];
+            int offset = 0;
+            while (!inflater.finished() && offset < buffer.length) {
+                int count = inflater.inflate(buffer, offset, buffer.length - offset);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                offset += count;
+            }
+            if (!inflater.finished() || offset != uncompressedSize)
+                throw new InvalidProtocolBufferException("Inflated data does not match the uncompressed size of " +
+                        "the CompressedEnvelope. uncompressedSize=" + uncompressedSize);
+            return buffer;
+        } catch (DataFormatException e) {
+            throw new InvalidProtocolBufferException("Inflating CompressedEnvelope failed. " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -28,7 +28,9 @@ public class InboundConnection extends Connection {
                              MessageListener messageListener,
                              ConnectionListener connectionListener,
                              NetworkProtoResolver networkProtoResolver,
-                             @Nullable NetworkFilter networkFilter) {
-        super(socket, messageListener, connectionListener, null, networkProtoResolver, networkFilter);
+                             @Nullable NetworkFilter networkFilter,
+                             @Nullable InboundEnvelopeFilter inboundEnvelopeFilter) {
+        super(socket, messageListener, connectionListener, null, networkProtoResolver, networkFilter,
+                inboundEnvelopeFilter);
     }
 }
@@ -0,0 +1,29 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+/**
+ * Lets the connection drop inbound envelopes before they get converted to domain objects, so redundant data (e.g.
+ * gossiped data we already have) does not cost the full decoding. Called from the connection threads.
+ */
+public interface InboundEnvelopeFilter {
+    /**
+     * @return True if delivering the envelope to the message listeners would have no effect
+     */
+    boolean isRedundant(protobuf.NetworkEnvelope proto);
+}
@@ -71,6 +71,9 @@ public abstract class NetworkNode implements MessageListener {
     private final NetworkProtoResolver networkProtoResolver;
     @Nullable
     private final NetworkFilter networkFilter;
+    // Set after construction, so the connections use isRedundantInboundEnvelope which delegates to it
+    @Nullable
+    private volatile InboundEnvelopeFilter inboundEnvelopeFilter;
 
     private final CopyOnWriteArraySet<InboundConnection> inBoundConnections = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
@@ -196,7 +199,8 @@ public abstract class NetworkNode implements MessageListener {
                                 connectionListener,
                                 peersNodeAddress,
                                 networkProtoResolver,
-                                networkFilter);
+                                networkFilter,
+                                this::isRedundantInboundEnvelope);
 
                         if (log.isDebugEnabled()) {
                             log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
@@ -424,6 +428,10 @@ public abstract class NetworkNode implements MessageListener {
                     "That might happen because of async behaviour of CopyOnWriteArraySet");
     }
 
+    public void setInboundEnvelopeFilter(@Nullable InboundEnvelopeFilter inboundEnvelopeFilter) {
+        this.inboundEnvelopeFilter = inboundEnvelopeFilter;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Protected
@@ -464,10 +472,17 @@ public abstract class NetworkNode implements MessageListener {
                 NetworkNode.this,
                 connectionListener,
                 networkProtoResolver,
-                networkFilter);
+                networkFilter,
+                this::isRedundantInboundEnvelope);
         executorService.submit(server);
     }
 
+    // Called from the connection threads
+    private boolean isRedundantInboundEnvelope(protobuf.NetworkEnvelope proto) {
+        InboundEnvelopeFilter inboundEnvelopeFilter = this.inboundEnvelopeFilter;
+        return inboundEnvelopeFilter != null && inboundEnvelopeFilter.isRedundant(proto);
+    }
+
     private Optional<OutboundConnection> lookupOutBoundConnection(NodeAddress peersNodeAddress) {
         log.trace("lookupOutboundConnection for peersNodeAddress={}", peersNodeAddress.getFullAddress());
         printOutBoundConnections();
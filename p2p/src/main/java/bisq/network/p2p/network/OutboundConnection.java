@@ -31,7 +31,9 @@ public class OutboundConnection extends Connection {
                               ConnectionListener connectionListener,
                               NodeAddress peersNodeAddress,
                               NetworkProtoResolver networkProtoResolver,
-                              @Nullable NetworkFilter networkFilter) {
-        super(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver, networkFilter);
+                              @Nullable NetworkFilter networkFilter,
+                              @Nullable InboundEnvelopeFilter inboundEnvelopeFilter) {
+        super(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver, networkFilter,
+                inboundEnvelopeFilter);
     }
 }
@@ -19,6 +19,7 @@ package bisq.network.p2p.network;
 
 import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
 
+import bisq.common.app.Capabilities;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import java.io.IOException;
@@ -35,10 +36,13 @@ class ProtoOutputStream {
 
     private final OutputStream delegate;
     private final Statistic statistic;
+    // Gets updated by the connection once we know the capabilities of our peer
+    private final Capabilities peersCapabilities;
 
-    ProtoOutputStream(OutputStream delegate, Statistic statistic) {
+    ProtoOutputStream(OutputStream delegate, Statistic statistic, Capabilities peersCapabilities) {
         this.delegate = delegate;
         this.statistic = statistic;
+        this.peersCapabilities = peersCapabilities;
     }
 
     void writeEnvelope(NetworkEnvelope envelope) {
@@ -60,6 +64,9 @@ class ProtoOutputStream {
 
     private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
         protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
+        if (EnvelopeCompression.isSupported(peersCapabilities)) {
+            proto = EnvelopeCompression.maybeCompress(proto);
+        }
         proto.writeDelimitedTo(delegate);
         delegate.flush();
 
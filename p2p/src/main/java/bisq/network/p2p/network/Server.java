@@ -41,6 +41,8 @@ class Server implements Runnable {
     private final ConnectionListener connectionListener;
     @Nullable
     private final NetworkFilter networkFilter;
+    @Nullable
+    private final InboundEnvelopeFilter inboundEnvelopeFilter;
 
     // accessed from different threads
     private final ServerSocket serverSocket;
@@ -53,12 +55,14 @@ class Server implements Runnable {
                   MessageListener messageListener,
                   ConnectionListener connectionListener,
                   NetworkProtoResolver networkProtoResolver,
-                  @Nullable NetworkFilter networkFilter) {
+                  @Nullable NetworkFilter networkFilter,
+                  @Nullable InboundEnvelopeFilter inboundEnvelopeFilter) {
         this.networkProtoResolver = networkProtoResolver;
         this.serverSocket = serverSocket;
         this.messageListener = messageListener;
         this.connectionListener = connectionListener;
         this.networkFilter = networkFilter;
+        this.inboundEnvelopeFilter = inboundEnvelopeFilter;
     }
 
     @Override
@@ -76,7 +80,8 @@ class Server implements Runnable {
                                 messageListener,
                                 connectionListener,
                                 networkProtoResolver,
-                                networkFilter);
+                                networkFilter,
+                                inboundEnvelopeFilter);
 
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
                                 "Server created new inbound connection:"
@@ -80,13 +80,15 @@ public class Statistic {
                             "Number of sent messages per sec: {};" + ls +
                             "Bytes received: {} kb" + ls +
                             "Number of received messages/Received messages: {} / {};" + ls +
-                            "Number of received messages per sec: {};" + ls,
+                            "Number of received messages per sec: {};" + ls +
+                            "Sent compressed envelopes: {};" + ls,
                     totalSentBytes.get() / 1024d,
                     numTotalSentMessages.get(), totalSentMessages,
                     numTotalSentMessagesPerSec.get(),
                     totalReceivedBytes.get() / 1024d,
                     numTotalReceivedMessages.get(), totalReceivedMessages,
-                    numTotalReceivedMessagesPerSec.get());
+                    numTotalReceivedMessagesPerSec.get(),
+                    EnvelopeCompression.getStatistics());
         }, TimeUnit.MINUTES.toSeconds(5));
     }
 
@@ -168,7 +170,10 @@ public class Statistic {
 
     // TODO would need msg inspection to get useful information...
     void addReceivedMessage(NetworkEnvelope networkEnvelope) {
-        String messageClassName = networkEnvelope.getClass().getSimpleName();
+        addReceivedMessage(networkEnvelope.getClass().getSimpleName());
+    }
+
+    void addReceivedMessage(String messageClassName) {
         int counter = 1;
         if (receivedMessages.containsKey(messageClassName)) {
             counter = receivedMessages.get(messageClassName) + 1;
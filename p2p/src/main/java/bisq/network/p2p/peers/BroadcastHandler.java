@@ -22,6 +22,8 @@ import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RefreshOffersMessage;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
@@ -37,6 +39,8 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -226,15 +230,32 @@ public class BroadcastHandler implements PeerManager.Listener {
 
     // We exclude the requests containing a message we received from that connection
     // Also we filter out messages which requires a capability but peer does not support it.
+    // Batched refresh messages are split into the individual refresh messages for peers not supporting batches.
     private List<Broadcaster.BroadcastRequest> getBroadcastRequestsForConnection(Connection connection,
                                                                                  List<Broadcaster.BroadcastRequest> broadcastRequests) {
         return broadcastRequests.stream()
                 .filter(broadcastRequest -> !connection.getPeersNodeAddressOptional().isPresent() ||
                         !connection.getPeersNodeAddressOptional().get().equals(broadcastRequest.getSender()))
+                .flatMap(broadcastRequest -> maybeSplitRefreshOffersMessage(connection, broadcastRequest))
                 .filter(broadcastRequest -> connection.noCapabilityRequiredOrCapabilityIsSupported(broadcastRequest.getMessage()))
                 .collect(Collectors.toList());
     }
 
+    private Stream<Broadcaster.BroadcastRequest> maybeSplitRefreshOffersMessage(Connection connection,
+                                                                                Broadcaster.BroadcastRequest broadcastRequest) {
+        BroadcastMessage message = broadcastRequest.getMessage();
+        if (!(message instanceof RefreshOffersMessage) || connection.noCapabilityRequiredOrCapabilityIsSupported(message)) {
+            return Stream.of(broadcastRequest);
+        }
+
+        // We keep the listener only at the first request to not notify it multiple times
+        List<RefreshOfferMessage> refreshOfferMessages = ((RefreshOffersMessage) message).getRefreshOfferMessages();
+        return IntStream.range(0, refreshOfferMessages.size())
+                .mapToObj(i -> new Broadcaster.BroadcastRequest(refreshOfferMessages.get(i),
+                        broadcastRequest.getSender(),
+                        i == 0 ? broadcastRequest.getListener() : null));
+    }
+
     private void sendToPeer(Connection connection, List<Broadcaster.BroadcastRequest> broadcastRequestsForConnection) {
         // Can be BundleOfEnvelopes or a single BroadcastMessage
         BroadcastMessage broadcastMessage = getMessage(broadcastRequestsForConnection);
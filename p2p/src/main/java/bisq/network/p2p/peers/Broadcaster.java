@@ -150,9 +150,9 @@ public class Broadcaster implements BroadcastHandler.ResultHandler {
         @Nullable
         private BroadcastHandler.Listener listener;
 
-        private BroadcastRequest(BroadcastMessage message,
-                                 @Nullable NodeAddress sender,
-                                 @Nullable BroadcastHandler.Listener listener) {
+        BroadcastRequest(BroadcastMessage message,
+                         @Nullable NodeAddress sender,
+                         @Nullable BroadcastHandler.Listener listener) {
             this.message = message;
             this.sender = sender;
             this.listener = listener;
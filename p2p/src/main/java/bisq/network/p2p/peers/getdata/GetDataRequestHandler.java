@@ -20,18 +20,28 @@ package bisq.network.p2p.peers.getdata;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.getdata.messages.GetDataChunkRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -39,12 +49,24 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
+/**
+ * Handles a GetDataRequest. If the peer supports the GET_DATA_RESPONSE_CHUNKS capability we do not truncate the
+ * response but deliver it in chunks. The peer requests each following chunk with a GetDataChunkRequest once it has
+ * processed the last one. We do not build the whole response but page through the maps of the P2PDataStorage in the
+ * order of the keys and only keep the key of the last delivered entry, so the memory usage is bounded by the chunk
+ * size and not by the size of the whole response.
+ */
 @Slf4j
 public class GetDataRequestHandler {
     private static final long TIMEOUT = 180;
 
     private static final int MAX_ENTRIES = 10000;
 
+    private static final int MAX_PROTECTED_STORAGE_ENTRIES_PER_CHUNK = 1000;
+    private static final int MAX_PERSISTABLE_NETWORK_PAYLOADS_PER_CHUNK = 5000;
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listener
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -63,18 +85,46 @@ public class GetDataRequestHandler {
     private final NetworkNode networkNode;
     private final P2PDataStorage dataStorage;
     private final Listener listener;
+    private final int maxProtectedStorageEntriesPerChunk;
+    private final int maxPersistableNetworkPayloadsPerChunk;
     private Timer timeoutTimer;
     private boolean stopped;
 
+    // Only set if we deliver the response in chunks
+    private GetDataRequest getDataRequest;
+    private Set<P2PDataStorage.ByteArray> knownHashes;
+    private Capabilities peerCapabilities;
+    private long minDateOfDateSortedTruncatablePayloads;
+    private boolean protectedStorageEntriesComplete;
+    // Key of the last delivered entry of the current type
+    @Nullable
+    private P2PDataStorage.ByteArray lastKey;
+    private int nextChunkCursor;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public GetDataRequestHandler(NetworkNode networkNode, P2PDataStorage dataStorage, Listener listener) {
+        this(networkNode,
+                dataStorage,
+                listener,
+                MAX_PROTECTED_STORAGE_ENTRIES_PER_CHUNK,
+                MAX_PERSISTABLE_NETWORK_PAYLOADS_PER_CHUNK);
+    }
+
+    @VisibleForTesting
+    GetDataRequestHandler(NetworkNode networkNode,
+                          P2PDataStorage dataStorage,
+                          Listener listener,
+                          int maxProtectedStorageEntriesPerChunk,
+                          int maxPersistableNetworkPayloadsPerChunk) {
         this.networkNode = networkNode;
         this.dataStorage = dataStorage;
         this.listener = listener;
+        this.maxProtectedStorageEntriesPerChunk = maxProtectedStorageEntriesPerChunk;
+        this.maxPersistableNetworkPayloadsPerChunk = maxPersistableNetworkPayloadsPerChunk;
     }
 
 
@@ -88,41 +138,137 @@ public class GetDataRequestHandler {
                 .map(e -> "node address " + e.getFullAddress())
                 .orElseGet(() -> "connection UID " + connection.getUid());
 
-        AtomicBoolean wasPersistableNetworkPayloadsTruncated = new AtomicBoolean(false);
-        AtomicBoolean wasProtectedStorageEntriesTruncated = new AtomicBoolean(false);
-        GetDataResponse getDataResponse = dataStorage.buildGetDataResponse(
-                getDataRequest,
-                MAX_ENTRIES,
-                wasPersistableNetworkPayloadsTruncated,
-                wasProtectedStorageEntriesTruncated,
-                connection.getCapabilities());
-
-        if (wasPersistableNetworkPayloadsTruncated.get()) {
-            log.warn("The getData request from peer with {} caused too much PersistableNetworkPayload " +
-                            "entries to get delivered. We limited the entries for the response to {} entries",
-                    connectionInfo, MAX_ENTRIES);
+        GetDataResponse getDataResponse;
+        if (connection.getCapabilities().containsAll(Capability.GET_DATA_RESPONSE_CHUNKS)) {
+            this.getDataRequest = getDataRequest;
+            knownHashes = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+            peerCapabilities = connection.getCapabilities();
+            minDateOfDateSortedTruncatablePayloads = dataStorage.getMinDateOfDateSortedTruncatablePayloads(
+                    getDataRequest.getVersion(), knownHashes, peerCapabilities);
+            log.info("We deliver the getDataResponse to peer with {} in chunks", connectionInfo);
+            getDataResponse = buildNextChunk();
+        } else {
+            AtomicBoolean wasPersistableNetworkPayloadsTruncated = new AtomicBoolean(false);
+            AtomicBoolean wasProtectedStorageEntriesTruncated = new AtomicBoolean(false);
+            getDataResponse = dataStorage.buildGetDataResponse(
+                    getDataRequest,
+                    MAX_ENTRIES,
+                    wasPersistableNetworkPayloadsTruncated,
+                    wasProtectedStorageEntriesTruncated,
+                    connection.getCapabilities());
+
+            if (wasPersistableNetworkPayloadsTruncated.get()) {
+                log.warn("The getData request from peer with {} caused too much PersistableNetworkPayload " +
+                                "entries to get delivered. We limited the entries for the response to {} entries",
+                        connectionInfo, MAX_ENTRIES);
+            }
+
+            if (wasProtectedStorageEntriesTruncated.get()) {
+                log.warn("The getData request from peer with {} caused too much ProtectedStorageEntry " +
+                                "entries to get delivered. We limited the entries for the response to {} entries",
+                        connectionInfo, MAX_ENTRIES);
+            }
+
+            log.info("The getDataResponse to peer with {} contains {} ProtectedStorageEntries and {} PersistableNetworkPayloads",
+                    connectionInfo,
+                    getDataResponse.getDataSet().size(),
+                    getDataResponse.getPersistableNetworkPayloadSet().size());
         }
 
-        if (wasProtectedStorageEntriesTruncated.get()) {
-            log.warn("The getData request from peer with {} caused too much ProtectedStorageEntry " +
-                            "entries to get delivered. We limited the entries for the response to {} entries",
-                    connectionInfo, MAX_ENTRIES);
+        sendResponse(getDataResponse, connection);
+        log.info("handle GetDataRequest took {} ms", System.currentTimeMillis() - ts);
+    }
+
+    public void onChunkRequest(GetDataChunkRequest getDataChunkRequest, Connection connection) {
+        if (stopped) {
+            log.warn("We have stopped already. We ignore that getDataChunkRequest.");
+            return;
+        }
+
+        if (getDataRequest == null ||
+                getDataChunkRequest.getNonce() != getDataRequest.getNonce() ||
+                getDataChunkRequest.getCursor() != nextChunkCursor) {
+            String errorMessage = "Received unexpected getDataChunkRequest " + getDataChunkRequest +
+                    ". Expected cursor=" + nextChunkCursor;
+            handleFault(errorMessage, CloseConnectionReason.RULE_VIOLATION, connection);
+            return;
         }
 
-        log.info("The getDataResponse to peer with {} contains {} ProtectedStorageEntries and {} PersistableNetworkPayloads",
-                connectionInfo,
-                getDataResponse.getDataSet().size(),
-                getDataResponse.getPersistableNetworkPayloadSet().size());
+        sendResponse(buildNextChunk(), connection);
+    }
 
-        if (timeoutTimer == null) {
-            timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
-                        String errorMessage = "A timeout occurred for getDataResponse " +
-                                " on connection:" + connection;
-                        handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
-                    },
-                    TIMEOUT, TimeUnit.SECONDS);
+    public void stop() {
+        cleanup();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We deliver the ProtectedStorageEntries first as those are required for the offer book. We request one entry
+    // more than we deliver to know if another chunk follows.
+    private GetDataResponse buildNextChunk() {
+        Set<ProtectedStorageEntry> dataSet = new HashSet<>();
+        Set<PersistableNetworkPayload> persistableNetworkPayloadSet = new HashSet<>();
+        boolean hasMoreChunks;
+        if (!protectedStorageEntriesComplete) {
+            SortedMap<P2PDataStorage.ByteArray, ProtectedStorageEntry> page = dataStorage.getProtectedStorageEntriesPage(
+                    knownHashes, peerCapabilities, lastKey, maxProtectedStorageEntriesPerChunk + 1);
+            protectedStorageEntriesComplete = page.size() <= maxProtectedStorageEntriesPerChunk;
+            if (!protectedStorageEntriesComplete)
+                page = page.headMap(page.lastKey());
+            dataSet.addAll(page.values());
+            lastKey = protectedStorageEntriesComplete ? null : page.lastKey();
+        }
+
+        if (!dataSet.isEmpty()) {
+            // The PersistableNetworkPayloads follow in the next chunks
+            hasMoreChunks = true;
+        } else {
+            SortedMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> page =
+                    dataStorage.getPersistableNetworkPayloadsPage(getDataRequest.getVersion(),
+                            knownHashes,
+                            peerCapabilities,
+                            minDateOfDateSortedTruncatablePayloads,
+                            lastKey,
+                            maxPersistableNetworkPayloadsPerChunk + 1);
+            hasMoreChunks = page.size() > maxPersistableNetworkPayloadsPerChunk;
+            if (hasMoreChunks)
+                page = page.headMap(page.lastKey());
+            persistableNetworkPayloadSet.addAll(page.values());
+            lastKey = hasMoreChunks ? page.lastKey() : null;
         }
 
+        // The cursor is the number of entries delivered so far
+        nextChunkCursor = hasMoreChunks ? nextChunkCursor + dataSet.size() + persistableNetworkPayloadSet.size() : 0;
+        log.info("We send a chunk with {} ProtectedStorageEntries and {} PersistableNetworkPayloads. nextChunkCursor={}",
+                dataSet.size(), persistableNetworkPayloadSet.size(), nextChunkCursor);
+        return new GetDataResponse(dataSet,
+                persistableNetworkPayloadSet,
+                getDataRequest.getNonce(),
+                getDataRequest instanceof GetUpdatedDataRequest,
+                nextChunkCursor);
+    }
+
+    private void sendResponse(GetDataResponse getDataResponse, Connection connection) {
+        // setup before sending to avoid race conditions. We restart the timer for each chunk.
+        stopTimeoutTimer();
+        timeoutTimer = UserThread.runAfter(() -> {
+                    String errorMessage = "A timeout occurred for getDataResponse " +
+                            " on connection:" + connection;
+                    if (getDataResponse.hasMoreChunks()) {
+                        // The peer did not request the next chunk. It might have got the data it needs from
+                        // another peer, so we do not treat that as fault.
+                        log.info(errorMessage + ". Peer did not request the next chunk.");
+                        cleanup();
+                        listener.onComplete();
+                    } else {
+                        handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
+                    }
+                },
+                TIMEOUT, TimeUnit.SECONDS);
+
         SettableFuture<Connection> future = networkNode.sendMessage(connection, getDataResponse);
         Futures.addCallback(future, new FutureCallback<>() {
             @Override
@@ -130,8 +276,11 @@ public class GetDataRequestHandler {
                 if (!stopped) {
                     log.trace("Send DataResponse to {} succeeded. getDataResponse={}",
                             connection.getPeersNodeAddressOptional(), getDataResponse);
-                    cleanup();
-                    listener.onComplete();
+                    // If more chunks are pending we wait for the next GetDataChunkRequest
+                    if (!getDataResponse.hasMoreChunks()) {
+                        cleanup();
+                        listener.onComplete();
+                    }
                 } else {
                     log.trace("We have stopped already. We ignore that networkNode.sendMessage.onSuccess call.");
                 }
@@ -149,18 +298,8 @@ public class GetDataRequestHandler {
                 }
             }
         }, MoreExecutors.directExecutor());
-        log.info("handle GetDataRequest took {} ms", System.currentTimeMillis() - ts);
     }
 
-    public void stop() {
-        cleanup();
-    }
-
-
-    ///////////////////////////////////////////////////////////////////////////////////////////
-    // Private
-    ///////////////////////////////////////////////////////////////////////////////////////////
-
     private void handleFault(String errorMessage, CloseConnectionReason closeConnectionReason, Connection connection) {
         if (!stopped) {
             log.info(errorMessage + "\n\tcloseConnectionReason=" + closeConnectionReason);
@@ -173,6 +312,11 @@ public class GetDataRequestHandler {
 
     private void cleanup() {
         stopped = true;
+        stopTimeoutTimer();
+        knownHashes = null;
+    }
+
+    private void stopTimeoutTimer() {
         if (timeoutTimer != null) {
             timeoutTimer.stop();
             timeoutTimer = null;
@@ -23,6 +23,7 @@ import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.peers.getdata.messages.GetDataChunkRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.storage.P2PDataStorage;
@@ -126,20 +127,9 @@ class RequestDataHandler implements MessageListener {
             else
                 getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
 
-            if (timeoutTimer == null) {
-                timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
-                            if (!stopped) {
-                                String errorMessage = "A timeout occurred at sending getDataRequest:" + getDataRequest +
-                                        " on nodeAddress:" + nodeAddress;
-                                log.debug(errorMessage + " / RequestDataHandler=" + RequestDataHandler.this);
-                                handleFault(errorMessage, nodeAddress, CloseConnectionReason.SEND_MSG_TIMEOUT);
-                            } else {
-                                log.trace("We have stopped already. We ignore that timeoutTimer.run call. " +
-                                        "Might be caused by a previous networkNode.sendMessage.onFailure.");
-                            }
-                        },
-                        TIMEOUT);
-            }
+            // setup before sending to avoid race conditions
+            startTimeoutTimer("A timeout occurred at sending getDataRequest:" + getDataRequest +
+                    " on nodeAddress:" + nodeAddress);
 
             getDataRequestType = getDataRequest.getClass().getSimpleName();
             log.info("We send a {} to peer {}. ", getDataRequestType, nodeAddress);
@@ -200,8 +190,13 @@ class RequestDataHandler implements MessageListener {
                         dataStorage.processGetDataResponse(getDataResponse,
                                 connection.getPeersNodeAddressOptional().get());
 
-                        cleanup();
-                        listener.onComplete();
+                        if (getDataResponse.hasMoreChunks()) {
+                            // We request the next chunk only after we have processed the last one
+                            requestNextChunk(connection, getDataResponse.getNextChunkCursor());
+                        } else {
+                            cleanup();
+                            listener.onComplete();
+                        }
                         // firstRequest = false;
                     } else {
                         log.warn("Nonce not matching. That can happen rarely if we get a response after a canceled " +
@@ -228,6 +223,46 @@ class RequestDataHandler implements MessageListener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void requestNextChunk(Connection connection, int cursor) {
+        GetDataChunkRequest getDataChunkRequest = new GetDataChunkRequest(nonce, cursor);
+        startTimeoutTimer("A timeout occurred at requesting the next chunk:" + getDataChunkRequest +
+                " on nodeAddress:" + peersNodeAddress);
+        log.info("We request the next chunk with cursor {} from peer {}", cursor, peersNodeAddress);
+        SettableFuture<Connection> future = networkNode.sendMessage(connection, getDataChunkRequest);
+        //noinspection UnstableApiUsage
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Connection connection) {
+                log.trace("Send {} to {} succeeded.", getDataChunkRequest, peersNodeAddress);
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (!stopped) {
+                    String errorMessage = "Sending getDataChunkRequest to " + peersNodeAddress +
+                            " failed.\n\tException=" + throwable.getMessage();
+                    handleFault(errorMessage, peersNodeAddress, CloseConnectionReason.SEND_MSG_FAILURE);
+                } else {
+                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onFailure call.");
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void startTimeoutTimer(String errorMessage) {
+        stopTimeoutTimer();
+        timeoutTimer = UserThread.runAfter(() -> {
+                    if (!stopped) {
+                        log.debug(errorMessage + " / RequestDataHandler=" + RequestDataHandler.this);
+                        handleFault(errorMessage, peersNodeAddress, CloseConnectionReason.SEND_MSG_TIMEOUT);
+                    } else {
+                        log.trace("We have stopped already. We ignore that timeoutTimer.run call. " +
+                                "Might be caused by a previous networkNode.sendMessage.onFailure.");
+                    }
+                },
+                TIMEOUT);
+    }
+
     private void logContents(GetDataResponse getDataResponse) {
         Set<ProtectedStorageEntry> dataSet = getDataResponse.getDataSet();
         Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getDataResponse.getPersistableNetworkPayloadSet();
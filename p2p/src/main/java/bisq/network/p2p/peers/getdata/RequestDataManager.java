@@ -24,6 +24,7 @@ import bisq.network.p2p.network.ConnectionListener;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.peers.getdata.messages.GetDataChunkRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.peerexchange.Peer;
 import bisq.network.p2p.seed.SeedNodeRepository;
@@ -311,6 +312,18 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
             } else {
                 log.warn("We have stopped already. We ignore that onMessage call.");
             }
+        } else if (networkEnvelope instanceof GetDataChunkRequest) {
+            if (!stopped) {
+                GetDataRequestHandler getDataRequestHandler = getDataRequestHandlers.get(connection.getUid());
+                if (getDataRequestHandler != null) {
+                    getDataRequestHandler.onChunkRequest((GetDataChunkRequest) networkEnvelope, connection);
+                } else {
+                    log.warn("We received a GetDataChunkRequest but have no GetDataRequestHandler for that connection. " +
+                            "The handler might have timed out already. Connection={}", connection);
+                }
+            } else {
+                log.warn("We have stopped already. We ignore that onMessage call.");
+            }
         }
     }
 
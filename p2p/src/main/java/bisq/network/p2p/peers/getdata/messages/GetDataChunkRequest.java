@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata.messages;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Requests the next chunk of a chunked GetDataResponse. The cursor is the nextChunkCursor of the last received chunk.
+ * We only request the next chunk once we have processed the last one, so the peer does not send more data than we
+ * can handle.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class GetDataChunkRequest extends NetworkEnvelope {
+    private final int nonce;
+    private final int cursor;
+
+    public GetDataChunkRequest(int nonce, int cursor) {
+        this(nonce, cursor, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private GetDataChunkRequest(int nonce, int cursor, int messageVersion) {
+        super(messageVersion);
+        this.nonce = nonce;
+        this.cursor = cursor;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setGetDataChunkRequest(protobuf.GetDataChunkRequest.newBuilder()
+                        .setNonce(nonce)
+                        .setCursor(cursor))
+                .build();
+    }
+
+    public static GetDataChunkRequest fromProto(protobuf.GetDataChunkRequest proto, int messageVersion) {
+        return new GetDataChunkRequest(proto.getNonce(), proto.getCursor(), messageVersion);
+    }
+}
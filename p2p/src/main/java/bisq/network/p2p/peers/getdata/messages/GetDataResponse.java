@@ -56,15 +56,29 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     private final boolean isGetUpdatedDataResponse;
     private final Capabilities supportedCapabilities;
 
+    // Added at v1.5.x
+    // If the response is sent in chunks the cursor for requesting the next chunk with a GetDataChunkRequest.
+    // 0 if it is the last or only chunk.
+    private final int nextChunkCursor;
+
     public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
                            @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                            int requestNonce,
                            boolean isGetUpdatedDataResponse) {
+        this(dataSet, persistableNetworkPayloadSet, requestNonce, isGetUpdatedDataResponse, 0);
+    }
+
+    public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
+                           @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           int nextChunkCursor) {
         this(dataSet,
                 persistableNetworkPayloadSet,
                 requestNonce,
                 isGetUpdatedDataResponse,
                 Capabilities.app,
+                nextChunkCursor,
                 Version.getP2PMessageVersion());
     }
 
@@ -77,6 +91,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
                             @NotNull Capabilities supportedCapabilities,
+                            int nextChunkCursor,
                             int messageVersion) {
         super(messageVersion);
 
@@ -85,6 +100,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.supportedCapabilities = supportedCapabilities;
+        this.nextChunkCursor = nextChunkCursor;
     }
 
     @Override
@@ -105,7 +121,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                         .collect(Collectors.toList()))
                 .setRequestNonce(requestNonce)
                 .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
-                .addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities));
+                .addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities))
+                .setNextChunkCursor(nextChunkCursor);
 
         protobuf.NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetDataResponse(builder)
@@ -127,9 +144,14 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
+                proto.getNextChunkCursor(),
                 messageVersion);
     }
 
+    public boolean hasMoreChunks() {
+        return nextChunkCursor > 0;
+    }
+
     @Override
     public Class<? extends InitialDataRequest> associatedRequest() {
         return isGetUpdatedDataResponse ? GetUpdatedDataRequest.class : PreliminaryGetDataRequest.class;
@@ -21,6 +21,7 @@ import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
+import bisq.network.p2p.network.InboundEnvelopeFilter;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.BroadcastHandler;
@@ -34,11 +35,13 @@ import bisq.network.p2p.storage.messages.AddOncePayload;
 import bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RefreshOffersMessage;
 import bisq.network.p2p.storage.messages.RemoveDataMessage;
 import bisq.network.p2p.storage.messages.RemoveMailboxDataMessage;
 import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 import bisq.network.p2p.storage.payload.DateSortedTruncatablePayload;
 import bisq.network.p2p.storage.payload.DateTolerantPayload;
+import bisq.network.p2p.storage.payload.ExpirablePayload;
 import bisq.network.p2p.storage.payload.MailboxStoragePayload;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProcessOncePersistableNetworkPayload;
@@ -78,6 +81,8 @@ import javax.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
+import com.google.common.math.LongMath;
+import com.google.common.primitives.UnsignedBytes;
 
 import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.monadic.MonadicBinding;
@@ -100,12 +105,16 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -116,7 +125,7 @@ import lombok.extern.slf4j.Slf4j;
 import javax.annotation.Nullable;
 
 @Slf4j
-public class P2PDataStorage implements MessageListener, ConnectionListener, PersistedDataHost {
+public class P2PDataStorage implements MessageListener, ConnectionListener, InboundEnvelopeFilter, PersistedDataHost {
     /**
      * How many days to keep an entry before it is purged.
      */
@@ -126,6 +135,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @VisibleForTesting
     public static final int CHECK_TTL_INTERVAL_SEC = 60;
 
+    // Order of the pages of chunked GetDataResponses
+    private static final Comparator<ByteArray> KEY_COMPARATOR =
+            (o1, o2) -> UnsignedBytes.lexicographicalComparator().compare(o1.bytes, o2.bytes);
+
     private boolean initialRequestApplied = false;
 
     private final Broadcaster broadcaster;
@@ -143,6 +156,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @VisibleForTesting
     final SequenceNumberMap sequenceNumberMap = new SequenceNumberMap();
 
+    // Expiration dates of the expirable entries in our map, so housekeeping only needs to look at expired entries
+    private final TimestampIndex<ByteArray> expirationIndex = new TimestampIndex<>();
+    // Timestamps of the sequenceNumberMap entries, so purging only needs to look at the outdated entries
+    private final TimestampIndex<ByteArray> sequenceNumberTimestampIndex = new TimestampIndex<>();
+
     private final Set<AppendOnlyDataStoreListener> appendOnlyDataStoreListeners = new CopyOnWriteArraySet<>();
     private final RemovedPayloadsService removedPayloadsService;
     private final Clock clock;
@@ -180,6 +198,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         networkNode.addMessageListener(this);
         networkNode.addConnectionListener(this);
+        networkNode.setInboundEnvelopeFilter(this);
 
         this.persistenceManager.initialize(sequenceNumberMap, PersistenceManager.Source.PRIVATE_LOW_PRIO);
     }
@@ -192,7 +211,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Override
     public void readPersisted(Runnable completeHandler) {
         persistenceManager.readPersisted(persisted -> {
-                    sequenceNumberMap.setMap(getPurgedSequenceNumberMap(persisted.getMap()));
+                    setSequenceNumberMap(getPurgedSequenceNumberMap(persisted.getMap()));
                     completeHandler.run();
                 },
                 completeHandler);
@@ -203,12 +222,26 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void readPersistedSync() {
         SequenceNumberMap persisted = persistenceManager.getPersisted();
         if (persisted != null) {
-            sequenceNumberMap.setMap(getPurgedSequenceNumberMap(persisted.getMap()));
+            setSequenceNumberMap(getPurgedSequenceNumberMap(persisted.getMap()));
         }
     }
 
-    // Threading is done on the persistenceManager level
+    // Threading is done on the persistenceManager level.
+    // Reading can be started early at startup, so later calls only register their completeHandler.
     public void readFromResources(String postFix, Runnable completeHandler) {
+        if (readFromResourcesCompleteBinding != null) {
+            if (readFromResourcesCompleteBinding.getValue()) {
+                completeHandler.run();
+            } else {
+                readFromResourcesCompleteBinding.subscribe((observable, oldValue, newValue) -> {
+                    if (newValue) {
+                        completeHandler.run();
+                    }
+                });
+            }
+            return;
+        }
+
         BooleanProperty appendOnlyDataStoreServiceReady = new SimpleBooleanProperty();
         BooleanProperty protectedDataStoreServiceReady = new SimpleBooleanProperty();
         BooleanProperty resourceDataStoreServiceReady = new SimpleBooleanProperty();
@@ -217,15 +250,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 protectedDataStoreServiceReady,
                 resourceDataStoreServiceReady,
                 (a, b, c) -> a && b && c);
+        long ts = System.currentTimeMillis();
         readFromResourcesCompleteBinding.subscribe((observable, oldValue, newValue) -> {
             if (newValue) {
+                log.info("Reading data stores from resources took {} ms", System.currentTimeMillis() - ts);
                 completeHandler.run();
             }
         });
 
         appendOnlyDataStoreService.readFromResources(postFix, () -> appendOnlyDataStoreServiceReady.set(true));
         protectedDataStoreService.readFromResources(postFix, () -> {
-            map.putAll(protectedDataStoreService.getMap());
+            protectedDataStoreService.getMap().forEach(this::putToMap);
             protectedDataStoreServiceReady.set(true);
         });
         resourceDataStoreService.readFromResources(postFix, () -> resourceDataStoreServiceReady.set(true));
@@ -238,7 +273,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         protectedDataStoreService.readFromResourcesSync(postFix);
         resourceDataStoreService.readFromResourcesSync(postFix);
 
-        map.putAll(protectedDataStoreService.getMap());
+        protectedDataStoreService.getMap().forEach(this::putToMap);
     }
 
     // We get added mailbox message data from MailboxMessageService. We want to add those early so we can get it added
@@ -246,7 +281,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void addProtectedMailboxStorageEntryToMap(ProtectedStorageEntry protectedStorageEntry) {
         ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
         ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
-        map.put(hashOfPayload, protectedStorageEntry);
+        putToMap(hashOfPayload, protectedStorageEntry);
         log.trace("## addProtectedMailboxStorageEntryToMap hashOfPayload={}, map={}", hashOfPayload, printMap());
     }
 
@@ -351,6 +386,118 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Pages of chunked GetDataResponses
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The pages are ordered by key. For each page we iterate the maps again and only keep the entries of the page, so
+    // the memory usage is bounded by the page size and not by the size of the whole response. Entries which got added
+    // or removed in between two pages are covered by the regular broadcasts.
+
+    /**
+     * Returns up to pageSize ProtectedStorageEntries not known by the peer, with keys greater than afterKey.
+     */
+    public SortedMap<ByteArray, ProtectedStorageEntry> getProtectedStorageEntriesPage(Set<ByteArray> knownHashes,
+                                                                                      Capabilities peerCapabilities,
+                                                                                      @Nullable ByteArray afterKey,
+                                                                                      int pageSize) {
+        return getPage(Collections.singletonList(map),
+                entry -> !knownHashes.contains(entry.getKey()) &&
+                        shouldTransmitPayloadToPeer(peerCapabilities, entry.getValue().getProtectedStoragePayload()),
+                afterKey,
+                pageSize);
+    }
+
+    /**
+     * Returns up to pageSize PersistableNetworkPayloads not known by the peer, with keys greater than afterKey.
+     * DateSortedTruncatablePayloads are only included if they are not older than
+     * minDateOfDateSortedTruncatablePayloads.
+     */
+    public SortedMap<ByteArray, PersistableNetworkPayload> getPersistableNetworkPayloadsPage(
+            @Nullable String requestersVersion,
+            Set<ByteArray> knownHashes,
+            Capabilities peerCapabilities,
+            long minDateOfDateSortedTruncatablePayloads,
+            @Nullable ByteArray afterKey,
+            int pageSize) {
+        return getPage(getMapsForDataResponse(requestersVersion),
+                entry -> {
+                    PersistableNetworkPayload payload = entry.getValue();
+                    return !knownHashes.contains(entry.getKey()) &&
+                            (!(payload instanceof DateSortedTruncatablePayload) ||
+                                    ((DateSortedTruncatablePayload) payload).getDate().getTime() >=
+                                            minDateOfDateSortedTruncatablePayloads) &&
+                            shouldTransmitPayloadToPeer(peerCapabilities, payload);
+                },
+                afterKey,
+                pageSize);
+    }
+
+    /**
+     * As in buildGetDataResponse we only deliver the newest maxItems DateSortedTruncatablePayloads. Returns the date
+     * of the oldest one we deliver. Payloads with the same date as that one are delivered as well.
+     */
+    public long getMinDateOfDateSortedTruncatablePayloads(@Nullable String requestersVersion,
+                                                          Set<ByteArray> knownHashes,
+                                                          Capabilities peerCapabilities) {
+        // Min-heap with the dates of the newest maxItems payloads
+        PriorityQueue<Long> newestDates = new PriorityQueue<>();
+        int maxItems = Integer.MAX_VALUE;
+        for (Map<ByteArray, PersistableNetworkPayload> map : getMapsForDataResponse(requestersVersion)) {
+            for (Map.Entry<ByteArray, PersistableNetworkPayload> entry : map.entrySet()) {
+                if (!(entry.getValue() instanceof DateSortedTruncatablePayload) ||
+                        knownHashes.contains(entry.getKey()) ||
+                        !shouldTransmitPayloadToPeer(peerCapabilities, entry.getValue()))
+                    continue;
+
+                DateSortedTruncatablePayload payload = (DateSortedTruncatablePayload) entry.getValue();
+                maxItems = payload.maxItems();
+                newestDates.add(payload.getDate().getTime());
+                if (newestDates.size() > maxItems)
+                    newestDates.poll();
+            }
+        }
+        return newestDates.size() < maxItems ? Long.MIN_VALUE : newestDates.peek();
+    }
+
+    @VisibleForTesting
+    static <T> SortedMap<ByteArray, T> getPage(Collection<Map<ByteArray, T>> maps,
+                                               Predicate<Map.Entry<ByteArray, T>> filter,
+                                               @Nullable ByteArray afterKey,
+                                               int pageSize) {
+        TreeMap<ByteArray, T> page = new TreeMap<>(KEY_COMPARATOR);
+        maps.forEach(map -> map.entrySet().forEach(entry -> {
+            ByteArray key = entry.getKey();
+            // We check the cheap key comparisons before the filter
+            if (afterKey != null && KEY_COMPARATOR.compare(key, afterKey) <= 0)
+                return;
+            if (page.size() == pageSize && KEY_COMPARATOR.compare(key, page.lastKey()) >= 0)
+                return;
+            if (!filter.test(entry))
+                return;
+
+            page.put(key, entry.getValue());
+            if (page.size() > pageSize)
+                page.pollLastEntry();
+        }));
+        return page;
+    }
+
+    private List<Map<ByteArray, PersistableNetworkPayload>> getMapsForDataResponse(@Nullable String requestersVersion) {
+        List<Map<ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
+        appendOnlyDataStoreService.getServices().forEach(service -> {
+            if (service instanceof HistoricalDataStoreService) {
+                var historicalDataStoreService = (HistoricalDataStoreService<? extends PersistableNetworkPayloadStore>) service;
+                maps.addAll(historicalDataStoreService.getMapsSinceVersion(requestersVersion));
+            } else {
+                maps.add(service.getMap());
+            }
+        });
+        return maps;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Utils for collecting the exclude hashes
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -521,7 +668,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // We only process PersistableNetworkPayloads implementing ProcessOncePersistableNetworkPayload once. It can cause performance
         // issues and since the data is rarely out of sync it is not worth it to apply them from multiple peers during
         // startup.
-        initialRequestApplied = true;
+        // A chunked response is applied completely only with its last chunk
+        if (!getDataResponse.hasMoreChunks())
+            initialRequestApplied = true;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -540,10 +689,21 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // object when we get it sent from new peers, we don’t remove the sequence number from the map.
         // That way an ADD message for an already expired data will fail because the sequence number
         // is equal and not larger as expected.
-        ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList =
-                map.entrySet().stream()
-                        .filter(entry -> entry.getValue().isExpired(this.clock))
-                        .collect(Collectors.toCollection(ArrayList::new));
+        // We only look at the entries whose expiration date has passed according to our expiration index.
+        List<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList = new ArrayList<>();
+        expirationIndex.pollBefore(this.clock.millis()).forEach(hashOfPayload -> {
+            ProtectedStorageEntry protectedStorageEntry = map.get(hashOfPayload);
+            if (protectedStorageEntry == null)
+                return;
+
+            if (protectedStorageEntry.isExpired(this.clock)) {
+                toRemoveList.add(Maps.immutableEntry(hashOfPayload, protectedStorageEntry));
+            } else {
+                // Should not happen as we update the index at each change, but we do not want to lose the entry
+                // from the index in case it has not been updated.
+                indexExpiration(hashOfPayload, protectedStorageEntry);
+            }
+        });
 
         // Batch processing can cause performance issues, so do all of the removes first, then update the listeners
         // to let them know about the removes.
@@ -555,9 +715,15 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
         removeFromMapAndDataStore(toRemoveList);
 
+        // We only look at the entries older than PURGE_AGE_DAYS, so the costs do not depend on the size of the
+        // sequenceNumberMap.
         if (sequenceNumberMap.size() > this.maxSequenceNumberMapSizeBeforePurge) {
-            sequenceNumberMap.setMap(getPurgedSequenceNumberMap(sequenceNumberMap.getMap()));
-            requestPersistence();
+            long maxAgeTs = this.clock.millis() - TimeUnit.DAYS.toMillis(PURGE_AGE_DAYS);
+            List<ByteArray> purged = sequenceNumberTimestampIndex.pollBefore(maxAgeTs + 1);
+            if (!purged.isEmpty()) {
+                purged.forEach(sequenceNumberMap.getMap()::remove);
+                requestPersistence();
+            }
         }
     }
 
@@ -589,6 +755,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     remove(((RemoveMailboxDataMessage) networkEnvelope).getProtectedMailboxStorageEntry(), peersNodeAddress);
                 } else if (networkEnvelope instanceof RefreshOfferMessage) {
                     refreshTTL((RefreshOfferMessage) networkEnvelope, peersNodeAddress);
+                } else if (networkEnvelope instanceof RefreshOffersMessage) {
+                    refreshTTL((RefreshOffersMessage) networkEnvelope, peersNodeAddress);
                 } else if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage) {
                     addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload(),
                             peersNodeAddress, true, false, true);
@@ -598,6 +766,38 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // InboundEnvelopeFilter implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Called from the connection threads before the envelope gets converted to domain objects. We only read the
+     * concurrent maps. For an AddDataMessage of a payload we have already, with a sequence number which has not
+     * increased, addProtectedStorageEntry would return without any effect.
+     * The hash over the received payload bytes matches our hash over the serialized payload unless the sender
+     * serialized it differently, in which case the message takes the normal path.
+     */
+    @Override
+    public boolean isRedundant(protobuf.NetworkEnvelope proto) {
+        if (!proto.hasAddDataMessage())
+            return false;
+
+        protobuf.StorageEntryWrapper entryWrapper = proto.getAddDataMessage().getEntry();
+        protobuf.ProtectedStorageEntry entry = entryWrapper.hasProtectedMailboxStorageEntry() ?
+                entryWrapper.getProtectedMailboxStorageEntry().getEntry() :
+                entryWrapper.getProtectedStorageEntry();
+        if (!entry.hasStoragePayload())
+            return false;
+
+        ByteArray hashOfPayload = new ByteArray(Hash.getSha256Hash(entry.getStoragePayload().toByteArray()));
+        if (!map.containsKey(hashOfPayload))
+            return false;
+
+        MapValue sequenceNumberMapValue = sequenceNumberMap.get(hashOfPayload);
+        return sequenceNumberMapValue != null && entry.getSequenceNumber() <= sequenceNumberMapValue.sequenceNr;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // ConnectionListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -617,10 +817,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         NodeAddress peersNodeAddress = connection.getPeersNodeAddressOptional().get();
 
         // Backdate all the eligible payloads based on the node that disconnected
-        map.values().stream()
-                .filter(protectedStorageEntry -> protectedStorageEntry.getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload)
-                .filter(protectedStorageEntry -> ((RequiresOwnerIsOnlinePayload) protectedStorageEntry.getProtectedStoragePayload()).getOwnerNodeAddress().equals(peersNodeAddress))
-                .forEach(protectedStorageEntry -> {
+        map.entrySet().stream()
+                .filter(entry -> entry.getValue().getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload)
+                .filter(entry -> ((RequiresOwnerIsOnlinePayload) entry.getValue().getProtectedStoragePayload()).getOwnerNodeAddress().equals(peersNodeAddress))
+                .forEach(entry -> {
+                    ProtectedStorageEntry protectedStorageEntry = entry.getValue();
                     // We only set the data back by half of the TTL and remove the data only if is has
                     // expired after that back dating.
                     // We might get connection drops which are not caused by the node going offline, so
@@ -632,6 +833,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     // Usually the are: SOCKET_TIMEOUT ,TERMINATED (EOFException)
                     log.debug("Backdating {} due to closeConnectionReason={}", protectedStorageEntry, closeConnectionReason);
                     protectedStorageEntry.backDate();
+                    indexExpiration(entry.getKey(), protectedStorageEntry);
                 });
     }
 
@@ -788,11 +990,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
 
         // This is an updated entry. Record it and signal listeners.
-        map.put(hashOfPayload, protectedStorageEntry);
+        putToMap(hashOfPayload, protectedStorageEntry);
         hashMapChangedListeners.forEach(e -> e.onAdded(Collections.singletonList(protectedStorageEntry)));
 
         // Record the updated sequence number and persist it. Higher delay so we can batch more items.
-        sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
+        putSequenceNumber(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
         requestPersistence();
 
         log.trace("## ProtectedStorageEntry added to map. hash={}, map={}", hashOfPayload, printMap());
@@ -849,17 +1051,62 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      */
     public boolean refreshTTL(RefreshOfferMessage refreshTTLMessage,
                               @Nullable NodeAddress sender) {
+        if (!applyRefreshTTL(refreshTTLMessage))
+            return false;
+
+        requestPersistence();
+
+        // Always broadcast refreshes
+        broadcaster.broadcast(refreshTTLMessage, sender);
+
+        return true;
+    }
+
+    /**
+     * Applies all refreshes of the batch which are valid, requests persistence once and broadcasts the applied
+     * refreshes as one message. Invalid refreshes are dropped the same way as if they had been sent individually.
+     *
+     * @param refreshOffersMessage refreshOffersMessage containing the updates
+     * @param sender local NodeAddress, if available
+     * @return the number of refreshes which have been applied and broadcast
+     */
+    public int refreshTTL(RefreshOffersMessage refreshOffersMessage,
+                          @Nullable NodeAddress sender) {
+        List<RefreshOfferMessage> refreshOfferMessages = refreshOffersMessage.getRefreshOfferMessages();
+        if (refreshOfferMessages.size() > RefreshOffersMessage.MAX_ENTRIES) {
+            log.warn("We received a RefreshOffersMessage with {} entries which exceeds the limit of {}. We ignore it.",
+                    refreshOfferMessages.size(), RefreshOffersMessage.MAX_ENTRIES);
+            return 0;
+        }
 
+        List<RefreshOfferMessage> applied = refreshOfferMessages.stream()
+                .filter(this::applyRefreshTTL)
+                .collect(Collectors.toList());
+        if (applied.isEmpty())
+            return 0;
+
+        requestPersistence();
+
+        if (applied.size() == refreshOfferMessages.size())
+            broadcaster.broadcast(refreshOffersMessage, sender);
+        else if (applied.size() == 1)
+            broadcaster.broadcast(applied.get(0), sender);
+        else
+            broadcaster.broadcast(new RefreshOffersMessage(applied), sender);
+
+        return applied.size();
+    }
+
+    private boolean applyRefreshTTL(RefreshOfferMessage refreshTTLMessage) {
         ByteArray hashOfPayload = new ByteArray(refreshTTLMessage.getHashOfPayload());
-        ProtectedStorageEntry storedData = map.get(hashOfPayload);
+        ProtectedStorageEntry storedEntry = map.get(hashOfPayload);
 
-        if (storedData == null) {
+        if (storedEntry == null) {
             log.debug("We don't have data for that refresh message in our map. That is expected if we missed the data publishing.");
 
             return false;
         }
 
-        ProtectedStorageEntry storedEntry = map.get(hashOfPayload);
         ProtectedStorageEntry updatedEntry = new ProtectedStorageEntry(
                 storedEntry.getProtectedStoragePayload(),
                 storedEntry.getOwnerPubKey(),
@@ -877,14 +1124,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             return false;
 
         // Update the hash map with the updated entry
-        map.put(hashOfPayload, updatedEntry);
-
-        // Record the latest sequence number and persist it
-        sequenceNumberMap.put(hashOfPayload, new MapValue(updatedEntry.getSequenceNumber(), this.clock.millis()));
-        requestPersistence();
+        putToMap(hashOfPayload, updatedEntry);
 
-        // Always broadcast refreshes
-        broadcaster.broadcast(refreshTTLMessage, sender);
+        // Record the latest sequence number
+        putSequenceNumber(hashOfPayload, new MapValue(updatedEntry.getSequenceNumber(), this.clock.millis()));
 
         return true;
     }
@@ -916,7 +1159,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             return false;
 
         // Record the latest sequence number and persist it
-        sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
+        putSequenceNumber(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
         requestPersistence();
 
         // Update that we have seen this AddOncePayload so the next time it is seen it fails verification
@@ -1025,6 +1268,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
             log.trace("## removeFromMapAndDataStore: hashOfPayload={}, map before remove={}", hashOfPayload, printMap());
             map.remove(hashOfPayload);
+            expirationIndex.remove(hashOfPayload);
             log.trace("## removeFromMapAndDataStore: map after remove={}", printMap());
 
             // We inform listeners even the entry was not found in our map
@@ -1041,6 +1285,31 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         hashMapChangedListeners.forEach(e -> e.onRemoved(removedProtectedStorageEntries));
     }
 
+    private void putToMap(ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        map.put(hashOfPayload, protectedStorageEntry);
+        indexExpiration(hashOfPayload, protectedStorageEntry);
+    }
+
+    // Must be called again if the creationTimeStamp of the entry got changed
+    private void indexExpiration(ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+        if (protectedStoragePayload instanceof ExpirablePayload) {
+            long ttl = ((ExpirablePayload) protectedStoragePayload).getTTL();
+            expirationIndex.put(hashOfPayload, LongMath.saturatedAdd(protectedStorageEntry.getCreationTimeStamp(), ttl));
+        }
+    }
+
+    private void putSequenceNumber(ByteArray hashOfPayload, MapValue mapValue) {
+        sequenceNumberMap.put(hashOfPayload, mapValue);
+        sequenceNumberTimestampIndex.put(hashOfPayload, mapValue.timeStamp);
+    }
+
+    private void setSequenceNumberMap(Map<ByteArray, MapValue> map) {
+        sequenceNumberMap.setMap(map);
+        sequenceNumberTimestampIndex.clear();
+        map.forEach((hashOfPayload, mapValue) -> sequenceNumberTimestampIndex.put(hashOfPayload, mapValue.timeStamp));
+    }
+
     private boolean hasSequenceNrIncreased(int newSequenceNumber, ByteArray hashOfData) {
         if (sequenceNumberMap.containsKey(hashOfData)) {
             int storedSequenceNumber = sequenceNumberMap.get(hashOfData).sequenceNr;
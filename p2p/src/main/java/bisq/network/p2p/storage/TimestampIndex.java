@@ -0,0 +1,113 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Min-heap of keys ordered by a timestamp, used for finding the keys whose timestamp has passed without scanning
+ * all keys. Updating or removing a key does not touch the heap, outdated heap items get dropped when they are
+ * polled or when the heap is compacted.
+ *
+ * Methods are synchronized as the indexed maps are concurrent maps, though they are usually only accessed from the
+ * user thread.
+ */
+class TimestampIndex<K> {
+    // We rebuild the heap if it contains more than twice as many items as there are keys plus that value
+    private static final int COMPACTION_SLACK = 1000;
+
+    private static class Item<K> implements Comparable<Item<K>> {
+        private final K key;
+        private final long timestamp;
+
+        Item(K key, long timestamp) {
+            this.key = key;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public int compareTo(Item<K> other) {
+            return Long.compare(timestamp, other.timestamp);
+        }
+    }
+
+    private final PriorityQueue<Item<K>> heap = new PriorityQueue<>();
+    private final Map<K, Long> timestampByKey = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized void put(K key, long timestamp) {
+        Long previous = timestampByKey.put(key, timestamp);
+        if (previous != null && previous == timestamp)
+            return;
+
+        heap.add(new Item<>(key, timestamp));
+        maybeCompact();
+    }
+
+    synchronized void remove(K key) {
+        timestampByKey.remove(key);
+        maybeCompact();
+    }
+
+    /**
+     * Removes and returns all keys with a timestamp lower than the given limit.
+     */
+    synchronized List<K> pollBefore(long limit) {
+        List<K> result = new ArrayList<>();
+        while (!heap.isEmpty() && heap.peek().timestamp < limit) {
+            Item<K> item = heap.poll();
+            Long timestamp = timestampByKey.get(item.key);
+            // Items of removed or updated keys are outdated
+            if (timestamp != null && timestamp == item.timestamp) {
+                timestampByKey.remove(item.key);
+                result.add(item.key);
+            }
+        }
+        return result;
+    }
+
+    synchronized void clear() {
+        heap.clear();
+        timestampByKey.clear();
+    }
+
+    synchronized int size() {
+        return timestampByKey.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void maybeCompact() {
+        if (heap.size() <= 2 * timestampByKey.size() + COMPACTION_SLACK)
+            return;
+
+        heap.clear();
+        timestampByKey.forEach((key, timestamp) -> heap.add(new Item<>(key, timestamp)));
+    }
+}
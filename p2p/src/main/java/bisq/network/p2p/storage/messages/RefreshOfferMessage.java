@@ -59,11 +59,16 @@ public final class RefreshOfferMessage extends BroadcastMessage {
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
         return getNetworkEnvelopeBuilder()
-                .setRefreshOfferMessage(protobuf.RefreshOfferMessage.newBuilder()
-                        .setHashOfDataAndSeqNr(ByteString.copyFrom(hashOfDataAndSeqNr))
-                        .setSignature(ByteString.copyFrom(signature))
-                        .setHashOfPayload(ByteString.copyFrom(hashOfPayload))
-                        .setSequenceNumber(sequenceNumber))
+                .setRefreshOfferMessage(toProtoRefreshOfferMessage())
+                .build();
+    }
+
+    protobuf.RefreshOfferMessage toProtoRefreshOfferMessage() {
+        return protobuf.RefreshOfferMessage.newBuilder()
+                .setHashOfDataAndSeqNr(ByteString.copyFrom(hashOfDataAndSeqNr))
+                .setSignature(ByteString.copyFrom(signature))
+                .setHashOfPayload(ByteString.copyFrom(hashOfPayload))
+                .setSequenceNumber(sequenceNumber)
                 .build();
     }
 
@@ -0,0 +1,88 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.messages;
+
+import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
+
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.app.Version;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Batch of TTL refreshes for the offers of one maker. Carries the same data as the individual RefreshOfferMessages
+ * but is processed by the receiver in one pass with only one persistence request and one broadcast.
+ *
+ * Only sent to peers supporting Capability.REFRESH_OFFERS_BATCH. Peers without that capability get the contained
+ * RefreshOfferMessages instead (see BroadcastHandler).
+ */
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class RefreshOffersMessage extends BroadcastMessage implements CapabilityRequiringPayload {
+    // Each entry has about 120 bytes, so a full batch stays well below the size of a small network message.
+    public static final int MAX_ENTRIES = 500;
+
+    private final List<RefreshOfferMessage> refreshOfferMessages;
+
+    public RefreshOffersMessage(List<RefreshOfferMessage> refreshOfferMessages) {
+        this(refreshOfferMessages, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private RefreshOffersMessage(List<RefreshOfferMessage> refreshOfferMessages, int messageVersion) {
+        super(messageVersion);
+        this.refreshOfferMessages = refreshOfferMessages;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setRefreshOffersMessage(protobuf.RefreshOffersMessage.newBuilder()
+                        .addAllRefreshOfferMessages(refreshOfferMessages.stream()
+                                .map(RefreshOfferMessage::toProtoRefreshOfferMessage)
+                                .collect(Collectors.toList())))
+                .build();
+    }
+
+    public static RefreshOffersMessage fromProto(protobuf.RefreshOffersMessage proto, int messageVersion) {
+        List<RefreshOfferMessage> refreshOfferMessages = new ArrayList<>(proto.getRefreshOfferMessagesCount());
+        proto.getRefreshOfferMessagesList().forEach(e ->
+                refreshOfferMessages.add(RefreshOfferMessage.fromProto(e, messageVersion)));
+        return new RefreshOffersMessage(refreshOfferMessages, messageVersion);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public Capabilities getRequiredCapabilities() {
+        return new Capabilities(Capability.REFRESH_OFFERS_BATCH);
+    }
+}
@@ -28,7 +28,9 @@ import com.google.common.collect.ImmutableMap;
 
 import java.io.File;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -63,8 +65,19 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     // We give back a map of our live map and all historical maps newer than the requested version.
     // If requestersVersion is null we return all historical data.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapSinceVersion(String requestersVersion) {
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>();
+        getMapsSinceVersion(requestersVersion).forEach(result::putAll);
+        log.info("We found {} entries since requesters version {}",
+                result.size(), requestersVersion);
+        return result;
+    }
+
+    // Same as getMapSinceVersion but without copying the maps. The live map is the first element.
+    public List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> getMapsSinceVersion(
+            String requestersVersion) {
         // We add all our live data
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(store.getMap());
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> result = new ArrayList<>();
+        result.add(store.getMap());
 
         // If we have a store with a newer version than the requesters version we will add those as well.
         storesByVersion.entrySet().stream()
@@ -88,10 +101,7 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                     return newVersion;
                 })
                 .map(e -> e.getValue().getMap())
-                .forEach(result::putAll);
-
-        log.info("We found {} entries since requesters version {}",
-                result.size(), requestersVersion);
+                .forEach(result::add);
         return result;
     }
 
@@ -142,29 +152,27 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     }
 
 
+    // The live store and the historical stores are read concurrently. As the live data gets pruned with the
+    // historical data we prune only once all stores have been read.
     @Override
     protected void readFromResources(String postFix, Runnable completeHandler) {
+        Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion = new HashMap<>();
+        AtomicInteger numPending = new AtomicInteger(Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.size() + 1);
+        Runnable onStoreRead = () -> {
+            if (numPending.decrementAndGet() == 0) {
+                onAllStoresRead(storesByVersion);
+                completeHandler.run();
+            }
+        };
+
         readStore(persisted -> {
             log.info("We have created the {} store for the live data and filled it with {} entries from the persisted data.",
                     getFileName(), getMapOfLiveData().size());
-
-            // Now we add our historical data stores.
-            Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads = new HashMap<>();
-            Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion = new HashMap<>();
-            AtomicInteger numFiles = new AtomicInteger(Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.size());
-            Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.forEach(version -> readHistoricalStoreFromResources(version,
-                    postFix,
-                    allHistoricalPayloads,
-                    storesByVersion,
-                    () -> {
-                        if (numFiles.decrementAndGet() == 0) {
-                            // At last iteration we set the immutable map
-                            this.allHistoricalPayloads = ImmutableMap.copyOf(allHistoricalPayloads);
-                            this.storesByVersion = ImmutableMap.copyOf(storesByVersion);
-                            completeHandler.run();
-                        }
-                    }));
+            onStoreRead.run();
         });
+
+        Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.forEach(version ->
+                readHistoricalStoreFromResources(version, postFix, storesByVersion, onStoreRead));
     }
 
 
@@ -174,22 +182,31 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
 
     private void readHistoricalStoreFromResources(String version,
                                                   String postFix,
-                                                  Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads,
                                                   Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion,
                                                   Runnable completeHandler) {
-
         String fileName = getFileName() + "_" + version;
-        boolean wasCreatedFromResources = makeFileFromResourceFile(fileName, postFix);
-
-        // If resource file does not exist we do not create a new store as it would never get filled.
-        persistenceManager.readPersisted(fileName, persisted -> {
-                    storesByVersion.put(version, persisted);
-                    allHistoricalPayloads.putAll(persisted.getMap());
-                    log.info("We have read from {} {} historical items.", fileName, persisted.getMap().size());
-                    pruneStore(persisted, version);
-                    completeHandler.run();
-                },
-                completeHandler::run);
+        // Copying the resource file can take a while, so we do it on the read thread pool as well.
+        PersistenceManager.getReadExecutor().execute(() -> {
+            makeFileFromResourceFile(fileName, postFix);
+
+            // If resource file does not exist we do not create a new store as it would never get filled.
+            persistenceManager.readPersisted(fileName, persisted -> {
+                        storesByVersion.put(version, persisted);
+                        log.info("We have read from {} {} historical items.", fileName, persisted.getMap().size());
+                        completeHandler.run();
+                    },
+                    completeHandler);
+        });
+    }
+
+    private void onAllStoresRead(Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion) {
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads = new HashMap<>();
+        storesByVersion.forEach((version, historicalStore) -> {
+            allHistoricalPayloads.putAll(historicalStore.getMap());
+            pruneStore(historicalStore, version);
+        });
+        this.allHistoricalPayloads = ImmutableMap.copyOf(allHistoricalPayloads);
+        this.storesByVersion = ImmutableMap.copyOf(storesByVersion);
     }
 
     private void pruneStore(PersistableNetworkPayloadStore<? extends PersistableNetworkPayload> historicalStore,
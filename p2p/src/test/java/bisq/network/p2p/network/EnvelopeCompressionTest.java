@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EnvelopeCompressionTest {
+
+    private static protobuf.NetworkEnvelope getBundle(int numPings) {
+        protobuf.BundleOfEnvelopes.Builder bundle = protobuf.BundleOfEnvelopes.newBuilder();
+        for (int i = 0; i < numPings; i++) {
+            bundle.addEnvelopes(protobuf.NetworkEnvelope.newBuilder()
+                    .setPing(protobuf.Ping.newBuilder().setNonce(i % 16).setLastRoundTripTime(100)));
+        }
+        return protobuf.NetworkEnvelope.newBuilder().setBundleOfEnvelopes(bundle).build();
+    }
+
+    @Test
+    public void testSmallEnvelopeIsNotCompressed() throws InvalidProtocolBufferException {
+        protobuf.NetworkEnvelope proto = getBundle(10);
+        Assert.assertSame(proto, EnvelopeCompression.maybeCompress(proto));
+        Assert.assertSame(proto, EnvelopeCompression.maybeDecompress(proto, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testRoundTrip() throws InvalidProtocolBufferException {
+        protobuf.NetworkEnvelope proto = getBundle(10_000);
+        Assert.assertTrue(proto.getSerializedSize() >= EnvelopeCompression.COMPRESSION_THRESHOLD);
+
+        protobuf.NetworkEnvelope compressed = EnvelopeCompression.maybeCompress(proto);
+        Assert.assertTrue(compressed.hasCompressedEnvelope());
+        Assert.assertTrue(compressed.getSerializedSize() < proto.getSerializedSize());
+        Assert.assertEquals(proto, EnvelopeCompression.maybeDecompress(compressed, proto.getSerializedSize()));
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testExceedingMaxSizeIsRejected() throws InvalidProtocolBufferException {
+        protobuf.NetworkEnvelope proto = getBundle(10_000);
+        protobuf.NetworkEnvelope compressed = EnvelopeCompression.maybeCompress(proto);
+        EnvelopeCompression.maybeDecompress(compressed, proto.getSerializedSize() - 1);
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testWrongUncompressedSizeIsRejected() throws InvalidProtocolBufferException {
+        protobuf.NetworkEnvelope compressed = EnvelopeCompression.maybeCompress(getBundle(10_000));
+        protobuf.NetworkEnvelope forged = compressed.toBuilder()
+                .setCompressedEnvelope(compressed.getCompressedEnvelope().toBuilder()
+                        .setUncompressedSize(EnvelopeCompression.COMPRESSION_THRESHOLD))
+                .build();
+        EnvelopeCompression.maybeDecompress(forged, Integer.MAX_VALUE);
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testInvalidDataIsRejected() throws InvalidProtocolBufferException {
+        protobuf.NetworkEnvelope forged = protobuf.NetworkEnvelope.newBuilder()
+                .setCompressedEnvelope(protobuf.CompressedEnvelope.newBuilder()
+                        .setCompressedNetworkEnvelope(ByteString.copyFromUtf8("not deflated"))
+                        .setUncompressedSize(100))
+                .build();
+        EnvelopeCompression.maybeDecompress(forged, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.getdata.messages.GetDataChunkRequest;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GetDataRequestHandlerTest {
+    private static final int NONCE = 1;
+
+    private NetworkNode networkNode;
+    private P2PDataStorage dataStorage;
+    private Connection connection;
+    private GetDataRequestHandler.Listener listener;
+    private GetDataRequestHandler handler;
+    private Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> protectedStorageEntries;
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> persistableNetworkPayloads;
+
+    @Before
+    public void setUp() {
+        networkNode = mock(NetworkNode.class);
+        dataStorage = mock(P2PDataStorage.class);
+        connection = mock(Connection.class);
+        listener = mock(GetDataRequestHandler.Listener.class);
+
+        when(connection.getUid()).thenReturn("uid");
+        when(connection.getPeersNodeAddressOptional()).thenReturn(Optional.empty());
+        when(networkNode.sendMessage(eq(connection), any())).thenAnswer(invocation -> {
+            SettableFuture<Connection> future = SettableFuture.create();
+            future.set(connection);
+            return future;
+        });
+
+        protectedStorageEntries = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            protectedStorageEntries.put(new P2PDataStorage.ByteArray(new byte[]{(byte) i}),
+                    mock(ProtectedStorageEntry.class));
+        }
+        persistableNetworkPayloads = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            byte[] hash = new byte[]{(byte) i};
+            persistableNetworkPayloads.put(new P2PDataStorage.ByteArray(hash), new PersistableNetworkPayloadStub(hash));
+        }
+        when(dataStorage.buildGetDataResponse(any(), anyInt(), any(), any(), any()))
+                .thenReturn(new GetDataResponse(new HashSet<>(protectedStorageEntries.values()),
+                        new HashSet<>(persistableNetworkPayloads.values()),
+                        NONCE,
+                        false));
+        when(dataStorage.getProtectedStorageEntriesPage(any(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> getPage(protectedStorageEntries,
+                        invocation.getArgument(2),
+                        invocation.getArgument(3)));
+        when(dataStorage.getPersistableNetworkPayloadsPage(any(), any(), any(), anyLong(), any(), anyInt()))
+                .thenAnswer(invocation -> getPage(persistableNetworkPayloads,
+                        invocation.getArgument(4),
+                        invocation.getArgument(5)));
+
+        handler = new GetDataRequestHandler(networkNode, dataStorage, listener, 2, 2);
+    }
+
+    @After
+    public void tearDown() {
+        handler.stop();
+    }
+
+    @Test
+    public void handle_LegacyPeerGetsSingleResponse() {
+        when(connection.getCapabilities()).thenReturn(new Capabilities());
+
+        handler.handle(new PreliminaryGetDataRequest(NONCE, new HashSet<>()), connection);
+
+        List<GetDataResponse> responses = getSentResponses(1);
+        assertFalse(responses.get(0).hasMoreChunks());
+        assertEquals(3, responses.get(0).getDataSet().size());
+        assertEquals(5, responses.get(0).getPersistableNetworkPayloadSet().size());
+        verify(listener).onComplete();
+    }
+
+    @Test
+    public void handle_ChunkedResponse() {
+        when(connection.getCapabilities()).thenReturn(new Capabilities(Capability.GET_DATA_RESPONSE_CHUNKS));
+
+        handler.handle(new PreliminaryGetDataRequest(NONCE, new HashSet<>()), connection);
+        verify(dataStorage, never()).buildGetDataResponse(any(), anyInt(), any(), any(), any());
+
+        // 2 chunks with ProtectedStorageEntries, 3 chunks with PersistableNetworkPayloads
+        for (int i = 1; i < 5; i++) {
+            GetDataResponse last = getSentResponses(i).get(i - 1);
+            assertTrue(last.hasMoreChunks());
+            verify(listener, never()).onComplete();
+            handler.onChunkRequest(new GetDataChunkRequest(NONCE, last.getNextChunkCursor()), connection);
+        }
+
+        List<GetDataResponse> responses = getSentResponses(5);
+        assertFalse(responses.get(4).hasMoreChunks());
+        verify(listener).onComplete();
+
+        Set<ProtectedStorageEntry> receivedEntries = new HashSet<>();
+        Set<PersistableNetworkPayload> receivedPayloads = new HashSet<>();
+        responses.forEach(response -> {
+            assertEquals(NONCE, response.getRequestNonce());
+            assertTrue(response.getDataSet().size() <= 2);
+            assertTrue(response.getPersistableNetworkPayloadSet().size() <= 2);
+            receivedEntries.addAll(response.getDataSet());
+            receivedPayloads.addAll(response.getPersistableNetworkPayloadSet());
+        });
+        assertEquals(new HashSet<>(protectedStorageEntries.values()), receivedEntries);
+        assertEquals(new HashSet<>(persistableNetworkPayloads.values()), receivedPayloads);
+    }
+
+    @Test
+    public void onChunkRequest_UnexpectedCursorIsFault() {
+        when(connection.getCapabilities()).thenReturn(new Capabilities(Capability.GET_DATA_RESPONSE_CHUNKS));
+
+        handler.handle(new PreliminaryGetDataRequest(NONCE, new HashSet<>()), connection);
+        handler.onChunkRequest(new GetDataChunkRequest(NONCE, 7), connection);
+
+        getSentResponses(1);
+        verify(listener).onFault(any(), eq(connection));
+        verify(listener, never()).onComplete();
+    }
+
+    @Test
+    public void onChunkRequest_WrongNonceIsFault() {
+        when(connection.getCapabilities()).thenReturn(new Capabilities(Capability.GET_DATA_RESPONSE_CHUNKS));
+
+        handler.handle(new PreliminaryGetDataRequest(NONCE, new HashSet<>()), connection);
+        GetDataResponse first = getSentResponses(1).get(0);
+        handler.onChunkRequest(new GetDataChunkRequest(NONCE + 1, first.getNextChunkCursor()), connection);
+
+        verify(listener).onFault(any(), eq(connection));
+    }
+
+    // Keys of the test data have a single byte
+    private static <T> SortedMap<P2PDataStorage.ByteArray, T> getPage(Map<P2PDataStorage.ByteArray, T> map,
+                                                                      P2PDataStorage.ByteArray afterKey,
+                                                                      int pageSize) {
+        TreeMap<P2PDataStorage.ByteArray, T> page = new TreeMap<>(Comparator.comparingInt(key -> key.bytes[0]));
+        map.forEach((key, value) -> {
+            if (afterKey == null || key.bytes[0] > afterKey.bytes[0])
+                page.put(key, value);
+        });
+        while (page.size() > pageSize) {
+            page.pollLastEntry();
+        }
+        return page;
+    }
+
+    private List<GetDataResponse> getSentResponses(int expectedNumResponses) {
+        ArgumentCaptor<GetDataResponse> captor = ArgumentCaptor.forClass(GetDataResponse.class);
+        verify(networkNode, times(expectedNumResponses)).sendMessage(eq(connection), captor.capture());
+        return new ArrayList<>(captor.getAllValues());
+    }
+}
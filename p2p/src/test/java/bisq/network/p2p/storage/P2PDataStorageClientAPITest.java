@@ -17,10 +17,12 @@
 
 package bisq.network.p2p.storage;
 
+import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.TestUtils;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RefreshOffersMessage;
 import bisq.network.p2p.storage.mocks.ExpirableProtectedStoragePayloadStub;
 import bisq.network.p2p.storage.payload.MailboxStoragePayload;
 import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
@@ -33,13 +35,18 @@ import bisq.common.crypto.CryptoException;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import static bisq.network.p2p.storage.TestState.*;
@@ -150,6 +157,55 @@ public class P2PDataStorageClientAPITest {
         this.testState.verifyRefreshTTL(beforeState, refreshOfferMessage, true);
     }
 
+    // TESTCASE: A RefreshOffersMessage refreshes all contained items and is broadcast as one message
+    @Test
+    public void refreshTTL_Batch() throws NoSuchAlgorithmException, CryptoException {
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+
+        KeyPair ownerKeys2 = TestUtils.generateKeyPair();
+
+        // The hash of the stub payload is derived from the owner key, so we need different keys for different payloads
+        ProtectedStoragePayload payload1 = new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic());
+        ProtectedStoragePayload payload2 = new ExpirableProtectedStoragePayloadStub(ownerKeys2.getPublic());
+        this.testState.mockedStorage.addProtectedStorageEntry(this.testState.mockedStorage.getProtectedStorageEntry(payload1, ownerKeys), TestState.getTestNodeAddress(), null);
+        this.testState.mockedStorage.addProtectedStorageEntry(this.testState.mockedStorage.getProtectedStorageEntry(payload2, ownerKeys2), TestState.getTestNodeAddress(), null);
+
+        RefreshOfferMessage refresh1 = this.testState.mockedStorage.getRefreshTTLMessage(payload1, ownerKeys);
+        RefreshOfferMessage refresh2 = this.testState.mockedStorage.getRefreshTTLMessage(payload2, ownerKeys2);
+        RefreshOffersMessage refreshOffersMessage = new RefreshOffersMessage(Arrays.asList(refresh1, refresh2));
+
+        this.testState.incrementClock();
+        reset(this.testState.mockBroadcaster);
+
+        Assert.assertEquals(2, this.testState.mockedStorage.refreshTTL(refreshOffersMessage, TestState.getTestNodeAddress()));
+
+        Assert.assertEquals(refresh1.getSequenceNumber(), this.testState.mockedStorage.getMap().get(new P2PDataStorage.ByteArray(refresh1.getHashOfPayload())).getSequenceNumber());
+        Assert.assertEquals(refresh2.getSequenceNumber(), this.testState.mockedStorage.getMap().get(new P2PDataStorage.ByteArray(refresh2.getHashOfPayload())).getSequenceNumber());
+        verify(this.testState.mockBroadcaster).broadcast(eq(refreshOffersMessage), nullable(NodeAddress.class));
+    }
+
+    // TESTCASE: Invalid entries of a RefreshOffersMessage are dropped and only the applied refreshes are broadcast
+    @Test
+    public void refreshTTL_BatchWithUnknownEntry() throws NoSuchAlgorithmException, CryptoException {
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+
+        KeyPair ownerKeys2 = TestUtils.generateKeyPair();
+
+        ProtectedStoragePayload payload1 = new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic());
+        ProtectedStoragePayload unknownPayload = new ExpirableProtectedStoragePayloadStub(ownerKeys2.getPublic());
+        this.testState.mockedStorage.addProtectedStorageEntry(this.testState.mockedStorage.getProtectedStorageEntry(payload1, ownerKeys), TestState.getTestNodeAddress(), null);
+
+        RefreshOfferMessage refresh1 = this.testState.mockedStorage.getRefreshTTLMessage(payload1, ownerKeys);
+        RefreshOfferMessage unknownRefresh = this.testState.mockedStorage.getRefreshTTLMessage(unknownPayload, ownerKeys2);
+
+        this.testState.incrementClock();
+        reset(this.testState.mockBroadcaster);
+
+        Assert.assertEquals(1, this.testState.mockedStorage.refreshTTL(new RefreshOffersMessage(Arrays.asList(refresh1, unknownRefresh)), TestState.getTestNodeAddress()));
+
+        verify(this.testState.mockBroadcaster).broadcast(eq(refresh1), nullable(NodeAddress.class));
+    }
+
     // TESTCASE: Updating an entry from the getRefreshTTLMessage API correctly "refreshes" the item when it was originally added from onMessage path
     @Test
     public void getRefreshTTLMessage_FirstOnMessageSecondAPI() throws NoSuchAlgorithmException, CryptoException {
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.P2PDataStorage.ByteArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class P2PDataStorageGetPageTest {
+
+    @Test
+    public void getPage_pagesThroughAllMapsInKeyOrder() {
+        Map<ByteArray, String> map1 = new HashMap<>();
+        Map<ByteArray, String> map2 = new HashMap<>();
+        // Keys are compared as unsigned bytes
+        map1.put(key(0xff), "ff");
+        map1.put(key(0x02), "02");
+        map2.put(key(0x01), "01");
+        map2.put(key(0x80), "80");
+        map2.put(key(0x03, 0x00), "0300");
+        List<Map<ByteArray, String>> maps = Arrays.asList(map1, map2);
+
+        SortedMap<ByteArray, String> page = P2PDataStorage.getPage(maps, entry -> true, null, 2);
+        assertEquals(Arrays.asList("01", "02"), values(page));
+        page = P2PDataStorage.getPage(maps, entry -> true, page.lastKey(), 2);
+        assertEquals(Arrays.asList("0300", "80"), values(page));
+        page = P2PDataStorage.getPage(maps, entry -> true, page.lastKey(), 2);
+        assertEquals(Collections.singletonList("ff"), values(page));
+        page = P2PDataStorage.getPage(maps, entry -> true, page.lastKey(), 2);
+        assertTrue(page.isEmpty());
+    }
+
+    @Test
+    public void getPage_skipsFilteredEntries() {
+        Map<ByteArray, String> map = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(key(i), String.valueOf(i));
+        }
+
+        SortedMap<ByteArray, String> page = P2PDataStorage.getPage(Collections.singletonList(map),
+                entry -> Integer.parseInt(entry.getValue()) % 2 == 1,
+                key(2),
+                3);
+        assertEquals(Arrays.asList("3", "5", "7"), values(page));
+    }
+
+    @Test
+    public void getPage_containsEntriesOfMultipleMapsOnce() {
+        Map<ByteArray, String> map1 = Collections.singletonMap(key(1), "1");
+        Map<ByteArray, String> map2 = Collections.singletonMap(key(1), "1");
+
+        SortedMap<ByteArray, String> page = P2PDataStorage.getPage(Arrays.asList(map1, map2), entry -> true, null, 5);
+        assertEquals(Collections.singletonList("1"), values(page));
+    }
+
+    private static ByteArray key(int... bytes) {
+        byte[] result = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            result[i] = (byte) bytes[i];
+        }
+        return new ByteArray(result);
+    }
+
+    private static List<String> values(SortedMap<ByteArray, String> page) {
+        return new ArrayList<>(page.values());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import com.google.protobuf.ByteString;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.network.p2p.storage.TestState.getTestNodeAddress;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that the inbound envelope filter of the P2PDataStorage drops an AddDataMessage exactly when
+ * addProtectedStorageEntry would ignore it because we have the payload already with an equal or higher sequence
+ * number. The filter works on the raw proto, so the payloads of the entries return real protobuf messages to get the
+ * same hashes as for the received bytes.
+ */
+public class P2PDataStorageIsRedundantTest {
+    private TestState testState;
+    private ProtectedStoragePayload payload;
+
+    @Before
+    public void setUp() {
+        testState = new TestState();
+        payload = buildPayload(new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void isRedundant_sameSequenceNumber() {
+        addStoredEntry(ProtectedStorageEntry.class, 1);
+
+        assertRedundantExactlyWhenAddIsIgnored(ProtectedStorageEntry.class, 1, true);
+    }
+
+    @Test
+    public void isRedundant_lowerSequenceNumber() {
+        addStoredEntry(ProtectedStorageEntry.class, 2);
+
+        assertRedundantExactlyWhenAddIsIgnored(ProtectedStorageEntry.class, 1, true);
+    }
+
+    @Test
+    public void isRedundant_higherSequenceNumber() {
+        addStoredEntry(ProtectedStorageEntry.class, 1);
+
+        assertRedundantExactlyWhenAddIsIgnored(ProtectedStorageEntry.class, 2, false);
+    }
+
+    @Test
+    public void isRedundant_unknownHash() {
+        addStoredEntry(ProtectedStorageEntry.class, 1);
+        payload = buildPayload(new byte[]{4, 5, 6});
+
+        assertRedundantExactlyWhenAddIsIgnored(ProtectedStorageEntry.class, 1, false);
+    }
+
+    // E.g. the entry got removed or we restarted and non-persistent payloads need to be added again with the same
+    // sequence number
+    @Test
+    public void isRedundant_inSequenceNumberMapButNotInMap() {
+        testState.mockedStorage.sequenceNumberMap.put(P2PDataStorage.get32ByteHashAsByteArray(payload),
+                new P2PDataStorage.MapValue(1, testState.clockFake.millis()));
+
+        assertRedundantExactlyWhenAddIsIgnored(ProtectedStorageEntry.class, 1, false);
+    }
+
+    @Test
+    public void isRedundant_mailboxEntrySameSequenceNumber() {
+        addStoredEntry(ProtectedMailboxStorageEntry.class, 1);
+
+        assertRedundantExactlyWhenAddIsIgnored(ProtectedMailboxStorageEntry.class, 1, true);
+    }
+
+    @Test
+    public void isRedundant_mailboxEntryHigherSequenceNumber() {
+        addStoredEntry(ProtectedMailboxStorageEntry.class, 1);
+
+        assertRedundantExactlyWhenAddIsIgnored(ProtectedMailboxStorageEntry.class, 2, false);
+    }
+
+    @Test
+    public void isRedundant_otherMessage() {
+        protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.newBuilder()
+                .setPing(protobuf.Ping.newBuilder().setNonce(1))
+                .build();
+
+        assertFalse(testState.mockedStorage.isRedundant(proto));
+    }
+
+    private void addStoredEntry(Class<? extends ProtectedStorageEntry> entryClass, int sequenceNumber) {
+        ProtectedStorageEntry storedEntry = buildEntry(entryClass, sequenceNumber);
+        assertTrue(testState.mockedStorage.addProtectedStorageEntry(storedEntry, getTestNodeAddress(), null));
+    }
+
+    // The filter must be asked before the add as the add changes the state
+    private void assertRedundantExactlyWhenAddIsIgnored(Class<? extends ProtectedStorageEntry> entryClass,
+                                                        int sequenceNumber,
+                                                        boolean expectedRedundant) {
+        boolean isMailboxEntry = entryClass == ProtectedMailboxStorageEntry.class;
+        protobuf.NetworkEnvelope proto = buildAddDataMessageProto(sequenceNumber, isMailboxEntry);
+        assertEquals(expectedRedundant, testState.mockedStorage.isRedundant(proto));
+
+        ProtectedStorageEntry entry = buildEntry(entryClass, sequenceNumber);
+        assertEquals(!expectedRedundant, testState.mockedStorage.addProtectedStorageEntry(entry, getTestNodeAddress(), null));
+    }
+
+    private ProtectedStorageEntry buildEntry(Class<? extends ProtectedStorageEntry> entryClass, int sequenceNumber) {
+        ProtectedStorageEntry entry = mock(entryClass);
+        when(entry.getProtectedStoragePayload()).thenReturn(payload);
+        when(entry.getSequenceNumber()).thenReturn(sequenceNumber);
+        when(entry.isValidForAddOperation()).thenReturn(true);
+        when(entry.matchesRelevantPubKey(any(ProtectedStorageEntry.class))).thenReturn(true);
+        return entry;
+    }
+
+    private protobuf.NetworkEnvelope buildAddDataMessageProto(int sequenceNumber, boolean isMailboxEntry) {
+        protobuf.ProtectedStorageEntry entry = protobuf.ProtectedStorageEntry.newBuilder()
+                .setStoragePayload((protobuf.StoragePayload) payload.toProtoMessage())
+                .setSequenceNumber(sequenceNumber)
+                .build();
+        protobuf.StorageEntryWrapper.Builder entryWrapper = protobuf.StorageEntryWrapper.newBuilder();
+        if (isMailboxEntry)
+            entryWrapper.setProtectedMailboxStorageEntry(protobuf.ProtectedMailboxStorageEntry.newBuilder().setEntry(entry));
+        else
+            entryWrapper.setProtectedStorageEntry(entry);
+
+        return protobuf.NetworkEnvelope.newBuilder()
+                .setAddDataMessage(protobuf.AddDataMessage.newBuilder().setEntry(entryWrapper))
+                .build();
+    }
+
+    private static ProtectedStoragePayload buildPayload(byte[] ownerPubKeyBytes) {
+        protobuf.StoragePayload proto = protobuf.StoragePayload.newBuilder()
+                .setMailboxStoragePayload(protobuf.MailboxStoragePayload.newBuilder()
+                        .setOwnerPubKeyBytes(ByteString.copyFrom(ownerPubKeyBytes)))
+                .build();
+        ProtectedStoragePayload payload = mock(ProtectedStoragePayload.class);
+        when(payload.toProtoMessage()).thenReturn(proto);
+        return payload;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimestampIndexTest {
+
+    @Test
+    public void pollBefore_ReturnsOnlyPassedKeys() {
+        TimestampIndex<String> index = new TimestampIndex<>();
+        index.put("a", 10);
+        index.put("b", 20);
+        index.put("c", 30);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(index.pollBefore(21)));
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals(Collections.emptyList(), index.pollBefore(21));
+        Assert.assertEquals(Collections.singletonList("c"), index.pollBefore(31));
+    }
+
+    @Test
+    public void pollBefore_UsesLatestTimestamp() {
+        TimestampIndex<String> index = new TimestampIndex<>();
+        index.put("a", 10);
+        index.put("a", 50);
+
+        Assert.assertEquals(Collections.emptyList(), index.pollBefore(20));
+        Assert.assertEquals(Collections.singletonList("a"), index.pollBefore(51));
+    }
+
+    @Test
+    public void pollBefore_SkipsRemovedKeys() {
+        TimestampIndex<String> index = new TimestampIndex<>();
+        index.put("a", 10);
+        index.put("b", 10);
+        index.remove("a");
+
+        Assert.assertEquals(Collections.singletonList("b"), index.pollBefore(11));
+        Assert.assertEquals(0, index.size());
+    }
+
+    @Test
+    public void put_CompactsOutdatedItems() {
+        TimestampIndex<String> index = new TimestampIndex<>();
+        for (int i = 0; i < 10_000; i++) {
+            index.put("a", i);
+        }
+
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals(Collections.emptyList(), index.pollBefore(9_999));
+        Assert.assertEquals(Collections.singletonList("a"), index.pollBefore(10_000));
+    }
+}
@@ -19,24 +19,57 @@ package bisq.price;
 
 import org.springframework.context.SmartLifecycle;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import java.time.Duration;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Base class for providers which poll their data periodically and serve the last result.
+ *
+ * All providers share one scheduler and one polling thread pool, so the providers are
+ * polled concurrently and a slow provider does not delay the others. A refresh of a
+ * provider is only started if its previous refresh has completed. If a refresh takes
+ * longer than the refresh timeout we keep serving the last result and count a timeout.
+ * The result of the slow refresh is still applied once it arrives.
+ */
 public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
     protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
-    private final Timer timer = new Timer(true);
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("PriceProvider-scheduler").setDaemon(true).build());
+    // At most one refresh per provider is in progress, so the number of threads is
+    // bounded by the number of providers
+    private static final ExecutorService POLLING_EXECUTOR = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("PriceProvider-polling-%d").setDaemon(true).build());
 
     protected final Duration refreshInterval;
 
-    private T cachedResult;
+    private volatile T cachedResult;
+
+    private ScheduledFuture<?> scheduledRefresh;
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+
+    // Metrics
+    private volatile long lastRefreshTs;
+    private volatile long lastRefreshDuration;
+    private volatile int consecutiveFailures;
+    private volatile int numTimeouts;
 
     public PriceProvider(Duration refreshInterval) {
         this.refreshInterval = refreshInterval;
@@ -53,31 +86,93 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
     @Override
     public final void start() {
-        // we call refresh outside the context of a timer once at startup to ensure that
-        // any exceptions thrown get propagated and cause the application to halt
-        refresh();
+        // we call refresh outside the context of the scheduler once at startup to ensure
+        // that any exceptions thrown get propagated and cause the application to halt
+        long ts = System.currentTimeMillis();
+        applyResult(doGet(), ts);
+
+        scheduledRefresh = SCHEDULER.scheduleAtFixedRate(this::maybeRefresh,
+                refreshInterval.toMillis(),
+                refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Max. duration of a refresh before we count it as timed out. By default the
+     * refresh interval, can be overwritten by each provider.
+     */
+    protected Duration getRefreshTimeout() {
+        return refreshInterval;
+    }
 
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
+    /**
+     * @return Freshness and latency metrics of this provider
+     */
+    public Map<String, Object> getStatus() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("lastRefreshTs", lastRefreshTs);
+        status.put("ageMs", lastRefreshTs > 0 ? now - lastRefreshTs : -1);
+        status.put("lastRefreshDurationMs", lastRefreshDuration);
+        status.put("consecutiveFailures", consecutiveFailures);
+        status.put("numTimeouts", numTimeouts);
+        status.put("stale", isStale(now));
+        return status;
+    }
+
+    /**
+     * @return True if we have not had a successful refresh within two refresh intervals
+     */
+    public boolean isStale() {
+        return isStale(System.currentTimeMillis());
+    }
+
+    private boolean isStale(long now) {
+        return now - lastRefreshTs > 2 * refreshInterval.toMillis();
+    }
+
+    private void maybeRefresh() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            log.warn("previous refresh still in progress, we skip that refresh");
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        CompletableFuture<T> refresh = CompletableFuture.supplyAsync(this::doGet, POLLING_EXECUTOR);
+        refresh.whenComplete((result, throwable) -> {
+            refreshInProgress.set(false);
+            if (throwable != null) {
+                consecutiveFailures++;
+                // we only log scheduled calls to refresh that fail to ensure that
+                // the application does *not* halt, assuming the failure is temporary
+                // and on the side of the upstream price provider, eg. BitcoinAverage
+                log.warn("refresh failed", throwable);
+            } else {
                 try {
-                    refresh();
+                    applyResult(result, ts);
                 } catch (Throwable t) {
-                    // we only log scheduled calls to refresh that fail to ensure that
-                    // the application does *not* halt, assuming the failure is temporary
-                    // and on the side of the upstream price provider, eg. BitcoinAverage
                     log.warn("refresh failed", t);
                 }
             }
-        }, refreshInterval.toMillis(), refreshInterval.toMillis());
+        });
+        refresh.copy()
+                .orTimeout(getRefreshTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(throwable -> {
+                    if (throwable instanceof TimeoutException) {
+                        numTimeouts++;
+                        log.warn("refresh did not complete within {}. We keep the last result.", getRefreshTimeout());
+                    }
+                    return null;
+                });
     }
 
-    private void refresh() {
-        long ts = System.currentTimeMillis();
-
-        cachedResult = doGet();
+    private void applyResult(T result, long startTs) {
+        cachedResult = result;
+        lastRefreshTs = System.currentTimeMillis();
+        lastRefreshDuration = lastRefreshTs - startTs;
+        consecutiveFailures = 0;
 
-        log.info("refresh took {} ms.", (System.currentTimeMillis() - ts));
+        log.info("refresh took {} ms.", lastRefreshDuration);
 
         onRefresh();
     }
@@ -89,7 +184,8 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
     @Override
     public void stop() {
-        timer.cancel();
+        if (scheduledRefresh != null)
+            scheduledRefresh.cancel(false);
     }
 
     @Override
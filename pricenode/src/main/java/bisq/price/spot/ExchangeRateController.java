@@ -19,7 +19,13 @@ package bisq.price.spot;
 
 import bisq.price.PriceController;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
@@ -33,8 +39,44 @@ class ExchangeRateController extends PriceController {
         this.exchangeRateService = exchangeRateService;
     }
 
+    /**
+     * Delivers the pre-serialized json of the current snapshot. Clients sending the ETag
+     * of the current snapshot in the If-None-Match header get a 304 without body.
+     */
     @GetMapping(path = "/getAllMarketPrices")
-    public Map<String, Object> getAllMarketPrices() {
-        return exchangeRateService.getAllMarketPrices();
+    public ResponseEntity<byte[]> getAllMarketPrices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExchangeRateSnapshot snapshot = exchangeRateService.getSnapshot();
+        if (snapshot.getETag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getETag())
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getGzippedJson());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    /**
+     * @param sinceVersion The version of the last snapshot the client has applied (see
+     *                     "version" field of the response)
+     * @return The rates changed since the given version
+     */
+    @GetMapping(path = "/getMarketPricesDelta")
+    public Map<String, Object> getMarketPricesDelta(@RequestParam(value = "sinceVersion", defaultValue = "0") long sinceVersion) {
+        return exchangeRateService.getSnapshot().getDelta(sinceVersion);
+    }
+
+    @GetMapping(path = "/getProviderStatus")
+    public Map<String, Object> getProviderStatus() {
+        return exchangeRateService.getProviderStatus();
     }
 }
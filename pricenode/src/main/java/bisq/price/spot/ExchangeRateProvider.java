@@ -18,6 +18,7 @@
 package bisq.price.spot;
 
 import bisq.price.PriceProvider;
+import bisq.price.util.TokenBucket;
 
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.TradeCurrency;
@@ -44,6 +45,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -69,6 +71,8 @@ public abstract class ExchangeRateProvider extends PriceProvider<Set<ExchangeRat
 
     private final String name;
     private final String prefix;
+    // Created lazily as getMarketDataCallDelay() is overwritten by the subclasses
+    private TokenBucket marketDataCallLimiter;
 
     public ExchangeRateProvider(String name, String prefix, Duration refreshInterval) {
         super(refreshInterval);
@@ -195,13 +199,11 @@ public abstract class ExchangeRateProvider extends PriceProvider<Set<ExchangeRat
                         try {
 
                             // This is done in a loop, and can therefore result in a burst
-                            // of API calls. Some exchanges do not allow bursts
-                            // A simplistic solution is to delay every call by 1 second
-                            // TODO Switch to using a more elegant solution (per exchange)
-                            // like ResilienceSpecification (needs knowm xchange libs v5)
-                            if (getMarketDataCallDelay() > 0) {
-                                Thread.sleep(getMarketDataCallDelay());
-                            }
+                            // of API calls. Some exchanges do not allow bursts, so we
+                            // limit the calls with the rate limiter of this exchange.
+                            // As all providers are polled concurrently this only delays
+                            // the refresh of this provider.
+                            acquireMarketDataCallPermit();
 
                             Ticker ticker = marketDataService.getTicker(cp);
                             finalTickersRetrievedFromExchange.add(ticker);
@@ -258,12 +260,27 @@ public abstract class ExchangeRateProvider extends PriceProvider<Set<ExchangeRat
         return result;
     }
 
+    private void acquireMarketDataCallPermit() throws InterruptedException {
+        long delay = getMarketDataCallDelay();
+        if (delay <= 0)
+            return;
+
+        TokenBucket limiter;
+        synchronized (this) {
+            if (marketDataCallLimiter == null)
+                marketDataCallLimiter = new TokenBucket(1, delay, TimeUnit.MILLISECONDS);
+            limiter = marketDataCallLimiter;
+        }
+        limiter.acquire();
+    }
+
     /**
      * Specifies optional delay between certain kind of API calls that can result in
      * bursts. We want to avoid bursts, because this can cause certain exchanges to
      * temporarily restrict access to the pricenode IP.
      *
      * @return Amount of milliseconds of delay between marketDataService.getTicker calls.
+     * Used as refill interval of the rate limiter of this provider.
      * By default 0, but can be overwritten by each provider.
      */
     protected long getMarketDataCallDelay() {
@@ -22,7 +22,6 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -45,6 +44,10 @@ class ExchangeRateService {
 
     private final List<ExchangeRateProvider> providers;
 
+    private ExchangeRateSnapshot snapshot;
+    // The provider results the snapshot was built from
+    private List<Set<ExchangeRate>> snapshotProviderResults;
+
     /**
      * Construct an {@link ExchangeRateService} with a list of all
      * {@link ExchangeRateProvider} implementations discovered via classpath scanning.
@@ -57,30 +60,58 @@ class ExchangeRateService {
     }
 
     public Map<String, Object> getAllMarketPrices() {
-        Map<String, Object> metadata = new LinkedHashMap<>();
-        Map<String, ExchangeRate> aggregateExchangeRates = getAggregateExchangeRates();
-
-        providers.forEach(p -> {
-            Set<ExchangeRate> exchangeRates = p.get();
+        return getSnapshot().getAllMarketPrices();
+    }
 
+    /**
+     * @return The current snapshot. It is rebuilt only if at least one provider has
+     * refreshed its rates since the last snapshot was built, otherwise the cached
+     * snapshot is returned.
+     */
+    public synchronized ExchangeRateSnapshot getSnapshot() {
+        // Providers replace their cached result at each refresh, so we can detect a
+        // refresh by comparing the identity of the results
+        List<Set<ExchangeRate>> providerResults = new ArrayList<>(providers.size());
+        providers.forEach(p -> providerResults.add(p.get()));
+        if (snapshot != null && isSameInstances(providerResults, snapshotProviderResults))
+            return snapshot;
+
+        long ts = System.currentTimeMillis();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < providers.size(); i++) {
             // Specific metadata fields for specific providers are expected by the client,
             // mostly for historical reasons
             // Therefore, add metadata fields for all known providers
             // Rates are encapsulated in the "data" map below
-            metadata.putAll(getMetadata(p, exchangeRates));
-        });
+            metadata.putAll(getMetadata(providers.get(i), providerResults.get(i)));
+        }
 
-        LinkedHashMap<String, Object> result = new LinkedHashMap<>();
-        result.putAll(metadata);
-        // Use a sorted list by currency code to make comparision of json data between
-        // different price nodes easier
-        List<ExchangeRate> values = new ArrayList<>(aggregateExchangeRates.values());
-        values.sort(Comparator.comparing(ExchangeRate::getCurrency));
-        result.put("data", values);
+        snapshot = ExchangeRateSnapshot.create(snapshot, metadata, getAggregateExchangeRates(providerResults));
+        snapshotProviderResults = providerResults;
+        log.info("Building snapshot with version {} took {} ms", snapshot.getVersion(), System.currentTimeMillis() - ts);
+        return snapshot;
+    }
 
+    /**
+     * @return Freshness and latency metrics of all providers, indexed by provider prefix
+     */
+    public Map<String, Object> getProviderStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        providers.forEach(p -> result.put(p.getPrefix(), p.getStatus()));
         return result;
     }
 
+    private static boolean isSameInstances(List<Set<ExchangeRate>> list, List<Set<ExchangeRate>> other) {
+        if (list.size() != other.size())
+            return false;
+
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) != other.get(i))
+                return false;
+        }
+        return true;
+    }
+
     /**
      * For each currency, create an aggregate {@link ExchangeRate} based on the currency's
      * rates from all providers. If multiple providers have rates for the currency, then
@@ -90,13 +121,13 @@ class ExchangeRateService {
      * @return Aggregate {@link ExchangeRate}s based on info from all providers, indexed
      * by currency code
      */
-    private Map<String, ExchangeRate> getAggregateExchangeRates() {
+    private Map<String, ExchangeRate> getAggregateExchangeRates(List<Set<ExchangeRate>> providerResults) {
         Map<String, ExchangeRate> aggregateExchangeRates = new HashMap<>();
 
         // Query all providers and collect all exchange rates, grouped by currency code
         // key = currency code
         // value = list of exchange rates
-        Map<String, List<ExchangeRate>> currencyCodeToExchangeRates = getCurrencyCodeToExchangeRates();
+        Map<String, List<ExchangeRate>> currencyCodeToExchangeRates = getCurrencyCodeToExchangeRates(providerResults);
 
         // For each currency code, calculate aggregate rate
         currencyCodeToExchangeRates.forEach((currencyCode, exchangeRateList) -> {
@@ -133,10 +164,10 @@ class ExchangeRateService {
     /**
      * @return All {@link ExchangeRate}s from all providers, grouped by currency code
      */
-    private Map<String, List<ExchangeRate>> getCurrencyCodeToExchangeRates() {
+    private Map<String, List<ExchangeRate>> getCurrencyCodeToExchangeRates(List<Set<ExchangeRate>> providerResults) {
         Map<String, List<ExchangeRate>> currencyCodeToExchangeRates = new HashMap<>();
-        for (ExchangeRateProvider p : providers) {
-            for (ExchangeRate exchangeRate : p.get()) {
+        for (Set<ExchangeRate> exchangeRates : providerResults) {
+            for (ExchangeRate exchangeRate : exchangeRates) {
                 String currencyCode = exchangeRate.getCurrency();
                 if (currencyCodeToExchangeRates.containsKey(currencyCode)) {
                     List<ExchangeRate> l = new ArrayList<>(currencyCodeToExchangeRates.get(currencyCode));
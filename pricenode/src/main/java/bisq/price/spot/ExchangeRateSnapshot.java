@@ -0,0 +1,214 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable result of aggregating the rates of all providers. A new snapshot is only
+ * created if one of the providers has refreshed its rates, so the aggregation and the
+ * serialization to json (plain and gzip compressed) are done once per refresh and not
+ * once per request.
+ *
+ * Each snapshot has a version which is strictly increasing within the lifetime of the
+ * pricenode. Together with the version at which each currency's rate was last changed
+ * it allows to deliver only the rates changed since a version known by the client.
+ */
+class ExchangeRateSnapshot {
+    // Same output as the Spring managed ObjectMapper configured in application.properties
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final long version;
+    // Version of the first snapshot of this pricenode. We cannot deliver deltas for older
+    // versions as we do not know what has changed since then.
+    private final long firstVersion;
+    private final Map<String, Object> metadata;
+    private final Map<String, ExchangeRate> exchangeRates;
+    private final Map<String, Long> versionByCurrency;
+    private final Map<String, Long> removedVersionByCurrency;
+    private final Map<String, Object> allMarketPrices;
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private final String eTag;
+
+    /**
+     * @param previous      The previous snapshot or null if it is the first one
+     * @param metadata      The metadata fields of all providers
+     * @param exchangeRates The aggregated rates by currency code
+     */
+    static ExchangeRateSnapshot create(ExchangeRateSnapshot previous,
+                                       Map<String, Object> metadata,
+                                       Map<String, ExchangeRate> exchangeRates) {
+        // We use the time as version so that clients which got a version from before a
+        // restart most likely get a full update and not a wrong delta.
+        long version = previous == null ?
+                System.currentTimeMillis() :
+                Math.max(previous.version + 1, System.currentTimeMillis());
+        long firstVersion = previous == null ? version : previous.firstVersion;
+
+        Map<String, Long> versionByCurrency = new HashMap<>();
+        Map<String, Long> removedVersionByCurrency = previous == null ?
+                new HashMap<>() :
+                new HashMap<>(previous.removedVersionByCurrency);
+        exchangeRates.forEach((currencyCode, exchangeRate) -> {
+            if (previous != null && exchangeRate.equals(previous.exchangeRates.get(currencyCode))) {
+                versionByCurrency.put(currencyCode, previous.versionByCurrency.get(currencyCode));
+            } else {
+                versionByCurrency.put(currencyCode, version);
+            }
+            removedVersionByCurrency.remove(currencyCode);
+        });
+        if (previous != null) {
+            previous.exchangeRates.keySet().stream()
+                    .filter(currencyCode -> !exchangeRates.containsKey(currencyCode))
+                    .forEach(currencyCode -> removedVersionByCurrency.put(currencyCode, version));
+        }
+
+        return new ExchangeRateSnapshot(version,
+                firstVersion,
+                metadata,
+                exchangeRates,
+                versionByCurrency,
+                removedVersionByCurrency);
+    }
+
+    private ExchangeRateSnapshot(long version,
+                                 long firstVersion,
+                                 Map<String, Object> metadata,
+                                 Map<String, ExchangeRate> exchangeRates,
+                                 Map<String, Long> versionByCurrency,
+                                 Map<String, Long> removedVersionByCurrency) {
+        this.version = version;
+        this.firstVersion = firstVersion;
+        this.metadata = Collections.unmodifiableMap(new LinkedHashMap<>(metadata));
+        this.exchangeRates = Collections.unmodifiableMap(new HashMap<>(exchangeRates));
+        this.versionByCurrency = Collections.unmodifiableMap(versionByCurrency);
+        this.removedVersionByCurrency = Collections.unmodifiableMap(removedVersionByCurrency);
+
+        Map<String, Object> allMarketPrices = new LinkedHashMap<>(this.metadata);
+        // Use a sorted list by currency code to make comparision of json data between
+        // different price nodes easier
+        allMarketPrices.put("data", sorted(exchangeRates.values()));
+        this.allMarketPrices = Collections.unmodifiableMap(allMarketPrices);
+
+        try {
+            json = OBJECT_MAPPER.writeValueAsBytes(this.allMarketPrices);
+            gzippedJson = gzip(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializing market prices failed", e);
+        }
+        eTag = "\"" + version + "\"";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    long getVersion() {
+        return version;
+    }
+
+    String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return The metadata of all providers and the rates sorted by currency code
+     */
+    Map<String, Object> getAllMarketPrices() {
+        return allMarketPrices;
+    }
+
+    byte[] getJson() {
+        return json;
+    }
+
+    byte[] getGzippedJson() {
+        return gzippedJson;
+    }
+
+    /**
+     * @param sinceVersion The version of the snapshot the client has applied
+     * @return The metadata of all providers, the rates changed since the given version
+     * and the currency codes of the rates removed since then. If we cannot deliver a
+     * delta for the given version all rates are delivered and "full" is true.
+     */
+    Map<String, Object> getDelta(long sinceVersion) {
+        boolean full = sinceVersion < firstVersion || sinceVersion > version;
+
+        List<ExchangeRate> changed = new ArrayList<>();
+        versionByCurrency.forEach((currencyCode, changedVersion) -> {
+            if (full || changedVersion > sinceVersion)
+                changed.add(exchangeRates.get(currencyCode));
+        });
+        List<String> removed = new ArrayList<>();
+        if (!full) {
+            removedVersionByCurrency.forEach((currencyCode, removedVersion) -> {
+                if (removedVersion > sinceVersion)
+                    removed.add(currencyCode);
+            });
+            Collections.sort(removed);
+        }
+
+        Map<String, Object> delta = new LinkedHashMap<>(metadata);
+        delta.put("version", version);
+        delta.put("full", full);
+        delta.put("data", sorted(changed));
+        delta.put("removed", removed);
+        return delta;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static List<ExchangeRate> sorted(Iterable<ExchangeRate> exchangeRates) {
+        List<ExchangeRate> list = new ArrayList<>();
+        exchangeRates.forEach(list::add);
+        list.sort(Comparator.comparing(ExchangeRate::getCurrency));
+        return Collections.unmodifiableList(list);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+}
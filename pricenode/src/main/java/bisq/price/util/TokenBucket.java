@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simple token bucket rate limiter. The bucket holds up to capacity tokens and gets one
+ * token refilled per refill interval. Each call consumes one token, so after an idle
+ * period up to capacity calls can be made in a burst, after that the calls are spread
+ * by the refill interval.
+ */
+public class TokenBucket {
+    private final int capacity;
+    private final long refillIntervalNanos;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param capacity       Max. number of tokens, the max. burst size
+     * @param refillInterval Interval after which one token gets added
+     * @param timeUnit       Unit of the refill interval
+     */
+    public TokenBucket(int capacity, long refillInterval, TimeUnit timeUnit) {
+        if (capacity < 1 || refillInterval <= 0)
+            throw new IllegalArgumentException("capacity must be at least 1 and refillInterval must be positive");
+
+        this.capacity = capacity;
+        this.refillIntervalNanos = timeUnit.toNanos(refillInterval);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Consumes one token if available.
+     *
+     * @return True if a token was consumed
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Blocks until a token is available and consumes it.
+     *
+     * @throws InterruptedException If the thread got interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens--;
+                    return;
+                }
+                waitNanos = (long) ((1 - tokens) * refillIntervalNanos);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(1, waitNanos));
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + (double) elapsed / refillIntervalNanos);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -48,6 +48,7 @@ import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ExchangeRateServiceTest {
@@ -130,6 +131,17 @@ public class ExchangeRateServiceTest {
         assertNotEquals(0L, retrievedData.get(dummyProvider2.getPrefix() + "Ts"));
     }
 
+    @Test
+    public void getSnapshot_isReusedUntilProvidersRefresh() {
+        ExchangeRateProvider dummyProvider = buildDummyExchangeRateProvider(3);
+        ExchangeRateService service = new ExchangeRateService(Collections.singletonList(dummyProvider));
+
+        ExchangeRateSnapshot snapshot = service.getSnapshot();
+
+        assertSame(snapshot, service.getSnapshot());
+        assertSame(snapshot.getAllMarketPrices(), service.getAllMarketPrices());
+    }
+
     /**
      * Tests the scenario when multiple providers have rates for the same currencies
      */
@@ -0,0 +1,124 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExchangeRateSnapshotTest {
+
+    @Test
+    public void create_serializesOnce() throws IOException {
+        ExchangeRateSnapshot snapshot = ExchangeRateSnapshot.create(null,
+                metadata(),
+                rates(rate("EUR", 1), rate("USD", 2)));
+
+        byte[] gunzipped;
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzippedJson()))) {
+            gunzipped = inputStream.readAllBytes();
+        }
+        assertArrayEquals(snapshot.getJson(), gunzipped);
+        assertEquals("\"" + snapshot.getVersion() + "\"", snapshot.getETag());
+
+        List<ExchangeRate> data = (List<ExchangeRate>) snapshot.getAllMarketPrices().get("data");
+        assertEquals(asList("EUR", "USD"), asList(data.get(0).getCurrency(), data.get(1).getCurrency()));
+    }
+
+    @Test
+    public void getDelta_containsOnlyChangedAndRemovedRates() {
+        ExchangeRateSnapshot first = ExchangeRateSnapshot.create(null,
+                metadata(),
+                rates(rate("EUR", 1), rate("USD", 2), rate("XMR", 3)));
+        ExchangeRateSnapshot second = ExchangeRateSnapshot.create(first,
+                metadata(),
+                rates(rate("EUR", 1), rate("USD", 5), rate("BSQ", 4)));
+        assertTrue(second.getVersion() > first.getVersion());
+        assertNotEquals(first.getETag(), second.getETag());
+
+        Map<String, Object> delta = second.getDelta(first.getVersion());
+        assertEquals(second.getVersion(), delta.get("version"));
+        assertEquals(false, delta.get("full"));
+        assertEquals(asList("BSQ", "USD"), currencies(delta));
+        assertEquals(singletonList("XMR"), delta.get("removed"));
+        assertEquals(1L, delta.get("pTs"));
+
+        // Up to date clients get an empty delta
+        Map<String, Object> emptyDelta = second.getDelta(second.getVersion());
+        assertTrue(currencies(emptyDelta).isEmpty());
+        assertTrue(((List<?>) emptyDelta.get("removed")).isEmpty());
+    }
+
+    @Test
+    public void getDelta_unknownVersionDeliversAllRates() {
+        ExchangeRateSnapshot first = ExchangeRateSnapshot.create(null,
+                metadata(),
+                rates(rate("EUR", 1), rate("USD", 2)));
+        ExchangeRateSnapshot second = ExchangeRateSnapshot.create(first,
+                metadata(),
+                rates(rate("EUR", 1), rate("USD", 3)));
+
+        Map<String, Object> delta = second.getDelta(first.getVersion() - 1);
+        assertEquals(true, delta.get("full"));
+        assertEquals(asList("EUR", "USD"), currencies(delta));
+
+        delta = second.getDelta(second.getVersion() + 1);
+        assertEquals(true, delta.get("full"));
+        assertEquals(asList("EUR", "USD"), currencies(delta));
+    }
+
+    private static List<String> currencies(Map<String, Object> delta) {
+        return ((List<ExchangeRate>) delta.get("data")).stream()
+                .map(ExchangeRate::getCurrency)
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> metadata() {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("pTs", 1L);
+        metadata.put("pCount", 3);
+        return metadata;
+    }
+
+    private static ExchangeRate rate(String currency, double price) {
+        return new ExchangeRate(currency, price, 1000, "p");
+    }
+
+    private static Map<String, ExchangeRate> rates(ExchangeRate... exchangeRates) {
+        Map<String, ExchangeRate> map = new HashMap<>();
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            map.put(exchangeRate.getCurrency(), exchangeRate);
+        }
+        return map;
+    }
+}
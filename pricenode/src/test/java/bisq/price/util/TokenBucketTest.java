@@ -0,0 +1,58 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    public void tryAcquire_allowsBurstUpToCapacity() {
+        TokenBucket tokenBucket = new TokenBucket(3, 1, TimeUnit.HOURS);
+
+        assertTrue(tokenBucket.tryAcquire());
+        assertTrue(tokenBucket.tryAcquire());
+        assertTrue(tokenBucket.tryAcquire());
+        assertFalse(tokenBucket.tryAcquire());
+    }
+
+    @Test
+    public void acquire_waitsForRefill() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(1, 50, TimeUnit.MILLISECONDS);
+
+        long ts = System.nanoTime();
+        tokenBucket.acquire();
+        tokenBucket.acquire();
+        tokenBucket.acquire();
+
+        // The first token is available at once, the other two need one refill interval each
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ts) >= 90);
+    }
+
+    @Test
+    public void constructor_rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, TimeUnit.SECONDS));
+    }
+}